@@ -0,0 +1,99 @@
+package com.auditory.auditory.codec;
+
+import com.auditory.auditory.model.AuditLog;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Decodes the compact binary audit event written by the api's CodificadorAuditoria.
+ *
+ * Version 1 layout:
+ * <pre>
+ * byte     MAGIC (0xA7), never the first byte of a JSON document
+ * byte     version
+ * string   userId, action, endpoint, ipAddress, device, requestBody
+ * varlong  timestamp: zigzag(epoch millis) + 1; 0 = null
+ * </pre>
+ * Strings are a varint of the UTF-8 length + 1 (0 = null) followed by the bytes. Later
+ * versions may only append fields, so trailing bytes are ignored. Keep in sync with the api.
+ */
+public final class AuditLogCodec {
+
+    public static final byte MAGIC = (byte) 0xA7;
+    public static final byte VERSION = 1;
+
+    private AuditLogCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is not a valid binary audit event
+     */
+    public static AuditLog decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("not a binary audit event");
+        }
+        // Newer minor versions only append fields; anything we know how to read is accepted
+        if (data[1] < 1) {
+            throw new IllegalArgumentException("unsupported audit event version " + data[1]);
+        }
+        Reader reader = new Reader(data, 2);
+        AuditLog log = new AuditLog();
+        log.setUserId(reader.string());
+        log.setAction(reader.string());
+        log.setEndpoint(reader.string());
+        log.setIpAddress(reader.string());
+        log.setDevice(reader.string());
+        log.setRequestBody(reader.string());
+        long timestamp = reader.varint();
+        log.setTimestamp(timestamp == 0 ? null : Instant.ofEpochMilli(unzigzag(timestamp - 1)));
+        return log;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= data.length) {
+                    throw new IllegalArgumentException("truncated audit event");
+                }
+                byte b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        String string() {
+            long length = varint();
+            if (length == 0) {
+                return null;
+            }
+            if (length - 1 > data.length - pos) {
+                throw new IllegalArgumentException("truncated audit event");
+            }
+            String value = new String(data, pos, (int) (length - 1), StandardCharsets.UTF_8);
+            pos += (int) (length - 1);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.auditory.auditory.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Defaults for replaying audit events into Mongo. Threads (up to max-threads) and rate limit
+ * can be overridden per replay; files can only be read from under import-dir.
+ */
+@Getter
+@Component
+public class AuditReplayProperties {
+
+    private final int threads;
+    private final int maxThreads;
+    private final int batchSize;
+    private final int rateLimit;
+    private final Path importDir;
+
+    public AuditReplayProperties(
+            @Value("${audit.replay.threads:4}") int threads,
+            @Value("${audit.replay.max-threads:16}") int maxThreads,
+            @Value("${audit.replay.batch-size:1000}") int batchSize,
+            @Value("${audit.replay.rate-limit:0}") int rateLimit,
+            @Value("${audit.replay.import-dir:/data/audit-import}") String importDir) {
+        this.threads = threads;
+        this.maxThreads = maxThreads;
+        this.batchSize = batchSize;
+        this.rateLimit = rateLimit;
+        this.importDir = Path.of(importDir).toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,36 @@
+package com.auditory.auditory.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Where audit logs are stored and for how long. With "monthly" bucketing each calendar
+ * month (UTC) gets its own collection, so retention drops whole collections instead of
+ * deleting documents one by one.
+ */
+@Getter
+@Component
+public class AuditStorageProperties {
+
+    public enum Bucketing {
+        none,
+        monthly
+    }
+
+    private final String collection;
+    private final Bucketing bucketing;
+    private final int retentionDays;
+    private final long retentionCheckIntervalMs;
+
+    public AuditStorageProperties(
+            @Value("${audit.storage.collection:audit_logs}") String collection,
+            @Value("${audit.storage.bucketing:none}") Bucketing bucketing,
+            @Value("${audit.storage.retention-days:0}") int retentionDays,
+            @Value("${audit.storage.retention-check-interval-ms:3600000}") long retentionCheckIntervalMs) {
+        this.collection = collection;
+        this.bucketing = bucketing;
+        this.retentionDays = retentionDays;
+        this.retentionCheckIntervalMs = retentionCheckIntervalMs;
+    }
+}
@@ -0,0 +1,47 @@
+package com.auditory.auditory.config;
+
+import java.util.UUID;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the audit Redis Stream shared by the listener container and the reclaimer.
+ * Every instance joins the same consumer group under its own consumer name.
+ */
+@Getter
+@Component
+public class AuditStreamProperties {
+
+    private final String key;
+    private final String group;
+    private final String consumer;
+    private final String deadLetterKey;
+    private final int batchSize;
+    private final long pollTimeoutMs;
+    private final long claimMinIdleMs;
+    private final long reclaimIntervalMs;
+    private final int maxDeliveries;
+
+    public AuditStreamProperties(
+            @Value("${audit.stream.key:audit-stream}") String key,
+            @Value("${audit.stream.group:audit-service}") String group,
+            @Value("${audit.stream.consumer:}") String consumer,
+            @Value("${audit.stream.dead-letter-key:audit-stream-dlq}") String deadLetterKey,
+            @Value("${audit.stream.batch-size:500}") int batchSize,
+            @Value("${audit.stream.poll-timeout-ms:2000}") long pollTimeoutMs,
+            @Value("${audit.stream.claim-min-idle-ms:60000}") long claimMinIdleMs,
+            @Value("${audit.stream.reclaim-interval-ms:30000}") long reclaimIntervalMs,
+            @Value("${audit.stream.max-deliveries:10}") int maxDeliveries) {
+        this.key = key;
+        this.group = group;
+        this.consumer = consumer == null || consumer.isBlank() ? "audit-" + UUID.randomUUID() : consumer;
+        this.deadLetterKey = deadLetterKey;
+        this.batchSize = batchSize;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.claimMinIdleMs = claimMinIdleMs;
+        this.reclaimIntervalMs = reclaimIntervalMs;
+        this.maxDeliveries = maxDeliveries;
+    }
+}
@@ -1,14 +1,29 @@
 package com.auditory.auditory.config;
 
 import com.auditory.auditory.listener.AuditMessageListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.RedisSystemException;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 @Configuration
 public class RedisConfig {
@@ -21,7 +36,21 @@ public class RedisConfig {
         return template;
     }
 
+    // Stream entry values are read as raw bytes: events arrive in the binary AuditLogCodec format
     @Bean
+    public RedisTemplate<String, byte[]> auditStreamTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    // Legacy transport: messages published while the service is down are lost
+    @Bean
+    @ConditionalOnProperty(name = "audit.transport", havingValue = "pubsub")
     public RedisMessageListenerContainer redisContainer(RedisConnectionFactory connectionFactory,
             MessageListenerAdapter listenerAdapter) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
@@ -31,7 +60,49 @@ public class RedisConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "audit.transport", havingValue = "pubsub")
     public MessageListenerAdapter listenerAdapter(AuditMessageListener listener) {
         return new MessageListenerAdapter(listener);
     }
+
+    // Every instance reads the stream as a member of the same consumer group, so entries are
+    // shared between instances and stay pending until acknowledged
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "audit.transport", havingValue = "stream", matchIfMissing = true)
+    public StreamMessageListenerContainer<String, MapRecord<String, String, byte[]>> streamContainer(
+            RedisConnectionFactory connectionFactory, StringRedisTemplate stringRedisTemplate,
+            AuditMessageListener listener, AuditStreamProperties properties) {
+        createGroup(stringRedisTemplate, properties);
+
+        StreamMessageListenerContainerOptions<String, MapRecord<String, String, byte[]>> options =
+                StreamMessageListenerContainerOptions.builder()
+                        .batchSize(properties.getBatchSize())
+                        .pollTimeout(Duration.ofMillis(properties.getPollTimeoutMs()))
+                        .errorHandler(e -> System.err.println("Error reading audit stream: " + e.getMessage()))
+                        .<String, byte[]>hashValueSerializer(RedisSerializer.byteArray())
+                        .build();
+        StreamMessageListenerContainer<String, MapRecord<String, String, byte[]>> container =
+                StreamMessageListenerContainer.create(connectionFactory, options);
+
+        container.register(StreamReadRequest.builder(StreamOffset.create(properties.getKey(), ReadOffset.lastConsumed()))
+                .cancelOnError(e -> false)
+                .consumer(Consumer.from(properties.getGroup(), properties.getConsumer()))
+                .autoAcknowledge(false)
+                .build(), listener);
+        return container;
+    }
+
+    private static void createGroup(StringRedisTemplate template, AuditStreamProperties properties) {
+        byte[] key = properties.getKey().getBytes(StandardCharsets.UTF_8);
+        try {
+            // From the start of the stream: a new group also picks up entries written before it existed
+            template.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(key, properties.getGroup(), ReadOffset.from("0"), true));
+        } catch (RedisSystemException e) {
+            if (e.getMostSpecificCause().getMessage() == null
+                    || !e.getMostSpecificCause().getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.auditory.auditory.controller;
+
+import com.auditory.auditory.model.AuditReplayRequest;
+import com.auditory.auditory.model.AuditReplayStatus;
+import com.auditory.auditory.service.AuditReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit-replay")
+public class AuditReplayController {
+
+    private final AuditReplayService replayService;
+
+    @Autowired
+    public AuditReplayController(AuditReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    /**
+     * Starts a replay; poll GET for its progress.
+     */
+    @PostMapping
+    public ResponseEntity<AuditReplayStatus> start(@RequestBody AuditReplayRequest request) throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(replayService.start(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<AuditReplayStatus> status() {
+        AuditReplayStatus status = replayService.status();
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<AuditReplayStatus> cancel() {
+        AuditReplayStatus status = replayService.cancel();
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,34 +1,107 @@
 package com.auditory.auditory.listener;
 
+import com.auditory.auditory.codec.AuditLogCodec;
+import com.auditory.auditory.config.AuditStreamProperties;
 import com.auditory.auditory.model.AuditLog;
 import com.auditory.auditory.service.AuditService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamListener;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
 
 @Component
-public class AuditMessageListener implements MessageListener {
+public class AuditMessageListener implements MessageListener, StreamListener<String, MapRecord<String, String, byte[]>> {
+
+    public static final String EVENT_FIELD = "evento";
 
     private final AuditService auditService;
     private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final AuditStreamProperties streamProperties;
+    // One instance, so the flush groups every stream entry of a batch into a single XACK
+    private final Consumer<List<RecordId>> acknowledger = ids -> acknowledge(ids.toArray(RecordId[]::new));
 
     @Autowired
-    public AuditMessageListener(AuditService auditService, ObjectMapper objectMapper) {
+    public AuditMessageListener(AuditService auditService, ObjectMapper objectMapper,
+            StringRedisTemplate redisTemplate, AuditStreamProperties streamProperties) {
         this.auditService = auditService;
         this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.streamProperties = streamProperties;
     }
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
         try {
-            AuditLog log = objectMapper.readValue(message.getBody(), AuditLog.class);
-            auditService.saveLog(log);
+            AuditLog log = decode(message.getBody());
+            // Pub/sub has no redelivery: an event rejected by a full buffer is lost
+            auditService.submit(log, null, null);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void onMessage(MapRecord<String, String, byte[]> record) {
+        handle(record.getId(), record.getValue().get(EVENT_FIELD));
+    }
+
+    /**
+     * Queues a stream entry for the next bulk write; it is acknowledged, together with the rest
+     * of its batch, once it is stored.
+     * The entry ID becomes the document ID, so an entry delivered twice (e.g. reclaimed after
+     * a crash) hits the duplicate key instead of creating a second document. If the buffer is
+     * full or the write fails the entry stays pending and is reclaimed later.
+     */
+    public void handle(RecordId id, byte[] payload) {
+        AuditLog log;
+        try {
+            if (payload == null) {
+                throw new IOException("missing '" + EVENT_FIELD + "' field");
+            }
+            log = decode(payload);
+        } catch (IOException e) {
+            // A malformed entry never succeeds: acknowledge it so it does not block the group
+            System.err.println("Discarding malformed audit entry " + id + ": " + e.getMessage());
+            acknowledge(id);
+            return;
+        }
+        log.setId(id.getValue());
+        auditService.submit(log, id, acknowledger);
+    }
+
+    public void acknowledge(RecordId... ids) {
+        redisTemplate.opsForStream().acknowledge(streamProperties.getKey(), streamProperties.getGroup(), ids);
+    }
+
+    /**
+     * Decodes an event payload in any format producers have used: binary, JSON, or JSON
+     * wrapped in a JSON string.
+     */
+    public AuditLog decode(byte[] body) throws IOException {
+        if (AuditLogCodec.isBinary(body)) {
+            try {
+                return AuditLogCodec.decode(body);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        // JSON from producers still running with app.auditoria.codificacion=json
+        JsonNode node = objectMapper.readTree(body);
+        // Older producers sent the JSON document wrapped in a JSON string
+        if (node != null && node.isTextual()) {
+            node = objectMapper.readTree(node.asText());
+        }
+        return objectMapper.treeToValue(node, AuditLog.class);
+    }
 }
@@ -0,0 +1,136 @@
+package com.auditory.auditory.listener;
+
+import com.auditory.auditory.config.AuditStreamProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically takes over stream entries that were delivered to a consumer but never
+ * acknowledged (the instance crashed or failed to save them) once they have been idle for
+ * claim-min-idle-ms. Entries delivered more than max-deliveries times are copied to the
+ * dead-letter stream and acknowledged.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.transport", havingValue = "stream", matchIfMissing = true)
+public class PendingEntryReclaimer {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final AuditMessageListener listener;
+    private final AuditStreamProperties properties;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public PendingEntryReclaimer(RedisTemplate<String, byte[]> auditStreamTemplate, AuditMessageListener listener,
+            AuditStreamProperties properties) {
+        this.redisTemplate = auditStreamTemplate;
+        this.listener = listener;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "audit-stream-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reclaimSafely, properties.getReclaimIntervalMs(),
+                properties.getReclaimIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void reclaimSafely() {
+        try {
+            reclaim();
+        } catch (RuntimeException e) {
+            System.err.println("Error reclaiming pending audit entries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Processes one page of idle pending entries.
+     *
+     * @return number of entries claimed or dead-lettered
+     */
+    public int reclaim() {
+        StreamOperations<String, String, byte[]> stream = redisTemplate.opsForStream();
+        Duration minIdle = Duration.ofMillis(properties.getClaimMinIdleMs());
+        PendingMessages pending = stream.pending(properties.getKey(), properties.getGroup(), Range.unbounded(),
+                properties.getBatchSize());
+
+        List<RecordId> toClaim = new ArrayList<>();
+        int deadLettered = 0;
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() > properties.getMaxDeliveries()) {
+                deadLetter(stream, message.getId());
+                deadLettered++;
+            } else {
+                toClaim.add(message.getId());
+            }
+        }
+        if (toClaim.isEmpty()) {
+            return deadLettered;
+        }
+
+        List<MapRecord<String, String, byte[]>> claimed = stream.claim(properties.getKey(), properties.getGroup(),
+                properties.getConsumer(), minIdle, toClaim.toArray(new RecordId[0]));
+        for (MapRecord<String, String, byte[]> record : claimed) {
+            try {
+                listener.handle(record.getId(), record.getValue().get(AuditMessageListener.EVENT_FIELD));
+            } catch (RuntimeException e) {
+                // Still pending: tried again on a later pass until max-deliveries
+                System.err.println("Error saving reclaimed audit entry " + record.getId() + ": " + e.getMessage());
+            }
+        }
+        return claimed.size() + deadLettered;
+    }
+
+    private void deadLetter(StreamOperations<String, String, byte[]> stream, RecordId id) {
+        String value = id.getValue();
+        List<MapRecord<String, String, byte[]>> records = stream.range(properties.getKey(), Range.closed(value, value));
+        for (MapRecord<String, String, byte[]> record : records) {
+            stream.add(StreamRecords.newRecord()
+                    .in(properties.getDeadLetterKey())
+                    .ofMap(Map.of("source-id", value.getBytes(StandardCharsets.UTF_8),
+                            AuditMessageListener.EVENT_FIELD, record.getValue().getOrDefault(
+                                    AuditMessageListener.EVENT_FIELD, new byte[0]))));
+        }
+        listener.acknowledge(id);
+        if (records.isEmpty()) {
+            // Trimmed from the stream (MAXLEN) before it could be copied
+            System.err.println("Audit entry " + value + " dropped: no longer in " + properties.getKey());
+        } else {
+            System.err.println("Audit entry " + value + " moved to " + properties.getDeadLetterKey());
+        }
+    }
+}
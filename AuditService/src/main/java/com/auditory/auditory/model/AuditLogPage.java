@@ -0,0 +1,9 @@
+package com.auditory.auditory.model;
+
+import java.util.List;
+
+/**
+ * One page of audit logs, newest first. nextCursor is null on the last page.
+ */
+public record AuditLogPage(List<AuditLog> items, String nextCursor) {
+}
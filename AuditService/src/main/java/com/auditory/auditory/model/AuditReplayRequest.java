@@ -0,0 +1,25 @@
+package com.auditory.auditory.model;
+
+import java.time.Instant;
+
+/**
+ * What to replay. For a stream source, key defaults to the audit stream (pass the dead-letter
+ * key to replay dead-lettered entries); for a file source, path is a file name or glob under
+ * the import directory. from (inclusive) and to (exclusive) limit the events by time; threads
+ * (at most the configured max-threads) and rateLimit (events per second, 0 = unlimited) override
+ * the configured defaults.
+ */
+public record AuditReplayRequest(
+        Source source,
+        String key,
+        String path,
+        Instant from,
+        Instant to,
+        Integer threads,
+        Integer rateLimit) {
+
+    public enum Source {
+        stream,
+        file
+    }
+}
@@ -0,0 +1,30 @@
+package com.auditory.auditory.model;
+
+import java.time.Instant;
+
+/**
+ * Progress of a replay. stored counts newly written events and duplicates those that were
+ * already in Mongo; position is the last stream ID or file:line read.
+ */
+public record AuditReplayStatus(
+        String id,
+        State state,
+        String source,
+        Instant startedAt,
+        Instant finishedAt,
+        long read,
+        long stored,
+        long duplicates,
+        long failed,
+        long malformed,
+        double eventsPerSecond,
+        String position,
+        String error) {
+
+    public enum State {
+        running,
+        completed,
+        cancelled,
+        failed
+    }
+}
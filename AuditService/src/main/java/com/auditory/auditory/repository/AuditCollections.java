@@ -0,0 +1,197 @@
+package com.auditory.auditory.repository;
+
+import com.auditory.auditory.config.AuditStorageProperties;
+import com.auditory.auditory.config.AuditStorageProperties.Bucketing;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps audit logs to their collection and keeps the indexes that back the query API.
+ *
+ * Every collection gets compound indexes on (field, timestamp, _id) for userId, action and
+ * endpoint, plus (timestamp, _id), all matching the newest-first sort of the query API.
+ * Indexes on collections that already exist at startup are built in the background so a
+ * large collection does not hold up startup; new monthly buckets are empty and get them
+ * on first write. Retention is a TTL index on timestamp without bucketing, and dropping
+ * expired monthly collections with it.
+ */
+@Component
+public class AuditCollections {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final MongoTemplate mongoTemplate;
+    private final AuditStorageProperties properties;
+    private final Pattern bucketName;
+    private final Set<String> indexed = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public AuditCollections(MongoTemplate mongoTemplate, AuditStorageProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.bucketName = Pattern.compile(Pattern.quote(properties.getCollection()) + "_(\\d{6})");
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "audit-storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<String> existing = new ArrayList<>();
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (isAuditCollection(name)) {
+                existing.add(name);
+            }
+        }
+        // Marked first so the write path never starts a build on a large collection
+        indexed.addAll(existing);
+        scheduler.execute(() -> existing.forEach(this::createIndexesSafely));
+        if (properties.getBucketing() == Bucketing.monthly && properties.getRetentionDays() > 0) {
+            scheduler.scheduleWithFixedDelay(this::dropExpiredSafely, properties.getRetentionCheckIntervalMs(),
+                    properties.getRetentionCheckIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Collection that stores a log with the given timestamp, with its indexes in place.
+     */
+    public String collectionFor(Instant timestamp) {
+        String name = properties.getBucketing() == Bucketing.monthly
+                ? bucket(YearMonth.from(timestamp.atOffset(ZoneOffset.UTC)))
+                : properties.getCollection();
+        if (indexed.add(name)) {
+            createIndexesSafely(name);
+        }
+        return name;
+    }
+
+    /**
+     * Collections that may hold logs between from and to (either may be null), newest first.
+     * With monthly bucketing the unbucketed collection, if present, comes last: it holds the
+     * logs written before bucketing was enabled.
+     */
+    public List<String> collectionsBetween(Instant from, Instant to) {
+        if (properties.getBucketing() != Bucketing.monthly) {
+            return List.of(properties.getCollection());
+        }
+        YearMonth first = from != null ? YearMonth.from(from.atOffset(ZoneOffset.UTC)) : null;
+        YearMonth last = to != null ? YearMonth.from(to.atOffset(ZoneOffset.UTC)) : null;
+        List<YearMonth> months = new ArrayList<>();
+        boolean legacy = false;
+        for (String name : mongoTemplate.getCollectionNames()) {
+            YearMonth month = monthOf(name);
+            if (month != null) {
+                if ((first == null || !month.isBefore(first)) && (last == null || !month.isAfter(last))) {
+                    months.add(month);
+                }
+            } else if (name.equals(properties.getCollection())) {
+                legacy = true;
+            }
+        }
+        months.sort(Comparator.reverseOrder());
+        List<String> names = new ArrayList<>(months.size() + 1);
+        for (YearMonth month : months) {
+            names.add(bucket(month));
+        }
+        if (legacy) {
+            names.add(properties.getCollection());
+        }
+        return names;
+    }
+
+    private String bucket(YearMonth month) {
+        return properties.getCollection() + "_" + MONTH.format(month);
+    }
+
+    private YearMonth monthOf(String name) {
+        Matcher matcher = bucketName.matcher(name);
+        return matcher.matches() ? YearMonth.parse(matcher.group(1), MONTH) : null;
+    }
+
+    private boolean isAuditCollection(String name) {
+        return name.equals(properties.getCollection()) || monthOf(name) != null;
+    }
+
+    private void createIndexesSafely(String name) {
+        try {
+            createIndexes(name);
+        } catch (RuntimeException e) {
+            // Queries still work, only slower; a restart tries again
+            System.err.println("Error creating indexes on " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void createIndexes(String name) {
+        IndexOperations indexOps = mongoTemplate.indexOps(name);
+        indexOps.createIndex(new Index().on("timestamp", Direction.DESC).on("_id", Direction.DESC)
+                .named("timestamp_id"));
+        for (String field : List.of("userId", "action", "endpoint")) {
+            indexOps.createIndex(new Index().on(field, Direction.ASC).on("timestamp", Direction.DESC)
+                    .on("_id", Direction.DESC).named(field + "_timestamp_id"));
+        }
+        if (properties.getBucketing() == Bucketing.none && properties.getRetentionDays() > 0) {
+            indexOps.createIndex(new Index().on("timestamp", Direction.ASC)
+                    .expire(Duration.ofDays(properties.getRetentionDays())).named("timestamp_ttl"));
+        }
+    }
+
+    private void dropExpiredSafely() {
+        try {
+            dropExpired();
+        } catch (RuntimeException e) {
+            System.err.println("Error dropping expired audit collections: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops monthly collections whose whole month is older than the retention period.
+     */
+    void dropExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(properties.getRetentionDays()));
+        for (String name : mongoTemplate.getCollectionNames()) {
+            YearMonth month = monthOf(name);
+            if (month == null) {
+                continue;
+            }
+            Instant end = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            if (!end.isAfter(cutoff)) {
+                mongoTemplate.dropCollection(name);
+                indexed.remove(name);
+                System.err.println("Dropped expired audit collection " + name);
+            }
+        }
+    }
+}
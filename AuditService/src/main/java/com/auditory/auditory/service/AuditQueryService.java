@@ -0,0 +1,139 @@
+package com.auditory.auditory.service;
+
+import com.auditory.auditory.model.AuditLog;
+import com.auditory.auditory.model.AuditLogPage;
+import com.auditory.auditory.repository.AuditCollections;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Searches audit logs newest first with keyset pagination on (timestamp, _id).
+ *
+ * The cursor is the (timestamp, _id) of the last log returned; the next page starts strictly
+ * after it, so every page is an index range scan no matter how deep it is, unlike skip/limit.
+ * Each filter combination is backed by one of the compound indexes created by
+ * {@link AuditCollections}. The endpoint filter is an anchored prefix match, which Mongo
+ * also answers from the index.
+ */
+@Service
+public class AuditQueryService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final AuditCollections collections;
+
+    @Autowired
+    public AuditQueryService(MongoTemplate mongoTemplate, AuditCollections collections) {
+        this.mongoTemplate = mongoTemplate;
+        this.collections = collections;
+    }
+
+    /**
+     * @param from   inclusive lower bound on timestamp (may be null)
+     * @param to     exclusive upper bound on timestamp (may be null)
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or from is not before to
+     */
+    public AuditLogPage search(String userId, String action, String endpointPrefix, Instant from, Instant to,
+            String cursor, Integer limit) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Position after = cursor == null || cursor.isBlank() ? null : Position.decode(cursor);
+
+        List<Criteria> filters = new ArrayList<>();
+        if (userId != null && !userId.isBlank()) {
+            filters.add(Criteria.where("userId").is(userId));
+        }
+        if (action != null && !action.isBlank()) {
+            filters.add(Criteria.where("action").is(action));
+        }
+        if (endpointPrefix != null && !endpointPrefix.isBlank()) {
+            filters.add(Criteria.where("endpoint").regex("^" + escapeRegex(endpointPrefix)));
+        }
+        if (from != null || to != null) {
+            Criteria range = Criteria.where("timestamp");
+            if (from != null) {
+                range = range.gte(from);
+            }
+            if (to != null) {
+                range = range.lt(to);
+            }
+            filters.add(range);
+        }
+        if (after != null) {
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(after.timestamp()),
+                    Criteria.where("timestamp").is(after.timestamp()).and("_id").lt(after.id())));
+        }
+        Criteria criteria = filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+        Sort sort = Sort.by(Direction.DESC, "timestamp").and(Sort.by(Direction.DESC, "_id"));
+
+        // Later pages never need collections newer than the cursor
+        Instant upper = after != null && (to == null || after.timestamp().isBefore(to)) ? after.timestamp() : to;
+        List<AuditLog> items = new ArrayList<>(size);
+        for (String collection : collections.collectionsBetween(from, upper)) {
+            Query query = Query.query(criteria).with(sort).limit(size - items.size());
+            items.addAll(mongoTemplate.find(query, AuditLog.class, collection));
+            if (items.size() >= size) {
+                break;
+            }
+        }
+
+        String next = null;
+        if (items.size() >= size) {
+            AuditLog last = items.get(items.size() - 1);
+            next = new Position(last.getTimestamp(), last.getId()).encode();
+        }
+        return new AuditLogPage(items, next);
+    }
+
+    private static String escapeRegex(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private record Position(Instant timestamp, String id) {
+
+        String encode() {
+            String raw = timestamp.toEpochMilli() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                if (separator <= 0 || separator == raw.length() - 1) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new Position(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                        raw.substring(separator + 1));
+            } catch (IllegalArgumentException e) {
+                // Also covers malformed Base64 and NumberFormatException
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
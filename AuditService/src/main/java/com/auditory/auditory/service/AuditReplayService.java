@@ -0,0 +1,433 @@
+package com.auditory.auditory.service;
+
+import com.auditory.auditory.config.AuditReplayProperties;
+import com.auditory.auditory.config.AuditStreamProperties;
+import com.auditory.auditory.listener.AuditMessageListener;
+import com.auditory.auditory.model.AuditLog;
+import com.auditory.auditory.model.AuditReplayRequest;
+import com.auditory.auditory.model.AuditReplayRequest.Source;
+import com.auditory.auditory.model.AuditReplayStatus;
+import com.auditory.auditory.model.AuditReplayStatus.State;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Re-ingests audit events into Mongo after an outage or to backfill a new cluster.
+ *
+ * Events are read from a Redis Stream with XRANGE (the consumer group is not touched, so the
+ * live listener is unaffected) or from NDJSON files such as a mongoexport of audit_logs
+ * (optionally gzipped). The stream only holds the last stream-maxlen events; older ones have
+ * to come from files. One reader builds batches and a pool of writer threads stores them
+ * with the same unordered bulk inserts as live events. Every event keeps a stable ID (the
+ * stream entry ID, the source-id of a dead-lettered entry, the exported _id, or a hash of the
+ * line), so replaying the same range twice only produces duplicate keys.
+ *
+ * One replay runs at a time.
+ */
+@Service
+public class AuditReplayService {
+
+    private static final String SOURCE_ID_FIELD = "source-id";
+
+    private final AuditService auditService;
+    private final AuditMessageListener listener;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ObjectReader lineReader;
+    private final AuditStreamProperties streamProperties;
+    private final AuditReplayProperties properties;
+
+    private final AtomicReference<Job> current = new AtomicReference<>();
+
+    @Autowired
+    public AuditReplayService(AuditService auditService, AuditMessageListener listener,
+            RedisTemplate<String, byte[]> auditStreamTemplate, ObjectMapper objectMapper,
+            AuditStreamProperties streamProperties, AuditReplayProperties properties) {
+        this.auditService = auditService;
+        this.listener = listener;
+        this.redisTemplate = auditStreamTemplate;
+        // Exports carry fields the model does not have (e.g. _class)
+        this.lineReader = objectMapper.readerFor(AuditLog.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.streamProperties = streamProperties;
+        this.properties = properties;
+    }
+
+    /**
+     * Starts a replay in the background.
+     *
+     * @throws IllegalArgumentException if the request is invalid or no file matches
+     * @throws IllegalStateException    if another replay is running
+     */
+    public AuditReplayStatus start(AuditReplayRequest request) throws IOException {
+        if (request == null || request.source() == null) {
+            throw new IllegalArgumentException("'source' is required (stream or file)");
+        }
+        if (request.from() != null && request.to() != null && !request.from().isBefore(request.to())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (request.threads() != null && request.threads() > properties.getMaxThreads()) {
+            throw new IllegalArgumentException("'threads' must be at most " + properties.getMaxThreads());
+        }
+
+        Job job;
+        if (request.source() == Source.stream) {
+            String key = request.key() == null || request.key().isBlank() ? streamProperties.getKey() : request.key();
+            job = new Job("stream:" + key, (j, sink) -> readStream(j, sink, key, request.from(), request.to()));
+        } else {
+            List<Path> files = matchFiles(request.path());
+            job = new Job("file:" + request.path(),
+                    (j, sink) -> readFiles(j, sink, files, request.from(), request.to()));
+        }
+
+        Job previous = current.get();
+        if (previous != null && previous.state == State.running) {
+            throw new IllegalStateException("Replay " + previous.id + " is still running");
+        }
+        if (!current.compareAndSet(previous, job)) {
+            throw new IllegalStateException("Another replay was started");
+        }
+
+        int threads = Math.max(1, Math.min(request.threads() != null ? request.threads() : properties.getThreads(),
+                properties.getMaxThreads()));
+        int rateLimit = Math.max(0, request.rateLimit() != null ? request.rateLimit() : properties.getRateLimit());
+        Thread thread = new Thread(() -> run(job, threads, rateLimit), "audit-replay");
+        thread.setDaemon(true);
+        thread.start();
+        return job.status();
+    }
+
+    /**
+     * @return the running or last replay, or null if none has run
+     */
+    public AuditReplayStatus status() {
+        Job job = current.get();
+        return job == null ? null : job.status();
+    }
+
+    /**
+     * Stops reading; batches already read are still written.
+     *
+     * @return the replay being cancelled, or null if none has run
+     */
+    public AuditReplayStatus cancel() {
+        Job job = current.get();
+        if (job == null) {
+            return null;
+        }
+        job.cancelled = true;
+        return job.status();
+    }
+
+    private void run(Job job, int threads, int rateLimit) {
+        AtomicInteger number = new AtomicInteger();
+        // Bounded queue: when every writer is busy the reader writes the batch itself, which
+        // also slows reading down to the pace Mongo can take
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), task -> {
+                    Thread thread = new Thread(task, "audit-replay-" + number.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        RateLimiter limiter = new RateLimiter(rateLimit);
+
+        String error = null;
+        try {
+            job.source.read(job, batch -> {
+                limiter.acquire(batch.size());
+                writers.execute(() -> write(job, batch));
+            });
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.toString();
+            System.err.println("Audit replay " + job.id + " failed: " + error);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.cancelled = true;
+        } finally {
+            writers.shutdown();
+            try {
+                writers.awaitTermination(1, TimeUnit.HOURS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        job.finish(error != null ? State.failed : job.cancelled ? State.cancelled : State.completed, error);
+    }
+
+    private void write(Job job, List<AuditLog> batch) {
+        try {
+            AuditService.BulkResult result = auditService.store(batch);
+            int failed = result.failedIndexes().size();
+            job.failed.addAndGet(failed);
+            job.duplicates.addAndGet(result.duplicates());
+            job.stored.addAndGet(batch.size() - failed - result.duplicates());
+        } catch (RuntimeException e) {
+            System.err.println("Error replaying " + batch.size() + " audit logs: " + e.getMessage());
+            job.failed.addAndGet(batch.size());
+        }
+    }
+
+    private void readStream(Job job, BatchSink sink, String key, Instant from, Instant to)
+            throws InterruptedException {
+        StreamOperations<String, String, byte[]> stream = redisTemplate.opsForStream();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        // Entry IDs start with the time the entry was added
+        Bound<String> lower = from == null ? Bound.unbounded() : Bound.inclusive(from.toEpochMilli() + "-0");
+        Bound<String> upper = to == null ? Bound.unbounded() : Bound.exclusive(to.toEpochMilli() + "-0");
+
+        while (!job.cancelled) {
+            List<MapRecord<String, String, byte[]>> records = stream.range(key, Range.of(lower, upper),
+                    Limit.limit().count(batchSize));
+            if (records == null || records.isEmpty()) {
+                return;
+            }
+            List<AuditLog> batch = new ArrayList<>(records.size());
+            for (MapRecord<String, String, byte[]> record : records) {
+                AuditLog log = fromRecord(job, record);
+                if (log != null) {
+                    batch.add(log);
+                }
+            }
+            String last = records.get(records.size() - 1).getId().getValue();
+            job.read.addAndGet(records.size());
+            job.position = last;
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+            }
+            if (records.size() < batchSize) {
+                return;
+            }
+            lower = Bound.exclusive(last);
+        }
+    }
+
+    private AuditLog fromRecord(Job job, MapRecord<String, String, byte[]> record) {
+        AuditLog log;
+        try {
+            byte[] payload = record.getValue().get(AuditMessageListener.EVENT_FIELD);
+            if (payload == null || payload.length == 0) {
+                throw new IOException("missing '" + AuditMessageListener.EVENT_FIELD + "' field");
+            }
+            log = listener.decode(payload);
+        } catch (IOException | RuntimeException e) {
+            job.malformed.incrementAndGet();
+            return null;
+        }
+        // A dead-lettered entry keeps the ID of the original entry, which is its document ID
+        byte[] sourceId = record.getValue().get(SOURCE_ID_FIELD);
+        log.setId(sourceId != null ? new String(sourceId, StandardCharsets.UTF_8) : record.getId().getValue());
+        if (log.getTimestamp() == null) {
+            log.setTimestamp(Instant.ofEpochMilli(record.getId().getTimestamp()));
+        }
+        return log;
+    }
+
+    private List<Path> matchFiles(String pattern) throws IOException {
+        if (pattern == null || pattern.isBlank()) {
+            throw new IllegalArgumentException("'path' is required for a file replay");
+        }
+        Path dir = properties.getImportDir();
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("Import directory " + dir + " does not exist");
+        }
+        // Only files under the import directory can match
+        PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            List<Path> files = paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(dir.relativize(path)))
+                    .sorted()
+                    .toList();
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("No file under " + dir + " matches '" + pattern + "'");
+            }
+            return files;
+        }
+    }
+
+    private void readFiles(Job job, BatchSink sink, List<Path> files, Instant from, Instant to)
+            throws IOException, InterruptedException {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (Path file : files) {
+            try (BufferedReader reader = open(file)) {
+                List<AuditLog> batch = new ArrayList<>(batchSize);
+                long number = 0;
+                String line;
+                while (!job.cancelled && (line = reader.readLine()) != null) {
+                    number++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    AuditLog log = fromLine(job, line);
+                    if (log == null || !inRange(log.getTimestamp(), from, to)) {
+                        continue;
+                    }
+                    job.read.incrementAndGet();
+                    batch.add(log);
+                    if (batch.size() >= batchSize) {
+                        job.position = file.getFileName() + ":" + number;
+                        sink.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                job.position = file.getFileName() + ":" + number;
+                if (!batch.isEmpty()) {
+                    sink.accept(batch);
+                }
+            }
+            if (job.cancelled) {
+                return;
+            }
+        }
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private AuditLog fromLine(Job job, String line) {
+        try {
+            JsonNode node = lineReader.readTree(line);
+            if (!(node instanceof ObjectNode object)) {
+                throw new IOException("not a JSON object");
+            }
+            // mongoexport writes the ID as _id and dates as {"$date": ...}
+            JsonNode exportedId = object.remove("_id");
+            if (exportedId != null && !object.hasNonNull("id")) {
+                object.put("id", exportedId.has("$oid") ? exportedId.get("$oid").asText() : exportedId.asText());
+            }
+            JsonNode timestamp = object.get("timestamp");
+            if (timestamp != null && timestamp.has("$date")) {
+                JsonNode date = timestamp.get("$date");
+                object.put("timestamp", date.isTextual() ? date.asText()
+                        : Instant.ofEpochMilli(date.has("$numberLong") ? date.get("$numberLong").asLong()
+                                : date.asLong()).toString());
+            }
+            AuditLog log = lineReader.readValue(object);
+            if (log.getId() == null || log.getId().isBlank()) {
+                // Same line, same ID: re-importing a file does not duplicate it
+                log.setId(UUID.nameUUIDFromBytes(line.strip().getBytes(StandardCharsets.UTF_8)).toString());
+            }
+            return log;
+        } catch (IOException | RuntimeException e) {
+            job.malformed.incrementAndGet();
+            return null;
+        }
+    }
+
+    private static boolean inRange(Instant timestamp, Instant from, Instant to) {
+        if (timestamp == null) {
+            return from == null && to == null;
+        }
+        return (from == null || !timestamp.isBefore(from)) && (to == null || timestamp.isBefore(to));
+    }
+
+    @FunctionalInterface
+    private interface BatchSink {
+        void accept(List<AuditLog> batch) throws InterruptedException;
+    }
+
+    @FunctionalInterface
+    private interface JobSource {
+        void read(Job job, BatchSink sink) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Spaces batches out so the replay averages at most the given events per second.
+     */
+    private static final class RateLimiter {
+
+        private final long nanosPerEvent;
+        private long next = System.nanoTime();
+
+        RateLimiter(int eventsPerSecond) {
+            this.nanosPerEvent = eventsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / eventsPerSecond : 0;
+        }
+
+        void acquire(int events) throws InterruptedException {
+            if (nanosPerEvent == 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            // Time not used while idle is not saved up for a burst
+            long start = Math.max(next, now);
+            next = start + events * nanosPerEvent;
+            long wait = start - now;
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+
+    private static final class Job {
+
+        final String id = UUID.randomUUID().toString();
+        final String description;
+        final JobSource source;
+        final Instant startedAt = Instant.now();
+        final AtomicLong read = new AtomicLong();
+        final AtomicLong stored = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong malformed = new AtomicLong();
+        volatile State state = State.running;
+        volatile Instant finishedAt;
+        volatile String position;
+        volatile String error;
+        volatile boolean cancelled;
+
+        Job(String description, JobSource source) {
+            this.description = description;
+            this.source = source;
+        }
+
+        void finish(State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        AuditReplayStatus status() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long written = stored.get() + duplicates.get() + failed.get();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return new AuditReplayStatus(id, state, description, startedAt, finishedAt, read.get(), stored.get(),
+                    duplicates.get(), failed.get(), malformed.get(), written * 1000.0 / millis, position, error);
+        }
+    }
+}
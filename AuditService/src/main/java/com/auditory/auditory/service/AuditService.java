@@ -1,21 +1,298 @@
 package com.auditory.auditory.service;
 
 import com.auditory.auditory.model.AuditLog;
-import com.auditory.auditory.repository.AuditLogRepository;
+import com.auditory.auditory.repository.AuditCollections;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Buffers audit events and writes them to Mongo in unordered bulk inserts.
+ *
+ * Listeners only enqueue ({@link #submit}); a fixed pool of flush threads drains the buffer
+ * and writes a batch when it reaches batch-size or interval-ms after its first event. A stream
+ * event carries its entry ID and a callback; after each write the callback gets the IDs of all
+ * stored events of the batch at once (the stream listener acknowledges them with a single
+ * XACK). Duplicate keys count as stored, so redelivered events are harmless; events whose
+ * write failed are not confirmed.
+ */
 @Service
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final AuditCollections collections;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audit.buffer.capacity:20000}")
+    private int capacity;
+
+    @Value("${audit.flush.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${audit.flush.interval-ms:200}")
+    private long intervalMs;
+
+    @Value("${audit.flush.threads:2}")
+    private int threads;
+
+    private BlockingQueue<PendingEvent> buffer;
+    private ExecutorService flushers;
+    private volatile boolean running;
+
+    private Counter rejected;
+    private Counter failed;
+    private Counter stored;
+    private DistributionSummary batchSizes;
+    private Timer flushLatency;
+
+    private record PendingEvent(AuditLog log, RecordId streamId, Consumer<List<RecordId>> onStored) {
+    }
+
+    /**
+     * Outcome of a bulk write: positions of the events that were not stored, and how many
+     * events were already there (duplicate keys, counted as stored).
+     */
+    public record BulkResult(Set<Integer> failedIndexes, int duplicates) {
+    }
 
     @Autowired
-    public AuditService(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    public AuditService(MongoTemplate mongoTemplate, AuditCollections collections, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.collections = collections;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Gauge.builder("audit.buffer.size", buffer, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        rejected = Counter.builder("audit.buffer.rejected")
+                .description("Audit events not accepted because the buffer was full")
+                .register(meterRegistry);
+        failed = Counter.builder("audit.flush.failed")
+                .description("Audit events whose write failed")
+                .register(meterRegistry);
+        stored = Counter.builder("audit.flush.stored")
+                .description("Audit events written to Mongo")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("audit.flush.batch")
+                .description("Audit events per bulk write")
+                .register(meterRegistry);
+        flushLatency = Timer.builder("audit.flush.latency")
+                .description("Duration of each bulk write")
+                .register(meterRegistry);
+
+        running = true;
+        int total = Math.max(1, threads);
+        AtomicInteger number = new AtomicInteger();
+        flushers = Executors.newFixedThreadPool(total, task -> {
+            Thread thread = new Thread(task, "audit-flush-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < total; i++) {
+            flushers.execute(this::flushLoop);
+        }
     }
 
+    @PreDestroy
+    void stop() {
+        running = false;
+        flushers.shutdown();
+        try {
+            // Flush threads write what is left in the buffer before exiting
+            flushers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Saves a single event synchronously.
+     */
     public void saveLog(AuditLog log) {
-        auditLogRepository.save(log);
+        if (log.getTimestamp() == null) {
+            log.setTimestamp(Instant.now());
+        }
+        mongoTemplate.save(log, collections.collectionFor(log.getTimestamp()));
+    }
+
+    /**
+     * Queues an event for the next bulk write. Never blocks.
+     *
+     * @param streamId stream entry ID passed to onStored (may be null)
+     * @param onStored runs on a flush thread with the IDs of every event of the batch that shares
+     *                 this callback and was stored, once per write (may be null)
+     * @return false if the buffer is full and the event was not accepted
+     */
+    public boolean submit(AuditLog log, RecordId streamId, Consumer<List<RecordId>> onStored) {
+        if (log.getTimestamp() == null) {
+            log.setTimestamp(Instant.now());
+        }
+        if (!buffer.offer(new PendingEvent(log, streamId, onStored))) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void flushLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingEvent first = buffer.poll(intervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMs);
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error flushing audit logs: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes events right away with unordered bulk inserts, bypassing the buffer (used by
+     * replay). Duplicate keys count as stored.
+     */
+    public BulkResult store(List<AuditLog> logs) {
+        // With monthly bucketing a batch may span collections (events around a month boundary)
+        Map<String, List<Integer>> byCollection = new LinkedHashMap<>();
+        for (int i = 0; i < logs.size(); i++) {
+            AuditLog log = logs.get(i);
+            if (log.getTimestamp() == null) {
+                log.setTimestamp(Instant.now());
+            }
+            byCollection.computeIfAbsent(collections.collectionFor(log.getTimestamp()), name -> new ArrayList<>())
+                    .add(i);
+        }
+
+        Set<Integer> failedIndexes = new HashSet<>();
+        int duplicates = 0;
+        for (Map.Entry<String, List<Integer>> entry : byCollection.entrySet()) {
+            duplicates += insert(entry.getKey(), logs, entry.getValue(), failedIndexes);
+        }
+        return new BulkResult(failedIndexes, duplicates);
+    }
+
+    private void write(List<PendingEvent> batch) {
+        List<AuditLog> logs = new ArrayList<>(batch.size());
+        for (PendingEvent event : batch) {
+            logs.add(event.log());
+        }
+
+        Set<Integer> failedIndexes;
+        long start = System.nanoTime();
+        try {
+            failedIndexes = store(logs).failedIndexes();
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+
+        failed.increment(failedIndexes.size());
+        stored.increment(batch.size() - failedIndexes.size());
+        Map<Consumer<List<RecordId>>, List<RecordId>> confirmations = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingEvent event = batch.get(i);
+            if (event.onStored() == null || event.streamId() == null || failedIndexes.contains(i)) {
+                continue;
+            }
+            confirmations.computeIfAbsent(event.onStored(), onStored -> new ArrayList<>()).add(event.streamId());
+        }
+        for (Map.Entry<Consumer<List<RecordId>>, List<RecordId>> entry : confirmations.entrySet()) {
+            try {
+                entry.getKey().accept(entry.getValue());
+            } catch (RuntimeException e) {
+                // Unconfirmed: the stream entries stay pending and are reclaimed, then hit the duplicate key
+                System.err.println("Error confirming " + entry.getValue().size() + " audit logs: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return number of events that were already stored
+     */
+    private int insert(String collection, List<AuditLog> batch, List<Integer> positions,
+            Set<Integer> failedIndexes) {
+        List<AuditLog> logs = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            logs.add(batch.get(position));
+        }
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, AuditLog.class, collection).insert(logs).execute();
+            return 0;
+        } catch (BulkOperationException e) {
+            // Unordered: the rest of the batch was written; duplicates were already stored
+            int duplicates = 0;
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() == DUPLICATE_KEY) {
+                    duplicates++;
+                } else {
+                    failedIndexes.add(positions.get(error.getIndex()));
+                }
+            }
+            if (duplicates < e.getErrors().size()) {
+                System.err.println("Bulk audit write had " + e.getErrors().size() + " errors: " + e.getMessage());
+            }
+            return duplicates;
+        } catch (RuntimeException e) {
+            System.err.println("Error writing " + logs.size() + " audit logs: " + e.getMessage());
+            failedIndexes.addAll(positions);
+            return 0;
+        }
     }
 }
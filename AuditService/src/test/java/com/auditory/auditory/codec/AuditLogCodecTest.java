@@ -0,0 +1,38 @@
+package com.auditory.auditory.codec;
+
+import com.auditory.auditory.model.AuditLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogCodecTest {
+
+	@Test
+	void decodesVersionOneEvent() {
+		byte[] data = { (byte) 0xA7, 1, 3, 'u', '1', 2, 'A', 0, 0, 0, 0, 3 };
+
+		assertTrue(AuditLogCodec.isBinary(data));
+		AuditLog log = AuditLogCodec.decode(data);
+
+		assertEquals("u1", log.getUserId());
+		assertEquals("A", log.getAction());
+		assertNull(log.getEndpoint());
+		assertNull(log.getIpAddress());
+		assertNull(log.getDevice());
+		assertNull(log.getRequestBody());
+		assertEquals(Instant.ofEpochMilli(1), log.getTimestamp());
+	}
+
+	@Test
+	void rejectsTruncatedEvent() {
+		byte[] data = { (byte) 0xA7, 1, 3, 'u' };
+
+		assertThrows(IllegalArgumentException.class, () -> AuditLogCodec.decode(data));
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.example.api.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.example.api.dto.AuditLogDTO;
+import com.example.api.service.CodificadorAuditoria;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Costo de serializar un evento de auditoría típico en cada formato que ha usado el
+ * productor: JSON envuelto por GenericJackson2JsonRedisSerializer (pub/sub anterior),
+ * JSON directo (stream con codificacion=json) y el binario de CodificadorAuditoria.
+ *
+ * Ejecutar con: mvn -P jmh test-compile exec:exec
+ * Antes de medir imprime los bytes que ocupa el evento en cada formato.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodificacionAuditoriaBenchmark {
+
+    private ObjectMapper objectMapper;
+    private GenericJackson2JsonRedisSerializer serializadorRedis;
+    private AuditLogDTO evento;
+    private byte[] json;
+    private byte[] binario;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        serializadorRedis = new GenericJackson2JsonRedisSerializer();
+        evento = eventoTipico();
+        json = objectMapper.writeValueAsBytes(evento);
+        binario = CodificadorAuditoria.codificar(evento);
+    }
+
+    @Benchmark
+    public byte[] codificarJsonPubsub() throws JsonProcessingException {
+        return serializadorRedis.serialize(objectMapper.writeValueAsString(evento));
+    }
+
+    @Benchmark
+    public byte[] codificarJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Benchmark
+    public byte[] codificarBinario() {
+        return CodificadorAuditoria.codificar(evento);
+    }
+
+    @Benchmark
+    public AuditLogDTO decodificarJson() throws Exception {
+        return objectMapper.readValue(json, AuditLogDTO.class);
+    }
+
+    @Benchmark
+    public AuditLogDTO decodificarBinario() {
+        return CodificadorAuditoria.decodificar(binario);
+    }
+
+    static AuditLogDTO eventoTipico() {
+        AuditLogDTO evento = new AuditLogDTO();
+        evento.setUserId("1843");
+        evento.setAction("UPDATE_CALIFICACION");
+        evento.setEndpoint("/api/calificaciones/95210");
+        evento.setIpAddress("10.20.31.117");
+        evento.setDevice("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                + "Chrome/129.0.0.0 Safari/537.36");
+        evento.setRequestBody("{\"calificacionId\":95210,\"estudianteId\":5120,\"evaluacionId\":774,"
+                + "\"nota\":4.3,\"notaAnterior\":3.8,\"observaciones\":\"Recuperación del segundo periodo\"}");
+        evento.setTimestamp(Instant.parse("2026-10-16T14:03:27.512Z"));
+        return evento;
+    }
+
+    public static void main(String[] args) throws RunnerException, JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        AuditLogDTO evento = eventoTipico();
+        System.out.printf("Bytes por evento: json-pubsub=%d json=%d binario=%d%n",
+                new GenericJackson2JsonRedisSerializer().serialize(objectMapper.writeValueAsString(evento)).length,
+                objectMapper.writeValueAsBytes(evento).length,
+                CodificadorAuditoria.codificar(evento).length);
+        new Runner(new OptionsBuilder()
+                .include(CodificacionAuditoriaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -22,8 +22,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.api.dto.request.CreateAsistenciaRequest;
+import com.example.api.dto.request.RegistroAsistenciaBulkRequest;
 import com.example.api.dto.request.UpdateAsistenciaRequest;
 import com.example.api.dto.response.AsistenciaResponse;
+import com.example.api.dto.response.RegistroAsistenciaBulkResponse;
+import com.example.api.dto.response.ResumenAsistenciaResponse;
 import com.example.api.service.AsistenciaService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -93,7 +96,7 @@ public class AsistenciaController {
         }
 
         @GetMapping("/estudiante/{estudianteId}/estadisticas")
-        @Operation(summary = "Obtener estadísticas de asistencia", description = "Obtiene estadísticas de asistencia de un estudiante usando HashMap (Tabla Hash)")
+        @Operation(summary = "Obtener estadísticas de asistencia", description = "Obtiene estadísticas de asistencia de un estudiante a partir de los contadores precalculados")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Map.class)))
         })
@@ -102,6 +105,18 @@ public class AsistenciaController {
                 return ResponseEntity.ok(asistenciaService.getEstadisticasEstudiante(estudianteId));
         }
 
+        @GetMapping("/curso/{cursoId}/resumen")
+        @Operation(summary = "Obtener resumen de asistencia de un curso", description = "Obtiene los contadores por estado y el porcentaje de asistencia "
+                        + "de todos los estudiantes inscritos en el curso en una sola consulta")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = List.class))),
+                        @ApiResponse(responseCode = "404", description = "Curso no encontrado")
+        })
+        public ResponseEntity<List<ResumenAsistenciaResponse>> getResumenCurso(
+                        @Parameter(description = "ID del curso") @PathVariable String cursoId) {
+                return ResponseEntity.ok(asistenciaService.getResumenCurso(cursoId));
+        }
+
         @GetMapping("/deleted")
         @Operation(summary = "Listar asistencias eliminadas", description = "Obtiene todas las asistencias que han sido eliminadas (soft delete)")
         @ApiResponses(value = {
@@ -124,6 +139,21 @@ public class AsistenciaController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(createdAsistencia);
         }
 
+        @PostMapping("/clase/{claseId}/bulk")
+        @Operation(summary = "Registrar pase de lista de una clase", description = "Registra el estado de asistencia de todos los estudiantes de una clase en una sola solicitud. "
+                        + "Inserta o actualiza el registro existente de cada estudiante y devuelve un resumen.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Pase de lista registrado exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = RegistroAsistenciaBulkResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "Clase, usuario o algún estudiante no encontrado"),
+                        @ApiResponse(responseCode = "400", description = "Datos inválidos")
+        })
+        public ResponseEntity<RegistroAsistenciaBulkResponse> registrarAsistenciaClase(
+                        @Parameter(description = "ID de la clase") @PathVariable String claseId,
+                        @Valid @RequestBody RegistroAsistenciaBulkRequest request,
+                        HttpServletRequest httpRequest) {
+                return ResponseEntity.ok(asistenciaService.registrarAsistenciaClase(claseId, request, httpRequest));
+        }
+
         @PutMapping("/{id}")
         @Operation(summary = "Actualizar asistencia", description = "Actualiza los datos de un registro de asistencia existente")
         @ApiResponses(value = {
@@ -0,0 +1,97 @@
+package com.example.api.controller;
+
+import java.util.List;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.api.dto.request.GenerarBoletinesRequest;
+import com.example.api.dto.response.BoletinResponse;
+import com.example.api.dto.response.TrabajoReporteResponse;
+import com.example.api.service.BoletinService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Controlador REST para los boletines en PDF de los estudiantes.
+ */
+@RestController
+@RequestMapping("/api/boletines")
+@Tag(name = "Boletines", description = "API para generar y descargar los boletines de calificaciones en PDF")
+public class BoletinController {
+
+    private final BoletinService boletinService;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public BoletinController(BoletinService boletinService) {
+        this.boletinService = boletinService;
+    }
+
+    @Operation(summary = "Generar boletines", description = "Encola un trabajo que genera el boletín de cada estudiante del periodo "
+            +
+            "(o de un curso del periodo). El avance se consulta en /api/reportes/trabajos/{id}. " +
+            "Regenerar un boletín reemplaza el anterior.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "404", description = "Periodo, curso o usuario no encontrado")
+    })
+    @PostMapping("/generar")
+    public ResponseEntity<TrabajoReporteResponse> generar(@Valid @RequestBody GenerarBoletinesRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(boletinService.encolar(request));
+    }
+
+    @Operation(summary = "Boletines de un periodo", description = "Obtiene los boletines generados de un periodo, ordenados por código de estudiante")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de boletines obtenida"),
+            @ApiResponse(responseCode = "404", description = "Periodo no encontrado")
+    })
+    @GetMapping("/periodo/{periodoId}")
+    public ResponseEntity<List<BoletinResponse>> getBoletinesPeriodo(
+            @Parameter(description = "ID del periodo") @PathVariable String periodoId) {
+        return ResponseEntity.ok(boletinService.getBoletinesPeriodo(periodoId));
+    }
+
+    @Operation(summary = "Boletines de un estudiante", description = "Obtiene los boletines de un estudiante, del más reciente al más antiguo")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de boletines obtenida")
+    })
+    @GetMapping("/estudiante/{estudianteId}")
+    public ResponseEntity<List<BoletinResponse>> getBoletinesEstudiante(
+            @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+        return ResponseEntity.ok(boletinService.getBoletinesEstudiante(estudianteId));
+    }
+
+    @Operation(summary = "Descargar boletín", description = "Descarga el PDF del boletín de un estudiante en un periodo")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "PDF del boletín"),
+            @ApiResponse(responseCode = "404", description = "El boletín no se ha generado")
+    })
+    @GetMapping("/periodo/{periodoId}/estudiante/{estudianteId}/pdf")
+    public ResponseEntity<InputStreamResource> descargar(
+            @Parameter(description = "ID del periodo") @PathVariable String periodoId,
+            @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename("boletin-" + estudianteId + ".pdf").build().toString())
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(new InputStreamResource(boletinService.descargar(periodoId, estudianteId)));
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,9 +24,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.api.dto.request.CreateCalificacionRequest;
+import com.example.api.dto.request.CreateCalificacionesBulkRequest;
 import com.example.api.dto.request.UpdateCalificacionRequest;
 import com.example.api.dto.response.CalificacionResponse;
+import com.example.api.dto.response.EstadisticasCalificacionesResponse;
+import com.example.api.dto.response.HistorialCalificacionResponse;
+import com.example.api.dto.response.PaginaKeysetResponse;
+import com.example.api.dto.response.RankingEstudianteResponse;
 import com.example.api.service.CalificacionService;
+import com.example.api.service.EstadisticasCalificacionesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -46,12 +53,15 @@ import jakarta.validation.Valid;
 public class CalificacionController {
 
     private final CalificacionService calificacionService;
+    private final EstadisticasCalificacionesService estadisticasCalificacionesService;
 
     /**
      * Constructor con inyección de dependencias.
      */
-    public CalificacionController(CalificacionService calificacionService) {
+    public CalificacionController(CalificacionService calificacionService,
+            EstadisticasCalificacionesService estadisticasCalificacionesService) {
         this.calificacionService = calificacionService;
+        this.estadisticasCalificacionesService = estadisticasCalificacionesService;
     }
 
     @Operation(summary = "Listar calificaciones", description = "Obtiene todas las calificaciones activas con paginación")
@@ -110,6 +120,25 @@ public class CalificacionController {
         return ResponseEntity.ok(calificacionService.getHistorialEstudiante(estudianteId));
     }
 
+    @Operation(summary = "Obtener historial compacto del estudiante", description = "Obtiene el historial de calificaciones como filas planas "
+            +
+            "(evaluación, fecha, curso, nota y peso), más recientes primero. " +
+            "Incluye un ETag: si el cliente envía If-None-Match con el mismo valor y el historial no cambió, responde 304.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Historial obtenido exitosamente"),
+            @ApiResponse(responseCode = "304", description = "El historial no cambió desde el ETag enviado")
+    })
+    @GetMapping("/estudiante/{estudianteId}/historial/compacto")
+    public ResponseEntity<List<HistorialCalificacionResponse>> getHistorialCompacto(
+            @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+        List<HistorialCalificacionResponse> historial = calificacionService.getHistorialCompacto(estudianteId);
+        // Spring responde 304 automáticamente cuando If-None-Match coincide con el ETag
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(calificacionService.calcularEtagHistorial(historial))
+                .body(historial);
+    }
+
     @Operation(summary = "Calcular promedio del estudiante", description = "Calcula el promedio de calificaciones de un estudiante")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Promedio calculado exitosamente")
@@ -120,21 +149,35 @@ public class CalificacionController {
         return ResponseEntity.ok(calificacionService.calcularPromedioEstudiante(estudianteId));
     }
 
-    @Operation(summary = "Obtener ranking general (Árbol BST)", description = "Obtiene el ranking de estudiantes usando Árbol BST (TreeMap). "
+    @Operation(summary = "Obtener ranking general (Árbol AVL)", description = "Obtiene el ranking de estudiantes desde un índice en memoria (Árbol AVL con tamaños de subárbol). "
             +
-            "Los estudiantes se ordenan automáticamente por promedio en un árbol balanceado. " +
-            "Complejidad: O(n log n) para construcción, O(log n) para búsqueda.")
+            "El índice se actualiza con cada escritura de calificaciones, sin consultar la base de datos. " +
+            "Complejidad: O(log n + k) para los k primeros.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente")
     })
     @GetMapping("/ranking")
-    public ResponseEntity<List<Map<String, Object>>> getRankingGeneral() {
-        return ResponseEntity.ok(calificacionService.getRankingGeneral());
+    public ResponseEntity<List<Map<String, Object>>> getRankingGeneral(
+            @Parameter(description = "Número de estudiantes a devolver (todos si se omite)", example = "10") @RequestParam(required = false) Integer top) {
+        return ResponseEntity.ok(calificacionService.getRankingGeneral(top));
     }
 
-    @Operation(summary = "Obtener ranking por curso (Árbol BST)", description = "Obtiene el ranking de estudiantes de un curso usando Árbol BST. "
+    @Operation(summary = "Obtener posición en el ranking general", description = "Obtiene la posición de un estudiante en el ranking general. "
             +
-            "Similar al ranking general pero filtrado por curso específico.")
+            "Complejidad: O(log n).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Posición obtenida exitosamente"),
+            @ApiResponse(responseCode = "404", description = "El estudiante no tiene calificaciones")
+    })
+    @GetMapping("/ranking/estudiante/{estudianteId}")
+    public ResponseEntity<Map<String, Object>> getPosicionRanking(
+            @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+        return ResponseEntity.ok(calificacionService.getPosicionRanking(estudianteId));
+    }
+
+    @Operation(summary = "Obtener ranking por curso", description = "Obtiene el ranking de estudiantes de un curso. "
+            +
+            "El promedio por estudiante se calcula en la base de datos con una consulta agregada.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Ranking del curso obtenido")
     })
@@ -144,6 +187,22 @@ public class CalificacionController {
         return ResponseEntity.ok(calificacionService.getRankingCurso(cursoId));
     }
 
+    @Operation(summary = "Obtener ranking por curso paginado (keyset)", description = "Obtiene el ranking de un curso paginado por cursor. "
+            +
+            "Para la siguiente página se envían los valores de siguienteCursor (afterPromedio y afterEstudianteId) de la respuesta anterior.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página del ranking obtenida")
+    })
+    @GetMapping("/ranking/curso/{cursoId}/paginado")
+    public ResponseEntity<PaginaKeysetResponse<RankingEstudianteResponse>> getRankingCursoPaginado(
+            @Parameter(description = "ID del curso") @PathVariable String cursoId,
+            @Parameter(description = "Promedio del último estudiante de la página anterior", example = "87.25") @RequestParam(required = false) BigDecimal afterPromedio,
+            @Parameter(description = "ID del último estudiante de la página anterior") @RequestParam(required = false) String afterEstudianteId,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(
+                calificacionService.getRankingCursoPaginado(cursoId, afterPromedio, afterEstudianteId, size));
+    }
+
     @Operation(summary = "Buscar por rango de notas (Búsqueda Binaria)", description = "Busca calificaciones en un rango de notas usando Búsqueda Binaria. "
             +
             "Primero ordena las calificaciones y luego aplica búsqueda binaria para eficiencia. " +
@@ -158,28 +217,39 @@ public class CalificacionController {
         return ResponseEntity.ok(calificacionService.buscarPorRangoNota(min, max));
     }
 
-    @Operation(summary = "Ordenar por nota (Algoritmo de Burbuja)", description = "Ordena calificaciones usando el algoritmo de Burbuja (Bubble Sort). "
+    @Operation(summary = "Listar calificaciones ordenadas por nota", description = "Lista calificaciones activas de mayor a menor nota, "
             +
-            "Implementación educativa del ordenamiento más básico. " +
-            "Complejidad: O(n²) en el peor caso, optimizado con bandera de intercambio.")
+            "ordenadas en la base de datos y paginadas por cursor (afterNota y afterId de siguienteCursor). " +
+            "Con algorithm=bubble se usa el ordenamiento Burbuja educativo (O(n²)), que requiere maxN " +
+            "y se rechaza si hay más calificaciones que maxN.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Calificaciones ordenadas exitosamente")
     })
     @GetMapping("/ordenar")
-    public ResponseEntity<List<CalificacionResponse>> ordenarPorNota() {
-        return ResponseEntity.ok(calificacionService.ordenarPorNota());
+    public ResponseEntity<PaginaKeysetResponse<CalificacionResponse>> ordenarPorNota(
+            @Parameter(description = "Algoritmo: db (por defecto) o bubble", example = "db") @RequestParam(defaultValue = "db") String algorithm,
+            @Parameter(description = "Máximo de elementos para algorithm=bubble", example = "100") @RequestParam(required = false) Integer maxN,
+            @Parameter(description = "Nota de la última calificación de la página anterior", example = "85.50") @RequestParam(required = false) BigDecimal afterNota,
+            @Parameter(description = "ID de la última calificación de la página anterior") @RequestParam(required = false) String afterId,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(calificacionService.ordenarPorNota(algorithm, maxN, afterNota, afterId, size));
     }
 
-    @Operation(summary = "Obtener estadísticas (Tabla Hash)", description = "Obtiene estadísticas de distribución de notas usando HashMap (Tabla Hash). "
+    @Operation(summary = "Obtener estadísticas de distribución", description = "Obtiene la distribución de notas por rangos "
             +
-            "Cuenta frecuencia de rangos: 0-60, 61-70, 71-80, 81-90, 91-100. " +
-            "Complejidad: O(1) para inserciones y búsquedas en el HashMap.")
+            "(0-60, 61-70, 71-80, 81-90, 91-100), promedio, desviación estándar, mínimo, máximo y percentiles 50 y 90. " +
+            "Se calcula con una consulta agregada y se guarda en caché por unos segundos. Los filtros son opcionales.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente")
     })
     @GetMapping("/estadisticas")
-    public ResponseEntity<Map<String, Object>> getEstadisticas() {
-        return ResponseEntity.ok(calificacionService.getEstadisticas());
+    public ResponseEntity<EstadisticasCalificacionesResponse> getEstadisticas(
+            @Parameter(description = "ID del periodo") @RequestParam(required = false) String periodoId,
+            @Parameter(description = "ID del curso") @RequestParam(required = false) String cursoId,
+            @Parameter(description = "ID de la asignatura") @RequestParam(required = false) String asignaturaId,
+            @Parameter(description = "ID de la evaluación") @RequestParam(required = false) String evaluacionId) {
+        return ResponseEntity.ok(
+                estadisticasCalificacionesService.getEstadisticas(periodoId, cursoId, asignaturaId, evaluacionId));
     }
 
     @Operation(summary = "Listar calificaciones eliminadas", description = "Obtiene todas las calificaciones que han sido eliminadas lógicamente")
@@ -207,6 +277,23 @@ public class CalificacionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @Operation(summary = "Crear calificaciones en lote", description = "Registra las notas de varios estudiantes en una misma evaluación "
+            +
+            "en una sola transacción. Los estudiantes se validan con una única consulta y las filas se insertan por lotes.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Calificaciones creadas exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "404", description = "Evaluación o algún estudiante no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Algún estudiante ya tiene calificación en la evaluación")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<CalificacionResponse>> createCalificacionesBulk(
+            @Valid @RequestBody CreateCalificacionesBulkRequest request,
+            HttpServletRequest httpRequest) {
+        List<CalificacionResponse> created = calificacionService.createCalificacionesBulk(request, httpRequest);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
     @Operation(summary = "Actualizar calificación", description = "Actualiza una calificación existente. Permite actualización parcial.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Calificación actualizada exitosamente"),
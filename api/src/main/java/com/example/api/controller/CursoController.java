@@ -1,7 +1,6 @@
 package com.example.api.controller;
 
 import java.util.List;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -24,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.api.dto.request.CreateCursoRequest;
 import com.example.api.dto.request.UpdateCursoRequest;
 import com.example.api.dto.response.CursoResponse;
+import com.example.api.dto.response.DisponibilidadCursoResponse;
 import com.example.api.service.CursoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -121,13 +121,24 @@ public class CursoController {
                 return ResponseEntity.ok(cursoService.getCursosConCuposDisponibles());
         }
 
+        @GetMapping("/disponibilidad")
+        @Operation(summary = "Disponibilidad de cursos con cupos", description = "Obtiene la disponibilidad de los cursos con cupos, opcionalmente filtrados por periodo y asignatura")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Disponibilidad de los cursos con cupo", content = @Content(schema = @Schema(implementation = List.class)))
+        })
+        public ResponseEntity<List<DisponibilidadCursoResponse>> getDisponibilidadCursosConCupo(
+                        @Parameter(description = "ID del periodo") @RequestParam(required = false) String periodoId,
+                        @Parameter(description = "ID de la asignatura") @RequestParam(required = false) String asignaturaId) {
+                return ResponseEntity.ok(cursoService.getDisponibilidadCursosConCupo(periodoId, asignaturaId));
+        }
+
         @GetMapping("/{id}/disponibilidad")
         @Operation(summary = "Disponibilidad de cupo", description = "Obtiene información sobre cupos disponibles")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Información de disponibilidad obtenida", content = @Content(schema = @Schema(implementation = Map.class))),
+                        @ApiResponse(responseCode = "200", description = "Información de disponibilidad obtenida", content = @Content(schema = @Schema(implementation = DisponibilidadCursoResponse.class))),
                         @ApiResponse(responseCode = "404", description = "Curso no encontrado", content = @Content)
         })
-        public ResponseEntity<Map<String, Object>> getDisponibilidad(
+        public ResponseEntity<DisponibilidadCursoResponse> getDisponibilidad(
                         @Parameter(description = "ID del curso") @PathVariable String id) {
                 return ResponseEntity.ok(cursoService.getDisponibilidadCupo(id));
         }
@@ -22,8 +22,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.api.dto.request.CreateEstudianteRequest;
 import com.example.api.dto.request.UpdateEstudianteRequest;
 import com.example.api.dto.response.EstudianteResponse;
+import com.example.api.dto.response.HorarioSemanalResponse;
 import com.example.api.model.Estudiante.Genero;
 import com.example.api.service.EstudianteService;
+import com.example.api.service.HorarioSemanalService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -44,14 +46,18 @@ import jakarta.validation.Valid;
 public class EstudianteController {
 
         private final EstudianteService estudianteService;
+        private final HorarioSemanalService horarioSemanalService;
 
         /**
          * Constructor con inyección de dependencias.
          *
-         * @param estudianteService Servicio de estudiantes
+         * @param estudianteService     Servicio de estudiantes
+         * @param horarioSemanalService Servicio de horarios semanales
          */
-        public EstudianteController(EstudianteService estudianteService) {
+        public EstudianteController(EstudianteService estudianteService,
+                        HorarioSemanalService horarioSemanalService) {
                 this.estudianteService = estudianteService;
+                this.horarioSemanalService = horarioSemanalService;
         }
 
         @Operation(summary = "Listar todos los estudiantes activos", description = "Obtiene una lista paginada de todos los estudiantes que no han sido eliminados")
@@ -83,6 +89,21 @@ public class EstudianteController {
                 return ResponseEntity.ok(estudiante);
         }
 
+        @Operation(summary = "Obtener horario semanal del estudiante", description = "Retorna las clases de la semana de los cursos en que el estudiante está inscrito, agrupadas por día y ordenadas por hora. Sin periodo se usan los periodos activos")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Horario obtenido exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = HorarioSemanalResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado")
+        })
+        @GetMapping("/{id}/horario")
+        public ResponseEntity<HorarioSemanalResponse> getHorarioEstudiante(
+                        @Parameter(description = "ID del estudiante", required = true, example = "550e8400-e29b-41d4-a716-446655440000") @PathVariable String id,
+
+                        @Parameter(description = "ID del periodo (opcional)") @RequestParam(required = false) String periodoId) {
+
+                HorarioSemanalResponse horario = horarioSemanalService.getHorarioEstudiante(id, periodoId);
+                return ResponseEntity.ok(horario);
+        }
+
         @Operation(summary = "Buscar estudiante por código", description = "Busca un estudiante por su código único")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Estudiante encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstudianteResponse.class))),
@@ -0,0 +1,112 @@
+package com.example.api.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.api.repository.ExportacionRepository.Filtro;
+import com.example.api.service.ExportacionService;
+import com.example.api.service.ExportacionService.Archivo;
+import com.example.api.service.ExportacionService.Conjunto;
+import com.example.api.service.ExportacionService.Formato;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST para descargar exportaciones masivas en CSV o XLSX.
+ */
+@RestController
+@RequestMapping("/api/exportaciones")
+@Tag(name = "Exportaciones", description = "API para descargar calificaciones, asistencias e inscripciones en CSV o XLSX")
+public class ExportacionController {
+
+    private final ExportacionService exportacionService;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public ExportacionController(ExportacionService exportacionService) {
+        this.exportacionService = exportacionService;
+    }
+
+    @Operation(summary = "Exportar calificaciones", description = "Descarga las calificaciones que cumplen los filtros. "
+            +
+            "Las fechas se aplican a la fecha de la evaluación. El archivo se genera mientras se descarga.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Filtros inválidos")
+    })
+    @GetMapping("/calificaciones")
+    public ResponseEntity<StreamingResponseBody> exportarCalificaciones(
+            @Parameter(description = "Formato del archivo", example = "csv") @RequestParam(defaultValue = "csv") Formato formato,
+            @Parameter(description = "Comprimir el CSV con gzip (se ignora en XLSX)") @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "ID del periodo") @RequestParam(required = false) String periodoId,
+            @Parameter(description = "ID del curso") @RequestParam(required = false) String cursoId,
+            @Parameter(description = "ID del estudiante") @RequestParam(required = false) String estudianteId,
+            @Parameter(description = "Fecha inicial (formato: yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (formato: yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return descargar(exportacionService.exportar(Conjunto.calificaciones, formato, gzip,
+                new Filtro(periodoId, cursoId, estudianteId, desde, hasta)));
+    }
+
+    @Operation(summary = "Exportar asistencias", description = "Descarga los registros de asistencia que cumplen los filtros. "
+            +
+            "Las fechas se aplican a la fecha de la clase. El archivo se genera mientras se descarga.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Filtros inválidos")
+    })
+    @GetMapping("/asistencias")
+    public ResponseEntity<StreamingResponseBody> exportarAsistencias(
+            @Parameter(description = "Formato del archivo", example = "csv") @RequestParam(defaultValue = "csv") Formato formato,
+            @Parameter(description = "Comprimir el CSV con gzip (se ignora en XLSX)") @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "ID del periodo") @RequestParam(required = false) String periodoId,
+            @Parameter(description = "ID del curso") @RequestParam(required = false) String cursoId,
+            @Parameter(description = "ID del estudiante") @RequestParam(required = false) String estudianteId,
+            @Parameter(description = "Fecha inicial (formato: yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (formato: yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return descargar(exportacionService.exportar(Conjunto.asistencias, formato, gzip,
+                new Filtro(periodoId, cursoId, estudianteId, desde, hasta)));
+    }
+
+    @Operation(summary = "Exportar inscripciones", description = "Descarga las inscripciones que cumplen los filtros. "
+            +
+            "Las fechas se aplican a la fecha de inscripción. El archivo se genera mientras se descarga.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Filtros inválidos")
+    })
+    @GetMapping("/inscripciones")
+    public ResponseEntity<StreamingResponseBody> exportarInscripciones(
+            @Parameter(description = "Formato del archivo", example = "csv") @RequestParam(defaultValue = "csv") Formato formato,
+            @Parameter(description = "Comprimir el CSV con gzip (se ignora en XLSX)") @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "ID del periodo") @RequestParam(required = false) String periodoId,
+            @Parameter(description = "ID del curso") @RequestParam(required = false) String cursoId,
+            @Parameter(description = "ID del estudiante") @RequestParam(required = false) String estudianteId,
+            @Parameter(description = "Fecha inicial (formato: yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (formato: yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return descargar(exportacionService.exportar(Conjunto.inscripciones, formato, gzip,
+                new Filtro(periodoId, cursoId, estudianteId, desde, hasta)));
+    }
+
+    private ResponseEntity<StreamingResponseBody> descargar(Archivo archivo) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(archivo.nombre()).build().toString())
+                .contentType(MediaType.parseMediaType(archivo.tipoContenido()))
+                .body(archivo.contenido());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.api.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.api.dto.request.GenerarHorarioRequest;
+import com.example.api.dto.response.GeneracionHorarioResponse;
+import com.example.api.service.GeneradorHorarioService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Controlador REST para generar automáticamente los horarios de un periodo.
+ */
+@RestController
+@RequestMapping("/api/horarios-curso/generaciones")
+@Tag(name = "Generador de horarios", description = "API para generar automáticamente los horarios de curso de un periodo")
+public class GeneradorHorarioController {
+
+        private final GeneradorHorarioService generadorHorarioService;
+
+        public GeneradorHorarioController(GeneradorHorarioService generadorHorarioService) {
+                this.generadorHorarioService = generadorHorarioService;
+        }
+
+        @PostMapping
+        @Operation(summary = "Generar horario", description = "Inicia en segundo plano la búsqueda de un horario sin choques de aula, profesor o curso para todos los cursos de un periodo")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Generación encolada", content = @Content(schema = @Schema(implementation = GeneracionHorarioResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Datos inválidos, periodo sin cursos o sin aulas", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "Periodo o bloque de horario no encontrado", content = @Content)
+        })
+        public ResponseEntity<GeneracionHorarioResponse> generar(
+                        @Parameter(description = "Parámetros de la generación") @Valid @RequestBody GenerarHorarioRequest request) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(generadorHorarioService.iniciar(request));
+        }
+
+        @GetMapping("/{id}")
+        @Operation(summary = "Estado de una generación", description = "Obtiene el estado, el progreso y, al terminar, la asignación encontrada")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Estado obtenido", content = @Content(schema = @Schema(implementation = GeneracionHorarioResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "Generación no encontrada", content = @Content)
+        })
+        public ResponseEntity<GeneracionHorarioResponse> getGeneracion(
+                        @Parameter(description = "ID de la generación") @PathVariable String id) {
+                return ResponseEntity.ok(generadorHorarioService.getGeneracion(id));
+        }
+
+        @PostMapping("/{id}/aplicar")
+        @Operation(summary = "Aplicar generación", description = "Reemplaza los horarios del periodo por la asignación de una generación resuelta")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Horarios reemplazados", content = @Content(schema = @Schema(implementation = GeneracionHorarioResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "La generación no está resuelta", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "Generación no encontrada", content = @Content)
+        })
+        public ResponseEntity<GeneracionHorarioResponse> aplicar(
+                        @Parameter(description = "ID de la generación") @PathVariable String id,
+                        HttpServletRequest httpRequest) {
+                return ResponseEntity.ok(generadorHorarioService.aplicar(id, httpRequest));
+        }
+
+        @DeleteMapping("/{id}")
+        @Operation(summary = "Detener generación", description = "Detiene la búsqueda conservando la mejor asignación encontrada")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Búsqueda detenida", content = @Content(schema = @Schema(implementation = GeneracionHorarioResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "Generación no encontrada", content = @Content)
+        })
+        public ResponseEntity<GeneracionHorarioResponse> cancelar(
+                        @Parameter(description = "ID de la generación") @PathVariable String id) {
+                return ResponseEntity.ok(generadorHorarioService.cancelar(id));
+        }
+}
@@ -22,7 +22,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.api.dto.request.CreateHorarioCursoRequest;
 import com.example.api.dto.request.UpdateHorarioCursoRequest;
+import com.example.api.dto.request.ValidarHorarioPeriodoRequest;
 import com.example.api.dto.response.HorarioCursoResponse;
+import com.example.api.dto.response.ValidacionHorarioResponse;
 import com.example.api.model.HorarioCurso.DiaSemana;
 import com.example.api.service.HorarioCursoService;
 
@@ -93,7 +95,7 @@ public class HorarioCursoController {
         }
 
         @GetMapping("/conflictos")
-        @Operation(summary = "Detectar conflictos", description = "Detecta horarios que se solapan en el mismo día, bloque y aula")
+        @Operation(summary = "Detectar conflictos", description = "Detecta horarios del mismo periodo y día cuyas horas se solapan y comparten aula, profesor o curso")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Lista de conflictos detectados", content = @Content(schema = @Schema(implementation = List.class)))
         })
@@ -101,6 +103,18 @@ public class HorarioCursoController {
                 return ResponseEntity.ok(horarioCursoService.getConflictos());
         }
 
+        @PostMapping("/validar")
+        @Operation(summary = "Validar horario de un periodo", description = "Verifica en una sola llamada si un horario propuesto para un periodo tiene choques de aula, profesor o curso, entre sus franjas y con los horarios existentes")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Validación realizada", content = @Content(schema = @Schema(implementation = ValidacionHorarioResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Datos inválidos o curso de otro periodo", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "Curso o bloque de horario no encontrado", content = @Content)
+        })
+        public ResponseEntity<ValidacionHorarioResponse> validarHorarioPeriodo(
+                        @Parameter(description = "Horario propuesto") @Valid @RequestBody ValidarHorarioPeriodoRequest request) {
+                return ResponseEntity.ok(horarioCursoService.validarHorarioPeriodo(request));
+        }
+
         @GetMapping("/deleted")
         @Operation(summary = "Listar horarios eliminados", description = "Obtiene horarios eliminados lógicamente")
         @ApiResponses(value = {
@@ -114,7 +128,7 @@ public class HorarioCursoController {
         @Operation(summary = "Crear horario de curso", description = "Registra un nuevo horario en el sistema")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "201", description = "Horario creado exitosamente", content = @Content(schema = @Schema(implementation = HorarioCursoResponse.class))),
-                        @ApiResponse(responseCode = "400", description = "Datos inválidos o horario duplicado", content = @Content),
+                        @ApiResponse(responseCode = "400", description = "Datos inválidos o choque con otro horario", content = @Content),
                         @ApiResponse(responseCode = "404", description = "Curso o bloque de horario no encontrado", content = @Content)
         })
         public ResponseEntity<HorarioCursoResponse> createHorario(
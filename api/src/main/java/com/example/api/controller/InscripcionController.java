@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.api.dto.request.CreateInscripcionRequest;
 import com.example.api.dto.request.UpdateInscripcionRequest;
 import com.example.api.dto.response.InscripcionResponse;
+import com.example.api.dto.response.SolicitudInscripcionResponse;
 import com.example.api.model.Inscripcion.EstadoInscripcion;
 import com.example.api.service.InscripcionService;
 
@@ -135,6 +136,24 @@ public class InscripcionController {
                                 .body(inscripcionService.createInscripcion(request, httpRequest));
         }
 
+        @PostMapping("/solicitudes")
+        @Operation(summary = "Solicitar inscripción", description = "Inscribe al estudiante si el curso tiene cupo; si está lleno lo agrega a la lista de espera del curso")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Inscripción creada (resultado INSCRITO)", content = @Content(schema = @Schema(implementation = SolicitudInscripcionResponse.class))),
+                        @ApiResponse(responseCode = "202", description = "Curso lleno, estudiante en lista de espera (resultado EN_ESPERA)", content = @Content(schema = @Schema(implementation = SolicitudInscripcionResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Datos inválidos o inscripción duplicada", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "Curso o estudiante no encontrado", content = @Content)
+        })
+        public ResponseEntity<SolicitudInscripcionResponse> solicitarInscripcion(
+                        @Parameter(description = "Datos de la inscripción") @Valid @RequestBody CreateInscripcionRequest request,
+                        HttpServletRequest httpRequest) {
+                SolicitudInscripcionResponse response = inscripcionService.solicitarInscripcion(request, httpRequest);
+                HttpStatus status = SolicitudInscripcionResponse.INSCRITO.equals(response.resultado())
+                                ? HttpStatus.CREATED
+                                : HttpStatus.ACCEPTED;
+                return ResponseEntity.status(status).body(response);
+        }
+
         @PutMapping("/{id}")
         @Operation(summary = "Actualizar inscripción", description = "Actualiza los datos de una inscripción existente")
         @ApiResponses(value = {
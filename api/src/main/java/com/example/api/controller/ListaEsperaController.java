@@ -0,0 +1,73 @@
+package com.example.api.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.api.dto.response.ListaEsperaResponse;
+import com.example.api.service.ListaEsperaService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST para consultar y cancelar solicitudes en listas de espera de cursos.
+ */
+@RestController
+@RequestMapping("/api/lista-espera")
+@Tag(name = "Lista de espera", description = "API para listas de espera de inscripción en cursos")
+public class ListaEsperaController {
+
+        private final ListaEsperaService listaEsperaService;
+
+        public ListaEsperaController(ListaEsperaService listaEsperaService) {
+                this.listaEsperaService = listaEsperaService;
+        }
+
+        @GetMapping("/curso/{cursoId}")
+        @Operation(summary = "Lista de espera de un curso", description = "Obtiene las primeras solicitudes en espera de un curso en orden de llegada")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Lista de espera obtenida exitosamente", content = @Content(schema = @Schema(implementation = List.class)))
+        })
+        public ResponseEntity<List<ListaEsperaResponse>> getListaCurso(
+                        @Parameter(description = "ID del curso") @PathVariable String cursoId,
+                        @Parameter(description = "Cantidad máxima de solicitudes (máx. 500)", example = "50") @RequestParam(defaultValue = "50") int limit) {
+                return ResponseEntity.ok(listaEsperaService.getListaCurso(cursoId, limit));
+        }
+
+        @GetMapping("/curso/{cursoId}/estudiante/{estudianteId}")
+        @Operation(summary = "Posición en lista de espera", description = "Obtiene la posición actual de un estudiante en la lista de espera de un curso")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Posición obtenida", content = @Content(schema = @Schema(implementation = ListaEsperaResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "El estudiante no está en la lista de espera", content = @Content)
+        })
+        public ResponseEntity<ListaEsperaResponse> getPosicion(
+                        @Parameter(description = "ID del curso") @PathVariable String cursoId,
+                        @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+                return ResponseEntity.ok(listaEsperaService.getPosicion(cursoId, estudianteId));
+        }
+
+        @DeleteMapping("/curso/{cursoId}/estudiante/{estudianteId}")
+        @Operation(summary = "Cancelar solicitud", description = "Retira a un estudiante de la lista de espera de un curso")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "204", description = "Solicitud cancelada"),
+                        @ApiResponse(responseCode = "404", description = "El estudiante no está en la lista de espera", content = @Content)
+        })
+        public ResponseEntity<Void> cancelar(
+                        @Parameter(description = "ID del curso") @PathVariable String cursoId,
+                        @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+                listaEsperaService.cancelar(cursoId, estudianteId);
+                return ResponseEntity.noContent().build();
+        }
+}
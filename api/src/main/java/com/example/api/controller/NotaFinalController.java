@@ -0,0 +1,76 @@
+package com.example.api.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.api.dto.response.NotaFinalResponse;
+import com.example.api.service.NotaFinalService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST para consultar notas finales ponderadas.
+ */
+@RestController
+@RequestMapping("/api/notas-finales")
+@Tag(name = "Notas Finales", description = "API para el cálculo de notas finales ponderadas por curso")
+public class NotaFinalController {
+
+    private final NotaFinalService notaFinalService;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public NotaFinalController(NotaFinalService notaFinalService) {
+        this.notaFinalService = notaFinalService;
+    }
+
+    @Operation(summary = "Notas finales de un curso", description = "Calcula la nota final ponderada de todos los estudiantes de un curso "
+            +
+            "usando los tipos de ponderación del curso y los pesos de evaluaciones y actividades. " +
+            "El resultado se guarda en caché hasta que cambie una nota, un peso o una ponderación.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Notas finales calculadas exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Curso no encontrado")
+    })
+    @GetMapping("/curso/{cursoId}")
+    public ResponseEntity<List<NotaFinalResponse>> getNotasFinalesCurso(
+            @Parameter(description = "ID del curso") @PathVariable String cursoId) {
+        return ResponseEntity.ok(notaFinalService.getNotasFinalesCurso(cursoId));
+    }
+
+    @Operation(summary = "Nota final de un estudiante en un curso", description = "Obtiene la nota final ponderada de un estudiante en un curso")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Nota final obtenida exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Curso no encontrado o estudiante sin notas en el curso")
+    })
+    @GetMapping("/curso/{cursoId}/estudiante/{estudianteId}")
+    public ResponseEntity<NotaFinalResponse> getNotaFinalEstudiante(
+            @Parameter(description = "ID del curso") @PathVariable String cursoId,
+            @Parameter(description = "ID del estudiante") @PathVariable String estudianteId) {
+        return ResponseEntity.ok(notaFinalService.getNotaFinalEstudiante(cursoId, estudianteId));
+    }
+
+    @Operation(summary = "Cierre de notas de un periodo", description = "Calcula las notas finales de todos los cursos de un periodo "
+            +
+            "y devuelve un resumen del proceso.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cierre de notas completado")
+    })
+    @PostMapping("/periodo/{periodoId}/cierre")
+    public ResponseEntity<Map<String, Object>> cerrarNotasPeriodo(
+            @Parameter(description = "ID del periodo") @PathVariable String periodoId) {
+        return ResponseEntity.ok(notaFinalService.cerrarNotasPeriodo(periodoId));
+    }
+}
@@ -22,7 +22,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.api.dto.request.CreateProfesorRequest;
 import com.example.api.dto.request.UpdateProfesorRequest;
+import com.example.api.dto.response.HorarioSemanalResponse;
 import com.example.api.dto.response.ProfesorResponse;
+import com.example.api.service.HorarioSemanalService;
 import com.example.api.service.ProfesorService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -45,14 +47,18 @@ import jakarta.validation.Valid;
 public class ProfesorController {
 
         private final ProfesorService profesorService;
+        private final HorarioSemanalService horarioSemanalService;
 
         /**
          * Constructor con inyección de dependencias.
          *
          * @param profesorService Servicio de profesores
+         * @param horarioSemanalService Servicio de horarios semanales
          */
-        public ProfesorController(ProfesorService profesorService) {
+        public ProfesorController(ProfesorService profesorService,
+                        HorarioSemanalService horarioSemanalService) {
                 this.profesorService = profesorService;
+                this.horarioSemanalService = horarioSemanalService;
         }
 
         /**
@@ -92,6 +98,25 @@ public class ProfesorController {
                 return ResponseEntity.ok(profesor);
         }
 
+        /**
+         * Obtiene el horario semanal de un profesor.
+         *
+         * @param id        El ID del profesor
+         * @param periodoId ID del periodo (opcional)
+         * @return Clases de la semana agrupadas por día
+         */
+        @GetMapping("/{id}/horario")
+        @Operation(summary = "Obtener horario semanal del profesor", description = "Retorna las clases de la semana de los cursos que imparte el profesor, agrupadas por día y ordenadas por hora. Sin periodo se usan los periodos activos")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Horario obtenido exitosamente", content = @Content(schema = @Schema(implementation = HorarioSemanalResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "Profesor no encontrado con el ID proporcionado", content = @Content)
+        })
+        public ResponseEntity<HorarioSemanalResponse> getHorarioProfesor(
+                        @Parameter(description = "ID único del profesor", example = "550e8400-e29b-41d4-a716-446655440000") @PathVariable String id,
+                        @Parameter(description = "ID del periodo (opcional)") @RequestParam(required = false) String periodoId) {
+                return ResponseEntity.ok(horarioSemanalService.getHorarioProfesor(id, periodoId));
+        }
+
         /**
          * Busca profesores por especialidad (búsqueda parcial).
          *
@@ -26,6 +26,7 @@ import com.example.api.dto.request.UpdateReporteRequest;
 import com.example.api.dto.response.ReporteResponse;
 import com.example.api.model.Reporte.TipoReporte;
 import com.example.api.service.ReporteService;
+import com.example.api.service.TrabajoReporteService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,20 +39,22 @@ import jakarta.validation.Valid;
 
 /**
  * Controlador REST para gestionar reportes.
- * Implementa Queue (FIFO) para el procesamiento de reportes.
+ * La cola de generación es persistente y la procesan workers en segundo plano.
  */
 @RestController
 @RequestMapping("/api/reportes")
-@Tag(name = "Reportes", description = "API para gestión de reportes con cola FIFO de procesamiento")
+@Tag(name = "Reportes", description = "API para gestión de reportes con cola persistente de generación")
 public class ReporteController {
 
     private final ReporteService reporteService;
+    private final TrabajoReporteService trabajoReporteService;
 
     /**
      * Constructor con inyección de dependencias.
      */
-    public ReporteController(ReporteService reporteService) {
+    public ReporteController(ReporteService reporteService, TrabajoReporteService trabajoReporteService) {
         this.reporteService = reporteService;
+        this.trabajoReporteService = trabajoReporteService;
     }
 
     @Operation(summary = "Listar reportes", description = "Obtiene todos los reportes activos con paginación")
@@ -117,39 +120,37 @@ public class ReporteController {
         return ResponseEntity.ok(reporteService.getReportesRecientes());
     }
 
-    @Operation(summary = "Agregar reporte a cola de generación (Queue FIFO)", description = "Agrega una solicitud de reporte a la cola FIFO para procesamiento asíncrono. "
+    @Operation(summary = "Agregar reporte a cola de generación", description = "Encola un trabajo persistente que crea el reporte en segundo plano. "
             +
-            "Los reportes se procesan en el orden en que son solicitados (First In, First Out). " +
-            "Complejidad: O(1) para agregar a la cola.")
+            "Los trabajos se toman en orden de llegada; su avance se consulta en /api/reportes/trabajos/{id}.")
     @ApiResponses({
             @ApiResponse(responseCode = "202", description = "Solicitud agregada a la cola de generación")
     })
     @PostMapping("/cola-generacion")
     public ResponseEntity<Map<String, Object>> agregarAColaGeneracion(
             @Valid @RequestBody CreateReporteRequest request) {
-        Map<String, Object> resultado = reporteService.agregarAColaGeneracion(request);
+        Map<String, Object> resultado = trabajoReporteService.agregarAColaGeneracion(request);
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(resultado);
     }
 
-    @Operation(summary = "Procesar cola de reportes (Queue FIFO)", description = "Procesa todos los reportes pendientes en la cola FIFO. "
+    @Operation(summary = "Procesar cola de reportes", description = "Se conserva por compatibilidad: la cola la procesan workers en segundo plano, "
             +
-            "Los reportes se generan en el orden en que fueron solicitados. " +
-            "Complejidad: O(n) donde n es el número de reportes en la cola.")
+            "por lo que este endpoint ya no genera reportes y solo devuelve el estado de la cola.", deprecated = true)
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Cola procesada exitosamente")
+            @ApiResponse(responseCode = "202", description = "Estado de la cola obtenido")
     })
     @PostMapping("/procesar")
     public ResponseEntity<Map<String, Object>> procesarColaReportes() {
-        return ResponseEntity.ok(reporteService.procesarColaReportes());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajoReporteService.getEstadoCola());
     }
 
-    @Operation(summary = "Obtener estado de la cola", description = "Obtiene información sobre el estado actual de la cola de reportes")
+    @Operation(summary = "Obtener estado de la cola", description = "Obtiene el número de trabajos por estado y la fecha del trabajo en cola más antiguo")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Estado de la cola obtenido")
     })
     @GetMapping("/cola-estado")
     public ResponseEntity<Map<String, Object>> getEstadoCola() {
-        return ResponseEntity.ok(reporteService.getEstadoCola());
+        return ResponseEntity.ok(trabajoReporteService.getEstadoCola());
     }
 
     @Operation(summary = "Listar reportes eliminados", description = "Obtiene todos los reportes que han sido eliminados lógicamente")
@@ -0,0 +1,106 @@
+package com.example.api.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.api.dto.request.CreateTrabajoReporteRequest;
+import com.example.api.dto.response.TrabajoReporteResponse;
+import com.example.api.model.TrabajoReporte.EstadoTrabajo;
+import com.example.api.service.TrabajoReporteService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Controlador REST para los trabajos asíncronos de generación de reportes.
+ */
+@RestController
+@RequestMapping("/api/reportes/trabajos")
+@Tag(name = "Trabajos de reportes", description = "API para encolar y seguir la generación asíncrona de reportes")
+public class TrabajoReporteController {
+
+    private final TrabajoReporteService trabajoReporteService;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public TrabajoReporteController(TrabajoReporteService trabajoReporteService) {
+        this.trabajoReporteService = trabajoReporteService;
+    }
+
+    @Operation(summary = "Encolar lote de reportes", description = "Crea un trabajo persistente que genera los reportes en segundo plano. "
+            +
+            "Los reportes con datos inválidos se omiten; los errores transitorios se reintentan con espera exponencial.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Trabajo encolado"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "404", description = "Usuario solicitante no encontrado")
+    })
+    @PostMapping
+    public ResponseEntity<TrabajoReporteResponse> encolar(@Valid @RequestBody CreateTrabajoReporteRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(trabajoReporteService.encolar(request));
+    }
+
+    @Operation(summary = "Listar trabajos por estado", description = "Obtiene los trabajos de un estado, del más reciente al más antiguo. "
+            +
+            "Los trabajos 'fallido' agotaron sus intentos y esperan un reintento manual.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de trabajos obtenida")
+    })
+    @GetMapping
+    public ResponseEntity<Page<TrabajoReporteResponse>> getTrabajos(
+            @Parameter(description = "Estado de los trabajos", example = "fallido") @RequestParam(defaultValue = "en_cola") EstadoTrabajo estado,
+            @Parameter(description = "Número de página (inicia en 0)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página", example = "20") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(trabajoReporteService.getTrabajosByEstado(estado, PageRequest.of(page, size)));
+    }
+
+    @Operation(summary = "Obtener estado de un trabajo", description = "Obtiene el estado, el avance y los errores de un trabajo")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trabajo encontrado"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<TrabajoReporteResponse> getTrabajo(
+            @Parameter(description = "ID del trabajo") @PathVariable String id) {
+        return ResponseEntity.ok(trabajoReporteService.getTrabajo(id));
+    }
+
+    @Operation(summary = "Reintentar trabajo", description = "Vuelve a encolar un trabajo fallido o cancelado; continúa desde el último reporte confirmado")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trabajo reencolado"),
+            @ApiResponse(responseCode = "400", description = "El trabajo no está fallido ni cancelado"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado")
+    })
+    @PostMapping("/{id}/reintentar")
+    public ResponseEntity<TrabajoReporteResponse> reintentar(
+            @Parameter(description = "ID del trabajo") @PathVariable String id) {
+        return ResponseEntity.ok(trabajoReporteService.reintentar(id));
+    }
+
+    @Operation(summary = "Cancelar trabajo", description = "Cancela un trabajo que todavía está en cola")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trabajo cancelado"),
+            @ApiResponse(responseCode = "400", description = "El trabajo ya empezó o terminó"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<TrabajoReporteResponse> cancelar(
+            @Parameter(description = "ID del trabajo") @PathVariable String id) {
+        return ResponseEntity.ok(trabajoReporteService.cancelar(id));
+    }
+}
@@ -2,6 +2,9 @@ package com.example.api.dto;
 
 import lombok.Data;
 import java.time.Instant;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Data
 public class AuditLogDTO {
@@ -12,4 +15,11 @@ public class AuditLogDTO {
     private String device;
     private String requestBody;
     private Instant timestamp;
+
+    /**
+     * Detalle aún sin serializar; AuditProducer lo convierte en requestBody en su hilo
+     * de envío, fuera de la petición.
+     */
+    @JsonIgnore
+    private transient Map<String, Object> detalle;
 }
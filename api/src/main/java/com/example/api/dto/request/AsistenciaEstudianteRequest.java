@@ -0,0 +1,28 @@
+package com.example.api.dto.request;
+
+import com.example.api.model.Asistencia.EstadoAsistencia;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO con el estado de asistencia de un estudiante dentro de un pase de lista.
+ */
+@Schema(description = "Estado de asistencia de un estudiante en un pase de lista")
+public record AsistenciaEstudianteRequest(
+
+        @Schema(description = "ID del estudiante", example = "550e8400-e29b-41d4-a716-446655440001", required = true)
+        @NotBlank(message = "El ID del estudiante es obligatorio")
+        String estudianteId,
+
+        @Schema(description = "Estado de asistencia", example = "presente", required = true, allowableValues = {"presente", "ausente", "tarde", "justificado"})
+        @NotNull(message = "El estado de asistencia es obligatorio")
+        EstadoAsistencia estado,
+
+        @Schema(description = "Observación sobre la asistencia", example = "Llegó 10 minutos tarde")
+        @Size(max = 255, message = "La observación no puede exceder 255 caracteres")
+        String observacion
+) {
+}
@@ -0,0 +1,26 @@
+package com.example.api.dto.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para registrar las calificaciones de varios estudiantes en una misma evaluación.
+ */
+@Schema(description = "Planilla de notas de una evaluación")
+public record CreateCalificacionesBulkRequest(
+
+        @Schema(description = "ID de la evaluación", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+        @NotBlank(message = "El ID de la evaluación es obligatorio")
+        String evaluacionId,
+
+        @Schema(description = "Notas por estudiante", required = true)
+        @NotEmpty(message = "Debe incluir al menos una nota")
+        @Size(max = 500, message = "No se pueden registrar más de 500 notas por solicitud")
+        List<@Valid NotaEstudianteRequest> notas
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.api.dto.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para encolar un trabajo que genera un lote de reportes en segundo plano.
+ */
+@Schema(description = "Lote de reportes a generar de forma asíncrona")
+public record CreateTrabajoReporteRequest(
+
+        @Schema(description = "ID del usuario que solicita el trabajo", example = "550e8400-e29b-41d4-a716-446655440002")
+        String solicitadoPorId,
+
+        @Schema(description = "Reportes a crear, en orden", required = true)
+        @NotEmpty(message = "Debe incluir al menos un reporte")
+        @Size(max = 5000, message = "No se pueden encolar más de 5000 reportes por trabajo")
+        List<@Valid CreateReporteRequest> reportes
+) {
+}
@@ -0,0 +1,27 @@
+package com.example.api.dto.request;
+
+import com.example.api.model.HorarioCurso.DiaSemana;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO con una franja en la que un profesor puede dictar clases.
+ */
+@Schema(description = "Franja disponible de un profesor")
+public record DisponibilidadProfesorRequest(
+
+        @Schema(description = "ID del profesor", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+        @NotBlank(message = "El ID del profesor es obligatorio")
+        String profesorId,
+
+        @Schema(description = "Día de la semana", example = "LUN", required = true, allowableValues = {"LUN", "MAR", "MIE", "JUE", "VIE", "SAB", "DOM"})
+        @NotNull(message = "El día de la semana es obligatorio")
+        DiaSemana dia,
+
+        @Schema(description = "ID del bloque de horario", example = "550e8400-e29b-41d4-a716-446655440001", required = true)
+        @NotBlank(message = "El ID del bloque de horario es obligatorio")
+        String bloqueId
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO para generar los boletines de un periodo, o solo los de un curso del periodo.
+ */
+@Schema(description = "Parámetros para generar boletines en PDF")
+public record GenerarBoletinesRequest(
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+        @NotBlank(message = "El ID del periodo es obligatorio")
+        String periodoId,
+
+        @Schema(description = "ID de un curso del periodo; si se indica, solo se generan los boletines de sus estudiantes",
+                example = "550e8400-e29b-41d4-a716-446655440001")
+        String cursoId,
+
+        @Schema(description = "ID del usuario que solicita la generación", example = "550e8400-e29b-41d4-a716-446655440002")
+        String solicitadoPorId
+) {
+}
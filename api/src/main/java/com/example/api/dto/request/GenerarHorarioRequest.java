@@ -0,0 +1,45 @@
+package com.example.api.dto.request;
+
+import java.util.List;
+
+import com.example.api.model.HorarioCurso.DiaSemana;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO para generar automáticamente el horario de un periodo.
+ */
+@Schema(description = "Parámetros para generar el horario de un periodo")
+public record GenerarHorarioRequest(
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+        @NotBlank(message = "El ID del periodo es obligatorio")
+        String periodoId,
+
+        @Schema(description = "Sesiones semanales por curso", example = "2", defaultValue = "2")
+        @Min(value = 1, message = "Cada curso debe tener al menos una sesión")
+        @Max(value = 10, message = "Un curso no puede tener más de 10 sesiones semanales")
+        Integer sesionesPorCurso,
+
+        @Schema(description = "Días en los que se puede programar (por defecto LUN a VIE)", example = "[\"LUN\", \"MAR\", \"MIE\", \"JUE\", \"VIE\"]")
+        List<DiaSemana> dias,
+
+        @Schema(description = "IDs de los bloques de horario utilizables (por defecto todos los activos)")
+        List<String> bloqueIds,
+
+        @Schema(description = "Aulas disponibles (por defecto las aulas por defecto de los cursos del periodo)", example = "[\"Aula 101\", \"Aula 102\", \"Lab 1\"]")
+        List<String> aulas,
+
+        @Schema(description = "Franjas disponibles por profesor. Un profesor sin franjas listadas puede dictar en cualquier franja")
+        List<@Valid DisponibilidadProfesorRequest> disponibilidadProfesores,
+
+        @Schema(description = "Tiempo máximo de búsqueda en segundos", example = "30", defaultValue = "30")
+        @Min(value = 1, message = "El tiempo máximo debe ser de al menos 1 segundo")
+        @Max(value = 300, message = "El tiempo máximo no puede exceder 300 segundos")
+        Integer tiempoMaximoSegundos
+) {
+}
@@ -0,0 +1,28 @@
+package com.example.api.dto.request;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para registrar la asistencia de toda la lista de una clase en una sola solicitud.
+ */
+@Schema(description = "Pase de lista completo de una clase")
+public record RegistroAsistenciaBulkRequest(
+
+        @Schema(description = "ID del usuario que registra la asistencia", example = "550e8400-e29b-41d4-a716-446655440002")
+        String registradoPorId,
+
+        @Schema(description = "Fecha y hora del registro (por defecto, ahora)", example = "2024-03-15T08:00:00")
+        LocalDateTime registradoAt,
+
+        @Schema(description = "Estado de asistencia por estudiante", required = true)
+        @NotEmpty(message = "Debe incluir al menos un estudiante")
+        @Size(max = 500, message = "No se pueden registrar más de 500 estudiantes por solicitud")
+        List<@Valid AsistenciaEstudianteRequest> estudiantes
+) {
+}
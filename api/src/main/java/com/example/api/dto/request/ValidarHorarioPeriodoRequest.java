@@ -0,0 +1,29 @@
+package com.example.api.dto.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para validar de una sola vez un horario propuesto para un periodo.
+ */
+@Schema(description = "Horario propuesto para un periodo")
+public record ValidarHorarioPeriodoRequest(
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+        @NotBlank(message = "El ID del periodo es obligatorio")
+        String periodoId,
+
+        @Schema(description = "Si es true la propuesta reemplaza todos los horarios actuales del periodo; si es false se valida también contra ellos", example = "false")
+        boolean reemplazar,
+
+        @Schema(description = "Franjas propuestas", required = true)
+        @NotEmpty(message = "Debe incluir al menos una franja")
+        @Size(max = 5000, message = "No se pueden validar más de 5000 franjas por solicitud")
+        List<@Valid PropuestaHorarioRequest> horarios
+) {
+}
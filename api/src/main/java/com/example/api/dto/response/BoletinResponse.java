@@ -0,0 +1,41 @@
+package com.example.api.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con los datos de un boletín generado.
+ */
+@Schema(description = "Boletín en PDF de un estudiante en un periodo")
+public record BoletinResponse(
+
+        @Schema(description = "ID del boletín", example = "550e8400-e29b-41d4-a716-446655440000")
+        String id,
+
+        @Schema(description = "ID del estudiante", example = "550e8400-e29b-41d4-a716-446655440001")
+        String estudianteId,
+
+        @Schema(description = "Código del estudiante", example = "EST-2024-001")
+        String codigoEstudiante,
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440002")
+        String periodoId,
+
+        @Schema(description = "Path del archivo en el almacenamiento", example = "boletines/550e8400-e29b-41d4-a716-446655440002/550e8400-e29b-41d4-a716-446655440001.pdf")
+        String archivo,
+
+        @Schema(description = "Tamaño del archivo en bytes", example = "5120")
+        int tamanoBytes,
+
+        @Schema(description = "Promedio de las notas finales del periodo", example = "84.35")
+        BigDecimal promedio,
+
+        @Schema(description = "Fecha de generación")
+        LocalDateTime generadoAt,
+
+        @Schema(description = "ID del trabajo que lo generó", example = "550e8400-e29b-41d4-a716-446655440003")
+        String trabajoId
+) {
+}
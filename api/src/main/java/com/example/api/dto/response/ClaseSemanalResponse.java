@@ -0,0 +1,52 @@
+package com.example.api.dto.response;
+
+import java.time.LocalTime;
+
+import com.example.api.model.HorarioCurso.DiaSemana;
+import com.example.api.model.HorarioCurso.TipoHorario;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con una clase del horario semanal de un estudiante o profesor.
+ */
+@Schema(description = "Clase del horario semanal")
+public record ClaseSemanalResponse(
+
+        @Schema(description = "ID del horario de curso", example = "550e8400-e29b-41d4-a716-446655440000")
+        String horarioId,
+
+        @Schema(description = "ID del curso", example = "550e8400-e29b-41d4-a716-446655440001")
+        String cursoId,
+
+        @Schema(description = "Nombre de la asignatura", example = "Matemáticas I")
+        String asignaturaNombre,
+
+        @Schema(description = "Nombre del grupo", example = "Grupo A")
+        String nombreGrupo,
+
+        @Schema(description = "Nombre del profesor del curso", example = "María López")
+        String profesorNombre,
+
+        @Schema(description = "Día de la semana", example = "LUN")
+        DiaSemana dia,
+
+        @Schema(description = "ID del bloque de horario", example = "550e8400-e29b-41d4-a716-446655440002")
+        String bloqueId,
+
+        @Schema(description = "Nombre del bloque", example = "Bloque 1")
+        String bloqueNombre,
+
+        @Schema(description = "Hora de inicio", example = "07:00:00")
+        LocalTime inicio,
+
+        @Schema(description = "Hora de fin", example = "08:00:00")
+        LocalTime fin,
+
+        @Schema(description = "Aula donde se imparte (la del curso si el horario no indica una)", example = "Aula 201")
+        String aula,
+
+        @Schema(description = "Tipo de horario", example = "regular")
+        TipoHorario tipo
+) {
+}
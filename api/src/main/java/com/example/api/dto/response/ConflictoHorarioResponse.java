@@ -0,0 +1,48 @@
+package com.example.api.dto.response;
+
+import java.time.LocalTime;
+
+import com.example.api.model.HorarioCurso.DiaSemana;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con un choque entre una franja propuesta y otra franja.
+ */
+@Schema(description = "Choque de una franja propuesta con otra franja del mismo periodo")
+public record ConflictoHorarioResponse(
+
+        @Schema(description = "Posición de la franja propuesta en la solicitud (desde 0)", example = "4")
+        int indice,
+
+        @Schema(description = "ID del curso de la franja propuesta", example = "550e8400-e29b-41d4-a716-446655440000")
+        String cursoId,
+
+        @Schema(description = "Día de la semana", example = "LUN")
+        DiaSemana dia,
+
+        @Schema(description = "Hora de inicio de la franja propuesta", example = "08:00:00")
+        LocalTime inicio,
+
+        @Schema(description = "Hora de fin de la franja propuesta", example = "09:30:00")
+        LocalTime fin,
+
+        @Schema(description = "Recurso compartido", example = "AULA", allowableValues = {"AULA", "PROFESOR", "CURSO"})
+        String motivo,
+
+        @Schema(description = "Posición de la otra franja en la solicitud (null si es un horario existente)", example = "1")
+        Integer indiceConflicto,
+
+        @Schema(description = "ID del horario existente con el que choca (null si es otra franja propuesta)")
+        String horarioConflictoId,
+
+        @Schema(description = "ID del curso de la otra franja", example = "550e8400-e29b-41d4-a716-446655440001")
+        String cursoConflictoId,
+
+        @Schema(description = "Hora de inicio de la otra franja", example = "09:00:00")
+        LocalTime inicioConflicto,
+
+        @Schema(description = "Hora de fin de la otra franja", example = "10:00:00")
+        LocalTime finConflicto
+) {
+}
@@ -0,0 +1,56 @@
+package com.example.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con la disponibilidad de cupos de un curso.
+ */
+@Schema(description = "Disponibilidad de cupos de un curso")
+public record DisponibilidadCursoResponse(
+
+        @Schema(description = "ID del curso", example = "550e8400-e29b-41d4-a716-446655440000")
+        String cursoId,
+
+        @Schema(description = "Nombre del grupo", example = "Grupo A")
+        String nombreGrupo,
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440001")
+        String periodoId,
+
+        @Schema(description = "ID de la asignatura", example = "550e8400-e29b-41d4-a716-446655440002")
+        String asignaturaId,
+
+        @Schema(description = "Nombre de la asignatura", example = "Matemáticas I")
+        String asignaturaNombre,
+
+        @Schema(description = "Cupo máximo de estudiantes", example = "30")
+        int cupoTotal,
+
+        @Schema(description = "Cupos ocupados", example = "27")
+        int inscritos,
+
+        @Schema(description = "Cupos disponibles", example = "3")
+        int cuposDisponibles,
+
+        @Schema(description = "Indica si el curso está lleno", example = "false")
+        boolean lleno
+) {
+
+    public DisponibilidadCursoResponse(String cursoId, String nombreGrupo, String periodoId, String asignaturaId,
+            String asignaturaNombre, Integer cupoTotal, Integer inscritos) {
+        this(cursoId, nombreGrupo, periodoId, asignaturaId, asignaturaNombre, valor(cupoTotal), valor(inscritos),
+                Math.max(0, valor(cupoTotal) - valor(inscritos)), valor(inscritos) >= valor(cupoTotal));
+    }
+
+    /**
+     * Copia la disponibilidad con otro número de cupos ocupados.
+     */
+    public DisponibilidadCursoResponse conInscritos(int nuevosInscritos) {
+        return new DisponibilidadCursoResponse(cursoId, nombreGrupo, periodoId, asignaturaId, asignaturaNombre,
+                cupoTotal, nuevosInscritos);
+    }
+
+    private static int valor(Integer numero) {
+        return numero != null ? numero : 0;
+    }
+}
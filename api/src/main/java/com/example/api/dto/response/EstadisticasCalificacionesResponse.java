@@ -0,0 +1,39 @@
+package com.example.api.dto.response;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con la distribución de notas y sus estadísticas descriptivas.
+ * Todos los valores se calculan a partir de un histograma agregado en MySQL.
+ */
+@Schema(description = "Estadísticas de distribución de calificaciones")
+public record EstadisticasCalificacionesResponse(
+
+        @Schema(description = "Número de calificaciones consideradas", example = "1250")
+        long totalCalificaciones,
+
+        @Schema(description = "Promedio de notas", example = "78.40")
+        BigDecimal promedioGeneral,
+
+        @Schema(description = "Desviación estándar poblacional", example = "11.32")
+        BigDecimal desviacionEstandar,
+
+        @Schema(description = "Nota mínima", example = "35.00")
+        BigDecimal notaMinima,
+
+        @Schema(description = "Nota máxima", example = "100.00")
+        BigDecimal notaMaxima,
+
+        @Schema(description = "Mediana (percentil 50)", example = "80.00")
+        BigDecimal percentil50,
+
+        @Schema(description = "Percentil 90", example = "93.50")
+        BigDecimal percentil90,
+
+        @Schema(description = "Número de calificaciones por rango de nota")
+        Map<String, Long> distribucion
+) {
+}
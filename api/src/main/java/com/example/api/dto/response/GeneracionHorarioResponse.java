@@ -0,0 +1,46 @@
+package com.example.api.dto.response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con el estado y el progreso de una generación de horario.
+ */
+@Schema(description = "Estado de una generación automática de horario")
+public record GeneracionHorarioResponse(
+
+        @Schema(description = "ID de la generación", example = "550e8400-e29b-41d4-a716-446655440000")
+        String id,
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440001")
+        String periodoId,
+
+        @Schema(description = "Estado", example = "EN_PROCESO", allowableValues = {"EN_COLA", "EN_PROCESO", "RESUELTO", "SIN_SOLUCION", "ERROR", "APLICADO"})
+        String estado,
+
+        @Schema(description = "Cursos a programar", example = "1000")
+        int totalCursos,
+
+        @Schema(description = "Sesiones a programar", example = "2000")
+        int totalSesiones,
+
+        @Schema(description = "Choques de la mejor asignación encontrada hasta ahora (null si aún no hay asignación)", example = "3")
+        Integer conflictos,
+
+        @Schema(description = "Movimientos evaluados por todos los hilos", example = "125000")
+        long iteraciones,
+
+        @Schema(description = "Hilos de búsqueda", example = "8")
+        int hilos,
+
+        @Schema(description = "Tiempo transcurrido en milisegundos", example = "4200")
+        long milisegundos,
+
+        @Schema(description = "Mensaje de error o detalle del resultado")
+        String mensaje,
+
+        @Schema(description = "Asignación encontrada (solo cuando la búsqueda terminó)")
+        List<HorarioPropuestoResponse> horarios
+) {
+}
@@ -0,0 +1,46 @@
+package com.example.api.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO compacto de una calificación dentro del historial de un estudiante.
+ * Se construye directamente desde una proyección JPQL, sin cargar entidades anidadas.
+ */
+@Schema(description = "Calificación del historial de un estudiante (vista compacta)")
+public record HistorialCalificacionResponse(
+
+        @Schema(description = "ID de la calificación", example = "550e8400-e29b-41d4-a716-446655440002")
+        String calificacionId,
+
+        @Schema(description = "ID de la evaluación", example = "550e8400-e29b-41d4-a716-446655440000")
+        String evaluacionId,
+
+        @Schema(description = "Nombre de la evaluación", example = "Examen Parcial 1")
+        String evaluacionNombre,
+
+        @Schema(description = "Fecha de la evaluación", example = "2024-03-15")
+        LocalDate fecha,
+
+        @Schema(description = "ID del curso", example = "550e8400-e29b-41d4-a716-446655440003")
+        String cursoId,
+
+        @Schema(description = "Nombre de la asignatura del curso", example = "Matemáticas I")
+        String cursoNombre,
+
+        @Schema(description = "Grupo del curso", example = "Grupo A")
+        String grupo,
+
+        @Schema(description = "Nota obtenida", example = "85.50")
+        BigDecimal nota,
+
+        @Schema(description = "Peso de la evaluación", example = "20.00")
+        BigDecimal peso,
+
+        @Schema(description = "Fecha de registro de la calificación", example = "2024-03-16T10:30:00")
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,26 @@
+package com.example.api.dto.response;
+
+import com.example.api.model.HorarioCurso.DiaSemana;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con una franja asignada por el generador de horarios.
+ * Tiene la misma forma que una franja de la validación de horarios.
+ */
+@Schema(description = "Franja asignada a un curso por el generador de horarios")
+public record HorarioPropuestoResponse(
+
+        @Schema(description = "ID del curso", example = "550e8400-e29b-41d4-a716-446655440000")
+        String cursoId,
+
+        @Schema(description = "ID del bloque de horario", example = "550e8400-e29b-41d4-a716-446655440001")
+        String bloqueId,
+
+        @Schema(description = "Día de la semana", example = "LUN")
+        DiaSemana dia,
+
+        @Schema(description = "Aula asignada", example = "Aula 201")
+        String aula
+) {
+}
@@ -0,0 +1,28 @@
+package com.example.api.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.api.model.HorarioCurso.DiaSemana;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con el horario semanal de un estudiante o profesor.
+ */
+@Schema(description = "Horario semanal de un estudiante o profesor")
+public record HorarioSemanalResponse(
+
+        @Schema(description = "ID del estudiante o profesor", example = "550e8400-e29b-41d4-a716-446655440000")
+        String titularId,
+
+        @Schema(description = "ID del periodo consultado (null si son los periodos activos)", example = "null")
+        String periodoId,
+
+        @Schema(description = "Número total de clases en la semana", example = "12")
+        int totalClases,
+
+        @Schema(description = "Clases de cada día ordenadas por hora de inicio; solo aparecen los días con clases")
+        Map<DiaSemana, List<ClaseSemanalResponse>> dias
+) {
+}
@@ -0,0 +1,28 @@
+package com.example.api.dto.response;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con la posición de un estudiante en la lista de espera de un curso.
+ */
+@Schema(description = "Posición de un estudiante en la lista de espera de un curso")
+public record ListaEsperaResponse(
+
+        @Schema(description = "ID del curso", example = "550e8400-e29b-41d4-a716-446655440000")
+        String cursoId,
+
+        @Schema(description = "ID del estudiante", example = "550e8400-e29b-41d4-a716-446655440001")
+        String estudianteId,
+
+        @Schema(description = "Posición en la lista (1 = siguiente en ser promovido)", example = "3")
+        int posicion,
+
+        @Schema(description = "Número de estudiantes en espera", example = "12")
+        int totalEnEspera,
+
+        @Schema(description = "Fecha y hora de la solicitud", example = "2024-03-15T08:00:00.123456")
+        LocalDateTime solicitadoAt
+) {
+}
@@ -0,0 +1,26 @@
+package com.example.api.dto.response;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con la nota final ponderada de un estudiante en un curso.
+ */
+@Schema(description = "Nota final ponderada de un estudiante en un curso")
+public record NotaFinalResponse(
+
+        @Schema(description = "ID del curso", example = "550e8400-e29b-41d4-a716-446655440000")
+        String cursoId,
+
+        @Schema(description = "ID del estudiante", example = "550e8400-e29b-41d4-a716-446655440001")
+        String estudianteId,
+
+        @Schema(description = "Nota final ponderada (0-100)", example = "84.35")
+        BigDecimal notaFinal,
+
+        @Schema(description = "Nota obtenida en cada tipo de ponderación del curso")
+        Map<String, BigDecimal> notasPorPonderacion
+) {
+}
@@ -0,0 +1,28 @@
+package com.example.api.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO genérico para resultados paginados por cursor (keyset).
+ * En lugar de un número de página, el cliente envía los valores de
+ * {@code siguienteCursor} como parámetros para obtener la página siguiente.
+ */
+@Schema(description = "Página de resultados con paginación por cursor")
+public record PaginaKeysetResponse<T>(
+
+        @Schema(description = "Elementos de la página")
+        List<T> contenido,
+
+        @Schema(description = "Tamaño de página solicitado", example = "20")
+        int tamano,
+
+        @Schema(description = "Indica si existen más resultados", example = "true")
+        boolean haySiguiente,
+
+        @Schema(description = "Parámetros a enviar para obtener la página siguiente (null si no hay más)")
+        Map<String, Object> siguienteCursor
+) {
+}
@@ -0,0 +1,29 @@
+package com.example.api.dto.response;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con la posición de un estudiante dentro de un ranking.
+ * Contiene solo los datos calculados por la consulta agregada, sin entidades anidadas.
+ */
+@Schema(description = "Estudiante dentro de un ranking por promedio")
+public record RankingEstudianteResponse(
+
+        @Schema(description = "ID del estudiante", example = "550e8400-e29b-41d4-a716-446655440000")
+        String estudianteId,
+
+        @Schema(description = "Código único del estudiante", example = "EST-2024-001")
+        String codigoEstudiante,
+
+        @Schema(description = "Nombre del estudiante", example = "Ana Pérez")
+        String nombre,
+
+        @Schema(description = "Promedio de notas", example = "87.25")
+        BigDecimal promedio,
+
+        @Schema(description = "Número de calificaciones consideradas", example = "6")
+        Long totalCalificaciones
+) {
+}
@@ -0,0 +1,28 @@
+package com.example.api.dto.response;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con el resumen de un pase de lista masivo.
+ */
+@Schema(description = "Resumen del pase de lista de una clase")
+public record RegistroAsistenciaBulkResponse(
+
+        @Schema(description = "ID de la clase", example = "550e8400-e29b-41d4-a716-446655440000")
+        String claseId,
+
+        @Schema(description = "Número de estudiantes procesados", example = "35")
+        int total,
+
+        @Schema(description = "Registros nuevos", example = "30")
+        int insertados,
+
+        @Schema(description = "Registros existentes actualizados", example = "5")
+        int actualizados,
+
+        @Schema(description = "Número de estudiantes por estado")
+        Map<String, Long> porEstado
+) {
+}
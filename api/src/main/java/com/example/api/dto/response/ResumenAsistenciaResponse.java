@@ -0,0 +1,49 @@
+package com.example.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con los contadores de asistencia de un estudiante en un curso.
+ */
+@Schema(description = "Resumen de asistencia de un estudiante en un curso")
+public record ResumenAsistenciaResponse(
+
+        @Schema(description = "ID del estudiante", example = "550e8400-e29b-41d4-a716-446655440000")
+        String estudianteId,
+
+        @Schema(description = "Código único del estudiante", example = "EST-2024-001")
+        String codigoEstudiante,
+
+        @Schema(description = "Nombre del estudiante", example = "Ana Pérez")
+        String nombre,
+
+        @Schema(description = "Clases con estado presente", example = "20")
+        int presente,
+
+        @Schema(description = "Clases con estado ausente", example = "3")
+        int ausente,
+
+        @Schema(description = "Clases con estado tarde", example = "2")
+        int tarde,
+
+        @Schema(description = "Clases con estado justificado", example = "1")
+        int justificado,
+
+        @Schema(description = "Total de registros de asistencia", example = "26")
+        int totalClases,
+
+        @Schema(description = "Porcentaje de asistencia (presente + tarde)", example = "84.62")
+        double porcentajeAsistencia
+) {
+
+    /**
+     * Crea el resumen calculando el total y el porcentaje de asistencia.
+     */
+    public static ResumenAsistenciaResponse de(String estudianteId, String codigoEstudiante, String nombre,
+            int presente, int ausente, int tarde, int justificado) {
+        int total = presente + ausente + tarde + justificado;
+        double porcentaje = total > 0 ? (presente + tarde) * 100.0 / total : 0.0;
+        return new ResumenAsistenciaResponse(estudianteId, codigoEstudiante, nombre, presente, ausente, tarde,
+                justificado, total, Math.round(porcentaje * 100.0) / 100.0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta de una solicitud de inscripción: inscripción directa si había cupo,
+ * o posición en la lista de espera si el curso estaba lleno.
+ */
+@Schema(description = "Resultado de una solicitud de inscripción")
+public record SolicitudInscripcionResponse(
+
+        @Schema(description = "Resultado de la solicitud", example = "EN_ESPERA", allowableValues = {"INSCRITO", "EN_ESPERA"})
+        String resultado,
+
+        @Schema(description = "Inscripción creada (solo si resultado = INSCRITO)")
+        InscripcionResponse inscripcion,
+
+        @Schema(description = "Posición en la lista de espera (solo si resultado = EN_ESPERA)")
+        ListaEsperaResponse listaEspera
+) {
+
+    public static final String INSCRITO = "INSCRITO";
+    public static final String EN_ESPERA = "EN_ESPERA";
+}
@@ -0,0 +1,61 @@
+package com.example.api.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.example.api.model.TrabajoReporte.EstadoTrabajo;
+import com.example.api.model.TrabajoReporte.TipoTrabajo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta con el estado y avance de un trabajo de generación de reportes.
+ */
+@Schema(description = "Estado y avance de un trabajo de generación de reportes")
+public record TrabajoReporteResponse(
+
+        @Schema(description = "ID del trabajo", example = "550e8400-e29b-41d4-a716-446655440000")
+        String id,
+
+        @Schema(description = "Tipo de trabajo", example = "crear_reportes")
+        TipoTrabajo tipo,
+
+        @Schema(description = "Estado del trabajo", example = "en_proceso")
+        EstadoTrabajo estado,
+
+        @Schema(description = "Elementos a procesar", example = "1200")
+        int total,
+
+        @Schema(description = "Elementos procesados (incluye los omitidos)", example = "450")
+        int procesados,
+
+        @Schema(description = "Elementos omitidos por datos inválidos", example = "2")
+        int omitidos,
+
+        @Schema(description = "Porcentaje de avance", example = "37.5")
+        double progreso,
+
+        @Schema(description = "Intentos realizados", example = "1")
+        int intentos,
+
+        @Schema(description = "Máximo de intentos antes de descartar el trabajo", example = "5")
+        int maxIntentos,
+
+        @Schema(description = "Fecha a partir de la cual se ejecuta o reintenta", example = "2024-03-15T08:00:00")
+        LocalDateTime disponibleAt,
+
+        @Schema(description = "Fecha del primer inicio", example = "2024-03-15T08:00:01")
+        LocalDateTime iniciadoAt,
+
+        @Schema(description = "Fecha de finalización", example = "null")
+        LocalDateTime finalizadoAt,
+
+        @Schema(description = "Último error que provocó un reintento o el descarte", example = "null")
+        String ultimoError,
+
+        @Schema(description = "Errores de los elementos omitidos (uno por línea)", example = "null")
+        String erroresElementos,
+
+        @Schema(description = "Fecha de creación", example = "2024-03-15T08:00:00")
+        LocalDateTime createdAt
+) {
+}
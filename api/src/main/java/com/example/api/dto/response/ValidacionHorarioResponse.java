@@ -0,0 +1,25 @@
+package com.example.api.dto.response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de respuesta de la validación de un horario propuesto para un periodo.
+ */
+@Schema(description = "Resultado de validar un horario propuesto")
+public record ValidacionHorarioResponse(
+
+        @Schema(description = "ID del periodo", example = "550e8400-e29b-41d4-a716-446655440000")
+        String periodoId,
+
+        @Schema(description = "Número de franjas propuestas", example = "240")
+        int totalFranjas,
+
+        @Schema(description = "Indica si la propuesta no tiene choques", example = "false")
+        boolean valido,
+
+        @Schema(description = "Choques encontrados")
+        List<ConflictoHorarioResponse> conflictos
+) {
+}
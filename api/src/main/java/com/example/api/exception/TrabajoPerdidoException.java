@@ -0,0 +1,12 @@
+package com.example.api.exception;
+
+/**
+ * Excepción lanzada cuando un worker intenta registrar avance en un trabajo que ya no le
+ * pertenece (su bloqueo venció y otra instancia lo tomó, o fue reencolado).
+ */
+public class TrabajoPerdidoException extends RuntimeException {
+
+    public TrabajoPerdidoException(String trabajoId) {
+        super("El trabajo " + trabajoId + " ya no pertenece a esta instancia");
+    }
+}
@@ -25,6 +25,7 @@ public interface CursoMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "inscritos", ignore = true)
     Curso toEntity(CreateCursoRequest request);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -35,5 +36,6 @@ public interface CursoMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "inscritos", ignore = true)
     void updateEntityFromDto(UpdateCursoRequest request, @MappingTarget Curso entity);
 }
@@ -0,0 +1,51 @@
+package com.example.api.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa el boletín en PDF de un estudiante en un periodo.
+ * El archivo se guarda en el almacenamiento; regenerar el boletín lo reemplaza.
+ */
+@Entity
+@Table(name = "boletines")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Boletin extends BaseEntity {
+
+    @ManyToOne
+    @JoinColumn(name = "estudiante_id", nullable = false)
+    private Estudiante estudiante;
+
+    @ManyToOne
+    @JoinColumn(name = "periodo_id", nullable = false)
+    private Periodo periodo;
+
+    @Column(name = "archivo", nullable = false, length = 255)
+    private String archivo;
+
+    @Column(name = "tamano_bytes", nullable = false)
+    private Integer tamanoBytes = 0;
+
+    @Column(name = "promedio", precision = 6, scale = 2)
+    private BigDecimal promedio;
+
+    @Column(name = "generado_at", nullable = false)
+    private LocalDateTime generadoAt;
+
+    @ManyToOne
+    @JoinColumn(name = "trabajo_id")
+    private TrabajoReporte trabajo;
+}
@@ -46,6 +46,13 @@ public class Curso extends BaseEntity {
     @Column(name = "cupo")
     private Integer cupo = 0;
 
+    /**
+     * Cupos ocupados. Solo se modifica con UPDATE atómicos desde CursoRepository,
+     * por eso JPA nunca lo escribe.
+     */
+    @Column(name = "inscritos", insertable = false, updatable = false)
+    private Integer inscritos = 0;
+
     @Column(name = "imagen_url", length = 500)
     private String imagenUrl;
 
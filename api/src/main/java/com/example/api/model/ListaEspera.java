@@ -0,0 +1,37 @@
+package com.example.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa la solicitud pendiente de un estudiante en la lista de espera de un curso.
+ * El orden de la lista es (solicitadoAt, id).
+ */
+@Entity
+@Table(name = "lista_espera")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListaEspera extends BaseEntity {
+
+    @ManyToOne
+    @JoinColumn(name = "curso_id", nullable = false)
+    private Curso curso;
+
+    @ManyToOne
+    @JoinColumn(name = "estudiante_id", nullable = false)
+    private Estudiante estudiante;
+
+    @Column(name = "solicitado_at", nullable = false)
+    private LocalDateTime solicitadoAt;
+}
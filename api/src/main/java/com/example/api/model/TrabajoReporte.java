@@ -0,0 +1,104 @@
+package com.example.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa un trabajo asíncrono de generación de reportes.
+ * El payload guarda en JSON las solicitudes a procesar; procesados indica cuántas ya
+ * se confirmaron, por lo que un reintento continúa desde ahí.
+ */
+@Entity
+@Table(name = "trabajos_reporte")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoReporte extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private TipoTrabajo tipo = TipoTrabajo.crear_reportes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 10)
+    private EstadoTrabajo estado = EstadoTrabajo.en_cola;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Column(name = "total", nullable = false)
+    private Integer total = 0;
+
+    @Column(name = "procesados", nullable = false)
+    private Integer procesados = 0;
+
+    @Column(name = "omitidos", nullable = false)
+    private Integer omitidos = 0;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "max_intentos", nullable = false)
+    private Integer maxIntentos = 5;
+
+    @Column(name = "disponible_at", nullable = false)
+    private LocalDateTime disponibleAt;
+
+    @Column(name = "bloqueado_por", length = 100)
+    private String bloqueadoPor;
+
+    @Column(name = "bloqueado_hasta")
+    private LocalDateTime bloqueadoHasta;
+
+    @Column(name = "iniciado_at")
+    private LocalDateTime iniciadoAt;
+
+    @Column(name = "finalizado_at")
+    private LocalDateTime finalizadoAt;
+
+    @Lob
+    @Column(name = "ultimo_error", columnDefinition = "TEXT")
+    private String ultimoError;
+
+    @Lob
+    @Column(name = "errores_elementos", columnDefinition = "TEXT")
+    private String erroresElementos;
+
+    @ManyToOne
+    @JoinColumn(name = "solicitado_por")
+    private Usuario solicitadoPor;
+
+    /**
+     * Enum para el tipo de trabajo
+     */
+    public enum TipoTrabajo {
+        crear_reportes,
+        generar_boletines
+    }
+
+    /**
+     * Enum para el estado del trabajo. 'fallido' agrupa los trabajos descartados
+     * después de agotar sus intentos.
+     */
+    public enum EstadoTrabajo {
+        en_cola,
+        en_proceso,
+        completado,
+        fallido,
+        cancelado
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.api.repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -86,4 +87,26 @@ public interface ActividadRepository extends JpaRepository<Actividad, String> {
      */
     @Query("SELECT a FROM Actividad a WHERE a.fechaApertura > :fechaActual AND a.deletedAt IS NULL AND a.activo = true ORDER BY a.fechaApertura ASC")
     List<Actividad> findProximasActividades(@Param("fechaActual") LocalDateTime fechaActual);
+
+    /**
+     * Obtiene el peso y el tipo de ponderación de las actividades de un curso,
+     * sin cargar la entidad completa.
+     *
+     * @param cursoId ID del curso
+     * @return Pesos de las actividades del curso
+     */
+    @Query("SELECT a.id AS id, p.id AS ponderacionId, a.peso AS peso FROM Actividad a " +
+           "LEFT JOIN a.tipoPonderacion p WHERE a.curso.id = :cursoId AND a.deletedAt IS NULL")
+    List<PesoActividad> findPesosByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Proyección con el peso de una actividad dentro de su ponderación.
+     */
+    interface PesoActividad {
+        String getId();
+
+        String getPonderacionId();
+
+        BigDecimal getPeso();
+    }
 }
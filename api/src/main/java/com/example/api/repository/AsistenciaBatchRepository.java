@@ -0,0 +1,87 @@
+package com.example.api.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.api.model.Asistencia.EstadoAsistencia;
+
+/**
+ * Repositorio JDBC para el registro masivo de asistencia.
+ * Usa INSERT ... ON DUPLICATE KEY UPDATE sobre la clave única (clase_id, estudiante_id)
+ * enviado como un solo lote, de modo que una lista completa se guarda con un único
+ * viaje a la base de datos (con rewriteBatchedStatements=true).
+ */
+@Repository
+public class AsistenciaBatchRepository {
+
+    private static final String UPSERT_SQL = "INSERT INTO asistencia "
+            + "(id, clase_id, estudiante_id, estado, observacion, registrado_por, registrado_at, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE estado = VALUES(estado), observacion = VALUES(observacion), "
+            + "registrado_por = VALUES(registrado_por), registrado_at = VALUES(registrado_at), "
+            + "updated_at = NOW(), deleted_at = NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AsistenciaBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta o actualiza el estado de asistencia de cada estudiante en la clase.
+     * Las filas eliminadas lógicamente se reactivan.
+     *
+     * @param claseId ID de la clase
+     * @param filas Estado por estudiante
+     * @param registradoPorId ID del usuario que registra (puede ser null)
+     * @param registradoAt Fecha y hora del registro
+     */
+    public void upsert(String claseId, List<FilaAsistencia> filas, String registradoPorId,
+            LocalDateTime registradoAt) {
+        Timestamp registrado = Timestamp.valueOf(registradoAt);
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                FilaAsistencia fila = filas.get(i);
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, claseId);
+                ps.setString(3, fila.estudianteId());
+                ps.setString(4, fila.estado().name());
+                if (fila.observacion() != null) {
+                    ps.setString(5, fila.observacion());
+                } else {
+                    ps.setNull(5, Types.VARCHAR);
+                }
+                if (registradoPorId != null) {
+                    ps.setString(6, registradoPorId);
+                } else {
+                    ps.setNull(6, Types.CHAR);
+                }
+                ps.setTimestamp(7, registrado);
+                ps.setTimestamp(8, ahora);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return filas.size();
+            }
+        });
+    }
+
+    /**
+     * Estado de asistencia de un estudiante dentro de un registro masivo.
+     */
+    public record FilaAsistencia(String estudianteId, EstadoAsistencia estado, String observacion) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.api.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -54,6 +56,31 @@ public interface AsistenciaRepository extends JpaRepository<Asistencia, String>
     @Query("SELECT a FROM Asistencia a WHERE a.clase.id = :claseId AND a.deletedAt IS NULL ORDER BY a.estudiante.codigoEstudiante ASC")
     List<Asistencia> findByClaseId(@Param("claseId") String claseId);
 
+    /**
+     * Obtiene el registro existente (activo o eliminado) de cada estudiante en la clase.
+     * Se consulta la tabla directamente porque la restricción única
+     * (clase_id, estudiante_id) también aplica a las filas eliminadas.
+     *
+     * @param claseId ID de la clase
+     * @param estudianteIds IDs de los estudiantes a verificar
+     * @return Estado actual de los registros existentes
+     */
+    @Query(value = "SELECT a.estudiante_id AS estudianteId, a.estado AS estado, a.deleted_at AS deletedAt " +
+            "FROM asistencia a WHERE a.clase_id = :claseId AND a.estudiante_id IN (:estudianteIds)", nativeQuery = true)
+    List<RegistroExistente> findRegistrosExistentes(@Param("claseId") String claseId,
+                                                    @Param("estudianteIds") Collection<String> estudianteIds);
+
+    /**
+     * Proyección con el estado actual del registro de un estudiante en una clase.
+     */
+    interface RegistroExistente {
+        String getEstudianteId();
+
+        String getEstado();
+
+        LocalDateTime getDeletedAt();
+    }
+
     /**
      * Busca todas las asistencias de un estudiante específico.
      * Solo incluye asistencias no eliminadas, ordenadas por fecha de registro.
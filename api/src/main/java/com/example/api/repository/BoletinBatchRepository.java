@@ -0,0 +1,202 @@
+package com.example.api.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JDBC para la generación masiva de boletines.
+ * Los datos de un lote de estudiantes se leen con una consulta por tipo de dato (no una
+ * por estudiante) y los boletines generados se guardan con un único INSERT ... ON
+ * DUPLICATE KEY UPDATE en lote sobre la clave única (estudiante_id, periodo_id).
+ */
+@Repository
+public class BoletinBatchRepository {
+
+    private static final String ESTUDIANTES_PERIODO_SQL = "SELECT DISTINCT i.estudiante_id FROM inscripciones i "
+            + "JOIN cursos cu ON cu.id = i.curso_id "
+            + "JOIN estudiantes e ON e.id = i.estudiante_id "
+            + "WHERE cu.periodo_id = ? AND i.deleted_at IS NULL AND cu.deleted_at IS NULL AND e.deleted_at IS NULL";
+
+    private static final String ESTUDIANTES_SQL = "SELECT e.id, e.codigo_estudiante, u.nombre FROM estudiantes e "
+            + "LEFT JOIN usuarios u ON u.id = e.usuario_id WHERE e.id IN (%s)";
+
+    private static final String CURSOS_SQL = "SELECT i.estudiante_id, cu.id, asig.nombre, cu.nombre_grupo, up.nombre, "
+            + "i.estado, COALESCE(r.presente, 0), COALESCE(r.ausente, 0), COALESCE(r.tarde, 0), "
+            + "COALESCE(r.justificado, 0) "
+            + "FROM inscripciones i "
+            + "JOIN cursos cu ON cu.id = i.curso_id "
+            + "JOIN asignaturas asig ON asig.id = cu.asignatura_id "
+            + "LEFT JOIN profesores p ON p.id = cu.profesor_id "
+            + "LEFT JOIN usuarios up ON up.id = p.usuario_id "
+            + "LEFT JOIN resumen_asistencia r ON r.estudiante_id = i.estudiante_id AND r.curso_id = i.curso_id "
+            + "WHERE cu.periodo_id = ? AND i.estudiante_id IN (%s) AND i.deleted_at IS NULL AND cu.deleted_at IS NULL "
+            + "ORDER BY asig.nombre, cu.nombre_grupo";
+
+    // Reportes de los cursos del periodo y, si no tienen curso, los creados dentro de sus fechas
+    private static final String REPORTES_SQL = "SELECT r.estudiante_id, r.tipo, r.peso, r.titulo, r.created_at, "
+            + "asig.nombre "
+            + "FROM reportes r "
+            + "LEFT JOIN cursos cu ON cu.id = r.curso_id "
+            + "LEFT JOIN asignaturas asig ON asig.id = cu.asignatura_id "
+            + "WHERE r.deleted_at IS NULL AND r.estudiante_id IN (%s) "
+            + "AND (cu.periodo_id = ? OR (r.curso_id IS NULL AND r.created_at >= ? AND r.created_at < ?)) "
+            + "ORDER BY r.created_at";
+
+    private static final String UPSERT_SQL = "INSERT INTO boletines "
+            + "(id, estudiante_id, periodo_id, archivo, tamano_bytes, promedio, generado_at, trabajo_id, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE archivo = VALUES(archivo), tamano_bytes = VALUES(tamano_bytes), "
+            + "promedio = VALUES(promedio), generado_at = VALUES(generado_at), trabajo_id = VALUES(trabajo_id), "
+            + "deleted_at = NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BoletinBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Obtiene los IDs de los estudiantes con inscripciones activas en el periodo, o solo
+     * en un curso del periodo.
+     *
+     * @param periodoId ID del periodo
+     * @param cursoId ID del curso (null para todo el periodo)
+     * @return IDs ordenados
+     */
+    public List<String> findEstudianteIds(String periodoId, String cursoId) {
+        if (cursoId == null) {
+            return jdbcTemplate.queryForList(ESTUDIANTES_PERIODO_SQL + " ORDER BY i.estudiante_id",
+                    String.class, periodoId);
+        }
+        return jdbcTemplate.queryForList(ESTUDIANTES_PERIODO_SQL + " AND cu.id = ? ORDER BY i.estudiante_id",
+                String.class, periodoId, cursoId);
+    }
+
+    /**
+     * Obtiene el código y el nombre de los estudiantes.
+     */
+    public List<EstudianteBoletin> findEstudiantes(List<String> estudianteIds) {
+        return jdbcTemplate.query(String.format(ESTUDIANTES_SQL, marcadores(estudianteIds.size())),
+                (rs, i) -> new EstudianteBoletin(rs.getString(1), rs.getString(2), rs.getString(3)),
+                estudianteIds.toArray());
+    }
+
+    /**
+     * Obtiene los cursos del periodo de cada estudiante con sus contadores de asistencia.
+     */
+    public List<CursoBoletin> findCursos(String periodoId, List<String> estudianteIds) {
+        List<Object> parametros = new ArrayList<>(estudianteIds.size() + 1);
+        parametros.add(periodoId);
+        parametros.addAll(estudianteIds);
+        return jdbcTemplate.query(String.format(CURSOS_SQL, marcadores(estudianteIds.size())),
+                (rs, i) -> new CursoBoletin(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6), rs.getInt(7), rs.getInt(8), rs.getInt(9), rs.getInt(10)),
+                parametros.toArray());
+    }
+
+    /**
+     * Obtiene los reportes de los estudiantes en el periodo.
+     *
+     * @param desde Inicio del periodo (para reportes sin curso)
+     * @param hasta Fin del periodo, inclusive (para reportes sin curso)
+     */
+    public List<ReporteBoletin> findReportes(String periodoId, LocalDate desde, LocalDate hasta,
+            List<String> estudianteIds) {
+        List<Object> parametros = new ArrayList<>(estudianteIds);
+        parametros.add(periodoId);
+        // Sin fechas en el periodo, los reportes sin curso no se pueden ubicar y se omiten
+        parametros.add(desde != null ? Date.valueOf(desde) : Date.valueOf(LocalDate.of(9999, 12, 31)));
+        parametros.add(hasta != null ? Date.valueOf(hasta.plusDays(1)) : Date.valueOf(LocalDate.EPOCH));
+        return jdbcTemplate.query(String.format(REPORTES_SQL, marcadores(estudianteIds.size())),
+                (rs, i) -> new ReporteBoletin(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getTimestamp(5).toLocalDateTime(), rs.getString(6)),
+                parametros.toArray());
+    }
+
+    /**
+     * Inserta o actualiza los boletines generados de un periodo. Los eliminados
+     * lógicamente se reactivan.
+     *
+     * @param trabajoId ID del trabajo que los generó (puede ser null)
+     */
+    public void upsert(String periodoId, List<BoletinGenerado> boletines, String trabajoId) {
+        if (boletines.isEmpty()) {
+            return;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BoletinGenerado boletin = boletines.get(i);
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, boletin.estudianteId());
+                ps.setString(3, periodoId);
+                ps.setString(4, boletin.archivo());
+                ps.setInt(5, boletin.tamanoBytes());
+                if (boletin.promedio() != null) {
+                    ps.setBigDecimal(6, boletin.promedio());
+                } else {
+                    ps.setNull(6, Types.DECIMAL);
+                }
+                ps.setTimestamp(7, Timestamp.valueOf(boletin.generadoAt()));
+                if (trabajoId != null) {
+                    ps.setString(8, trabajoId);
+                } else {
+                    ps.setNull(8, Types.CHAR);
+                }
+                ps.setTimestamp(9, ahora);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return boletines.size();
+            }
+        });
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(", ", Collections.nCopies(cantidad, "?"));
+    }
+
+    /**
+     * Datos de identificación de un estudiante.
+     */
+    public record EstudianteBoletin(String id, String codigo, String nombre) {
+    }
+
+    /**
+     * Curso de un estudiante en el periodo con sus contadores de asistencia.
+     */
+    public record CursoBoletin(String estudianteId, String cursoId, String asignatura, String grupo,
+            String profesor, String estadoInscripcion, int presente, int ausente, int tarde, int justificado) {
+    }
+
+    /**
+     * Reporte de conducta o académico de un estudiante.
+     */
+    public record ReporteBoletin(String estudianteId, String tipo, String peso, String titulo,
+            LocalDateTime fecha, String asignatura) {
+    }
+
+    /**
+     * Boletín ya subido al almacenamiento, listo para registrarse.
+     */
+    public record BoletinGenerado(String estudianteId, String archivo, int tamanoBytes, BigDecimal promedio,
+            LocalDateTime generadoAt) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.api.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.api.model.Boletin;
+
+/**
+ * Repositorio para la entidad Boletin.
+ */
+@Repository
+public interface BoletinRepository extends JpaRepository<Boletin, String> {
+
+    /**
+     * Obtiene los boletines de un periodo, ordenados por código de estudiante.
+     *
+     * @param periodoId ID del periodo
+     * @return Lista de boletines
+     */
+    @Query("SELECT b FROM Boletin b JOIN FETCH b.estudiante e LEFT JOIN FETCH e.usuario " +
+           "WHERE b.periodo.id = :periodoId AND b.deletedAt IS NULL ORDER BY e.codigoEstudiante")
+    List<Boletin> findByPeriodoId(@Param("periodoId") String periodoId);
+
+    /**
+     * Obtiene los boletines de un estudiante, del más reciente al más antiguo.
+     *
+     * @param estudianteId ID del estudiante
+     * @return Lista de boletines
+     */
+    @Query("SELECT b FROM Boletin b WHERE b.estudiante.id = :estudianteId AND b.deletedAt IS NULL " +
+           "ORDER BY b.generadoAt DESC")
+    List<Boletin> findByEstudianteId(@Param("estudianteId") String estudianteId);
+
+    /**
+     * Obtiene el boletín de un estudiante en un periodo.
+     *
+     * @param estudianteId ID del estudiante
+     * @param periodoId ID del periodo
+     * @return Boletín, si ya se generó
+     */
+    @Query("SELECT b FROM Boletin b WHERE b.estudiante.id = :estudianteId AND b.periodo.id = :periodoId " +
+           "AND b.deletedAt IS NULL")
+    Optional<Boletin> findByEstudianteIdAndPeriodoId(@Param("estudianteId") String estudianteId,
+                                                     @Param("periodoId") String periodoId);
+}
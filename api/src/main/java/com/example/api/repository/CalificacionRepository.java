@@ -1,6 +1,7 @@
 package com.example.api.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.api.dto.response.HistorialCalificacionResponse;
 import com.example.api.model.Calificacion;
 
 /**
@@ -37,6 +39,55 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Stri
     @Query("SELECT c FROM Calificacion c WHERE c.deletedAt IS NULL ORDER BY c.createdAt DESC")
     List<Calificacion> findAllActive();
 
+    /**
+     * Carga junto con cada calificación todas sus asociaciones EAGER anidadas (estudiante,
+     * usuario y rol; evaluación, curso, asignatura, periodo, profesor, tipo y ponderación)
+     * para que la página se obtenga en una sola consulta y no una por fila.
+     */
+    String FETCH_RESPUESTA = "SELECT c FROM Calificacion c " +
+            "JOIN FETCH c.estudiante e LEFT JOIN FETCH e.usuario eu LEFT JOIN FETCH eu.rol " +
+            "LEFT JOIN FETCH eu.profesor " +
+            "JOIN FETCH c.evaluacion ev LEFT JOIN FETCH ev.tipoEvaluacion " +
+            "LEFT JOIN FETCH ev.tipoPonderacion tp LEFT JOIN FETCH tp.curso " +
+            "LEFT JOIN FETCH ev.curso cu LEFT JOIN FETCH cu.asignatura LEFT JOIN FETCH cu.periodo " +
+            "LEFT JOIN FETCH cu.profesor p LEFT JOIN FETCH p.usuario pu LEFT JOIN FETCH pu.rol " +
+            "LEFT JOIN FETCH pu.estudiante ";
+
+    /**
+     * Obtiene la primera página de calificaciones activas ordenadas por nota DESC.
+     * El orden se resuelve en MySQL recorriendo hacia atrás el índice (deleted_at, nota),
+     * que InnoDB completa con la clave primaria: ambas columnas del orden van en la misma
+     * dirección, así que no hay filesort.
+     *
+     * @param pageable Límite de filas (se usa solo el tamaño)
+     * @return Calificaciones ordenadas por nota DESC e ID DESC
+     */
+    @Query(FETCH_RESPUESTA + "WHERE c.deletedAt IS NULL ORDER BY c.nota DESC, c.id DESC")
+    List<Calificacion> findOrdenadasPorNota(Pageable pageable);
+
+    /**
+     * Obtiene la página de calificaciones activas ordenadas por nota que sigue al cursor indicado.
+     *
+     * @param afterNota Nota de la última calificación de la página anterior
+     * @param afterId ID de la última calificación de la página anterior
+     * @param pageable Límite de filas (se usa solo el tamaño)
+     * @return Calificaciones ordenadas por nota DESC e ID DESC
+     */
+    @Query(FETCH_RESPUESTA +
+           "WHERE c.deletedAt IS NULL AND (c.nota < :afterNota OR (c.nota = :afterNota AND c.id < :afterId)) " +
+           "ORDER BY c.nota DESC, c.id DESC")
+    List<Calificacion> findOrdenadasPorNotaDespuesDe(@Param("afterNota") BigDecimal afterNota,
+                                                     @Param("afterId") String afterId,
+                                                     Pageable pageable);
+
+    /**
+     * Cuenta las calificaciones activas.
+     *
+     * @return Número de calificaciones no eliminadas
+     */
+    @Query("SELECT COUNT(c) FROM Calificacion c WHERE c.deletedAt IS NULL")
+    long countActive();
+
     /**
      * Obtiene todas las calificaciones eliminadas (soft delete).
      *
@@ -55,6 +106,20 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Stri
     @Query("SELECT c FROM Calificacion c WHERE c.estudiante.id = :estudianteId AND c.deletedAt IS NULL ORDER BY c.createdAt DESC")
     List<Calificacion> findByEstudianteId(@Param("estudianteId") String estudianteId);
 
+    /**
+     * Obtiene el historial compacto de un estudiante mediante una proyección por constructor.
+     * Solo se leen las columnas necesarias, más recientes primero.
+     *
+     * @param estudianteId ID del estudiante
+     * @return Filas planas del historial
+     */
+    @Query("SELECT new com.example.api.dto.response.HistorialCalificacionResponse(" +
+           "c.id, ev.id, ev.nombre, ev.fecha, cu.id, a.nombre, cu.nombreGrupo, c.nota, ev.peso, c.createdAt) " +
+           "FROM Calificacion c JOIN c.evaluacion ev JOIN ev.curso cu JOIN cu.asignatura a " +
+           "WHERE c.estudiante.id = :estudianteId AND c.deletedAt IS NULL " +
+           "ORDER BY c.createdAt DESC, c.id ASC")
+    List<HistorialCalificacionResponse> findHistorialCompacto(@Param("estudianteId") String estudianteId);
+
     /**
      * Busca todas las calificaciones de una evaluación específica.
      * Solo incluye calificaciones no eliminadas, ordenadas por nota DESC.
@@ -65,6 +130,20 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Stri
     @Query("SELECT c FROM Calificacion c WHERE c.evaluacion.id = :evaluacionId AND c.deletedAt IS NULL ORDER BY c.nota DESC")
     List<Calificacion> findByEvaluacionId(@Param("evaluacionId") String evaluacionId);
 
+    /**
+     * Obtiene los estudiantes que ya tienen una calificación (activa o eliminada)
+     * en la evaluación. Se consulta la tabla directamente porque la restricción
+     * única (evaluacion_id, estudiante_id) también aplica a las filas eliminadas.
+     *
+     * @param evaluacionId ID de la evaluación
+     * @param estudianteIds IDs de los estudiantes a verificar
+     * @return IDs de los estudiantes que ya tienen calificación
+     */
+    @Query(value = "SELECT c.estudiante_id FROM calificaciones c " +
+            "WHERE c.evaluacion_id = :evaluacionId AND c.estudiante_id IN (:estudianteIds)", nativeQuery = true)
+    List<String> findEstudianteIdsConCalificacion(@Param("evaluacionId") String evaluacionId,
+                                                  @Param("estudianteIds") Collection<String> estudianteIds);
+
     /**
      * Calcula el promedio de notas de un estudiante.
      * Solo incluye calificaciones no eliminadas.
@@ -95,4 +174,162 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Stri
      */
     @Query("SELECT c FROM Calificacion c WHERE c.evaluacion.curso.id = :cursoId AND c.deletedAt IS NULL")
     List<Calificacion> findByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Acumula la suma y el número de calificaciones activas por estudiante,
+     * junto con los datos mínimos para mostrarlo en un ranking.
+     * Se usa para reconstruir el índice de ranking en memoria al iniciar la aplicación.
+     *
+     * @return Lista de acumulados por estudiante
+     */
+    @Query("SELECT e.id AS estudianteId, e.codigoEstudiante AS codigoEstudiante, u.nombre AS nombre, " +
+           "SUM(c.nota) AS suma, COUNT(c) AS total " +
+           "FROM Calificacion c JOIN c.estudiante e LEFT JOIN e.usuario u " +
+           "WHERE c.deletedAt IS NULL AND e.deletedAt IS NULL " +
+           "GROUP BY e.id, e.codigoEstudiante, u.nombre")
+    List<AcumuladoEstudiante> acumularNotasPorEstudiante();
+
+    /**
+     * Igual que {@link #acumularNotasPorEstudiante()} pero solo para los estudiantes
+     * indicados. Se usa para actualizar el índice de ranking tras cada cambio de notas;
+     * un estudiante sin notas activas o eliminado no aparece en el resultado.
+     *
+     * @param estudianteIds IDs de los estudiantes
+     * @return Lista de acumulados por estudiante
+     */
+    @Query("SELECT e.id AS estudianteId, e.codigoEstudiante AS codigoEstudiante, u.nombre AS nombre, " +
+           "SUM(c.nota) AS suma, COUNT(c) AS total " +
+           "FROM Calificacion c JOIN c.estudiante e LEFT JOIN e.usuario u " +
+           "WHERE c.deletedAt IS NULL AND e.deletedAt IS NULL AND e.id IN :estudianteIds " +
+           "GROUP BY e.id, e.codigoEstudiante, u.nombre")
+    List<AcumuladoEstudiante> acumularNotasDeEstudiantes(@Param("estudianteIds") Collection<String> estudianteIds);
+
+    /**
+     * Proyección con la suma y el conteo de notas de un estudiante.
+     */
+    interface AcumuladoEstudiante {
+        String getEstudianteId();
+
+        String getCodigoEstudiante();
+
+        String getNombre();
+
+        BigDecimal getSuma();
+
+        Long getTotal();
+    }
+
+    /**
+     * Consulta base del ranking de un curso: promedio y conteo de notas por estudiante
+     * calculados en MySQL, uniendo estudiantes y usuarios una sola vez.
+     */
+    String RANKING_CURSO_SQL = "SELECT c.estudiante_id AS estudianteId, e.codigo_estudiante AS codigoEstudiante, " +
+            "u.nombre AS nombre, ROUND(AVG(c.nota), 2) AS promedio, COUNT(*) AS totalCalificaciones " +
+            "FROM calificaciones c " +
+            "JOIN evaluaciones ev ON ev.id = c.evaluacion_id " +
+            "JOIN estudiantes e ON e.id = c.estudiante_id " +
+            "LEFT JOIN usuarios u ON u.id = e.usuario_id " +
+            "WHERE ev.curso_id = :cursoId AND c.deleted_at IS NULL " +
+            "AND ev.deleted_at IS NULL AND e.deleted_at IS NULL " +
+            "GROUP BY c.estudiante_id, e.codigo_estudiante, u.nombre ";
+
+    /**
+     * Obtiene la primera página del ranking de un curso.
+     *
+     * @param cursoId ID del curso
+     * @param limite Número máximo de filas
+     * @return Promedios ordenados de mayor a menor
+     */
+    @Query(value = RANKING_CURSO_SQL +
+            "ORDER BY promedio DESC, estudianteId ASC LIMIT :limite", nativeQuery = true)
+    List<PromedioEstudiante> findRankingCurso(@Param("cursoId") String cursoId, @Param("limite") int limite);
+
+    /**
+     * Obtiene la página del ranking de un curso que sigue al cursor indicado.
+     *
+     * @param cursoId ID del curso
+     * @param afterPromedio Promedio del último estudiante de la página anterior
+     * @param afterEstudianteId ID del último estudiante de la página anterior
+     * @param limite Número máximo de filas
+     * @return Promedios ordenados de mayor a menor
+     */
+    @Query(value = RANKING_CURSO_SQL +
+            "HAVING promedio < :afterPromedio OR (promedio = :afterPromedio AND estudianteId > :afterEstudianteId) " +
+            "ORDER BY promedio DESC, estudianteId ASC LIMIT :limite", nativeQuery = true)
+    List<PromedioEstudiante> findRankingCursoDespuesDe(@Param("cursoId") String cursoId,
+                                                       @Param("afterPromedio") BigDecimal afterPromedio,
+                                                       @Param("afterEstudianteId") String afterEstudianteId,
+                                                       @Param("limite") int limite);
+
+    /**
+     * Proyección con el promedio de un estudiante (sin hidratar entidades).
+     */
+    interface PromedioEstudiante {
+        String getEstudianteId();
+
+        String getCodigoEstudiante();
+
+        String getNombre();
+
+        BigDecimal getPromedio();
+
+        Long getTotalCalificaciones();
+    }
+
+    /**
+     * Agrupa las calificaciones activas por valor de nota (histograma exacto).
+     * Como las notas tienen dos decimales entre 0 y 100, el resultado tiene a lo sumo
+     * unas miles de filas sin importar cuántas calificaciones existan.
+     * Los filtros nulos se ignoran.
+     *
+     * @param periodoId ID del periodo (opcional)
+     * @param cursoId ID del curso (opcional)
+     * @param asignaturaId ID de la asignatura (opcional)
+     * @param evaluacionId ID de la evaluación (opcional)
+     * @return Pares (nota, total) ordenados por nota ASC
+     */
+    @Query(value = "SELECT c.nota AS nota, COUNT(*) AS total " +
+            "FROM calificaciones c " +
+            "JOIN evaluaciones ev ON ev.id = c.evaluacion_id " +
+            "JOIN cursos cu ON cu.id = ev.curso_id " +
+            "WHERE c.deleted_at IS NULL AND ev.deleted_at IS NULL " +
+            "AND (:periodoId IS NULL OR cu.periodo_id = :periodoId) " +
+            "AND (:cursoId IS NULL OR ev.curso_id = :cursoId) " +
+            "AND (:asignaturaId IS NULL OR cu.asignatura_id = :asignaturaId) " +
+            "AND (:evaluacionId IS NULL OR c.evaluacion_id = :evaluacionId) " +
+            "GROUP BY c.nota ORDER BY c.nota", nativeQuery = true)
+    List<FrecuenciaNota> findHistogramaNotas(@Param("periodoId") String periodoId,
+                                             @Param("cursoId") String cursoId,
+                                             @Param("asignaturaId") String asignaturaId,
+                                             @Param("evaluacionId") String evaluacionId);
+
+    /**
+     * Proyección con la frecuencia de un valor de nota.
+     */
+    interface FrecuenciaNota {
+        BigDecimal getNota();
+
+        Long getTotal();
+    }
+
+    /**
+     * Obtiene las notas activas de todas las evaluaciones de un curso como filas planas.
+     *
+     * @param cursoId ID del curso
+     * @return Notas (evaluación, estudiante, nota) del curso
+     */
+    @Query("SELECT c.evaluacion.id AS itemId, c.estudiante.id AS estudianteId, c.nota AS nota " +
+           "FROM Calificacion c WHERE c.evaluacion.curso.id = :cursoId AND c.deletedAt IS NULL")
+    List<NotaEvaluacion> findNotasByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Proyección con la nota de un estudiante en una evaluación.
+     */
+    interface NotaEvaluacion {
+        String getItemId();
+
+        String getEstudianteId();
+
+        BigDecimal getNota();
+    }
 }
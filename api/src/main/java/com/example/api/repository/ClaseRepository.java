@@ -2,6 +2,7 @@ package com.example.api.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -73,4 +74,14 @@ public interface ClaseRepository extends JpaRepository<Clase, String> {
      */
     @Query("SELECT c FROM Clase c WHERE c.deletedAt IS NULL ORDER BY c.fecha DESC, c.inicio ASC")
     List<Clase> findAllOrdenadas();
+
+    /**
+     * Busca una clase por ID, incluidas las eliminadas lógicamente. Es nativa porque la
+     * restricción deleted_at IS NULL de BaseEntity se aplica a todas las consultas JPQL.
+     *
+     * @param id ID de la clase
+     * @return Clase si existe, activa o eliminada
+     */
+    @Query(value = "SELECT * FROM clases WHERE id = :id", nativeQuery = true)
+    Optional<Clase> findByIdIncluyendoEliminadas(@Param("id") String id);
 }
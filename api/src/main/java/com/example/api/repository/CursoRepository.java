@@ -1,14 +1,17 @@
 package com.example.api.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.api.dto.response.DisponibilidadCursoResponse;
 import com.example.api.model.Curso;
 
 /**
@@ -86,21 +89,87 @@ public interface CursoRepository extends JpaRepository<Curso, String> {
 
     /**
      * Obtiene cursos que tienen cupos disponibles.
-     * Un curso tiene cupo disponible si el número de inscripciones es menor que el cupo.
+     * Compara el contador cursos.inscritos con el cupo, sin contar inscripciones por curso.
      * Solo incluye cursos no eliminados.
      *
      * @return Lista de cursos con cupos disponibles
      */
-    @Query("SELECT c FROM Curso c WHERE c.deletedAt IS NULL AND " +
-           "(SELECT COUNT(i) FROM Inscripcion i WHERE i.curso.id = c.id AND i.deletedAt IS NULL) < c.cupo")
+    @Query("SELECT c FROM Curso c WHERE c.deletedAt IS NULL AND c.inscritos < c.cupo")
     List<Curso> findCursosConCuposDisponibles();
 
     /**
-     * Cuenta el número de inscripciones activas de un curso.
+     * Obtiene la disponibilidad de cupos de todos los cursos activos en una sola consulta,
+     * usando el contador cursos.inscritos en lugar de contar inscripciones por curso.
+     *
+     * @return Disponibilidad de cada curso activo
+     */
+    @Query("SELECT new com.example.api.dto.response.DisponibilidadCursoResponse(" +
+           "c.id, c.nombreGrupo, p.id, a.id, a.nombre, c.cupo, c.inscritos) " +
+           "FROM Curso c JOIN c.periodo p JOIN c.asignatura a WHERE c.deletedAt IS NULL")
+    List<DisponibilidadCursoResponse> findDisponibilidadActivos();
+
+    /**
+     * Obtiene la disponibilidad de cupos de un curso activo.
+     *
+     * @param cursoId ID del curso
+     * @return Disponibilidad del curso si existe
+     */
+    @Query("SELECT new com.example.api.dto.response.DisponibilidadCursoResponse(" +
+           "c.id, c.nombreGrupo, p.id, a.id, a.nombre, c.cupo, c.inscritos) " +
+           "FROM Curso c JOIN c.periodo p JOIN c.asignatura a WHERE c.id = :cursoId AND c.deletedAt IS NULL")
+    Optional<DisponibilidadCursoResponse> findDisponibilidadById(@Param("cursoId") String cursoId);
+
+    /**
+     * Obtiene solo los IDs de los cursos activos de un periodo.
+     *
+     * @param periodoId ID del periodo
+     * @return IDs de los cursos del periodo
+     */
+    @Query("SELECT c.id FROM Curso c WHERE c.periodo.id = :periodoId AND c.deletedAt IS NULL")
+    List<String> findIdsByPeriodoId(@Param("periodoId") String periodoId);
+
+    /**
+     * Ocupa un cupo del curso solo si quedan cupos libres.
+     * La condición y el incremento se evalúan en una sola sentencia, por lo que dos
+     * admisiones simultáneas no pueden superar el cupo.
+     *
+     * @param cursoId ID del curso
+     * @return 1 si se ocupó el cupo, 0 si el curso está lleno o no existe
+     */
+    @Modifying
+    @Query(value = "UPDATE cursos SET inscritos = inscritos + 1 " +
+            "WHERE id = :cursoId AND deleted_at IS NULL AND inscritos < cupo", nativeQuery = true)
+    int ocuparCupo(@Param("cursoId") String cursoId);
+
+    /**
+     * Libera un cupo del curso.
+     *
+     * @param cursoId ID del curso
+     * @return 1 si se liberó el cupo, 0 si no había cupos ocupados
+     */
+    @Modifying
+    @Query(value = "UPDATE cursos SET inscritos = inscritos - 1 " +
+            "WHERE id = :cursoId AND inscritos > 0", nativeQuery = true)
+    int liberarCupo(@Param("cursoId") String cursoId);
+
+    /**
+     * Incrementa la versión de la lista de espera del curso. Bloquea la fila del curso,
+     * por lo que los cambios de la lista de un mismo curso quedan en serie.
+     *
+     * @param cursoId ID del curso
+     * @return 1 si se incrementó, 0 si el curso no existe
+     */
+    @Modifying
+    @Query(value = "UPDATE cursos SET version_lista_espera = version_lista_espera + 1 WHERE id = :cursoId",
+            nativeQuery = true)
+    int incrementarVersionListaEspera(@Param("cursoId") String cursoId);
+
+    /**
+     * Obtiene la versión de la lista de espera del curso.
      *
      * @param cursoId ID del curso
-     * @return Número de inscripciones activas
+     * @return Versión actual, vacía si el curso no existe
      */
-    @Query("SELECT COUNT(i) FROM Inscripcion i WHERE i.curso.id = :cursoId AND i.deletedAt IS NULL")
-    Long countInscripcionesByCursoId(@Param("cursoId") String cursoId);
+    @Query(value = "SELECT version_lista_espera FROM cursos WHERE id = :cursoId", nativeQuery = true)
+    Optional<Long> findVersionListaEspera(@Param("cursoId") String cursoId);
 }
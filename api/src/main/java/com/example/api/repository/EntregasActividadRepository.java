@@ -1,5 +1,6 @@
 package com.example.api.repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +28,26 @@ public interface EntregasActividadRepository extends JpaRepository<EntregasActiv
     @Query("SELECT e FROM EntregasActividad e WHERE e.actividad.id = :actividadId AND e.estudiante.id = :estudianteId AND e.deletedAt IS NULL")
     Optional<EntregasActividad> findByActividadIdAndEstudianteId(@Param("actividadId") String actividadId,
             @Param("estudianteId") String estudianteId);
+
+    /**
+     * Obtiene las notas de las entregas de todas las actividades de un curso como filas planas.
+     *
+     * @param cursoId ID del curso
+     * @return Notas (actividad, estudiante, nota) del curso
+     */
+    @Query("SELECT e.actividad.id AS itemId, e.estudiante.id AS estudianteId, e.nota AS nota " +
+           "FROM EntregasActividad e WHERE e.actividad.curso.id = :cursoId " +
+           "AND e.deletedAt IS NULL AND e.nota IS NOT NULL")
+    List<NotaEntrega> findNotasByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Proyección con la nota de un estudiante en una actividad.
+     */
+    interface NotaEntrega {
+        String getItemId();
+
+        String getEstudianteId();
+
+        BigDecimal getNota();
+    }
 }
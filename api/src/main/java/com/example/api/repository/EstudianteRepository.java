@@ -1,5 +1,6 @@
 package com.example.api.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,6 +49,26 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, String>
     @Query("SELECT e FROM Estudiante e WHERE e.deletedAt IS NULL")
     List<Estudiante> findAllActive();
 
+    /**
+     * Obtiene los estudiantes activos con los IDs indicados en una sola consulta,
+     * incluyendo su usuario para evitar consultas adicionales por estudiante.
+     *
+     * @param ids IDs de los estudiantes
+     * @return Estudiantes encontrados (los IDs inexistentes se omiten)
+     */
+    @Query("SELECT e FROM Estudiante e LEFT JOIN FETCH e.usuario u LEFT JOIN FETCH u.rol " +
+           "WHERE e.id IN :ids AND e.deletedAt IS NULL")
+    List<Estudiante> findAllActiveByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Obtiene cuáles de los IDs indicados corresponden a estudiantes activos.
+     *
+     * @param ids IDs de los estudiantes
+     * @return IDs existentes
+     */
+    @Query("SELECT e.id FROM Estudiante e WHERE e.id IN :ids AND e.deletedAt IS NULL")
+    List<String> findActiveIdsByIdIn(@Param("ids") Collection<String> ids);
+
     /**
      * Obtiene estudiantes por género.
      * Solo incluye estudiantes activos y no eliminados.
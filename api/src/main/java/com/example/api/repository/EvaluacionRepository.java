@@ -1,5 +1,6 @@
 package com.example.api.repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -74,4 +75,26 @@ public interface EvaluacionRepository extends JpaRepository<Evaluacion, String>
      */
     @Query("SELECT e FROM Evaluacion e WHERE e.fecha >= :fechaActual AND e.deletedAt IS NULL AND e.publicado = true ORDER BY e.fecha ASC")
     List<Evaluacion> findProximasEvaluaciones(@Param("fechaActual") LocalDate fechaActual);
+
+    /**
+     * Obtiene el peso y el tipo de ponderación de las evaluaciones de un curso,
+     * sin cargar la entidad completa.
+     *
+     * @param cursoId ID del curso
+     * @return Pesos de las evaluaciones del curso
+     */
+    @Query("SELECT e.id AS id, p.id AS ponderacionId, e.peso AS peso FROM Evaluacion e " +
+           "LEFT JOIN e.tipoPonderacion p WHERE e.curso.id = :cursoId AND e.deletedAt IS NULL")
+    List<PesoEvaluacion> findPesosByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Proyección con el peso de una evaluación dentro de su ponderación.
+     */
+    interface PesoEvaluacion {
+        String getId();
+
+        String getPonderacionId();
+
+        BigDecimal getPeso();
+    }
 }
@@ -0,0 +1,174 @@
+package com.example.api.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JDBC para exportaciones masivas.
+ *
+ * Las consultas se leen con un cursor de solo avance: con el driver de MySQL,
+ * TYPE_FORWARD_ONLY + CONCUR_READ_ONLY + fetchSize = Integer.MIN_VALUE hace que el
+ * servidor envíe las filas una a una en lugar de cargar todo el resultado en memoria.
+ * Cada fila se entrega al consumidor en cuanto llega y no se conserva.
+ */
+@Repository
+public class ExportacionRepository {
+
+    public static final List<String> COLUMNAS_CALIFICACIONES = List.of("calificacion_id", "periodo", "curso_id",
+            "asignatura", "grupo", "evaluacion", "fecha_evaluacion", "codigo_estudiante", "estudiante", "nota",
+            "comentario", "registrada_at");
+
+    public static final List<String> COLUMNAS_ASISTENCIAS = List.of("asistencia_id", "periodo", "curso_id",
+            "asignatura", "grupo", "fecha_clase", "hora_inicio", "codigo_estudiante", "estudiante", "estado",
+            "observacion", "registrado_at");
+
+    public static final List<String> COLUMNAS_INSCRIPCIONES = List.of("inscripcion_id", "periodo", "curso_id",
+            "asignatura", "grupo", "codigo_estudiante", "estudiante", "fecha_inscripcion", "estado");
+
+    private static final String JOIN_CURSO = "JOIN cursos cu ON cu.id = %s.curso_id "
+            + "JOIN periodos pe ON pe.id = cu.periodo_id "
+            + "JOIN asignaturas asig ON asig.id = cu.asignatura_id ";
+
+    private static final String JOIN_ESTUDIANTE = "JOIN estudiantes e ON e.id = %s.estudiante_id "
+            + "LEFT JOIN usuarios u ON u.id = e.usuario_id ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportacionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recorre las calificaciones activas que cumplen el filtro (las fechas aplican a la
+     * fecha de la evaluación).
+     */
+    public void recorrerCalificaciones(Filtro filtro, Consumer<Object[]> consumidor) {
+        StringBuilder sql = new StringBuilder("SELECT c.id, pe.nombre, cu.id, asig.nombre, cu.nombre_grupo, ")
+                .append("ev.nombre, ev.fecha, e.codigo_estudiante, u.nombre, c.nota, c.comentario, c.created_at ")
+                .append("FROM calificaciones c JOIN evaluaciones ev ON ev.id = c.evaluacion_id ")
+                .append(String.format(JOIN_CURSO, "ev"))
+                .append(String.format(JOIN_ESTUDIANTE, "c"))
+                .append("WHERE c.deleted_at IS NULL AND ev.deleted_at IS NULL AND cu.deleted_at IS NULL");
+        recorrer(sql, filtro, "ev.fecha", consumidor);
+    }
+
+    /**
+     * Recorre los registros de asistencia activos que cumplen el filtro (las fechas
+     * aplican a la fecha de la clase).
+     */
+    public void recorrerAsistencias(Filtro filtro, Consumer<Object[]> consumidor) {
+        StringBuilder sql = new StringBuilder("SELECT a.id, pe.nombre, cu.id, asig.nombre, cu.nombre_grupo, ")
+                .append("cl.fecha, cl.inicio, e.codigo_estudiante, u.nombre, a.estado, a.observacion, a.registrado_at ")
+                .append("FROM asistencia a JOIN clases cl ON cl.id = a.clase_id ")
+                .append(String.format(JOIN_CURSO, "cl"))
+                .append(String.format(JOIN_ESTUDIANTE, "a"))
+                .append("WHERE a.deleted_at IS NULL AND cl.deleted_at IS NULL AND cu.deleted_at IS NULL");
+        recorrer(sql, filtro, "cl.fecha", consumidor);
+    }
+
+    /**
+     * Recorre las inscripciones activas que cumplen el filtro (las fechas aplican a la
+     * fecha de inscripción).
+     */
+    public void recorrerInscripciones(Filtro filtro, Consumer<Object[]> consumidor) {
+        StringBuilder sql = new StringBuilder("SELECT i.id, pe.nombre, cu.id, asig.nombre, cu.nombre_grupo, ")
+                .append("e.codigo_estudiante, u.nombre, i.fecha_inscripcion, i.estado ")
+                .append("FROM inscripciones i ")
+                .append(String.format(JOIN_CURSO, "i"))
+                .append(String.format(JOIN_ESTUDIANTE, "i"))
+                .append("WHERE i.deleted_at IS NULL AND cu.deleted_at IS NULL");
+        recorrer(sql, filtro, "i.fecha_inscripcion", consumidor);
+    }
+
+    private void recorrer(StringBuilder sql, Filtro filtro, String columnaFecha, Consumer<Object[]> consumidor) {
+        List<Object> parametros = new ArrayList<>();
+        if (filtro.periodoId() != null) {
+            sql.append(" AND cu.periodo_id = ?");
+            parametros.add(filtro.periodoId());
+        }
+        if (filtro.cursoId() != null) {
+            sql.append(" AND cu.id = ?");
+            parametros.add(filtro.cursoId());
+        }
+        if (filtro.estudianteId() != null) {
+            sql.append(" AND e.id = ?");
+            parametros.add(filtro.estudianteId());
+        }
+        if (filtro.desde() != null) {
+            sql.append(" AND ").append(columnaFecha).append(" >= ?");
+            parametros.add(Date.valueOf(filtro.desde()));
+        }
+        if (filtro.hasta() != null) {
+            sql.append(" AND ").append(columnaFecha).append(" <= ?");
+            parametros.add(Date.valueOf(filtro.hasta()));
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(Integer.MIN_VALUE);
+                for (int i = 0; i < parametros.size(); i++) {
+                    ps.setObject(i + 1, parametros.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    int columnas = rs.getMetaData().getColumnCount();
+                    Object[] fila = new Object[columnas];
+                    try {
+                        while (rs.next()) {
+                            for (int i = 0; i < columnas; i++) {
+                                fila[i] = valor(rs.getObject(i + 1));
+                            }
+                            consumidor.accept(fila);
+                        }
+                    } catch (RuntimeException e) {
+                        // Cerrar un resultado en streaming lee todas las filas pendientes; se cancela la
+                        // consulta antes de que try-with-resources cierre rs para que una descarga
+                        // interrumpida libere la conexión enseguida
+                        cancelar(ps);
+                        throw e;
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static Object valor(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (valor instanceof Date fecha) {
+            return fecha.toLocalDate();
+        }
+        if (valor instanceof Time hora) {
+            return hora.toLocalTime();
+        }
+        return valor;
+    }
+
+    private static void cancelar(PreparedStatement ps) {
+        try {
+            ps.cancel();
+        } catch (SQLException e) {
+            // La conexión se cierra de todas formas
+        }
+    }
+
+    /**
+     * Filtros de una exportación. Los valores nulos se ignoran.
+     */
+    public record Filtro(String periodoId, String cursoId, String estudianteId, LocalDate desde, LocalDate hasta) {
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.api.repository;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.api.dto.response.ClaseSemanalResponse;
 import com.example.api.model.HorarioCurso;
 import com.example.api.model.HorarioCurso.DiaSemana;
 
@@ -66,16 +71,107 @@ public interface HorarioCursoRepository extends JpaRepository<HorarioCurso, Stri
     List<HorarioCurso> findByDia(@Param("dia") DiaSemana dia);
 
     /**
-     * Detecta posibles conflictos de horarios.
-     * Encuentra horarios que se solapan en el mismo día, bloque y aula.
+     * Obtiene las franjas (día, aula efectiva, profesor y horas del bloque) de todos los
+     * horarios activos, para construir el índice de intervalos en una sola consulta.
+     * Si el horario no tiene aula se usa el aula por defecto del curso.
      *
-     * @return Lista de horarios con posibles conflictos
+     * @return Franjas de los horarios activos
      */
-    @Query("SELECT h FROM HorarioCurso h WHERE h.deletedAt IS NULL " +
-           "AND EXISTS (SELECT h2 FROM HorarioCurso h2 WHERE h2.id != h.id " +
-           "AND h2.dia = h.dia AND h2.bloqueHorario.id = h.bloqueHorario.id " +
-           "AND h2.aula = h.aula AND h2.deletedAt IS NULL)")
-    List<HorarioCurso> findConflictos();
+    @Query("SELECT h.id AS horarioId, c.id AS cursoId, c.periodo.id AS periodoId, p.id AS profesorId, " +
+           "h.dia AS dia, COALESCE(NULLIF(h.aula, ''), c.aulaDefault) AS aula, b.inicio AS inicio, b.fin AS fin " +
+           "FROM HorarioCurso h JOIN h.curso c JOIN h.bloqueHorario b LEFT JOIN c.profesor p " +
+           "WHERE h.deletedAt IS NULL AND c.deletedAt IS NULL AND b.deletedAt IS NULL")
+    List<FranjaHorario> findFranjasActivas();
+
+    /**
+     * Igual que {@link #findFranjasActivas()} pero solo para un periodo y un día.
+     *
+     * @param periodoId ID del periodo
+     * @param dia Día de la semana
+     * @return Franjas de los horarios activos del periodo en ese día
+     */
+    @Query("SELECT h.id AS horarioId, c.id AS cursoId, c.periodo.id AS periodoId, p.id AS profesorId, " +
+           "h.dia AS dia, COALESCE(NULLIF(h.aula, ''), c.aulaDefault) AS aula, b.inicio AS inicio, b.fin AS fin " +
+           "FROM HorarioCurso h JOIN h.curso c JOIN h.bloqueHorario b LEFT JOIN c.profesor p " +
+           "WHERE c.periodo.id = :periodoId AND h.dia = :dia " +
+           "AND h.deletedAt IS NULL AND c.deletedAt IS NULL AND b.deletedAt IS NULL")
+    List<FranjaHorario> findFranjasActivasDelDia(@Param("periodoId") String periodoId,
+                                                  @Param("dia") DiaSemana dia);
+
+    /**
+     * Igual que {@link #findFranjasActivas()} pero solo para un periodo.
+     *
+     * @param periodoId ID del periodo
+     * @return Franjas de los horarios activos del periodo
+     */
+    @Query("SELECT h.id AS horarioId, c.id AS cursoId, c.periodo.id AS periodoId, p.id AS profesorId, " +
+           "h.dia AS dia, COALESCE(NULLIF(h.aula, ''), c.aulaDefault) AS aula, b.inicio AS inicio, b.fin AS fin " +
+           "FROM HorarioCurso h JOIN h.curso c JOIN h.bloqueHorario b LEFT JOIN c.profesor p " +
+           "WHERE c.periodo.id = :periodoId " +
+           "AND h.deletedAt IS NULL AND c.deletedAt IS NULL AND b.deletedAt IS NULL")
+    List<FranjaHorario> findFranjasActivasDelPeriodo(@Param("periodoId") String periodoId);
+
+    /**
+     * Obtiene en una sola consulta las clases semanales de los cursos en los que un
+     * estudiante está inscrito. Sin periodo se usan los periodos activos.
+     *
+     * @param estudianteId ID del estudiante
+     * @param periodoId ID del periodo (opcional)
+     * @return Clases del estudiante
+     */
+    @Query("SELECT new com.example.api.dto.response.ClaseSemanalResponse(" +
+           "h.id, c.id, a.nombre, c.nombreGrupo, u.nombre, h.dia, b.id, b.nombre, b.inicio, b.fin, " +
+           "COALESCE(NULLIF(h.aula, ''), c.aulaDefault), h.tipo) " +
+           "FROM Inscripcion i JOIN i.curso c JOIN c.periodo pe JOIN c.asignatura a " +
+           "JOIN c.horarios h JOIN h.bloqueHorario b " +
+           "LEFT JOIN c.profesor pr LEFT JOIN pr.usuario u " +
+           "WHERE i.estudiante.id = :estudianteId AND i.estado = com.example.api.model.Inscripcion.EstadoInscripcion.inscrito " +
+           "AND i.deletedAt IS NULL AND " +
+           "h.deletedAt IS NULL AND c.deletedAt IS NULL AND b.deletedAt IS NULL AND pe.deletedAt IS NULL " +
+           "AND ((:periodoId IS NULL AND pe.activo = true) OR pe.id = :periodoId)")
+    List<ClaseSemanalResponse> findClasesSemanalesByEstudianteId(@Param("estudianteId") String estudianteId,
+                                                                @Param("periodoId") String periodoId);
+
+    /**
+     * Obtiene en una sola consulta las clases semanales de los cursos que imparte un
+     * profesor. Sin periodo se usan los periodos activos.
+     *
+     * @param profesorId ID del profesor
+     * @param periodoId ID del periodo (opcional)
+     * @return Clases del profesor
+     */
+    @Query("SELECT new com.example.api.dto.response.ClaseSemanalResponse(" +
+           "h.id, c.id, a.nombre, c.nombreGrupo, u.nombre, h.dia, b.id, b.nombre, b.inicio, b.fin, " +
+           "COALESCE(NULLIF(h.aula, ''), c.aulaDefault), h.tipo) " +
+           "FROM HorarioCurso h JOIN h.curso c JOIN c.periodo pe JOIN c.asignatura a JOIN h.bloqueHorario b " +
+           "JOIN c.profesor pr LEFT JOIN pr.usuario u " +
+           "WHERE pr.id = :profesorId AND " +
+           "h.deletedAt IS NULL AND c.deletedAt IS NULL AND b.deletedAt IS NULL AND pe.deletedAt IS NULL " +
+           "AND ((:periodoId IS NULL AND pe.activo = true) OR pe.id = :periodoId)")
+    List<ClaseSemanalResponse> findClasesSemanalesByProfesorId(@Param("profesorId") String profesorId,
+                                                              @Param("periodoId") String periodoId);
+
+    /**
+     * Obtiene las aulas distintas usadas por los horarios activos de un periodo.
+     *
+     * @param periodoId ID del periodo
+     * @return Aulas usadas
+     */
+    @Query("SELECT DISTINCT h.aula FROM HorarioCurso h WHERE h.curso.periodo.id = :periodoId " +
+           "AND h.aula IS NOT NULL AND h.deletedAt IS NULL")
+    List<String> findAulasByPeriodoId(@Param("periodoId") String periodoId);
+
+    /**
+     * Elimina lógicamente los horarios activos de los cursos indicados.
+     *
+     * @param cursoIds IDs de los cursos
+     * @param ahora Fecha de eliminación
+     * @return Número de horarios eliminados
+     */
+    @Modifying
+    @Query("UPDATE HorarioCurso h SET h.deletedAt = :ahora, h.updatedAt = :ahora WHERE h.deletedAt IS NULL " +
+           "AND h.curso.id IN :cursoIds")
+    int softDeleteByCursoIds(@Param("cursoIds") Collection<String> cursoIds, @Param("ahora") LocalDateTime ahora);
 
     /**
      * Verifica si existe un horario para un curso en un día y bloque específico.
@@ -93,4 +189,25 @@ public interface HorarioCursoRepository extends JpaRepository<HorarioCurso, Stri
     boolean existsByCursoAndBloqueAndDia(@Param("cursoId") String cursoId,
                                           @Param("bloqueId") String bloqueId,
                                           @Param("dia") DiaSemana dia);
+
+    /**
+     * Proyección con la franja horaria de un horario de curso.
+     */
+    interface FranjaHorario {
+        String getHorarioId();
+
+        String getCursoId();
+
+        String getPeriodoId();
+
+        String getProfesorId();
+
+        DiaSemana getDia();
+
+        String getAula();
+
+        LocalTime getInicio();
+
+        LocalTime getFin();
+    }
 }
@@ -1,10 +1,14 @@
 package com.example.api.repository;
 
 import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,6 +93,20 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, String
     boolean existsByEstudianteAndCurso(@Param("estudianteId") String estudianteId,
                                         @Param("cursoId") String cursoId);
 
+    /**
+     * Cuenta las inscripciones (activas o eliminadas) de un estudiante en un curso.
+     * Se consulta la tabla directamente porque la restricción única
+     * (curso_id, estudiante_id) también aplica a las filas eliminadas.
+     *
+     * @param estudianteId ID del estudiante
+     * @param cursoId ID del curso
+     * @return Número de filas existentes
+     */
+    @Query(value = "SELECT COUNT(*) FROM inscripciones WHERE estudiante_id = :estudianteId AND curso_id = :cursoId",
+           nativeQuery = true)
+    long countAnyByEstudianteAndCurso(@Param("estudianteId") String estudianteId,
+                                      @Param("cursoId") String cursoId);
+
     /**
      * Obtiene el historial de inscripciones de un estudiante ordenadas por fecha descendente.
      * Incluye todas las inscripciones (activas y eliminadas).
@@ -99,4 +117,38 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, String
     @Query("SELECT i FROM Inscripcion i WHERE i.estudiante.id = :estudianteId " +
            "ORDER BY i.fechaInscripcion DESC, i.createdAt DESC")
     List<Inscripcion> findHistorialByEstudianteId(@Param("estudianteId") String estudianteId);
+
+    /**
+     * Obtiene los IDs de los estudiantes inscritos en un curso, excluyendo un estado.
+     *
+     * @param cursoId ID del curso
+     * @param estadoExcluido Estado que no se debe incluir (por ejemplo, retirado)
+     * @return IDs de los estudiantes
+     */
+    @Query("SELECT i.estudiante.id FROM Inscripcion i WHERE i.curso.id = :cursoId " +
+           "AND i.deletedAt IS NULL AND i.estado <> :estadoExcluido")
+    List<String> findEstudianteIdsByCursoId(@Param("cursoId") String cursoId,
+                                            @Param("estadoExcluido") EstadoInscripcion estadoExcluido);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) una inscripción activa. Se usa antes de
+     * ocupar o liberar su cupo, para que dos cambios de estado simultáneos no partan
+     * del mismo estado anterior.
+     *
+     * @param id ID de la inscripción
+     * @return Inscripción bloqueada si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inscripcion i WHERE i.id = :id")
+    Optional<Inscripcion> findByIdParaActualizar(@Param("id") String id);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) una inscripción, incluidas las eliminadas
+     * lógicamente. Es nativa porque la restricción de BaseEntity filtra las eliminadas.
+     *
+     * @param id ID de la inscripción
+     * @return Inscripción bloqueada si existe
+     */
+    @Query(value = "SELECT * FROM inscripciones WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Inscripcion> findByIdIncluyendoEliminadasParaActualizar(@Param("id") String id);
 }
@@ -0,0 +1,125 @@
+package com.example.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.api.model.ListaEspera;
+
+/**
+ * Repositorio para la entidad ListaEspera.
+ * Proporciona métodos JPA para operaciones CRUD básicas y consultas personalizadas.
+ */
+@Repository
+public interface ListaEsperaRepository extends JpaRepository<ListaEspera, String> {
+
+    /**
+     * Obtiene las solicitudes en espera de un curso, en orden de llegada.
+     *
+     * @param cursoId ID del curso
+     * @return Solicitudes ordenadas por (solicitadoAt, id)
+     */
+    @Query("SELECT l.id AS id, l.estudiante.id AS estudianteId, l.solicitadoAt AS solicitadoAt " +
+           "FROM ListaEspera l WHERE l.curso.id = :cursoId ORDER BY l.solicitadoAt ASC, l.id ASC")
+    List<SolicitudEnCola> findColaByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Obtiene los cursos en cuya lista de espera está un estudiante.
+     *
+     * @param estudianteId ID del estudiante
+     * @return IDs de los cursos
+     */
+    @Query("SELECT l.curso.id FROM ListaEspera l WHERE l.estudiante.id = :estudianteId")
+    List<String> findCursoIdsByEstudianteId(@Param("estudianteId") String estudianteId);
+
+    /**
+     * Cuenta las solicitudes en espera de un curso.
+     *
+     * @param cursoId ID del curso
+     * @return Número de solicitudes
+     */
+    @Query("SELECT COUNT(l) FROM ListaEspera l WHERE l.curso.id = :cursoId")
+    long countByCursoId(@Param("cursoId") String cursoId);
+
+    /**
+     * Cuenta las solicitudes de un curso que van antes de (solicitadoAt, id) en la cola.
+     *
+     * @param cursoId ID del curso
+     * @param solicitadoAt Fecha de la solicitud de referencia
+     * @param id ID de la solicitud de referencia
+     * @return Número de solicitudes anteriores
+     */
+    @Query("SELECT COUNT(l) FROM ListaEspera l WHERE l.curso.id = :cursoId " +
+           "AND (l.solicitadoAt < :solicitadoAt OR (l.solicitadoAt = :solicitadoAt AND l.id < :id))")
+    long countAnteriores(@Param("cursoId") String cursoId,
+                         @Param("solicitadoAt") LocalDateTime solicitadoAt,
+                         @Param("id") String id);
+
+    /**
+     * Obtiene las primeras solicitudes de la lista de espera de un curso.
+     *
+     * @param cursoId ID del curso
+     * @param pageable Límite de filas (se usa solo el tamaño)
+     * @return Solicitudes en orden de llegada
+     */
+    @Query("SELECT l FROM ListaEspera l JOIN FETCH l.estudiante WHERE l.curso.id = :cursoId " +
+           "ORDER BY l.solicitadoAt ASC, l.id ASC")
+    List<ListaEspera> findPrimerasByCursoId(@Param("cursoId") String cursoId, Pageable pageable);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) la primera solicitud en espera de un curso.
+     * La lectura con bloqueo ve siempre la última versión confirmada, por lo que dos
+     * promociones simultáneas del mismo curso no eligen al mismo estudiante.
+     *
+     * @param cursoId ID del curso
+     * @param pageable Límite de filas (se usa solo el tamaño)
+     * @return Primera solicitud, si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM ListaEspera l WHERE l.curso.id = :cursoId ORDER BY l.solicitadoAt ASC, l.id ASC")
+    List<ListaEspera> findSiguienteParaPromover(@Param("cursoId") String cursoId, Pageable pageable);
+
+    /**
+     * Busca la solicitud de un estudiante en la lista de espera de un curso.
+     *
+     * @param cursoId ID del curso
+     * @param estudianteId ID del estudiante
+     * @return Solicitud si existe
+     */
+    @Query("SELECT l FROM ListaEspera l WHERE l.curso.id = :cursoId AND l.estudiante.id = :estudianteId")
+    Optional<ListaEspera> findByCursoIdAndEstudianteId(@Param("cursoId") String cursoId,
+                                                       @Param("estudianteId") String estudianteId);
+
+    /**
+     * Elimina la solicitud de un estudiante en la lista de espera de un curso.
+     *
+     * @param cursoId ID del curso
+     * @param estudianteId ID del estudiante
+     * @return Número de filas eliminadas
+     */
+    @Modifying
+    @Query(value = "DELETE FROM lista_espera WHERE curso_id = :cursoId AND estudiante_id = :estudianteId",
+           nativeQuery = true)
+    int deleteByCursoIdAndEstudianteId(@Param("cursoId") String cursoId, @Param("estudianteId") String estudianteId);
+
+    /**
+     * Proyección con la clave de orden de una solicitud en espera.
+     */
+    interface SolicitudEnCola {
+        String getId();
+
+        String getEstudianteId();
+
+        LocalDateTime getSolicitadoAt();
+    }
+}
@@ -4,9 +4,12 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -84,4 +87,15 @@ public interface PeriodoRepository extends JpaRepository<Periodo, String> {
      */
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Periodo p WHERE LOWER(p.nombre) = LOWER(:nombre) AND p.id != :id AND p.deletedAt IS NULL")
     boolean existsByNombreAndIdNot(@Param("nombre") String nombre, @Param("id") String id);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) un periodo. Se usa para serializar los
+     * cambios de horarios de un mismo periodo.
+     *
+     * @param id ID del periodo
+     * @return Periodo si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Periodo p WHERE p.id = :id")
+    Optional<Periodo> bloquearPorId(@Param("id") String id);
 }
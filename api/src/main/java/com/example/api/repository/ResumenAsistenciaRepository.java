@@ -0,0 +1,145 @@
+package com.example.api.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.api.dto.response.ResumenAsistenciaResponse;
+import com.example.api.model.Asistencia.EstadoAsistencia;
+
+/**
+ * Repositorio JDBC de la tabla resumen_asistencia, que guarda los contadores por
+ * estado de cada par (estudiante, curso). Los cambios en la tabla asistencia vuelven a
+ * calcular, en la misma transacción, los contadores de los estudiantes afectados; al
+ * eliminar o restaurar una clase se restan o suman sus registros. Los registros de una
+ * clase eliminada no cuentan.
+ */
+@Repository
+public class ResumenAsistenciaRepository {
+
+    // INSERT ... SELECT es una lectura con bloqueo: cuenta la última versión confirmada de
+    // los registros, no la instantánea de la transacción
+    private static final String RECALCULAR_SQL = "INSERT INTO resumen_asistencia "
+            + "(estudiante_id, curso_id, periodo_id, presente, ausente, tarde, justificado) "
+            + "SELECT e.id, ?, ?, "
+            + "COALESCE(SUM(a.estado = 'presente'), 0), COALESCE(SUM(a.estado = 'ausente'), 0), "
+            + "COALESCE(SUM(a.estado = 'tarde'), 0), COALESCE(SUM(a.estado = 'justificado'), 0) "
+            + "FROM estudiantes e "
+            + "LEFT JOIN (asistencia a JOIN clases cl ON cl.id = a.clase_id "
+            + "AND cl.curso_id = ? AND cl.deleted_at IS NULL) "
+            + "ON a.estudiante_id = e.id AND a.deleted_at IS NULL "
+            + "WHERE e.id IN (%s) "
+            + "GROUP BY e.id "
+            + "ON DUPLICATE KEY UPDATE presente = VALUES(presente), ausente = VALUES(ausente), "
+            + "tarde = VALUES(tarde), justificado = VALUES(justificado)";
+
+    // Suma (signo = 1) o resta (signo = -1) los registros activos de una clase
+    private static final String AJUSTAR_CLASE_SQL = "INSERT INTO resumen_asistencia "
+            + "(estudiante_id, curso_id, periodo_id, presente, ausente, tarde, justificado) "
+            + "SELECT a.estudiante_id, cl.curso_id, cu.periodo_id, "
+            + "? * SUM(a.estado = 'presente'), ? * SUM(a.estado = 'ausente'), "
+            + "? * SUM(a.estado = 'tarde'), ? * SUM(a.estado = 'justificado') "
+            + "FROM asistencia a "
+            + "JOIN clases cl ON cl.id = a.clase_id "
+            + "JOIN cursos cu ON cu.id = cl.curso_id "
+            + "WHERE a.clase_id = ? AND a.deleted_at IS NULL "
+            + "GROUP BY a.estudiante_id, cl.curso_id, cu.periodo_id "
+            + "ON DUPLICATE KEY UPDATE presente = presente + VALUES(presente), "
+            + "ausente = ausente + VALUES(ausente), tarde = tarde + VALUES(tarde), "
+            + "justificado = justificado + VALUES(justificado)";
+
+    private static final String RESUMEN_CURSO_SQL = "SELECT i.estudiante_id, e.codigo_estudiante, u.nombre, "
+            + "COALESCE(r.presente, 0) AS presente, COALESCE(r.ausente, 0) AS ausente, "
+            + "COALESCE(r.tarde, 0) AS tarde, COALESCE(r.justificado, 0) AS justificado "
+            + "FROM inscripciones i "
+            + "JOIN estudiantes e ON e.id = i.estudiante_id "
+            + "LEFT JOIN usuarios u ON u.id = e.usuario_id "
+            + "LEFT JOIN resumen_asistencia r ON r.estudiante_id = i.estudiante_id AND r.curso_id = i.curso_id "
+            + "WHERE i.curso_id = ? AND i.deleted_at IS NULL AND i.estado <> 'retirado' AND e.deleted_at IS NULL "
+            + "ORDER BY e.codigo_estudiante";
+
+    private static final String TOTALES_ESTUDIANTE_SQL = "SELECT COALESCE(SUM(presente), 0), COALESCE(SUM(ausente), 0), "
+            + "COALESCE(SUM(tarde), 0), COALESCE(SUM(justificado), 0) "
+            + "FROM resumen_asistencia WHERE estudiante_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResumenAsistenciaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Vuelve a calcular desde la tabla asistencia los contadores de varios estudiantes en
+     * un curso, creando las filas que falten. A diferencia de aplicar incrementos sobre un
+     * estado leído antes, el resultado no depende de lo que hayan hecho transacciones
+     * concurrentes sobre los mismos registros.
+     *
+     * @param cursoId ID del curso
+     * @param periodoId ID del periodo del curso
+     * @param estudianteIds IDs de los estudiantes
+     */
+    public void recalcular(String cursoId, String periodoId, Collection<String> estudianteIds) {
+        if (estudianteIds.isEmpty()) {
+            return;
+        }
+        String sql = String.format(RECALCULAR_SQL, String.join(", ", Collections.nCopies(estudianteIds.size(), "?")));
+        List<Object> parametros = new ArrayList<>(estudianteIds.size() + 3);
+        parametros.add(cursoId);
+        parametros.add(periodoId);
+        parametros.add(cursoId);
+        parametros.addAll(estudianteIds);
+        jdbcTemplate.update(sql, parametros.toArray());
+    }
+
+    /**
+     * Resta de los contadores los registros activos de una clase. Se llama antes de
+     * eliminar la clase (lógica o físicamente): el borrado en cascada de sus registros
+     * no pasa por la aplicación.
+     *
+     * @param claseId ID de la clase
+     */
+    public void restarClase(String claseId) {
+        ajustarClase(claseId, -1);
+    }
+
+    /**
+     * Vuelve a sumar a los contadores los registros activos de una clase restaurada.
+     *
+     * @param claseId ID de la clase
+     */
+    public void sumarClase(String claseId) {
+        ajustarClase(claseId, 1);
+    }
+
+    private void ajustarClase(String claseId, int signo) {
+        jdbcTemplate.update(AJUSTAR_CLASE_SQL, signo, signo, signo, signo, claseId);
+    }
+
+    /**
+     * Obtiene los contadores de todos los estudiantes inscritos (no retirados) en un curso.
+     * Los estudiantes sin registros aparecen con contadores en cero.
+     *
+     * @param cursoId ID del curso
+     * @return Resumen por estudiante, ordenado por código
+     */
+    public List<ResumenAsistenciaResponse> findResumenCurso(String cursoId) {
+        return jdbcTemplate.query(RESUMEN_CURSO_SQL, (rs, i) -> ResumenAsistenciaResponse.de(
+                rs.getString(1), rs.getString(2), rs.getString(3),
+                rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7)), cursoId);
+    }
+
+    /**
+     * Obtiene los contadores de un estudiante sumando todos sus cursos.
+     *
+     * @param estudianteId ID del estudiante
+     * @return Contadores indexados por {@link EstadoAsistencia#ordinal()}
+     */
+    public int[] findTotalesEstudiante(String estudianteId) {
+        return jdbcTemplate.queryForObject(TOTALES_ESTUDIANTE_SQL, (rs, i) -> new int[] {
+                rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4) }, estudianteId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.api.model.TrabajoReporte;
+import com.example.api.model.TrabajoReporte.EstadoTrabajo;
+
+/**
+ * Repositorio para la entidad TrabajoReporte.
+ */
+@Repository
+public interface TrabajoReporteRepository extends JpaRepository<TrabajoReporte, String> {
+
+    /**
+     * Obtiene los trabajos de un estado, del más reciente al más antiguo.
+     *
+     * @param estado Estado del trabajo
+     * @param pageable Configuración de paginación
+     * @return Página de trabajos
+     */
+    @Query("SELECT t FROM TrabajoReporte t WHERE t.estado = :estado AND t.deletedAt IS NULL ORDER BY t.createdAt DESC")
+    Page<TrabajoReporte> findByEstado(@Param("estado") EstadoTrabajo estado, Pageable pageable);
+
+    /**
+     * Bloquea los siguientes trabajos listos para ejecutarse: en cola con su reintento
+     * vencido, o en proceso con el bloqueo vencido (la instancia que los tomó se cayó).
+     * SKIP LOCKED hace que cada instancia tome filas distintas sin esperar a las demás.
+     *
+     * @param ahora Fecha actual
+     * @param limite Máximo de trabajos a tomar
+     * @return IDs de los trabajos bloqueados
+     */
+    @Query(value = "SELECT id FROM trabajos_reporte WHERE deleted_at IS NULL AND " +
+                   "((estado = 'en_cola' AND disponible_at <= :ahora) OR " +
+                   "(estado = 'en_proceso' AND bloqueado_hasta < :ahora)) " +
+                   "ORDER BY disponible_at LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<String> lockSiguientes(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+
+    /**
+     * Extiende el bloqueo de un trabajo y registra su avance. Solo aplica si la instancia
+     * todavía es dueña del trabajo y el avance es el esperado, así un elemento no se
+     * cuenta dos veces.
+     *
+     * @return 1 si se actualizó
+     */
+    @Modifying
+    @Query("UPDATE TrabajoReporte t SET t.procesados = t.procesados + 1, t.omitidos = t.omitidos + :omitido, " +
+           "t.bloqueadoHasta = :bloqueadoHasta WHERE t.id = :id AND t.estado = :estado " +
+           "AND t.bloqueadoPor = :instancia AND t.procesados = :procesados")
+    int avanzar(@Param("id") String id, @Param("instancia") String instancia, @Param("procesados") int procesados,
+                @Param("omitido") int omitido, @Param("bloqueadoHasta") LocalDateTime bloqueadoHasta,
+                @Param("estado") EstadoTrabajo estado);
+
+    /**
+     * Igual que avanzar, pero registra un lote de 'cantidad' elementos que empieza en
+     * 'procesados'.
+     *
+     * @return 1 si se actualizó
+     */
+    @Modifying
+    @Query("UPDATE TrabajoReporte t SET t.procesados = t.procesados + :cantidad, t.omitidos = t.omitidos + :omitidos, " +
+           "t.bloqueadoHasta = :bloqueadoHasta WHERE t.id = :id AND t.estado = :estado " +
+           "AND t.bloqueadoPor = :instancia AND t.procesados = :procesados")
+    int avanzarLote(@Param("id") String id, @Param("instancia") String instancia, @Param("procesados") int procesados,
+                    @Param("cantidad") int cantidad, @Param("omitidos") int omitidos,
+                    @Param("bloqueadoHasta") LocalDateTime bloqueadoHasta, @Param("estado") EstadoTrabajo estado);
+
+    /**
+     * Cuenta los trabajos activos por estado.
+     *
+     * @return Filas (estado, total)
+     */
+    @Query("SELECT t.estado AS estado, COUNT(t) AS total FROM TrabajoReporte t WHERE t.deletedAt IS NULL GROUP BY t.estado")
+    List<ConteoEstado> countByEstado();
+
+    /**
+     * Obtiene la fecha de creación del trabajo en cola más antiguo.
+     *
+     * @return Fecha, o null si la cola está vacía
+     */
+    @Query("SELECT MIN(t.createdAt) FROM TrabajoReporte t WHERE t.estado = com.example.api.model.TrabajoReporte.EstadoTrabajo.en_cola " +
+           "AND t.deletedAt IS NULL")
+    LocalDateTime findCreacionMasAntiguaEnCola();
+
+    /**
+     * Proyección con el número de trabajos de un estado.
+     */
+    interface ConteoEstado {
+        EstadoTrabajo getEstado();
+
+        long getTotal();
+    }
+}
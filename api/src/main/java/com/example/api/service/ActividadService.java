@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -43,8 +38,7 @@ public class ActividadService {
     private final ProfesorRepository profesorRepository;
     private final TiposPonderacionCursoRepository tiposPonderacionCursoRepository;
     private final ActividadMapper actividadMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final NotaFinalService notaFinalService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -54,15 +48,13 @@ public class ActividadService {
             ProfesorRepository profesorRepository,
             TiposPonderacionCursoRepository tiposPonderacionCursoRepository,
             ActividadMapper actividadMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            NotaFinalService notaFinalService) {
         this.actividadRepository = actividadRepository;
         this.cursoRepository = cursoRepository;
         this.profesorRepository = profesorRepository;
         this.tiposPonderacionCursoRepository = tiposPonderacionCursoRepository;
         this.actividadMapper = actividadMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.notaFinalService = notaFinalService;
     }
 
     /**
@@ -139,6 +131,11 @@ public class ActividadService {
     /**
      * Crea una nueva actividad.
      */
+    @Audited(accion = "CREATE", entidad = "actividad", detalle = {
+            "actividadId=#result.id()",
+            "titulo=#result.titulo()",
+            "cursoId=#request.cursoId()",
+            "profesorId=#result.profesor()?.id()" })
     public ActividadResponse createActividad(CreateActividadRequest request, HttpServletRequest httpRequest) {
         // Validar que la asignatura existe (implícito al buscar cursos)
         // Asignatura asignatura = asignaturaRepository.findById(request.asignaturaId())
@@ -173,9 +170,7 @@ public class ActividadService {
         }
 
         Actividad saved = actividadRepository.save(actividad);
-
-        // Audit Log
-        logActividadAction("CREATE", saved, httpRequest);
+        notaFinalService.invalidarCurso(curso.getId());
 
         return actividadMapper.toResponse(saved);
     }
@@ -183,10 +178,15 @@ public class ActividadService {
     /**
      * Actualiza una actividad existente.
      */
+    @Audited(accion = "UPDATE", entidad = "actividad", detalle = {
+            "actividadId=#result.id()",
+            "titulo=#result.titulo()",
+            "profesorId=#result.profesor()?.id()" })
     public ActividadResponse updateActividad(String id, UpdateActividadRequest request,
             HttpServletRequest httpRequest) {
         Actividad actividad = actividadRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad no encontrada con ID: " + id));
+        notaFinalService.invalidarCurso(actividad.getCurso().getId());
 
         if (request.cursoId() != null) {
             Curso curso = cursoRepository.findById(request.cursoId())
@@ -218,9 +218,7 @@ public class ActividadService {
         }
 
         Actividad updated = actividadRepository.save(actividad);
-
-        // Audit Log
-        logActividadAction("UPDATE", updated, httpRequest);
+        notaFinalService.invalidarCurso(updated.getCurso().getId());
 
         return actividadMapper.toResponse(updated);
     }
@@ -228,14 +226,13 @@ public class ActividadService {
     /**
      * Elimina lógicamente una actividad (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "actividad", detalle = "actividadId=#id")
     public void deleteActividad(String id, HttpServletRequest httpRequest) {
         Actividad actividad = actividadRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad no encontrada con ID: " + id));
         actividad.setDeletedAt(LocalDateTime.now());
         actividadRepository.save(actividad);
-
-        // Audit Log
-        logActividadAction("DELETE", actividad, httpRequest);
+        notaFinalService.invalidarCurso(actividad.getCurso().getId());
     }
 
     /**
@@ -245,6 +242,7 @@ public class ActividadService {
         Actividad actividad = actividadRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad no encontrada con ID: " + id));
         actividadRepository.delete(actividad);
+        notaFinalService.invalidarCurso(actividad.getCurso().getId());
     }
 
     /**
@@ -255,35 +253,7 @@ public class ActividadService {
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad no encontrada con ID: " + id));
         actividad.setDeletedAt(null);
         Actividad restored = actividadRepository.save(actividad);
+        notaFinalService.invalidarCurso(restored.getCurso().getId());
         return actividadMapper.toResponse(restored);
     }
-
-    private void logActividadAction(String action, Actividad actividad, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("actividadId", actividad.getId());
-            bodyMap.put("titulo", actividad.getTitulo());
-            if (actividad.getCurso() != null) {
-                bodyMap.put("cursoId", actividad.getCurso().getId());
-            }
-            if (actividad.getProfesor() != null) {
-                bodyMap.put("profesorId", actividad.getProfesor().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
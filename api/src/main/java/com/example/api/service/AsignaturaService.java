@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -33,23 +28,21 @@ public class AsignaturaService {
 
     private final AsignaturaRepository asignaturaRepository;
     private final AsignaturaMapper asignaturaMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final DisponibilidadCursoService disponibilidadCursoService;
 
     /**
      * Constructor con inyección de dependencias.
      *
      * @param asignaturaRepository Repositorio de asignaturas
      * @param asignaturaMapper     Mapper de asignaturas
+     * @param disponibilidadCursoService Caché de disponibilidad de cursos
      */
     public AsignaturaService(AsignaturaRepository asignaturaRepository,
             AsignaturaMapper asignaturaMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            DisponibilidadCursoService disponibilidadCursoService) {
         this.asignaturaRepository = asignaturaRepository;
         this.asignaturaMapper = asignaturaMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.disponibilidadCursoService = disponibilidadCursoService;
     }
 
     /**
@@ -126,6 +119,10 @@ public class AsignaturaService {
      * @return La asignatura creada
      * @throws IllegalArgumentException si el código ya existe
      */
+    @Audited(accion = "CREATE", entidad = "asignatura", detalle = {
+            "asignaturaId=#result.id()",
+            "nombre=#result.nombre()",
+            "codigo=#result.codigo()" })
     public AsignaturaResponse createAsignatura(CreateAsignaturaRequest request, HttpServletRequest httpRequest) {
         // Verificar que el código no exista
         if (asignaturaRepository.existsByCodigo(request.codigo())) {
@@ -138,9 +135,6 @@ public class AsignaturaService {
         // Guardar
         Asignatura asignaturaGuardada = asignaturaRepository.save(asignatura);
 
-        // Audit Log
-        logAsignaturaAction("CREATE", asignaturaGuardada, httpRequest);
-
         return asignaturaMapper.toResponse(asignaturaGuardada);
     }
 
@@ -153,6 +147,10 @@ public class AsignaturaService {
      * @throws ResourceNotFoundException si la asignatura no existe
      * @throws IllegalArgumentException  si el código ya existe
      */
+    @Audited(accion = "UPDATE", entidad = "asignatura", detalle = {
+            "asignaturaId=#result.id()",
+            "nombre=#result.nombre()",
+            "codigo=#result.codigo()" })
     public AsignaturaResponse updateAsignatura(String id, UpdateAsignaturaRequest request,
             HttpServletRequest httpRequest) {
         Asignatura asignatura = asignaturaRepository.findById(id)
@@ -169,9 +167,8 @@ public class AsignaturaService {
         asignaturaMapper.updateEntityFromDto(request, asignatura);
 
         Asignatura asignaturaActualizada = asignaturaRepository.save(asignatura);
-
-        // Audit Log
-        logAsignaturaAction("UPDATE", asignaturaActualizada, httpRequest);
+        // La caché de disponibilidad guarda el nombre de la asignatura
+        disponibilidadCursoService.invalidar();
 
         return asignaturaMapper.toResponse(asignaturaActualizada);
     }
@@ -182,15 +179,13 @@ public class AsignaturaService {
      * @param id El ID de la asignatura a eliminar
      * @throws ResourceNotFoundException si la asignatura no existe
      */
+    @Audited(accion = "DELETE", entidad = "asignatura", detalle = "asignaturaId=#id")
     public void deleteAsignatura(String id, HttpServletRequest httpRequest) {
         Asignatura asignatura = asignaturaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Asignatura no encontrada con ID: " + id));
 
         asignatura.setDeletedAt(LocalDateTime.now());
         asignaturaRepository.save(asignatura);
-
-        // Audit Log
-        logAsignaturaAction("DELETE", asignatura, httpRequest);
     }
 
     /**
@@ -221,28 +216,4 @@ public class AsignaturaService {
         Asignatura asignaturaRestaurada = asignaturaRepository.save(asignatura);
         return asignaturaMapper.toResponse(asignaturaRestaurada);
     }
-
-    private void logAsignaturaAction(String action, Asignatura asignatura, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("asignaturaId", asignatura.getId());
-            bodyMap.put("nombre", asignatura.getNombre());
-            bodyMap.put("codigo", asignatura.getCodigo());
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
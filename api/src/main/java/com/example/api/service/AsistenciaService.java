@@ -1,33 +1,43 @@
 package com.example.api.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.api.dto.request.AsistenciaEstudianteRequest;
 import com.example.api.dto.request.CreateAsistenciaRequest;
+import com.example.api.dto.request.RegistroAsistenciaBulkRequest;
 import com.example.api.dto.request.UpdateAsistenciaRequest;
 import com.example.api.dto.response.AsistenciaResponse;
+import com.example.api.dto.response.RegistroAsistenciaBulkResponse;
+import com.example.api.dto.response.ResumenAsistenciaResponse;
 import com.example.api.exception.ResourceNotFoundException;
 import com.example.api.model.Asistencia;
 import com.example.api.model.Asistencia.EstadoAsistencia;
 import com.example.api.model.Clase;
+import com.example.api.model.Curso;
 import com.example.api.model.Estudiante;
 import com.example.api.model.Usuario;
+import com.example.api.repository.AsistenciaBatchRepository;
+import com.example.api.repository.AsistenciaBatchRepository.FilaAsistencia;
 import com.example.api.repository.AsistenciaRepository;
 import com.example.api.repository.ClaseRepository;
+import com.example.api.repository.CursoRepository;
 import com.example.api.repository.EstudianteRepository;
+import com.example.api.repository.ResumenAsistenciaRepository;
 import com.example.api.repository.UsuarioRepository;
 import com.example.api.mapper.AsistenciaMapper;
 
@@ -43,8 +53,9 @@ public class AsistenciaService {
         private final EstudianteRepository estudianteRepository;
         private final UsuarioRepository usuarioRepository;
         private final AsistenciaMapper asistenciaMapper;
-        private final AuditProducer auditProducer;
-        private final ObjectMapper objectMapper;
+        private final AsistenciaBatchRepository asistenciaBatchRepository;
+        private final ResumenAsistenciaRepository resumenAsistenciaRepository;
+        private final CursoRepository cursoRepository;
 
         /**
          * Constructor con inyección de dependencias.
@@ -54,15 +65,17 @@ public class AsistenciaService {
                         EstudianteRepository estudianteRepository,
                         UsuarioRepository usuarioRepository,
                         AsistenciaMapper asistenciaMapper,
-                        AuditProducer auditProducer,
-                        ObjectMapper objectMapper) {
+                        AsistenciaBatchRepository asistenciaBatchRepository,
+                        ResumenAsistenciaRepository resumenAsistenciaRepository,
+                        CursoRepository cursoRepository) {
                 this.asistenciaRepository = asistenciaRepository;
                 this.claseRepository = claseRepository;
                 this.estudianteRepository = estudianteRepository;
                 this.usuarioRepository = usuarioRepository;
                 this.asistenciaMapper = asistenciaMapper;
-                this.auditProducer = auditProducer;
-                this.objectMapper = objectMapper;
+                this.asistenciaBatchRepository = asistenciaBatchRepository;
+                this.resumenAsistenciaRepository = resumenAsistenciaRepository;
+                this.cursoRepository = cursoRepository;
         }
 
         /**
@@ -106,46 +119,44 @@ public class AsistenciaService {
         }
 
         /**
-         * Obtiene estadísticas de asistencia de un estudiante usando HashMap.
-         * Implementa el uso de Tabla Hash como estructura de datos.
+         * Obtiene estadísticas de asistencia de un estudiante.
+         * Lee los contadores mantenidos en resumen_asistencia en lugar de recorrer
+         * todos los registros del estudiante.
          */
         @Transactional(readOnly = true)
         public Map<String, Object> getEstadisticasEstudiante(String estudianteId) {
-                List<Asistencia> asistencias = asistenciaRepository.findByEstudianteId(estudianteId);
-
-                // Usar HashMap para contar frecuencia de estados
-                HashMap<EstadoAsistencia, Integer> conteoEstados = new HashMap<>();
-
-                // Inicializar contadores
-                for (EstadoAsistencia estado : EstadoAsistencia.values()) {
-                        conteoEstados.put(estado, 0);
-                }
-
-                // Contar cada estado
-                for (Asistencia asistencia : asistencias) {
-                        EstadoAsistencia estado = asistencia.getEstado();
-                        conteoEstados.put(estado, conteoEstados.get(estado) + 1);
-                }
-
-                int totalClases = asistencias.size();
-                double porcentajeAsistencia = totalClases > 0
-                                ? (conteoEstados.get(EstadoAsistencia.presente)
-                                                + conteoEstados.get(EstadoAsistencia.tarde)) * 100.0 / totalClases
-                                : 0.0;
+                int[] conteo = resumenAsistenciaRepository.findTotalesEstudiante(estudianteId);
+                ResumenAsistenciaResponse resumen = ResumenAsistenciaResponse.de(estudianteId, null, null,
+                                conteo[EstadoAsistencia.presente.ordinal()],
+                                conteo[EstadoAsistencia.ausente.ordinal()],
+                                conteo[EstadoAsistencia.tarde.ordinal()],
+                                conteo[EstadoAsistencia.justificado.ordinal()]);
 
                 // Construir respuesta
                 Map<String, Object> estadisticas = new HashMap<>();
                 estadisticas.put("estudianteId", estudianteId);
-                estadisticas.put("totalClases", totalClases);
-                estadisticas.put("presente", conteoEstados.get(EstadoAsistencia.presente));
-                estadisticas.put("ausente", conteoEstados.get(EstadoAsistencia.ausente));
-                estadisticas.put("tarde", conteoEstados.get(EstadoAsistencia.tarde));
-                estadisticas.put("justificado", conteoEstados.get(EstadoAsistencia.justificado));
-                estadisticas.put("porcentajeAsistencia", Math.round(porcentajeAsistencia * 100.0) / 100.0);
+                estadisticas.put("totalClases", resumen.totalClases());
+                estadisticas.put("presente", resumen.presente());
+                estadisticas.put("ausente", resumen.ausente());
+                estadisticas.put("tarde", resumen.tarde());
+                estadisticas.put("justificado", resumen.justificado());
+                estadisticas.put("porcentajeAsistencia", resumen.porcentajeAsistencia());
 
                 return estadisticas;
         }
 
+        /**
+         * Obtiene el resumen de asistencia de todos los estudiantes inscritos en un curso
+         * en una sola consulta sobre los contadores precalculados.
+         */
+        @Transactional(readOnly = true)
+        public List<ResumenAsistenciaResponse> getResumenCurso(String cursoId) {
+                if (!cursoRepository.existsById(cursoId)) {
+                        throw new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId);
+                }
+                return resumenAsistenciaRepository.findResumenCurso(cursoId);
+        }
+
         /**
          * Obtiene todas las asistencias eliminadas.
          */
@@ -159,6 +170,11 @@ public class AsistenciaService {
         /**
          * Crea una nueva asistencia.
          */
+        @Audited(accion = "CREATE", entidad = "asistencia", detalle = {
+                "asistenciaId=#result.id()",
+                "estado=#result.estado()",
+                "claseId=#result.clase()?.id()",
+                "estudianteId=#result.estudiante()?.id()" })
         public AsistenciaResponse createAsistencia(CreateAsistenciaRequest request, HttpServletRequest httpRequest) {
                 // Validar que la clase existe
                 Clase clase = claseRepository.findById(request.claseId())
@@ -188,16 +204,83 @@ public class AsistenciaService {
                                 request.registradoAt() != null ? request.registradoAt() : LocalDateTime.now());
 
                 Asistencia savedAsistencia = asistenciaRepository.save(asistencia);
-
-                // Audit Log
-                logAsistenciaAction("CREATE", savedAsistencia, httpRequest);
+                recalcularResumen(savedAsistencia);
 
                 return asistenciaMapper.toResponse(savedAsistencia);
         }
 
+        /**
+         * Registra el pase de lista completo de una clase en una sola transacción.
+         * Valida los estudiantes con una consulta IN y guarda todas las filas con un
+         * lote de INSERT ... ON DUPLICATE KEY UPDATE (inserta o actualiza el registro
+         * existente de cada estudiante). Publica un solo evento de auditoría.
+         */
+        @Audited(accion = "BULK_UPSERT", entidad = "asistencia", detalle = {
+                "claseId=#result.claseId()",
+                "total=#result.total()",
+                "insertados=#result.insertados()",
+                "actualizados=#result.actualizados()",
+                "porEstado=#result.porEstado()" })
+        public RegistroAsistenciaBulkResponse registrarAsistenciaClase(String claseId,
+                        RegistroAsistenciaBulkRequest request, HttpServletRequest httpRequest) {
+                Clase clase = claseRepository.findById(claseId)
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                                "Clase no encontrada con ID: " + claseId));
+
+                String registradoPorId = request.registradoPorId() != null && !request.registradoPorId().isBlank()
+                                ? request.registradoPorId()
+                                : null;
+                if (registradoPorId != null && !usuarioRepository.existsById(registradoPorId)) {
+                        throw new ResourceNotFoundException("Usuario no encontrado con ID: " + registradoPorId);
+                }
+
+                Set<String> estudianteIds = new LinkedHashSet<>();
+                List<FilaAsistencia> filas = new ArrayList<>(request.estudiantes().size());
+                Map<String, Long> porEstado = new LinkedHashMap<>();
+                for (EstadoAsistencia estado : EstadoAsistencia.values()) {
+                        porEstado.put(estado.name(), 0L);
+                }
+                for (AsistenciaEstudianteRequest item : request.estudiantes()) {
+                        if (!estudianteIds.add(item.estudianteId())) {
+                                throw new IllegalArgumentException(
+                                                "Estudiante repetido en el pase de lista: " + item.estudianteId());
+                        }
+                        filas.add(new FilaAsistencia(item.estudianteId(), item.estado(), item.observacion()));
+                        porEstado.merge(item.estado().name(), 1L, Long::sum);
+                }
+
+                List<String> existentes = estudianteRepository.findActiveIdsByIdIn(estudianteIds);
+                if (existentes.size() != estudianteIds.size()) {
+                        Set<String> faltantes = new LinkedHashSet<>(estudianteIds);
+                        existentes.forEach(faltantes::remove);
+                        throw new ResourceNotFoundException("Estudiantes no encontrados con ID: " + faltantes);
+                }
+
+                // Registros previos, solo para contar inserciones y actualizaciones
+                int actualizados = asistenciaRepository.findRegistrosExistentes(claseId, estudianteIds).size();
+
+                asistenciaBatchRepository.upsert(claseId, filas, registradoPorId,
+                                request.registradoAt() != null ? request.registradoAt() : LocalDateTime.now());
+
+                // Se recalcula desde la tabla: un delta sobre el estado leído antes se contaría dos
+                // veces si otro pase de lista de la misma clase confirmara en medio
+                Curso curso = clase.getCurso();
+                resumenAsistenciaRepository.recalcular(curso.getId(), curso.getPeriodo().getId(), estudianteIds);
+
+                RegistroAsistenciaBulkResponse resumen = new RegistroAsistenciaBulkResponse(claseId, filas.size(),
+                                filas.size() - actualizados, actualizados, porEstado);
+
+                return resumen;
+        }
+
         /**
          * Actualiza una asistencia existente.
          */
+        @Audited(accion = "UPDATE", entidad = "asistencia", detalle = {
+                "asistenciaId=#result.id()",
+                "estado=#result.estado()",
+                "claseId=#result.clase()?.id()",
+                "estudianteId=#result.estudiante()?.id()" })
         public AsistenciaResponse updateAsistencia(String id, UpdateAsistenciaRequest request,
                         HttpServletRequest httpRequest) {
                 Asistencia asistencia = asistenciaRepository.findById(id)
@@ -226,9 +309,9 @@ public class AsistenciaService {
                 }
 
                 Asistencia updatedAsistencia = asistenciaRepository.save(asistencia);
-
-                // Audit Log
-                logAsistenciaAction("UPDATE", updatedAsistencia, httpRequest);
+                if (request.estado() != null) {
+                        recalcularResumen(updatedAsistencia);
+                }
 
                 return asistenciaMapper.toResponse(updatedAsistencia);
         }
@@ -236,54 +319,37 @@ public class AsistenciaService {
         /**
          * Elimina lógicamente una asistencia (soft delete).
          */
+        @Audited(accion = "DELETE", entidad = "asistencia", detalle = "asistenciaId=#id")
         public void deleteAsistencia(String id, HttpServletRequest httpRequest) {
                 Asistencia asistencia = asistenciaRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Asistencia no encontrada con ID: " + id));
                 asistencia.setDeletedAt(LocalDateTime.now());
                 asistenciaRepository.save(asistencia);
-
-                // Audit Log
-                logAsistenciaAction("DELETE", asistencia, httpRequest);
+                recalcularResumen(asistencia);
         }
 
-        private void logAsistenciaAction(String action, Asistencia asistencia, HttpServletRequest request) {
-                try {
-                        AuditLogDTO log = new AuditLogDTO();
-                        log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-                        log.setAction(action);
-                        log.setEndpoint(request.getRequestURI());
-                        log.setIpAddress(request.getRemoteAddr());
-                        log.setDevice(request.getHeader("User-Agent"));
-                        log.setTimestamp(java.time.Instant.now());
-
-                        Map<String, Object> bodyMap = new HashMap<>();
-                        bodyMap.put("asistenciaId", asistencia.getId());
-                        bodyMap.put("estado", asistencia.getEstado());
-                        if (asistencia.getClase() != null) {
-                                bodyMap.put("claseId", asistencia.getClase().getId());
-                        }
-                        if (asistencia.getEstudiante() != null) {
-                                bodyMap.put("estudianteId", asistencia.getEstudiante().getId());
-                        }
-
-                        log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-                        auditProducer.sendAuditLog(log);
-                } catch (Exception e) {
-                        System.err.println("Error sending audit log: " + e.getMessage());
-                        e.printStackTrace();
-                }
+        /**
+         * Recalcula desde la tabla asistencia, dentro de la transacción actual, los
+         * contadores del estudiante y curso de la asistencia. Los cambios pendientes de
+         * JPA se envían antes para que la consulta los vea.
+         */
+        private void recalcularResumen(Asistencia asistencia) {
+                asistenciaRepository.flush();
+                Curso curso = asistencia.getClase().getCurso();
+                resumenAsistenciaRepository.recalcular(curso.getId(), curso.getPeriodo().getId(),
+                                List.of(asistencia.getEstudiante().getId()));
         }
 
         /**
          * Elimina permanentemente una asistencia.
          */
         public void permanentDeleteAsistencia(String id) {
-                if (!asistenciaRepository.existsById(id)) {
-                        throw new ResourceNotFoundException("Asistencia no encontrada con ID: " + id);
-                }
-                asistenciaRepository.deleteById(id);
+                Asistencia asistencia = asistenciaRepository.findById(id)
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                                "Asistencia no encontrada con ID: " + id));
+                asistenciaRepository.delete(asistencia);
+                recalcularResumen(asistencia);
         }
 
         /**
@@ -295,6 +361,7 @@ public class AsistenciaService {
                                                 "Asistencia no encontrada con ID: " + id));
                 asistencia.setDeletedAt(null);
                 Asistencia restoredAsistencia = asistenciaRepository.save(asistencia);
+                recalcularResumen(restoredAsistencia);
                 return asistenciaMapper.toResponse(restoredAsistencia);
         }
 }
@@ -1,30 +1,303 @@
 package com.example.api.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import com.example.api.dto.AuditLogDTO;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publica los eventos de auditoría en Redis sin bloquear a quien los genera.
+ *
+ * sendAuditLog solo agrega el evento a una cola circular acotada (ColaAuditoria); un
+ * hilo en segundo plano la vacía por lotes, serializa los eventos (incluido el detalle
+ * que AuditedAspect deja sin serializar) y los publica en un solo pipeline por lote.
+ * Si la cola está llena se aplica la política de desbordamiento configurada: descartar
+ * el evento nuevo o el más antiguo. Los eventos de un lote que Redis no aceptó se
+ * reintentan hasta 'reintentos' veces antes de descartarse; los que sí se agregaron no
+ * se vuelven a enviar.
+ *
+ * Por defecto los eventos se agregan (XADD) a un Redis Stream acotado a 'stream-maxlen'
+ * entradas, que el servicio de auditoría lee con un grupo de consumidores: lo publicado
+ * mientras está caído se procesa al volver. Con transporte 'pubsub' se publican en
+ * audit-channel como antes.
+ *
+ * Con codificación 'binario' (por defecto) cada evento viaja en el formato compacto de
+ * CodificadorAuditoria, sin pasar por Jackson ni por el serializador del RedisTemplate;
+ * 'json' conserva el formato anterior para servicios de auditoría aún no actualizados.
+ *
+ * Métricas: auditoria.cola (eventos en espera), auditoria.descartados (por motivo),
+ * auditoria.enviados, auditoria.envio (duración de cada pipeline) y auditoria.lote
+ * (eventos por pipeline).
+ */
 @Service
 public class AuditProducer {
 
+    private static final String CANAL = "audit-channel";
+    private static final byte[] CANAL_BYTES = CANAL.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CAMPO_EVENTO = "evento".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Cómo se entregan los eventos al servicio de auditoría.
+     */
+    public enum Transporte {
+        stream,
+        pubsub
+    }
+
+    /**
+     * Formato de cada evento en Redis.
+     */
+    public enum Codificacion {
+        binario,
+        json
+    }
+
+    /**
+     * Qué hacer con un evento cuando la cola está llena.
+     */
+    public enum PoliticaDesbordamiento {
+        descartar_nuevo,
+        descartar_antiguo
+    }
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auditoria.capacidad:8192}")
+    private int capacidad;
+
+    @Value("${app.auditoria.lote:256}")
+    private int tamanoLote;
+
+    @Value("${app.auditoria.intervalo-ms:50}")
+    private long intervaloMs;
+
+    @Value("${app.auditoria.reintentos:3}")
+    private int reintentos;
+
+    @Value("${app.auditoria.desbordamiento:descartar_nuevo}")
+    private PoliticaDesbordamiento desbordamiento;
+
+    @Value("${app.auditoria.transporte:stream}")
+    private Transporte transporte;
+
+    @Value("${app.auditoria.codificacion:binario}")
+    private Codificacion codificacion;
+
+    @Value("${app.auditoria.stream:audit-stream}")
+    private String stream;
+
+    @Value("${app.auditoria.stream-maxlen:1000000}")
+    private long streamMaxlen;
+
+    private byte[] streamBytes;
+    private XAddOptions opcionesXadd;
+
+    private ColaAuditoria<AuditLogDTO> cola;
+    private Thread enviador;
+    private volatile boolean activo;
+
+    private Counter descartadosCola;
+    private Counter descartadosEnvio;
+    private Counter descartadosSerializacion;
+    private Counter enviados;
+    private Timer envio;
+    private DistributionSummary lote;
 
     @Autowired
-    public AuditProducer(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
+    public AuditProducer(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        streamBytes = stream.getBytes(StandardCharsets.UTF_8);
+        // Recorte aproximado (MAXLEN ~): Redis elimina nodos completos, mucho más barato que el exacto
+        opcionesXadd = XAddOptions.maxlen(streamMaxlen).approximateTrimming(true);
+        cola = new ColaAuditoria<>(capacidad);
+        Gauge.builder("auditoria.cola", cola, ColaAuditoria::size)
+                .description("Eventos de auditoría en espera de envío")
+                .register(meterRegistry);
+        descartadosCola = descartados("cola_llena");
+        descartadosEnvio = descartados("error_envio");
+        descartadosSerializacion = descartados("serializacion");
+        enviados = Counter.builder("auditoria.enviados")
+                .description("Eventos de auditoría publicados en Redis")
+                .register(meterRegistry);
+        envio = Timer.builder("auditoria.envio")
+                .description("Duración de cada pipeline de eventos de auditoría")
+                .register(meterRegistry);
+        lote = DistributionSummary.builder("auditoria.lote")
+                .description("Eventos de auditoría por pipeline")
+                .register(meterRegistry);
+
+        activo = true;
+        enviador = new Thread(this::enviarContinuamente, "auditoria-enviador");
+        enviador.setDaemon(true);
+        enviador.start();
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        if (enviador != null) {
+            LockSupport.unpark(enviador);
+            try {
+                // El hilo envía lo que quede en la cola antes de terminar
+                enviador.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
+    /**
+     * Encola un evento de auditoría. No bloquea ni hace E/S.
+     */
     public void sendAuditLog(AuditLogDTO log) {
+        if (log == null) {
+            return;
+        }
+        if (!cola.offer(log)) {
+            if (desbordamiento == PoliticaDesbordamiento.descartar_antiguo && cola.poll() != null) {
+                descartadosCola.increment();
+                if (cola.offer(log)) {
+                    return;
+                }
+            }
+            descartadosCola.increment();
+            return;
+        }
+        if (cola.size() >= tamanoLote) {
+            LockSupport.unpark(enviador);
+        }
+    }
+
+    private void enviarContinuamente() {
+        List<AuditLogDTO> pendientes = new ArrayList<>(tamanoLote);
+        int fallos = 0;
+        while (activo || cola.size() > 0 || !pendientes.isEmpty()) {
+            if (pendientes.isEmpty()) {
+                cola.drainTo(pendientes, tamanoLote);
+            }
+            if (pendientes.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervaloMs));
+                continue;
+            }
+            try {
+                enviar(pendientes);
+                pendientes.clear();
+                fallos = 0;
+            } catch (RuntimeException e) {
+                fallos++;
+                if (fallos > reintentos || !activo) {
+                    System.err.println("Error sending audit logs, dropping " + pendientes.size() + " events: "
+                            + e.getMessage());
+                    descartadosEnvio.increment(pendientes.size());
+                    pendientes.clear();
+                    fallos = 0;
+                } else {
+                    // Redis no disponible: se espera antes de reintentar el mismo lote
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervaloMs << Math.min(fallos, 6)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Publica un lote en un solo pipeline. Si algunos comandos fallan, en 'eventos' quedan
+     * solo los eventos de esos comandos y se relanza la excepción para reintentarlos.
+     */
+    @SuppressWarnings("unchecked")
+    private void enviar(List<AuditLogDTO> eventos) {
+        RedisSerializer<Object> serializador = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        List<byte[]> mensajes = new ArrayList<>(eventos.size());
+        List<AuditLogDTO> serializados = new ArrayList<>(eventos.size());
+        for (AuditLogDTO evento : eventos) {
+            try {
+                if (evento.getRequestBody() == null && evento.getDetalle() != null) {
+                    evento.setRequestBody(objectMapper.writeValueAsString(evento.getDetalle()));
+                }
+                if (codificacion == Codificacion.binario) {
+                    mensajes.add(CodificadorAuditoria.codificar(evento));
+                } else {
+                    mensajes.add(transporte == Transporte.stream
+                            ? objectMapper.writeValueAsBytes(evento)
+                            : serializador.serialize(objectMapper.writeValueAsString(evento)));
+                }
+                serializados.add(evento);
+            } catch (JsonProcessingException e) {
+                descartadosSerializacion.increment();
+            }
+        }
+        if (mensajes.isEmpty()) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
         try {
-            String message = objectMapper.writeValueAsString(log);
-            redisTemplate.convertAndSend("audit-channel", message);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            redisTemplate.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+                for (byte[] mensaje : mensajes) {
+                    if (transporte == Transporte.stream) {
+                        connection.streamCommands().xAdd(
+                                StreamRecords.rawBytes(Map.of(CAMPO_EVENTO, mensaje)).withStreamKey(streamBytes),
+                                opcionesXadd);
+                    } else {
+                        connection.publish(CANAL_BYTES, mensaje);
+                    }
+                }
+                return null;
+            });
+        } catch (RedisPipelineException e) {
+            // Reenviar el lote completo duplicaría en el stream las entradas que sí se agregaron
+            List<Object> resultados = e.getResults();
+            eventos.clear();
+            for (int i = 0; i < serializados.size(); i++) {
+                if (i >= resultados.size() || resultados.get(i) instanceof Throwable) {
+                    eventos.add(serializados.get(i));
+                }
+            }
+            enviados.increment(serializados.size() - eventos.size());
+            throw e;
         }
+        envio.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        lote.record(mensajes.size());
+        enviados.increment(mensajes.size());
+    }
+
+    private Counter descartados(String motivo) {
+        return Counter.builder("auditoria.descartados")
+                .description("Eventos de auditoría descartados")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
     }
 }
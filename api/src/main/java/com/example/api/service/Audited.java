@@ -0,0 +1,51 @@
+package com.example.api.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de servicio cuya ejecución exitosa genera un evento de auditoría.
+ *
+ * El evento lo arma AuditedAspect al terminar el método y se publica solo si la
+ * transacción confirma. Las expresiones son SpEL evaluadas sobre los parámetros del
+ * método (por nombre, p. ej. {@code #id}) y su resultado ({@code #result}).
+ *
+ * Los métodos auditados conservan su parámetro HttpServletRequest aunque el cuerpo no lo
+ * use: dentro de una petición el aspecto toma la petición en curso, pero fuera de ella
+ * (pruebas como InscripcionConcurrenciaTest o tareas en segundo plano) ese argumento es
+ * la única fuente del endpoint, la IP y el dispositivo del evento.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Audited {
+
+    /**
+     * Acción registrada, p. ej. CREATE, UPDATE o DELETE.
+     */
+    String accion();
+
+    /**
+     * Tipo de entidad afectada; permite deshabilitar su auditoría con
+     * app.auditoria.entidades-deshabilitadas.
+     */
+    String entidad();
+
+    /**
+     * Campos del detalle en formato {@code "clave=expresión"}. Los valores nulos se omiten.
+     */
+    String[] detalle() default {};
+
+    /**
+     * Expresión con el ID del usuario; vacío registra SYSTEM_ADMIN.
+     */
+    String usuario() default "";
+
+    /**
+     * Expresión booleana; si es falsa no se registra el evento.
+     */
+    String condicion() default "";
+}
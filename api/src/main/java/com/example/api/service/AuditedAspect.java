@@ -0,0 +1,158 @@
+package com.example.api.service;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.api.dto.AuditLogDTO;
+
+/**
+ * Genera los eventos de auditoría de los métodos anotados con {@link Audited}.
+ *
+ * Tras una ejecución exitosa toma el contexto de la petición (endpoint, IP, navegador),
+ * evalúa el detalle sobre los parámetros y el resultado, y entrega el evento a
+ * AuditProducer cuando la transacción confirma: un método que falla o cuya transacción
+ * se revierte no se audita. El detalle viaja sin serializar y AuditProducer lo convierte
+ * a JSON en su hilo de envío. Si la auditoría está deshabilitada (globalmente o para la
+ * entidad) el método se ejecuta sin ningún trabajo adicional.
+ *
+ * Las expresiones de cada método se compilan una sola vez.
+ */
+@Aspect
+@Component
+public class AuditedAspect {
+
+    private static final String USUARIO_SISTEMA = "SYSTEM_ADMIN";
+    private static final String DESCONOCIDO = "UNKNOWN";
+
+    private final AuditProducer auditProducer;
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer nombres = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Plantilla> plantillas = new ConcurrentHashMap<>();
+
+    @Value("${app.auditoria.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${app.auditoria.entidades-deshabilitadas:}")
+    private Set<String> entidadesDeshabilitadas;
+
+    /**
+     * Expresiones compiladas de un método anotado.
+     */
+    private record Plantilla(Map<String, Expression> detalle, Expression usuario, Expression condicion) {
+    }
+
+    public AuditedAspect(AuditProducer auditProducer) {
+        this.auditProducer = auditProducer;
+    }
+
+    @Around("@annotation(audited)")
+    public Object auditar(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
+        if (!habilitada || entidadesDeshabilitadas.contains(audited.entidad())) {
+            return joinPoint.proceed();
+        }
+
+        Object resultado = joinPoint.proceed();
+
+        try {
+            AuditLogDTO log = crearEvento(joinPoint, audited, resultado);
+            if (log != null) {
+                TransaccionUtils.despuesDelCommit(() -> auditProducer.sendAuditLog(log));
+            }
+        } catch (RuntimeException e) {
+            // La auditoría nunca hace fallar la operación
+            System.err.println("Error building audit log for " + joinPoint.getSignature().toShortString() + ": "
+                    + e.getMessage());
+        }
+        return resultado;
+    }
+
+    private AuditLogDTO crearEvento(ProceedingJoinPoint joinPoint, Audited audited, Object resultado) {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Plantilla plantilla = plantillas.computeIfAbsent(metodo, m -> compilar(audited));
+        Object[] argumentos = joinPoint.getArgs();
+
+        EvaluationContext contexto = new MethodBasedEvaluationContext(null, metodo, argumentos, nombres);
+        contexto.setVariable("result", resultado);
+
+        if (plantilla.condicion() != null
+                && !Boolean.TRUE.equals(plantilla.condicion().getValue(contexto, Boolean.class))) {
+            return null;
+        }
+
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        for (Map.Entry<String, Expression> campo : plantilla.detalle().entrySet()) {
+            Object valor = campo.getValue().getValue(contexto);
+            if (valor != null) {
+                detalle.put(campo.getKey(), valor);
+            }
+        }
+
+        Object usuario = plantilla.usuario() != null ? plantilla.usuario().getValue(contexto) : null;
+        HttpServletRequest request = peticionActual(argumentos);
+
+        AuditLogDTO log = new AuditLogDTO();
+        log.setUserId(usuario != null ? usuario.toString() : USUARIO_SISTEMA);
+        log.setAction(audited.accion());
+        log.setEndpoint(request != null ? request.getRequestURI() : DESCONOCIDO);
+        log.setIpAddress(request != null ? request.getRemoteAddr() : DESCONOCIDO);
+        log.setDevice(request != null ? request.getHeader("User-Agent") : DESCONOCIDO);
+        log.setTimestamp(Instant.now());
+        log.setDetalle(detalle);
+        return log;
+    }
+
+    private Plantilla compilar(Audited audited) {
+        Map<String, Expression> detalle = new LinkedHashMap<>();
+        for (String campo : audited.detalle()) {
+            int separador = campo.indexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Detalle de auditoría inválido, se espera 'clave=expresión': "
+                        + campo);
+            }
+            detalle.put(campo.substring(0, separador).trim(), parser.parseExpression(campo.substring(separador + 1)));
+        }
+        return new Plantilla(detalle,
+                audited.usuario().isBlank() ? null : parser.parseExpression(audited.usuario()),
+                audited.condicion().isBlank() ? null : parser.parseExpression(audited.condicion()));
+    }
+
+    /**
+     * Petición HTTP en curso; fuera de una petición (pruebas, tareas) se usa la que se
+     * haya pasado como argumento al método.
+     */
+    private static HttpServletRequest peticionActual(Object[] argumentos) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest();
+        }
+        for (Object argumento : argumentos) {
+            if (argumento instanceof HttpServletRequest request) {
+                return request;
+            }
+        }
+        return null;
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.api.service;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.security.authentication.BadCredentialsException;
@@ -10,9 +7,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import com.example.api.dto.request.LoginRequest;
 import com.example.api.dto.response.AuthResponse;
 import com.example.api.dto.response.RolResponse;
@@ -31,22 +25,16 @@ public class AuthService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     /**
      * Constructor con inyección de dependencias.
      */
     public AuthService(UsuarioRepository usuarioRepository,
             PasswordEncoder passwordEncoder,
-            JwtService jwtService,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            JwtService jwtService) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -58,6 +46,10 @@ public class AuthService {
      * @throws BadCredentialsException   Si la contraseña es incorrecta
      */
     @Transactional(readOnly = true)
+    @Audited(accion = "LOGIN", entidad = "auth", usuario = "#result.usuario()?.id()", detalle = {
+            "username=#result.usuario()?.username()",
+            "email=#result.usuario()?.email()",
+            "rol=#result.usuario()?.rol()?.nombre()" })
     public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
         // Buscar usuario por username
         Usuario usuario = usuarioRepository.findByUsername(request.username())
@@ -77,39 +69,12 @@ public class AuthService {
         // Generar token JWT
         String token = jwtService.generateToken(usuario);
 
-        // Audit Log
-        logAuthAction("LOGIN", usuario, httpRequest);
-
         // Convertir a DTO
         UsuarioResponse usuarioResponse = toUsuarioResponse(usuario);
 
         return new AuthResponse(token, usuarioResponse);
     }
 
-    private void logAuthAction(String action, Usuario usuario, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId(usuario.getId()); // For auth, we use the actual user ID
-            log.setAction(action);
-            log.setEndpoint(request != null ? request.getRequestURI() : "UNKNOWN");
-            log.setIpAddress(request != null ? request.getRemoteAddr() : "UNKNOWN");
-            log.setDevice(request != null ? request.getHeader("User-Agent") : "UNKNOWN");
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("username", usuario.getUsername());
-            bodyMap.put("email", usuario.getEmail());
-            bodyMap.put("rol", usuario.getRol().getNombre());
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     /**
      * Convierte una entidad Usuario a UsuarioResponse.
      */
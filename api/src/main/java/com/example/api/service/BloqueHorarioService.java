@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,8 +29,8 @@ public class BloqueHorarioService {
 
     private final BloqueHorarioRepository bloqueHorarioRepository;
     private final BloqueHorarioMapper bloqueHorarioMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final IndiceHorarios indiceHorarios;
+    private final HorarioSemanalService horarioSemanalService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -45,12 +40,12 @@ public class BloqueHorarioService {
      */
     public BloqueHorarioService(BloqueHorarioRepository bloqueHorarioRepository,
             BloqueHorarioMapper bloqueHorarioMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            IndiceHorarios indiceHorarios,
+            HorarioSemanalService horarioSemanalService) {
         this.bloqueHorarioRepository = bloqueHorarioRepository;
         this.bloqueHorarioMapper = bloqueHorarioMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.indiceHorarios = indiceHorarios;
+        this.horarioSemanalService = horarioSemanalService;
     }
 
     /**
@@ -114,6 +109,11 @@ public class BloqueHorarioService {
      * @throws IllegalArgumentException si la hora de fin es anterior o igual a la
      *                                  hora de inicio
      */
+    @Audited(accion = "CREATE", entidad = "bloque_horario", detalle = {
+            "bloqueId=#result.id()",
+            "nombre=#result.nombre()",
+            "inicio=#result.inicio()",
+            "fin=#result.fin()" })
     public BloqueHorarioResponse createBloque(CreateBloqueHorarioRequest request, HttpServletRequest httpRequest) {
         // Validar que la hora de fin sea posterior a la hora de inicio
         if (request.fin().isBefore(request.inicio()) || request.fin().equals(request.inicio())) {
@@ -124,9 +124,6 @@ public class BloqueHorarioService {
 
         BloqueHorario savedBloque = bloqueHorarioRepository.save(bloque);
 
-        // Audit Log
-        logBloqueHorarioAction("CREATE", savedBloque, httpRequest);
-
         return bloqueHorarioMapper.toResponse(savedBloque);
     }
 
@@ -140,6 +137,11 @@ public class BloqueHorarioService {
      * @throws IllegalArgumentException  si la hora de fin es anterior o igual a la
      *                                   hora de inicio
      */
+    @Audited(accion = "UPDATE", entidad = "bloque_horario", detalle = {
+            "bloqueId=#result.id()",
+            "nombre=#result.nombre()",
+            "inicio=#result.inicio()",
+            "fin=#result.fin()" })
     public BloqueHorarioResponse updateBloque(String id, UpdateBloqueHorarioRequest request,
             HttpServletRequest httpRequest) {
         BloqueHorario bloque = bloqueHorarioRepository.findById(id)
@@ -153,9 +155,8 @@ public class BloqueHorarioService {
         }
 
         BloqueHorario updatedBloque = bloqueHorarioRepository.save(bloque);
-
-        // Audit Log
-        logBloqueHorarioAction("UPDATE", updatedBloque, httpRequest);
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
 
         return bloqueHorarioMapper.toResponse(updatedBloque);
     }
@@ -166,39 +167,14 @@ public class BloqueHorarioService {
      * @param id El ID del bloque a eliminar
      * @throws ResourceNotFoundException si el bloque no existe
      */
+    @Audited(accion = "DELETE", entidad = "bloque_horario", detalle = "bloqueId=#id")
     public void deleteBloque(String id, HttpServletRequest httpRequest) {
         BloqueHorario bloque = bloqueHorarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bloque de horario no encontrado con ID: " + id));
         bloque.setDeletedAt(LocalDateTime.now());
         bloqueHorarioRepository.save(bloque);
-
-        // Audit Log
-        logBloqueHorarioAction("DELETE", bloque, httpRequest);
-    }
-
-    private void logBloqueHorarioAction(String action, BloqueHorario bloque, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("bloqueId", bloque.getId());
-            bodyMap.put("nombre", bloque.getNombre());
-            bodyMap.put("inicio", bloque.getInicio());
-            bodyMap.put("fin", bloque.getFin());
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
@@ -212,6 +188,8 @@ public class BloqueHorarioService {
             throw new ResourceNotFoundException("Bloque de horario no encontrado con ID: " + id);
         }
         bloqueHorarioRepository.deleteById(id);
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
@@ -226,6 +204,8 @@ public class BloqueHorarioService {
                 .orElseThrow(() -> new ResourceNotFoundException("Bloque de horario no encontrado con ID: " + id));
         bloque.setDeletedAt(null);
         BloqueHorario restoredBloque = bloqueHorarioRepository.save(bloque);
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
         return bloqueHorarioMapper.toResponse(restoredBloque);
     }
 }
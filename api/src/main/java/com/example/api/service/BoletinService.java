@@ -0,0 +1,357 @@
+package com.example.api.service;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.request.GenerarBoletinesRequest;
+import com.example.api.dto.response.BoletinResponse;
+import com.example.api.dto.response.NotaFinalResponse;
+import com.example.api.dto.response.TrabajoReporteResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.model.Boletin;
+import com.example.api.model.Curso;
+import com.example.api.model.Periodo;
+import com.example.api.model.TrabajoReporte.TipoTrabajo;
+import com.example.api.repository.BoletinBatchRepository;
+import com.example.api.repository.BoletinBatchRepository.BoletinGenerado;
+import com.example.api.repository.BoletinBatchRepository.CursoBoletin;
+import com.example.api.repository.BoletinBatchRepository.EstudianteBoletin;
+import com.example.api.repository.BoletinBatchRepository.ReporteBoletin;
+import com.example.api.repository.BoletinRepository;
+import com.example.api.repository.CursoRepository;
+import com.example.api.repository.PeriodoRepository;
+import com.example.api.service.PlantillaBoletin.DatosBoletin;
+import com.example.api.service.PlantillaBoletin.FilaCurso;
+import com.example.api.service.StorageService.FileCategory;
+import com.example.api.service.TrabajoReporteService.TrabajoTomado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Servicio que genera los boletines en PDF de un periodo.
+ *
+ * La generación es un trabajo 'generar_boletines' de trabajos_reporte: la lista de
+ * estudiantes se fija al encolarlo y ProcesadorTrabajosReporte la recorre por lotes.
+ * Por cada lote los datos (cursos con asistencia, reportes y notas finales) se leen con
+ * unas pocas consultas, los PDF se generan y suben en paralelo en un pool propio de
+ * pocos hilos y baja prioridad, y el lote se registra junto con el avance del trabajo.
+ * Un reintento continúa desde el último lote registrado; como cada boletín tiene un
+ * nombre fijo en el almacenamiento, repetir un lote solo reemplaza los archivos.
+ */
+@Service
+public class BoletinService {
+
+    private static final String TIPO_CONTENIDO = "application/pdf";
+
+    private final BoletinRepository boletinRepository;
+    private final BoletinBatchRepository boletinBatchRepository;
+    private final PeriodoRepository periodoRepository;
+    private final CursoRepository cursoRepository;
+    private final NotaFinalService notaFinalService;
+    private final TrabajoReporteService trabajoReporteService;
+    private final StorageService storageService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.boletines.institucion:SGE}")
+    private String institucion;
+
+    @Value("${app.boletines.hilos:0}")
+    private int hilosConfigurados;
+
+    @Value("${app.boletines.lote:200}")
+    private int tamanoLote;
+
+    private PlantillaBoletin plantilla;
+    private ExecutorService generadores;
+
+    /**
+     * Datos guardados en el payload de un trabajo de boletines.
+     */
+    public record SolicitudBoletines(String periodoId, String cursoId, List<String> estudianteIds) {
+    }
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public BoletinService(BoletinRepository boletinRepository,
+            BoletinBatchRepository boletinBatchRepository,
+            PeriodoRepository periodoRepository,
+            CursoRepository cursoRepository,
+            NotaFinalService notaFinalService,
+            TrabajoReporteService trabajoReporteService,
+            StorageService storageService,
+            ObjectMapper objectMapper) {
+        this.boletinRepository = boletinRepository;
+        this.boletinBatchRepository = boletinBatchRepository;
+        this.periodoRepository = periodoRepository;
+        this.cursoRepository = cursoRepository;
+        this.notaFinalService = notaFinalService;
+        this.trabajoReporteService = trabajoReporteService;
+        this.storageService = storageService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        plantilla = new PlantillaBoletin(institucion);
+        // Por defecto la mitad de los núcleos, para dejar CPU a las peticiones interactivas
+        int hilos = hilosConfigurados > 0 ? hilosConfigurados
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger numero = new AtomicInteger();
+        generadores = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "boletines-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        if (generadores != null) {
+            generadores.shutdownNow();
+        }
+    }
+
+    /**
+     * Encola la generación de los boletines de un periodo (o de un curso del periodo).
+     */
+    public TrabajoReporteResponse encolar(GenerarBoletinesRequest request) {
+        if (!periodoRepository.existsById(request.periodoId())) {
+            throw new ResourceNotFoundException("Periodo no encontrado con ID: " + request.periodoId());
+        }
+        String cursoId = request.cursoId() != null && !request.cursoId().isBlank() ? request.cursoId() : null;
+        if (cursoId != null) {
+            Curso curso = cursoRepository.findById(cursoId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId));
+            if (curso.getPeriodo() == null || !request.periodoId().equals(curso.getPeriodo().getId())) {
+                throw new IllegalArgumentException("El curso " + cursoId + " no pertenece al periodo " + request.periodoId());
+            }
+        }
+
+        List<String> estudianteIds = boletinBatchRepository.findEstudianteIds(request.periodoId(), cursoId);
+        if (estudianteIds.isEmpty()) {
+            throw new IllegalArgumentException("No hay estudiantes inscritos para generar boletines");
+        }
+        return trabajoReporteService.encolar(TipoTrabajo.generar_boletines,
+                new SolicitudBoletines(request.periodoId(), cursoId, estudianteIds), estudianteIds.size(),
+                request.solicitadoPorId());
+    }
+
+    /**
+     * Obtiene los boletines generados de un periodo.
+     */
+    @Transactional(readOnly = true)
+    public List<BoletinResponse> getBoletinesPeriodo(String periodoId) {
+        if (!periodoRepository.existsById(periodoId)) {
+            throw new ResourceNotFoundException("Periodo no encontrado con ID: " + periodoId);
+        }
+        return boletinRepository.findByPeriodoId(periodoId).stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Obtiene los boletines de un estudiante, del más reciente al más antiguo.
+     */
+    @Transactional(readOnly = true)
+    public List<BoletinResponse> getBoletinesEstudiante(String estudianteId) {
+        return boletinRepository.findByEstudianteId(estudianteId).stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Abre el PDF del boletín de un estudiante en un periodo.
+     */
+    @Transactional(readOnly = true)
+    public InputStream descargar(String periodoId, String estudianteId) {
+        Boletin boletin = boletinRepository.findByEstudianteIdAndPeriodoId(estudianteId, periodoId)
+                .orElseThrow(() -> new ResourceNotFoundException("No hay boletín del estudiante " + estudianteId
+                        + " en el periodo " + periodoId));
+        return storageService.loadFileAsResource(boletin.getArchivo());
+    }
+
+    /**
+     * Prepara la ejecución de un trabajo de boletines tomado por un worker.
+     *
+     * @return Tarea que genera los boletines pendientes; devuelve false si se interrumpió
+     * @throws IllegalStateException si el payload no se puede leer o el periodo ya no existe
+     */
+    public BooleanSupplier preparar(TrabajoTomado trabajo, String instancia, long bloqueoSegundos) {
+        SolicitudBoletines solicitud;
+        try {
+            solicitud = objectMapper.readValue(trabajo.payload(), SolicitudBoletines.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload de trabajo inválido: " + e.getOriginalMessage(), e);
+        }
+        Periodo periodo = periodoRepository.findById(solicitud.periodoId())
+                .orElseThrow(() -> new IllegalStateException("Periodo no encontrado con ID: " + solicitud.periodoId()));
+        return () -> generar(trabajo, instancia, bloqueoSegundos, solicitud, periodo);
+    }
+
+    private boolean generar(TrabajoTomado trabajo, String instancia, long bloqueoSegundos,
+            SolicitudBoletines solicitud, Periodo periodo) {
+        List<String> estudianteIds = solicitud.estudianteIds();
+        int lote = Math.max(1, tamanoLote);
+        // Notas finales por curso, reutilizadas entre lotes: cursoId -> (estudianteId -> nota)
+        Map<String, Map<String, BigDecimal>> notasPorCurso = new HashMap<>();
+        LocalDate emitido = LocalDate.now();
+
+        for (int desde = trabajo.procesados(); desde < estudianteIds.size(); desde += lote) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            List<String> ids = estudianteIds.subList(desde, Math.min(estudianteIds.size(), desde + lote));
+            List<DatosBoletin> datos = cargarLote(periodo, ids, emitido, notasPorCurso);
+
+            List<Future<BoletinGenerado>> enCurso = new ArrayList<>(datos.size());
+            for (DatosBoletin boletin : datos) {
+                enCurso.add(generadores.submit(() -> generarBoletin(periodo.getId(), boletin)));
+            }
+
+            List<BoletinGenerado> generados = new ArrayList<>(datos.size());
+            List<String> errores = new ArrayList<>();
+            for (int i = 0; i < enCurso.size(); i++) {
+                try {
+                    generados.add(enCurso.get(i).get());
+                } catch (InterruptedException e) {
+                    enCurso.forEach(tarea -> tarea.cancel(true));
+                    Thread.currentThread().interrupt();
+                    return false;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof ErrorPlantilla error) {
+                        // Un dato que la plantilla no puede dibujar no se arregla reintentando
+                        errores.add("Estudiante " + datos.get(i).estudiante().id() + ": " + error.getMessage());
+                        continue;
+                    }
+                    enCurso.forEach(tarea -> tarea.cancel(true));
+                    throw e.getCause() instanceof RuntimeException causa ? causa
+                            : new IllegalStateException(e.getCause());
+                }
+            }
+            // Estudiantes eliminados después de encolar el trabajo
+            if (datos.size() < ids.size()) {
+                Set<String> encontrados = new HashSet<>();
+                datos.forEach(boletin -> encontrados.add(boletin.estudiante().id()));
+                for (String id : ids) {
+                    if (!encontrados.contains(id)) {
+                        errores.add("Estudiante " + id + ": no encontrado");
+                    }
+                }
+            }
+
+            trabajoReporteService.guardarBoletines(trabajo.id(), instancia, desde, ids.size(), periodo.getId(),
+                    generados, errores, bloqueoSegundos);
+        }
+        return true;
+    }
+
+    /**
+     * Lee los datos de un lote de estudiantes con una consulta por tipo de dato. Devuelve
+     * los estudiantes que todavía existen, en el orden del lote.
+     */
+    private List<DatosBoletin> cargarLote(Periodo periodo, List<String> ids, LocalDate emitido,
+            Map<String, Map<String, BigDecimal>> notasPorCurso) {
+        Map<String, EstudianteBoletin> estudiantes = new HashMap<>();
+        for (EstudianteBoletin estudiante : boletinBatchRepository.findEstudiantes(ids)) {
+            estudiantes.put(estudiante.id(), estudiante);
+        }
+        Map<String, List<CursoBoletin>> cursos = new HashMap<>();
+        for (CursoBoletin curso : boletinBatchRepository.findCursos(periodo.getId(), ids)) {
+            cursos.computeIfAbsent(curso.estudianteId(), k -> new ArrayList<>()).add(curso);
+        }
+        Map<String, List<ReporteBoletin>> reportes = new HashMap<>();
+        for (ReporteBoletin reporte : boletinBatchRepository.findReportes(periodo.getId(), periodo.getFechaInicio(),
+                periodo.getFechaFin(), ids)) {
+            reportes.computeIfAbsent(reporte.estudianteId(), k -> new ArrayList<>()).add(reporte);
+        }
+
+        List<DatosBoletin> datos = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            EstudianteBoletin estudiante = estudiantes.get(id);
+            if (estudiante == null) {
+                continue;
+            }
+            List<FilaCurso> filas = new ArrayList<>();
+            BigDecimal suma = BigDecimal.ZERO;
+            int conNota = 0;
+            for (CursoBoletin curso : cursos.getOrDefault(id, List.of())) {
+                BigDecimal nota = notasPorCurso.computeIfAbsent(curso.cursoId(), this::notasCurso).get(id);
+                filas.add(new FilaCurso(curso, nota));
+                if (nota != null && !"retirado".equals(curso.estadoInscripcion())) {
+                    suma = suma.add(nota);
+                    conNota++;
+                }
+            }
+            BigDecimal promedio = conNota > 0
+                    ? suma.divide(BigDecimal.valueOf(conNota), 2, RoundingMode.HALF_UP)
+                    : null;
+            datos.add(new DatosBoletin(estudiante, periodo.getNombre(), periodo.getFechaInicio(),
+                    periodo.getFechaFin(), emitido, filas, promedio, reportes.getOrDefault(id, List.of())));
+        }
+        return datos;
+    }
+
+    private Map<String, BigDecimal> notasCurso(String cursoId) {
+        Map<String, BigDecimal> notas = new HashMap<>();
+        try {
+            for (NotaFinalResponse nota : notaFinalService.getNotasFinalesCurso(cursoId)) {
+                notas.put(nota.estudianteId(), nota.notaFinal());
+            }
+        } catch (ResourceNotFoundException e) {
+            // Curso eliminado después de leer el lote: sus filas quedan sin nota
+        }
+        return notas;
+    }
+
+    /**
+     * Genera y sube el PDF de un estudiante. Se ejecuta en el pool de boletines.
+     */
+    private BoletinGenerado generarBoletin(String periodoId, DatosBoletin datos) {
+        byte[] pdf;
+        try {
+            pdf = plantilla.renderizar(datos);
+        } catch (RuntimeException e) {
+            throw new ErrorPlantilla(e);
+        }
+        String archivo = storageService.storeBytes(pdf, FileCategory.BOLETINES,
+                periodoId + "/" + datos.estudiante().id() + ".pdf", TIPO_CONTENIDO);
+        return new BoletinGenerado(datos.estudiante().id(), archivo, pdf.length, datos.promedio(),
+                LocalDateTime.now());
+    }
+
+    private BoletinResponse toResponse(Boletin boletin) {
+        return new BoletinResponse(boletin.getId(), boletin.getEstudiante().getId(),
+                boletin.getEstudiante().getCodigoEstudiante(), boletin.getPeriodo().getId(), boletin.getArchivo(),
+                boletin.getTamanoBytes(), boletin.getPromedio(), boletin.getGeneradoAt(),
+                boletin.getTrabajo() != null ? boletin.getTrabajo().getId() : null);
+    }
+
+    /**
+     * Error al dibujar un boletín con sus datos; el estudiante se omite.
+     */
+    private static final class ErrorPlantilla extends RuntimeException {
+        ErrorPlantilla(RuntimeException causa) {
+            super(causa.getClass().getSimpleName() + ": " + causa.getMessage(), causa);
+        }
+    }
+}
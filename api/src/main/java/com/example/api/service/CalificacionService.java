@@ -2,34 +2,44 @@ package com.example.api.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.api.dto.request.CreateCalificacionRequest;
+import com.example.api.dto.request.CreateCalificacionesBulkRequest;
+import com.example.api.dto.request.NotaEstudianteRequest;
 import com.example.api.dto.request.UpdateCalificacionRequest;
 import com.example.api.dto.response.CalificacionResponse;
+import com.example.api.dto.response.HistorialCalificacionResponse;
+import com.example.api.dto.response.PaginaKeysetResponse;
+import com.example.api.dto.response.RankingEstudianteResponse;
+import com.example.api.exception.DuplicateResourceException;
 import com.example.api.exception.ResourceNotFoundException;
 import com.example.api.model.Calificacion;
 import com.example.api.model.Estudiante;
 import com.example.api.model.Evaluacion;
 import com.example.api.repository.CalificacionRepository;
+import com.example.api.repository.CalificacionRepository.PromedioEstudiante;
 import com.example.api.repository.EstudianteRepository;
 import com.example.api.repository.EvaluacionRepository;
 import com.example.api.mapper.CalificacionMapper;
@@ -37,18 +47,23 @@ import com.example.api.mapper.CalificacionMapper;
 /**
  * Servicio que contiene la lógica de negocio para la gestión de calificaciones.
  * Implementa múltiples estructuras de datos: Lista Ligada, BST, Búsqueda
- * Binaria, HashMap, Burbuja.
+ * Binaria, Burbuja.
  */
 @Service
 @Transactional
 public class CalificacionService {
 
+    private static final int TAMANO_MAXIMO_PAGINA = 100;
+    private static final int MAXIMO_ELEMENTOS_BURBUJA = 2000;
+    private static final String ALGORITMO_DB = "db";
+    private static final String ALGORITMO_BURBUJA = "bubble";
+
     private final CalificacionRepository calificacionRepository;
     private final EvaluacionRepository evaluacionRepository;
     private final EstudianteRepository estudianteRepository;
     private final CalificacionMapper calificacionMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final RankingEstudiantesService rankingEstudiantesService;
+    private final NotaFinalService notaFinalService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -57,14 +72,14 @@ public class CalificacionService {
             EvaluacionRepository evaluacionRepository,
             EstudianteRepository estudianteRepository,
             CalificacionMapper calificacionMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            RankingEstudiantesService rankingEstudiantesService,
+            NotaFinalService notaFinalService) {
         this.calificacionRepository = calificacionRepository;
         this.evaluacionRepository = evaluacionRepository;
         this.estudianteRepository = estudianteRepository;
         this.calificacionMapper = calificacionMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.rankingEstudiantesService = rankingEstudiantesService;
+        this.notaFinalService = notaFinalService;
     }
 
     /**
@@ -131,6 +146,35 @@ public class CalificacionService {
         return historial;
     }
 
+    /**
+     * Obtiene el historial compacto de un estudiante (más recientes primero).
+     * Cada fila es plana: evaluación, fecha, curso, nota y peso, sin repetir los
+     * datos del estudiante ni las entidades anidadas.
+     */
+    @Transactional(readOnly = true)
+    public List<HistorialCalificacionResponse> getHistorialCompacto(String estudianteId) {
+        return calificacionRepository.findHistorialCompacto(estudianteId);
+    }
+
+    /**
+     * Calcula un ETag a partir del contenido del historial compacto.
+     * Cambia si se agrega, modifica o elimina cualquier fila, o si cambian los
+     * datos de la evaluación o del curso mostrados.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String calcularEtagHistorial(List<HistorialCalificacionResponse> historial) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (HistorialCalificacionResponse fila : historial) {
+                digest.update(fila.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
     /**
      * Calcula el promedio de calificaciones de un estudiante.
      */
@@ -147,110 +191,92 @@ public class CalificacionService {
     }
 
     /**
-     * Obtiene un ranking general de estudiantes ordenado por nota promedio usando
-     * TreeMap (BST).
-     * Implementa un árbol BST (TreeMap) para mantener estudiantes ordenados por
-     * promedio.
+     * Obtiene un ranking general de estudiantes ordenado por nota promedio.
+     * Se sirve desde el índice en memoria de RankingEstudiantesService (Árbol AVL
+     * con tamaños de subárbol), que se mantiene al crear, actualizar, eliminar o
+     * restaurar calificaciones, por lo que no consulta la base de datos.
      * 
-     * Complejidad: O(n log n) para construcción del árbol
+     * Complejidad: O(log n + k) para obtener los k primeros
      * Uso: Mantener ranking ordenado automáticamente, búsqueda eficiente
+     *
+     * @param top Número máximo de estudiantes a devolver (null = todos)
      */
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> getRankingGeneral() {
-        List<Calificacion> todasCalificaciones = calificacionRepository.findAllActive();
-
-        // Usar TreeMap (implementación de BST) para ordenar por promedio
-        // TreeMap mantiene las claves ordenadas automáticamente
-        Map<String, List<BigDecimal>> calificacionesPorEstudiante = new HashMap<>();
-
-        // Agrupar calificaciones por estudiante
-        for (Calificacion calif : todasCalificaciones) {
-            String estudianteId = calif.getEstudiante().getId();
-            calificacionesPorEstudiante
-                    .computeIfAbsent(estudianteId, k -> new ArrayList<>())
-                    .add(calif.getNota());
-        }
-
-        // Calcular promedios y usar TreeMap para ordenar (BST)
-        TreeMap<BigDecimal, List<Map<String, Object>>> rankingBST = new TreeMap<>(Collections.reverseOrder());
-
-        for (Map.Entry<String, List<BigDecimal>> entry : calificacionesPorEstudiante.entrySet()) {
-            String estudianteId = entry.getKey();
-            List<BigDecimal> notas = entry.getValue();
-
-            BigDecimal suma = notas.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal promedio = suma.divide(BigDecimal.valueOf(notas.size()), 2, RoundingMode.HALF_UP);
-
-            Estudiante estudiante = estudianteRepository.findById(estudianteId)
-                    .orElse(null);
-
-            if (estudiante != null) {
-                Map<String, Object> info = new HashMap<>();
-                info.put("estudianteId", estudianteId);
-                info.put("codigoEstudiante", estudiante.getCodigoEstudiante());
-                info.put("nombre", estudiante.getUsuario().getNombre());
-                info.put("promedio", promedio);
-                info.put("totalCalificaciones", notas.size());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> getRankingGeneral(Integer top) {
+        int limite = top != null && top > 0 ? top : Integer.MAX_VALUE;
+        return rankingEstudiantesService.getTop(limite);
+    }
 
-                // Insertar en BST (TreeMap mantiene orden automáticamente)
-                rankingBST.computeIfAbsent(promedio, k -> new ArrayList<>()).add(info);
-            }
-        }
+    /**
+     * Obtiene la posición de un estudiante en el ranking general.
+     * 
+     * Complejidad: O(log n)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Object> getPosicionRanking(String estudianteId) {
+        return rankingEstudiantesService.getPosicion(estudianteId);
+    }
 
-        // Aplanar el resultado manteniendo el orden del BST
+    /**
+     * Obtiene el ranking completo de un curso específico.
+     * El promedio por estudiante se calcula en la base de datos con una sola consulta
+     * agregada, sin cargar entidades Calificacion ni consultar cada estudiante.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRankingCurso(String cursoId) {
         List<Map<String, Object>> ranking = new ArrayList<>();
-        for (List<Map<String, Object>> estudiantesConMismoPromedio : rankingBST.values()) {
-            ranking.addAll(estudiantesConMismoPromedio);
+        for (PromedioEstudiante fila : calificacionRepository.findRankingCurso(cursoId, Integer.MAX_VALUE)) {
+            Map<String, Object> info = new HashMap<>();
+            info.put("estudianteId", fila.getEstudianteId());
+            info.put("codigoEstudiante", fila.getCodigoEstudiante());
+            info.put("nombre", fila.getNombre());
+            info.put("promedio", fila.getPromedio());
+            info.put("totalCalificaciones", fila.getTotalCalificaciones());
+            ranking.add(info);
         }
-
         return ranking;
     }
 
     /**
-     * Obtiene el ranking de un curso específico usando TreeMap (BST).
+     * Obtiene el ranking de un curso paginado por cursor (keyset).
+     * Cada página continúa después del par (promedio, estudianteId) de la anterior,
+     * por lo que el costo no crece con el número de página.
+     *
+     * @param cursoId           ID del curso
+     * @param afterPromedio     Promedio del último estudiante de la página anterior
+     * @param afterEstudianteId ID del último estudiante de la página anterior
+     * @param size              Tamaño de página
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getRankingCurso(String cursoId) {
-        List<Calificacion> calificacionesCurso = calificacionRepository.findByCursoId(cursoId);
-
-        Map<String, List<BigDecimal>> calificacionesPorEstudiante = new HashMap<>();
-
-        for (Calificacion calif : calificacionesCurso) {
-            String estudianteId = calif.getEstudiante().getId();
-            calificacionesPorEstudiante
-                    .computeIfAbsent(estudianteId, k -> new ArrayList<>())
-                    .add(calif.getNota());
+    public PaginaKeysetResponse<RankingEstudianteResponse> getRankingCursoPaginado(String cursoId,
+            BigDecimal afterPromedio, String afterEstudianteId, int size) {
+        if ((afterPromedio == null) != (afterEstudianteId == null)) {
+            throw new IllegalArgumentException("afterPromedio y afterEstudianteId deben enviarse juntos");
         }
+        int tamano = Math.max(1, Math.min(size, TAMANO_MAXIMO_PAGINA));
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        List<PromedioEstudiante> filas = afterPromedio == null
+                ? calificacionRepository.findRankingCurso(cursoId, tamano + 1)
+                : calificacionRepository.findRankingCursoDespuesDe(cursoId, afterPromedio, afterEstudianteId,
+                        tamano + 1);
+
+        boolean haySiguiente = filas.size() > tamano;
+        List<RankingEstudianteResponse> contenido = filas.stream()
+                .limit(tamano)
+                .map(f -> new RankingEstudianteResponse(f.getEstudianteId(), f.getCodigoEstudiante(),
+                        f.getNombre(), f.getPromedio(), f.getTotalCalificaciones()))
+                .collect(Collectors.toList());
 
-        TreeMap<BigDecimal, List<Map<String, Object>>> rankingBST = new TreeMap<>(Collections.reverseOrder());
-
-        for (Map.Entry<String, List<BigDecimal>> entry : calificacionesPorEstudiante.entrySet()) {
-            String estudianteId = entry.getKey();
-            List<BigDecimal> notas = entry.getValue();
-
-            BigDecimal suma = notas.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal promedio = suma.divide(BigDecimal.valueOf(notas.size()), 2, RoundingMode.HALF_UP);
-
-            Estudiante estudiante = estudianteRepository.findById(estudianteId).orElse(null);
-
-            if (estudiante != null) {
-                Map<String, Object> info = new HashMap<>();
-                info.put("estudianteId", estudianteId);
-                info.put("codigoEstudiante", estudiante.getCodigoEstudiante());
-                info.put("nombre", estudiante.getUsuario().getNombre());
-                info.put("promedio", promedio);
-                info.put("totalCalificaciones", notas.size());
-
-                rankingBST.computeIfAbsent(promedio, k -> new ArrayList<>()).add(info);
-            }
+        Map<String, Object> siguienteCursor = null;
+        if (haySiguiente) {
+            RankingEstudianteResponse ultimo = contenido.get(contenido.size() - 1);
+            siguienteCursor = new HashMap<>();
+            siguienteCursor.put("afterPromedio", ultimo.promedio());
+            siguienteCursor.put("afterEstudianteId", ultimo.estudianteId());
         }
 
-        List<Map<String, Object>> ranking = new ArrayList<>();
-        for (List<Map<String, Object>> estudiantesConMismoPromedio : rankingBST.values()) {
-            ranking.addAll(estudiantesConMismoPromedio);
-        }
-
-        return ranking;
+        return new PaginaKeysetResponse<>(contenido, tamano, haySiguiente, siguienteCursor);
     }
 
     /**
@@ -270,15 +296,77 @@ public class CalificacionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lista calificaciones activas ordenadas por nota (mayor a menor), paginadas por cursor.
+     * El ordenamiento se delega a MySQL; cada página continúa después del par
+     * (nota, id) de la anterior.
+     *
+     * Con {@code algorithm=bubble} se usa el ordenamiento Burbuja educativo, que solo
+     * se ejecuta si hay a lo sumo {@code maxN} calificaciones (y nunca más de
+     * {@value #MAXIMO_ELEMENTOS_BURBUJA}).
+     *
+     * @param algorithm "db" (por defecto) o "bubble"
+     * @param maxN      Máximo de elementos aceptados por el ordenamiento Burbuja
+     * @param afterNota Nota de la última calificación de la página anterior
+     * @param afterId   ID de la última calificación de la página anterior
+     * @param size      Tamaño de página
+     */
+    @Transactional(readOnly = true)
+    public PaginaKeysetResponse<CalificacionResponse> ordenarPorNota(String algorithm, Integer maxN,
+            BigDecimal afterNota, String afterId, int size) {
+        if (ALGORITMO_BURBUJA.equalsIgnoreCase(algorithm)) {
+            return ordenarPorNotaBurbuja(maxN);
+        }
+        if (algorithm != null && !ALGORITMO_DB.equalsIgnoreCase(algorithm)) {
+            throw new IllegalArgumentException("Algoritmo no soportado: " + algorithm);
+        }
+        if ((afterNota == null) != (afterId == null)) {
+            throw new IllegalArgumentException("afterNota y afterId deben enviarse juntos");
+        }
+        int tamano = Math.max(1, Math.min(size, TAMANO_MAXIMO_PAGINA));
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        Pageable limite = PageRequest.of(0, tamano + 1);
+        List<Calificacion> filas = afterNota == null
+                ? calificacionRepository.findOrdenadasPorNota(limite)
+                : calificacionRepository.findOrdenadasPorNotaDespuesDe(afterNota, afterId, limite);
+
+        boolean haySiguiente = filas.size() > tamano;
+        List<Calificacion> pagina = haySiguiente ? filas.subList(0, tamano) : filas;
+
+        Map<String, Object> siguienteCursor = null;
+        if (haySiguiente) {
+            Calificacion ultima = pagina.get(pagina.size() - 1);
+            siguienteCursor = new HashMap<>();
+            siguienteCursor.put("afterNota", ultima.getNota());
+            siguienteCursor.put("afterId", ultima.getId());
+        }
+
+        List<CalificacionResponse> contenido = pagina.stream()
+                .map(calificacionMapper::toResponse)
+                .collect(Collectors.toList());
+        return new PaginaKeysetResponse<>(contenido, tamano, haySiguiente, siguienteCursor);
+    }
+
     /**
      * Ordena calificaciones por nota usando algoritmo de Burbuja (Bubble Sort).
      * Implementación educativa del algoritmo de ordenamiento más básico.
+     * Rechaza la petición si hay más calificaciones que el máximo indicado.
      * 
      * Complejidad: O(n²) en el peor caso
      * Uso: Demostración didáctica para listas pequeñas
      */
-    @Transactional(readOnly = true)
-    public List<CalificacionResponse> ordenarPorNota() {
+    private PaginaKeysetResponse<CalificacionResponse> ordenarPorNotaBurbuja(Integer maxN) {
+        if (maxN == null || maxN < 1 || maxN > MAXIMO_ELEMENTOS_BURBUJA) {
+            throw new IllegalArgumentException(
+                    "El ordenamiento Burbuja requiere maxN entre 1 y " + MAXIMO_ELEMENTOS_BURBUJA);
+        }
+        long total = calificacionRepository.countActive();
+        if (total > maxN) {
+            throw new IllegalArgumentException("Hay " + total + " calificaciones activas, más que maxN=" + maxN
+                    + "; use el listado paginado");
+        }
+
         List<Calificacion> calificaciones = new ArrayList<>(calificacionRepository.findAllActive());
 
         int n = calificaciones.size();
@@ -305,62 +393,10 @@ public class CalificacionService {
             }
         }
 
-        return calificaciones.stream()
+        List<CalificacionResponse> contenido = calificaciones.stream()
                 .map(calificacionMapper::toResponse)
                 .collect(Collectors.toList());
-    }
-
-    /**
-     * Obtiene estadísticas de distribución de notas usando HashMap.
-     * Implementa Tabla Hash para contar frecuencia de rangos de notas.
-     * 
-     * Complejidad: O(1) para inserciones y búsquedas en el HashMap
-     * Uso: Análisis de distribución de calificaciones
-     */
-    @Transactional(readOnly = true)
-    public Map<String, Object> getEstadisticas() {
-        List<Calificacion> calificaciones = calificacionRepository.findAllActive();
-
-        // Usar HashMap para contar distribución de notas
-        HashMap<String, Integer> distribucion = new HashMap<>();
-        distribucion.put("0-60", 0); // Reprobado
-        distribucion.put("61-70", 0); // Suficiente
-        distribucion.put("71-80", 0); // Bueno
-        distribucion.put("81-90", 0); // Notable
-        distribucion.put("91-100", 0); // Sobresaliente
-
-        // Contar calificaciones por rango
-        for (Calificacion calif : calificaciones) {
-            BigDecimal nota = calif.getNota();
-            double notaDouble = nota.doubleValue();
-
-            if (notaDouble <= 60) {
-                distribucion.put("0-60", distribucion.get("0-60") + 1);
-            } else if (notaDouble <= 70) {
-                distribucion.put("61-70", distribucion.get("61-70") + 1);
-            } else if (notaDouble <= 80) {
-                distribucion.put("71-80", distribucion.get("71-80") + 1);
-            } else if (notaDouble <= 90) {
-                distribucion.put("81-90", distribucion.get("81-90") + 1);
-            } else {
-                distribucion.put("91-100", distribucion.get("91-100") + 1);
-            }
-        }
-
-        // Calcular estadísticas adicionales
-        int total = calificaciones.size();
-        BigDecimal suma = calificaciones.stream()
-                .map(Calificacion::getNota)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal promedioGeneral = total > 0 ? suma.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        Map<String, Object> estadisticas = new HashMap<>();
-        estadisticas.put("totalCalificaciones", total);
-        estadisticas.put("promedioGeneral", promedioGeneral);
-        estadisticas.put("distribucion", distribucion);
-
-        return estadisticas;
+        return new PaginaKeysetResponse<>(contenido, n, false, null);
     }
 
     /**
@@ -376,6 +412,11 @@ public class CalificacionService {
     /**
      * Crea una nueva calificación.
      */
+    @Audited(accion = "CREATE", entidad = "calificacion", detalle = {
+            "calificacionId=#result.id()",
+            "nota=#result.nota()",
+            "estudianteId=#result.estudiante()?.id()",
+            "evaluacionId=#result.evaluacion()?.id()" })
     public CalificacionResponse createCalificacion(CreateCalificacionRequest request, HttpServletRequest httpRequest) {
         // Validar que la evaluación existe
         Evaluacion evaluacion = evaluacionRepository.findById(request.evaluacionId())
@@ -394,16 +435,77 @@ public class CalificacionService {
         calificacion.setComentario(request.comentario());
 
         Calificacion saved = calificacionRepository.save(calificacion);
-
-        // Audit Log
-        logCalificacionAction("CREATE", saved, httpRequest);
+        rankingEstudiantesService.actualizarEstudiante(estudiante.getId());
+        notaFinalService.invalidarCurso(evaluacion.getCurso().getId());
 
         return calificacionMapper.toResponse(saved);
     }
 
+    /**
+     * Registra las calificaciones de varios estudiantes en una evaluación en una sola transacción.
+     * Los estudiantes se validan con una única consulta IN y las filas se insertan con
+     * batching JDBC de Hibernate (hibernate.jdbc.batch_size); se publica un solo evento de auditoría.
+     */
+    @Audited(accion = "BULK_CREATE", entidad = "calificacion", detalle = {
+            "evaluacionId=#request.evaluacionId()",
+            "total=#result.size()",
+            "calificaciones=#result.![{calificacionId: id(), estudianteId: estudiante()?.id(), nota: nota()}]" })
+    public List<CalificacionResponse> createCalificacionesBulk(CreateCalificacionesBulkRequest request,
+            HttpServletRequest httpRequest) {
+        Evaluacion evaluacion = evaluacionRepository.findById(request.evaluacionId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Evaluación no encontrada con ID: " + request.evaluacionId()));
+
+        Set<String> estudianteIds = new LinkedHashSet<>();
+        for (NotaEstudianteRequest nota : request.notas()) {
+            if (!estudianteIds.add(nota.estudianteId())) {
+                throw new IllegalArgumentException("Estudiante repetido en la planilla: " + nota.estudianteId());
+            }
+        }
+
+        Map<String, Estudiante> estudiantes = estudianteRepository.findAllActiveByIdIn(estudianteIds).stream()
+                .collect(Collectors.toMap(Estudiante::getId, e -> e));
+        if (estudiantes.size() != estudianteIds.size()) {
+            List<String> faltantes = estudianteIds.stream()
+                    .filter(id -> !estudiantes.containsKey(id))
+                    .collect(Collectors.toList());
+            throw new ResourceNotFoundException("Estudiantes no encontrados con ID: " + faltantes);
+        }
+
+        List<String> yaCalificados = calificacionRepository.findEstudianteIdsConCalificacion(
+                evaluacion.getId(), estudianteIds);
+        if (!yaCalificados.isEmpty()) {
+            throw new DuplicateResourceException(
+                    "Los estudiantes ya tienen calificación en esta evaluación: " + yaCalificados);
+        }
+
+        List<Calificacion> calificaciones = new ArrayList<>(request.notas().size());
+        for (NotaEstudianteRequest nota : request.notas()) {
+            Calificacion calificacion = new Calificacion();
+            calificacion.setEvaluacion(evaluacion);
+            calificacion.setEstudiante(estudiantes.get(nota.estudianteId()));
+            calificacion.setNota(nota.nota());
+            calificacion.setComentario(nota.comentario());
+            calificaciones.add(calificacion);
+        }
+
+        List<Calificacion> saved = calificacionRepository.saveAll(calificaciones);
+        rankingEstudiantesService.actualizarEstudiantes(estudiantes.keySet());
+        notaFinalService.invalidarCurso(evaluacion.getCurso().getId());
+
+        return saved.stream()
+                .map(calificacionMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Actualiza una calificación existente.
      */
+    @Audited(accion = "UPDATE", entidad = "calificacion", detalle = {
+            "calificacionId=#result.id()",
+            "nota=#result.nota()",
+            "estudianteId=#result.estudiante()?.id()",
+            "evaluacionId=#result.evaluacion()?.id()" })
     public CalificacionResponse updateCalificacion(String id, UpdateCalificacionRequest request,
             HttpServletRequest httpRequest) {
         Calificacion calificacion = calificacionRepository.findById(id)
@@ -417,9 +519,8 @@ public class CalificacionService {
         }
 
         Calificacion updated = calificacionRepository.save(calificacion);
-
-        // Audit Log
-        logCalificacionAction("UPDATE", updated, httpRequest);
+        rankingEstudiantesService.actualizarEstudiante(updated.getEstudiante().getId());
+        notaFinalService.invalidarCurso(updated.getEvaluacion().getCurso().getId());
 
         return calificacionMapper.toResponse(updated);
     }
@@ -427,14 +528,14 @@ public class CalificacionService {
     /**
      * Elimina lógicamente una calificación (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "calificacion", detalle = "calificacionId=#id")
     public void deleteCalificacion(String id, HttpServletRequest httpRequest) {
         Calificacion calificacion = calificacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Calificación no encontrada con ID: " + id));
         calificacion.setDeletedAt(LocalDateTime.now());
         calificacionRepository.save(calificacion);
-
-        // Audit Log
-        logCalificacionAction("DELETE", calificacion, httpRequest);
+        rankingEstudiantesService.actualizarEstudiante(calificacion.getEstudiante().getId());
+        notaFinalService.invalidarCurso(calificacion.getEvaluacion().getCurso().getId());
     }
 
     /**
@@ -444,6 +545,8 @@ public class CalificacionService {
         Calificacion calificacion = calificacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Calificación no encontrada con ID: " + id));
         calificacionRepository.delete(calificacion);
+        rankingEstudiantesService.actualizarEstudiante(calificacion.getEstudiante().getId());
+        notaFinalService.invalidarCurso(calificacion.getEvaluacion().getCurso().getId());
     }
 
     /**
@@ -454,37 +557,8 @@ public class CalificacionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Calificación no encontrada con ID: " + id));
         calificacion.setDeletedAt(null);
         Calificacion restored = calificacionRepository.save(calificacion);
+        rankingEstudiantesService.actualizarEstudiante(restored.getEstudiante().getId());
+        notaFinalService.invalidarCurso(restored.getEvaluacion().getCurso().getId());
         return calificacionMapper.toResponse(restored);
     }
-
-    private void logCalificacionAction(String action, Calificacion calificacion, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            // Create a simplified map for the body to avoid recursion or large payloads
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("calificacionId", calificacion.getId());
-            bodyMap.put("nota", calificacion.getNota());
-            if (calificacion.getEstudiante() != null) {
-                bodyMap.put("estudianteId", calificacion.getEstudiante().getId());
-            }
-            if (calificacion.getEvaluacion() != null) {
-                bodyMap.put("evaluacionId", calificacion.getEvaluacion().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            // Log error but don't fail the transaction
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
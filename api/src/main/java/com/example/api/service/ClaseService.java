@@ -4,14 +4,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +22,7 @@ import com.example.api.model.Tema;
 import com.example.api.model.Unidad;
 import com.example.api.repository.ClaseRepository;
 import com.example.api.repository.CursoRepository;
+import com.example.api.repository.ResumenAsistenciaRepository;
 import com.example.api.repository.TemaRepository;
 import com.example.api.repository.UnidadRepository;
 import com.example.api.mapper.ClaseMapper;
@@ -43,8 +39,7 @@ public class ClaseService {
     private final UnidadRepository unidadRepository;
     private final TemaRepository temaRepository;
     private final ClaseMapper claseMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final ResumenAsistenciaRepository resumenAsistenciaRepository;
 
     /**
      * Constructor con inyección de dependencias.
@@ -54,15 +49,13 @@ public class ClaseService {
             UnidadRepository unidadRepository,
             TemaRepository temaRepository,
             ClaseMapper claseMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            ResumenAsistenciaRepository resumenAsistenciaRepository) {
         this.claseRepository = claseRepository;
         this.cursoRepository = cursoRepository;
         this.unidadRepository = unidadRepository;
         this.temaRepository = temaRepository;
         this.claseMapper = claseMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.resumenAsistenciaRepository = resumenAsistenciaRepository;
     }
 
     /**
@@ -127,6 +120,12 @@ public class ClaseService {
     /**
      * Crea una nueva clase.
      */
+    @Audited(accion = "CREATE", entidad = "clase", detalle = {
+            "claseId=#result.id()",
+            "fecha=#result.fecha()",
+            "cursoId=#result.curso()?.id()",
+            "unidadId=#result.unidad()?.id()",
+            "temaId=#result.tema()?.id()" })
     public ClaseResponse createClase(CreateClaseRequest request, HttpServletRequest httpRequest) {
         // Validar que el curso existe
         Curso curso = cursoRepository.findById(request.cursoId())
@@ -154,15 +153,18 @@ public class ClaseService {
 
         Clase savedClase = claseRepository.save(clase);
 
-        // Audit Log
-        logClaseAction("CREATE", savedClase, httpRequest);
-
         return claseMapper.toResponse(savedClase);
     }
 
     /**
      * Actualiza una clase existente.
      */
+    @Audited(accion = "UPDATE", entidad = "clase", detalle = {
+            "claseId=#result.id()",
+            "fecha=#result.fecha()",
+            "cursoId=#result.curso()?.id()",
+            "unidadId=#result.unidad()?.id()",
+            "temaId=#result.tema()?.id()" })
     public ClaseResponse updateClase(String id, UpdateClaseRequest request, HttpServletRequest httpRequest) {
         Clase clase = claseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Clase no encontrada con ID: " + id));
@@ -192,75 +194,46 @@ public class ClaseService {
 
         Clase updatedClase = claseRepository.save(clase);
 
-        // Audit Log
-        logClaseAction("UPDATE", updatedClase, httpRequest);
-
         return claseMapper.toResponse(updatedClase);
     }
 
     /**
      * Elimina lógicamente una clase (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "clase", detalle = "claseId=#id")
     public void deleteClase(String id, HttpServletRequest httpRequest) {
         Clase clase = claseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Clase no encontrada con ID: " + id));
+        resumenAsistenciaRepository.restarClase(id);
         clase.setDeletedAt(LocalDateTime.now());
         claseRepository.save(clase);
-
-        // Audit Log
-        logClaseAction("DELETE", clase, httpRequest);
-    }
-
-    private void logClaseAction(String action, Clase clase, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("claseId", clase.getId());
-            bodyMap.put("fecha", clase.getFecha());
-            if (clase.getCurso() != null) {
-                bodyMap.put("cursoId", clase.getCurso().getId());
-            }
-            if (clase.getUnidad() != null) {
-                bodyMap.put("unidadId", clase.getUnidad().getId());
-            }
-            if (clase.getTema() != null) {
-                bodyMap.put("temaId", clase.getTema().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
     }
 
     /**
      * Elimina permanentemente una clase.
      */
     public void permanentDeleteClase(String id) {
-        if (!claseRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Clase no encontrada con ID: " + id);
+        Clase clase = claseRepository.findByIdIncluyendoEliminadas(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Clase no encontrada con ID: " + id));
+        // Una clase eliminada lógicamente ya se restó al eliminarla
+        if (!clase.isDeleted()) {
+            resumenAsistenciaRepository.restarClase(id);
         }
-        claseRepository.deleteById(id);
+        claseRepository.delete(clase);
     }
 
     /**
      * Restaura una clase eliminada.
      */
     public ClaseResponse restoreClase(String id) {
-        Clase clase = claseRepository.findById(id)
+        Clase clase = claseRepository.findByIdIncluyendoEliminadas(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Clase no encontrada con ID: " + id));
+        boolean eliminada = clase.isDeleted();
         clase.setDeletedAt(null);
         Clase restoredClase = claseRepository.save(clase);
+        if (eliminada) {
+            resumenAsistenciaRepository.sumarClase(id);
+        }
         return claseMapper.toResponse(restoredClase);
     }
 }
@@ -0,0 +1,163 @@
+package com.example.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import com.example.api.dto.AuditLogDTO;
+
+/**
+ * Codificación binaria compacta de los eventos de auditoría que viajan a AuditService.
+ *
+ * Formato (versión 1):
+ * <pre>
+ * byte     MAGICO (0xA7): distingue el binario de un documento JSON ('{' o '"')
+ * byte     VERSION
+ * texto    userId, action, endpoint, ipAddress, device, requestBody
+ * varlong  timestamp: zigzag(milisegundos desde epoch) + 1; 0 = nulo
+ * </pre>
+ * Cada texto es un varint con la longitud en bytes UTF-8 + 1 (0 = nulo) seguido de los
+ * bytes. Una versión nueva solo puede agregar campos al final: el decodificador acepta
+ * versiones mayores e ignora los bytes sobrantes, así que AuditService puede actualizarse
+ * después que el productor. Un cambio incompatible requiere otro byte mágico.
+ *
+ * AuditService implementa el mismo formato en AuditLogCodec; cualquier cambio debe
+ * hacerse en ambos lados.
+ */
+public final class CodificadorAuditoria {
+
+    public static final byte MAGICO = (byte) 0xA7;
+    public static final byte VERSION = 1;
+
+    private CodificadorAuditoria() {
+    }
+
+    public static boolean esBinario(byte[] datos) {
+        return datos != null && datos.length >= 2 && datos[0] == MAGICO;
+    }
+
+    public static byte[] codificar(AuditLogDTO log) {
+        byte[][] textos = {
+                utf8(log.getUserId()),
+                utf8(log.getAction()),
+                utf8(log.getEndpoint()),
+                utf8(log.getIpAddress()),
+                utf8(log.getDevice()),
+                utf8(log.getRequestBody())
+        };
+        long marca = log.getTimestamp() == null ? 0 : zigzag(log.getTimestamp().toEpochMilli()) + 1;
+
+        int tamano = 2 + tamanoVarint(marca);
+        for (byte[] texto : textos) {
+            tamano += texto == null ? 1 : tamanoVarint(texto.length + 1L) + texto.length;
+        }
+
+        byte[] salida = new byte[tamano];
+        salida[0] = MAGICO;
+        salida[1] = VERSION;
+        int pos = 2;
+        for (byte[] texto : textos) {
+            if (texto == null) {
+                salida[pos++] = 0;
+            } else {
+                pos = escribirVarint(salida, pos, texto.length + 1L);
+                System.arraycopy(texto, 0, salida, pos, texto.length);
+                pos += texto.length;
+            }
+        }
+        escribirVarint(salida, pos, marca);
+        return salida;
+    }
+
+    /**
+     * @throws IllegalArgumentException si los datos no son un evento binario válido
+     */
+    public static AuditLogDTO decodificar(byte[] datos) {
+        if (!esBinario(datos)) {
+            throw new IllegalArgumentException("No es un evento de auditoría binario");
+        }
+        // Las versiones posteriores solo agregan campos: se leen los que se conocen
+        if (datos[1] < 1) {
+            throw new IllegalArgumentException("Versión de evento de auditoría no soportada: " + datos[1]);
+        }
+        Lector lector = new Lector(datos, 2);
+        AuditLogDTO log = new AuditLogDTO();
+        log.setUserId(lector.texto());
+        log.setAction(lector.texto());
+        log.setEndpoint(lector.texto());
+        log.setIpAddress(lector.texto());
+        log.setDevice(lector.texto());
+        log.setRequestBody(lector.texto());
+        long marca = lector.varint();
+        log.setTimestamp(marca == 0 ? null : Instant.ofEpochMilli(deszigzag(marca - 1)));
+        return log;
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long deszigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static int tamanoVarint(long valor) {
+        int tamano = 1;
+        while ((valor & ~0x7FL) != 0) {
+            valor >>>= 7;
+            tamano++;
+        }
+        return tamano;
+    }
+
+    private static int escribirVarint(byte[] salida, int pos, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida[pos++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        salida[pos++] = (byte) valor;
+        return pos;
+    }
+
+    private static final class Lector {
+
+        private final byte[] datos;
+        private int pos;
+
+        Lector(byte[] datos, int pos) {
+            this.datos = datos;
+            this.pos = pos;
+        }
+
+        long varint() {
+            long valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+                if (pos >= datos.length) {
+                    throw new IllegalArgumentException("Evento de auditoría truncado");
+                }
+                byte b = datos[pos++];
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Varint demasiado largo");
+        }
+
+        String texto() {
+            long largo = varint();
+            if (largo == 0) {
+                return null;
+            }
+            if (largo - 1 > datos.length - pos) {
+                throw new IllegalArgumentException("Evento de auditoría truncado");
+            }
+            String texto = new String(datos, pos, (int) (largo - 1), StandardCharsets.UTF_8);
+            pos += (int) (largo - 1);
+            return texto;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.api.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola circular acotada y sin bloqueos para los eventos de auditoría.
+ *
+ * Cada posición guarda un número de secuencia que indica si está libre para el
+ * productor de la vuelta actual o lista para el consumidor; productores y consumidores
+ * reservan posiciones con compareAndSet sobre su contador, sin locks. Agregar nunca
+ * espera: si la cola está llena, offer devuelve false.
+ *
+ * La capacidad se redondea a la siguiente potencia de dos.
+ */
+final class ColaAuditoria<T> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong cola = new AtomicLong();
+    private final AtomicLong cabeza = new AtomicLong();
+
+    ColaAuditoria(int capacidad) {
+        int tamano = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.mascara = tamano - 1;
+        this.elementos = new AtomicReferenceArray<>(tamano);
+        this.secuencias = new AtomicLongArray(tamano);
+        for (int i = 0; i < tamano; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Agrega un elemento al final.
+     *
+     * @return false si la cola está llena
+     */
+    boolean offer(T elemento) {
+        while (true) {
+            long posicion = cola.get();
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    elementos.set(indice, elemento);
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                return false;
+            }
+            // Otro productor tomó la posición: se vuelve a leer el contador
+        }
+    }
+
+    /**
+     * Saca el primer elemento.
+     *
+     * @return El elemento, o null si la cola está vacía
+     */
+    T poll() {
+        while (true) {
+            long posicion = cabeza.get();
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - (posicion + 1);
+            if (diferencia == 0) {
+                if (cabeza.compareAndSet(posicion, posicion + 1)) {
+                    T elemento = elementos.getAndSet(indice, null);
+                    secuencias.set(indice, posicion + mascara + 1);
+                    return elemento;
+                }
+            } else if (diferencia < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Saca hasta 'maximo' elementos y los agrega a 'destino'.
+     *
+     * @return Número de elementos agregados
+     */
+    int drainTo(List<T> destino, int maximo) {
+        int total = 0;
+        T elemento;
+        while (total < maximo && (elemento = poll()) != null) {
+            destino.add(elemento);
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Número aproximado de elementos en la cola.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(mascara + 1, cola.get() - cabeza.get()));
+    }
+
+    int capacidad() {
+        return mascara + 1;
+    }
+}
@@ -1,16 +1,11 @@
 package com.example.api.service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.api.dto.request.CreateCursoRequest;
 import com.example.api.dto.request.UpdateCursoRequest;
 import com.example.api.dto.response.CursoResponse;
+import com.example.api.dto.response.DisponibilidadCursoResponse;
 import com.example.api.exception.ResourceNotFoundException;
 import com.example.api.model.Asignatura;
 import com.example.api.model.Curso;
@@ -42,8 +38,9 @@ public class CursoService {
     private final ProfesorRepository profesorRepository;
     private final PeriodoRepository periodoRepository;
     private final CursoMapper cursoMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final DisponibilidadCursoService disponibilidadCursoService;
+    private final IndiceHorarios indiceHorarios;
+    private final HorarioSemanalService horarioSemanalService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -53,15 +50,17 @@ public class CursoService {
             AsignaturaRepository asignaturaRepository,
             ProfesorRepository profesorRepository,
             CursoMapper cursoMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            DisponibilidadCursoService disponibilidadCursoService,
+            IndiceHorarios indiceHorarios,
+            HorarioSemanalService horarioSemanalService) {
         this.cursoRepository = cursoRepository;
         this.periodoRepository = periodoRepository;
         this.asignaturaRepository = asignaturaRepository;
         this.profesorRepository = profesorRepository;
         this.cursoMapper = cursoMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.disponibilidadCursoService = disponibilidadCursoService;
+        this.indiceHorarios = indiceHorarios;
+        this.horarioSemanalService = horarioSemanalService;
     }
 
     /**
@@ -143,26 +142,20 @@ public class CursoService {
     }
 
     /**
-     * Obtiene la disponibilidad de cupos de un curso.
+     * Obtiene la disponibilidad de los cursos con cupo, filtrable por periodo y asignatura.
+     * Se sirve desde la caché de disponibilidad.
      */
     @Transactional(readOnly = true)
-    public Map<String, Object> getDisponibilidadCupo(String id) {
-        Curso curso = cursoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + id));
-
-        Long inscritos = cursoRepository.countInscripcionesByCursoId(id);
-        Integer cupoTotal = curso.getCupo();
-        Integer cuposDisponibles = cupoTotal - inscritos.intValue();
-
-        Map<String, Object> disponibilidad = new HashMap<>();
-        disponibilidad.put("cursoId", id);
-        disponibilidad.put("nombreGrupo", curso.getNombreGrupo());
-        disponibilidad.put("cupoTotal", cupoTotal);
-        disponibilidad.put("inscritos", inscritos);
-        disponibilidad.put("cuposDisponibles", cuposDisponibles);
-        disponibilidad.put("lleno", cuposDisponibles <= 0);
+    public List<DisponibilidadCursoResponse> getDisponibilidadCursosConCupo(String periodoId, String asignaturaId) {
+        return disponibilidadCursoService.getCursosConCupo(periodoId, asignaturaId);
+    }
 
-        return disponibilidad;
+    /**
+     * Obtiene la disponibilidad de cupos de un curso.
+     */
+    @Transactional(readOnly = true)
+    public DisponibilidadCursoResponse getDisponibilidadCupo(String id) {
+        return disponibilidadCursoService.getDisponibilidad(id);
     }
 
     /**
@@ -179,6 +172,11 @@ public class CursoService {
     /**
      * Crea un nuevo curso.
      */
+    @Audited(accion = "CREATE", entidad = "curso", detalle = {
+            "cursoId=#result.id()",
+            "nombreGrupo=#result.nombreGrupo()",
+            "asignaturaId=#result.asignatura()?.id()",
+            "periodoId=#result.periodo()?.id()" })
     public CursoResponse createCurso(CreateCursoRequest request, HttpServletRequest httpRequest) {
         // Verificar que la asignatura existe
         Asignatura asignatura = asignaturaRepository.findById(request.asignaturaId())
@@ -206,9 +204,7 @@ public class CursoService {
 
         // Guardar
         Curso cursoGuardado = cursoRepository.save(curso);
-
-        // Audit Log
-        logCursoAction("CREATE", cursoGuardado, httpRequest);
+        disponibilidadCursoService.invalidar();
 
         return cursoMapper.toResponse(cursoGuardado);
     }
@@ -216,6 +212,11 @@ public class CursoService {
     /**
      * Actualiza un curso existente.
      */
+    @Audited(accion = "UPDATE", entidad = "curso", detalle = {
+            "cursoId=#result.id()",
+            "nombreGrupo=#result.nombreGrupo()",
+            "asignaturaId=#result.asignatura()?.id()",
+            "periodoId=#result.periodo()?.id()" })
     public CursoResponse updateCurso(String id, UpdateCursoRequest request, HttpServletRequest httpRequest) {
         Curso curso = cursoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + id));
@@ -250,9 +251,9 @@ public class CursoService {
         }
 
         Curso cursoActualizado = cursoRepository.save(curso);
-
-        // Audit Log
-        logCursoAction("UPDATE", cursoActualizado, httpRequest);
+        disponibilidadCursoService.invalidar();
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
 
         return cursoMapper.toResponse(cursoActualizado);
     }
@@ -260,15 +261,16 @@ public class CursoService {
     /**
      * Realiza eliminación suave de un curso.
      */
+    @Audited(accion = "DELETE", entidad = "curso", detalle = "cursoId=#id")
     public void deleteCurso(String id, HttpServletRequest httpRequest) {
         Curso curso = cursoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + id));
 
         curso.setDeletedAt(LocalDateTime.now());
         cursoRepository.save(curso);
-
-        // Audit Log
-        logCursoAction("DELETE", curso, httpRequest);
+        disponibilidadCursoService.invalidar();
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
@@ -279,6 +281,9 @@ public class CursoService {
             throw new ResourceNotFoundException("Curso no encontrado con ID: " + id);
         }
         cursoRepository.deleteById(id);
+        disponibilidadCursoService.invalidar();
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
@@ -290,35 +295,9 @@ public class CursoService {
 
         curso.setDeletedAt(null);
         Curso cursoRestaurado = cursoRepository.save(curso);
+        disponibilidadCursoService.invalidar();
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
         return cursoMapper.toResponse(cursoRestaurado);
     }
-
-    private void logCursoAction(String action, Curso curso, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("cursoId", curso.getId());
-            bodyMap.put("nombreGrupo", curso.getNombreGrupo());
-            if (curso.getAsignatura() != null) {
-                bodyMap.put("asignaturaId", curso.getAsignatura().getId());
-            }
-            if (curso.getPeriodo() != null) {
-                bodyMap.put("periodoId", curso.getPeriodo().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
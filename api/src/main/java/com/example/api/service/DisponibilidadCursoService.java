@@ -0,0 +1,216 @@
+package com.example.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.response.DisponibilidadCursoResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.repository.CursoRepository;
+
+/**
+ * Servicio de disponibilidad de cupos de los cursos, servido desde Redis.
+ *
+ * Se usan dos hashes: uno con los datos de cada curso (cursoId → disponibilidad al
+ * momento de la carga) y otro con los cupos ocupados (cursoId → inscritos). Las
+ * inscripciones aplican su cambio con HINCRBY después del commit, por lo que el orden
+ * en que confirman no importa. Cualquier cambio en los cursos borra ambos hashes y la
+ * siguiente lectura los vuelve a cargar con una sola consulta. Cada cambio incrementa
+ * además una versión en la misma transacción de Redis; la recarga vigila (WATCH) esa
+ * versión desde antes de consultar la base de datos y no escribe si cambió, para no
+ * pisar un HINCRBY con un conteo leído antes de ese commit. El TTL acota cualquier
+ * diferencia que quede si Redis falla durante una actualización.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DisponibilidadCursoService {
+
+    private static final String CLAVE_CURSOS = "cursos:disponibilidad";
+    private static final String CLAVE_INSCRITOS = "cursos:disponibilidad:inscritos";
+    private static final String CLAVE_VERSION = "cursos:disponibilidad:version";
+
+    private static final Comparator<DisponibilidadCursoResponse> ORDEN_CATALOGO = Comparator
+            .comparing(DisponibilidadCursoResponse::asignaturaNombre, Comparator.nullsLast(String::compareTo))
+            .thenComparing(DisponibilidadCursoResponse::nombreGrupo, Comparator.nullsLast(String::compareTo));
+
+    private final CursoRepository cursoRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${app.cursos.disponibilidad.cache-ttl-seconds:300}")
+    private long ttlCacheSegundos;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public DisponibilidadCursoService(CursoRepository cursoRepository,
+            RedisTemplate<String, Object> redisTemplate) {
+        this.cursoRepository = cursoRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Obtiene los cursos activos con cupos disponibles. Los filtros nulos se ignoran.
+     *
+     * @param periodoId    ID del periodo (opcional)
+     * @param asignaturaId ID de la asignatura (opcional)
+     * @return Cursos con cupo, ordenados por asignatura y grupo
+     */
+    public List<DisponibilidadCursoResponse> getCursosConCupo(String periodoId, String asignaturaId) {
+        return leerTodos().stream()
+                .filter(d -> !d.lleno())
+                .filter(d -> periodoId == null || periodoId.equals(d.periodoId()))
+                .filter(d -> asignaturaId == null || asignaturaId.equals(d.asignaturaId()))
+                .sorted(ORDEN_CATALOGO)
+                .toList();
+    }
+
+    /**
+     * Obtiene la disponibilidad de cupos de un curso.
+     *
+     * @param cursoId ID del curso
+     * @return Disponibilidad del curso
+     */
+    public DisponibilidadCursoResponse getDisponibilidad(String cursoId) {
+        try {
+            HashOperations<String, String, Object> hash = redisTemplate.opsForHash();
+            Object curso = hash.get(CLAVE_CURSOS, cursoId);
+            if (curso == null && !Boolean.TRUE.equals(redisTemplate.hasKey(CLAVE_CURSOS))) {
+                curso = recargar().stream()
+                        .filter(d -> d.cursoId().equals(cursoId))
+                        .findFirst()
+                        .orElse(null);
+            }
+            if (curso instanceof DisponibilidadCursoResponse disponibilidad) {
+                return conInscritos(disponibilidad, hash.get(CLAVE_INSCRITOS, cursoId));
+            }
+        } catch (RuntimeException e) {
+            // Si Redis no está disponible se consulta directamente la base de datos
+        }
+        return cursoRepository.findDisponibilidadById(cursoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId));
+    }
+
+    /**
+     * Aplica en la caché, cuando la transacción actual confirma, un cambio en los cupos
+     * ocupados de un curso.
+     *
+     * @param cursoId ID del curso
+     * @param delta   +1 al ocupar un cupo, -1 al liberarlo
+     */
+    public void registrarCambioInscritos(String cursoId, int delta) {
+        TransaccionUtils.despuesDelCommit(() -> {
+            try {
+                ejecutarConVersion(ops -> ops.opsForHash().increment(CLAVE_INSCRITOS, cursoId, delta));
+            } catch (RuntimeException e) {
+                System.err.println("Error updating course availability cache: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Borra la caché cuando la transacción actual confirma (alta, cambio o baja de cursos).
+     */
+    public void invalidar() {
+        TransaccionUtils.despuesDelCommit(() -> {
+            try {
+                ejecutarConVersion(ops -> ops.delete(List.of(CLAVE_CURSOS, CLAVE_INSCRITOS)));
+            } catch (RuntimeException e) {
+                System.err.println("Error invalidating course availability cache: " + e.getMessage());
+            }
+        });
+    }
+
+    private List<DisponibilidadCursoResponse> leerTodos() {
+        try {
+            HashOperations<String, String, Object> hash = redisTemplate.opsForHash();
+            List<Object> cursos = hash.values(CLAVE_CURSOS);
+            if (cursos.isEmpty()) {
+                return recargar();
+            }
+            Map<String, Object> inscritos = hash.entries(CLAVE_INSCRITOS);
+            List<DisponibilidadCursoResponse> resultado = new ArrayList<>(cursos.size());
+            for (Object curso : cursos) {
+                if (curso instanceof DisponibilidadCursoResponse disponibilidad) {
+                    resultado.add(conInscritos(disponibilidad, inscritos.get(disponibilidad.cursoId())));
+                }
+            }
+            return resultado;
+        } catch (RuntimeException e) {
+            return cursoRepository.findDisponibilidadActivos();
+        }
+    }
+
+    /**
+     * Carga la disponibilidad de todos los cursos desde la base de datos y reemplaza
+     * ambos hashes en una transacción de Redis (MULTI/EXEC). La versión se vigila
+     * antes de la consulta: si algún cambio confirma mientras tanto, EXEC se descarta
+     * y se devuelven los datos leídos sin guardarlos.
+     */
+    private List<DisponibilidadCursoResponse> recargar() {
+        Duration ttl = Duration.ofSeconds(ttlCacheSegundos);
+        return redisTemplate.execute(new SessionCallback<List<DisponibilidadCursoResponse>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<DisponibilidadCursoResponse> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.watch(CLAVE_VERSION);
+                List<DisponibilidadCursoResponse> cursos = cursoRepository.findDisponibilidadActivos();
+                if (cursos.isEmpty()) {
+                    ops.unwatch();
+                    return cursos;
+                }
+
+                Map<String, Object> datos = new HashMap<>();
+                Map<String, Object> inscritos = new HashMap<>();
+                for (DisponibilidadCursoResponse curso : cursos) {
+                    datos.put(curso.cursoId(), curso);
+                    // Integer se serializa como número plano, así HINCRBY puede operar sobre el valor
+                    inscritos.put(curso.cursoId(), Integer.valueOf(curso.inscritos()));
+                }
+
+                ops.multi();
+                ops.delete(List.of(CLAVE_CURSOS, CLAVE_INSCRITOS));
+                ops.opsForHash().putAll(CLAVE_CURSOS, datos);
+                ops.opsForHash().putAll(CLAVE_INSCRITOS, inscritos);
+                ops.expire(CLAVE_CURSOS, ttl);
+                ops.expire(CLAVE_INSCRITOS, ttl);
+                ops.exec();
+                return cursos;
+            }
+        });
+    }
+
+    /**
+     * Aplica un cambio en la caché e incrementa la versión en la misma transacción de
+     * Redis, de modo que una recarga en curso no confirme datos anteriores al cambio.
+     */
+    private void ejecutarConVersion(Consumer<RedisOperations<String, Object>> cambio) {
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.multi();
+                ops.opsForValue().increment(CLAVE_VERSION);
+                cambio.accept(ops);
+                return ops.exec();
+            }
+        });
+    }
+
+    private DisponibilidadCursoResponse conInscritos(DisponibilidadCursoResponse curso, Object inscritos) {
+        return inscritos instanceof Number numero ? curso.conInscritos(numero.intValue()) : curso;
+    }
+}
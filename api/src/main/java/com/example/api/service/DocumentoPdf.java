@@ -0,0 +1,351 @@
+package com.example.api.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Escritor mínimo de PDF 1.4 para documentos de texto y tablas simples.
+ *
+ * Usa las fuentes estándar Helvetica y Helvetica-Bold con WinAnsiEncoding, que todo
+ * lector de PDF trae incorporadas, así que no se incrusta ninguna fuente: cubren los
+ * caracteres del español y un boletín completo ocupa unos pocos KB. El contenido de
+ * cada página se comprime con Deflate.
+ *
+ * Las coordenadas están en puntos, con el origen en la esquina inferior izquierda.
+ */
+final class DocumentoPdf {
+
+    static final float ANCHO = 595.28f;
+    static final float ALTO = 841.89f;
+
+    private static final byte[] CABECERA = ascii("%PDF-1.4\n%\u00E2\u00E3\u00CF\u00D3\n");
+
+    // Objetos 3 a 5: iguales en todos los documentos
+    private static final byte[] RECURSOS = ascii(
+            "3 0 obj\n<</Type/Font/Subtype/Type1/BaseFont/Helvetica/Encoding/WinAnsiEncoding>>\nendobj\n"
+                    + "4 0 obj\n<</Type/Font/Subtype/Type1/BaseFont/Helvetica-Bold/Encoding/WinAnsiEncoding>>\nendobj\n"
+                    + "5 0 obj\n<</Font<</F1 3 0 R/F2 4 0 R>>>>\nendobj\n");
+    private static final int PRIMER_OBJETO_PAGINA = 7;
+
+    private final String titulo;
+    private final List<Lienzo> paginas = new ArrayList<>();
+
+    DocumentoPdf(String titulo) {
+        this.titulo = titulo;
+    }
+
+    /**
+     * Agrega una página en blanco al final del documento.
+     */
+    Lienzo nuevaPagina() {
+        Lienzo pagina = new Lienzo();
+        paginas.add(pagina);
+        return pagina;
+    }
+
+    List<Lienzo> getPaginas() {
+        return paginas;
+    }
+
+    /**
+     * Genera el archivo PDF completo.
+     */
+    byte[] toByteArray() {
+        if (paginas.isEmpty()) {
+            nuevaPagina();
+        }
+        int totalObjetos = PRIMER_OBJETO_PAGINA - 1 + paginas.size() * 2;
+        long[] posiciones = new long[totalObjetos + 1];
+        Salida salida = new Salida();
+        salida.write(CABECERA);
+
+        posiciones[1] = salida.size();
+        salida.ascii("1 0 obj\n<</Type/Catalog/Pages 2 0 R>>\nendobj\n");
+
+        posiciones[2] = salida.size();
+        StringBuilder kids = new StringBuilder("2 0 obj\n<</Type/Pages/Kids[");
+        for (int i = 0; i < paginas.size(); i++) {
+            kids.append(PRIMER_OBJETO_PAGINA + i * 2).append(" 0 R ");
+        }
+        kids.append("]/Count ").append(paginas.size()).append(">>\nendobj\n");
+        salida.ascii(kids.toString());
+
+        int inicioRecursos = salida.size();
+        salida.write(RECURSOS);
+        // Las posiciones de 3, 4 y 5 se calculan dentro del bloque fijo
+        String recursos = new String(RECURSOS, StandardCharsets.ISO_8859_1);
+        posiciones[3] = inicioRecursos;
+        posiciones[4] = inicioRecursos + recursos.indexOf("4 0 obj");
+        posiciones[5] = inicioRecursos + recursos.indexOf("5 0 obj");
+
+        posiciones[6] = salida.size();
+        salida.ascii("6 0 obj\n<</Title");
+        salida.write(cadena(titulo));
+        salida.ascii("/Producer(api)>>\nendobj\n");
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            for (int i = 0; i < paginas.size(); i++) {
+                int objetoPagina = PRIMER_OBJETO_PAGINA + i * 2;
+                posiciones[objetoPagina] = salida.size();
+                salida.ascii(objetoPagina + " 0 obj\n<</Type/Page/Parent 2 0 R/MediaBox[0 0 " + numero(ANCHO) + " "
+                        + numero(ALTO) + "]/Resources 5 0 R/Contents " + (objetoPagina + 1) + " 0 R>>\nendobj\n");
+
+                byte[] contenido = comprimir(deflater, paginas.get(i).contenido);
+                posiciones[objetoPagina + 1] = salida.size();
+                salida.ascii((objetoPagina + 1) + " 0 obj\n<</Length " + contenido.length
+                        + "/Filter/FlateDecode>>\nstream\n");
+                salida.write(contenido);
+                salida.ascii("\nendstream\nendobj\n");
+            }
+        } finally {
+            deflater.end();
+        }
+
+        int inicioXref = salida.size();
+        StringBuilder xref = new StringBuilder(20 * (totalObjetos + 1) + 100)
+                .append("xref\n0 ").append(totalObjetos + 1).append("\n0000000000 65535 f \n");
+        for (int i = 1; i <= totalObjetos; i++) {
+            String posicion = Long.toString(posiciones[i]);
+            xref.append("0".repeat(10 - posicion.length())).append(posicion).append(" 00000 n \n");
+        }
+        xref.append("trailer\n<</Size ").append(totalObjetos + 1).append("/Root 1 0 R/Info 6 0 R>>\nstartxref\n")
+                .append(inicioXref).append("\n%%EOF\n");
+        salida.ascii(xref.toString());
+        return salida.toByteArray();
+    }
+
+    private static byte[] comprimir(Deflater deflater, ByteArrayOutputStream contenido) {
+        deflater.reset();
+        deflater.setInput(contenido.toByteArray());
+        deflater.finish();
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream(Math.max(64, contenido.size() / 3));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            comprimido.write(buffer, 0, n);
+        }
+        return comprimido.toByteArray();
+    }
+
+    /**
+     * Fuentes disponibles, con los anchos de sus caracteres ASCII imprimibles (32 a 126)
+     * en milésimas de em, tomados de las métricas estándar de Adobe.
+     */
+    enum Fuente {
+        REGULAR("F1", new short[] {
+                278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+                556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+                1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+                667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+                333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+                556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584 }),
+        NEGRITA("F2", new short[] {
+                278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+                556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+                975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+                667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+                333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+                611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584 });
+
+        private final String nombre;
+        private final short[] anchos;
+
+        Fuente(String nombre, short[] anchos) {
+            this.nombre = nombre;
+            this.anchos = anchos;
+        }
+
+        /**
+         * Ancho del texto en puntos. Las letras acentuadas miden lo mismo que su letra base.
+         */
+        float ancho(String texto, float tamano) {
+            int total = 0;
+            for (int i = 0; i < texto.length(); i++) {
+                total += ancho(texto.charAt(i));
+            }
+            return total * tamano / 1000f;
+        }
+
+        private int ancho(char c) {
+            if (c >= 32 && c <= 126) {
+                return anchos[c - 32];
+            }
+            switch (c) {
+                case '\u2014':
+                    return 1000;
+                case '\u00B7':
+                    return 278;
+                case '\u2026':
+                    return 1000;
+                default:
+                    break;
+            }
+            if (c >= 0xC0 && c <= 0xFF) {
+                char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+                if (base >= 32 && base <= 126) {
+                    return anchos[base - 32];
+                }
+            }
+            return 556;
+        }
+
+        /**
+         * Recorta el texto con "..." para que no supere el ancho indicado.
+         */
+        String recortar(String texto, float tamano, float anchoMaximo) {
+            if (ancho(texto, tamano) <= anchoMaximo) {
+                return texto;
+            }
+            float disponible = anchoMaximo - ancho("...", tamano);
+            int total = 0;
+            int fin = 0;
+            while (fin < texto.length() && (total + ancho(texto.charAt(fin))) * tamano / 1000f <= disponible) {
+                total += ancho(texto.charAt(fin));
+                fin++;
+            }
+            return texto.substring(0, fin).stripTrailing() + "...";
+        }
+    }
+
+    /**
+     * Contenido de una página: texto, líneas y rectángulos.
+     */
+    static final class Lienzo {
+
+        private final ByteArrayOutputStream contenido = new ByteArrayOutputStream(4096);
+
+        /**
+         * Agrega un fragmento de contenido ya compilado (por ejemplo, la parte fija de
+         * una plantilla).
+         */
+        Lienzo fragmento(byte[] operaciones) {
+            contenido.writeBytes(operaciones);
+            return this;
+        }
+
+        /**
+         * Agrega un fragmento compilado con origen en (0, 0), desplazado a (x, y).
+         */
+        Lienzo fragmento(byte[] operaciones, float x, float y) {
+            contenido.writeBytes(ascii("q 1 0 0 1 " + numero(x) + " " + numero(y) + " cm\n"));
+            contenido.writeBytes(operaciones);
+            contenido.writeBytes(ascii("Q\n"));
+            return this;
+        }
+
+        Lienzo texto(Fuente fuente, float tamano, float x, float y, String texto) {
+            if (texto == null || texto.isEmpty()) {
+                return this;
+            }
+            contenido.writeBytes(ascii("BT /" + fuente.nombre + " " + numero(tamano) + " Tf " + numero(x) + " "
+                    + numero(y) + " Td "));
+            contenido.writeBytes(cadena(texto));
+            contenido.writeBytes(ascii(" Tj ET\n"));
+            return this;
+        }
+
+        /**
+         * Escribe el texto alineado a la derecha en x.
+         */
+        Lienzo textoDerecha(Fuente fuente, float tamano, float x, float y, String texto) {
+            if (texto == null) {
+                return this;
+            }
+            return texto(fuente, tamano, x - fuente.ancho(texto, tamano), y, texto);
+        }
+
+        Lienzo linea(float x1, float y1, float x2, float y2, float grosor) {
+            contenido.writeBytes(ascii(numero(grosor) + " w " + numero(x1) + " " + numero(y1) + " m " + numero(x2)
+                    + " " + numero(y2) + " l S\n"));
+            return this;
+        }
+
+        /**
+         * Dibuja un rectángulo relleno de gris (0 = negro, 1 = blanco).
+         */
+        Lienzo rectangulo(float x, float y, float ancho, float alto, float gris) {
+            contenido.writeBytes(ascii("q " + numero(gris) + " g " + numero(x) + " " + numero(y) + " "
+                    + numero(ancho) + " " + numero(alto) + " re f Q\n"));
+            return this;
+        }
+
+        /**
+         * Devuelve las operaciones escritas, para reutilizarlas como fragmento.
+         */
+        byte[] toByteArray() {
+            return contenido.toByteArray();
+        }
+    }
+
+    /**
+     * Codifica un texto como cadena literal de PDF en WinAnsi. Los caracteres que la
+     * codificación no tiene se reemplazan por '?'.
+     */
+    private static byte[] cadena(String texto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(texto.length() + 8);
+        bytes.write('(');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            int codigo = switch (c) {
+                case '\u2013' -> 0x96;
+                case '\u2014' -> 0x97;
+                case '\u2018' -> 0x91;
+                case '\u2019' -> 0x92;
+                case '\u201C' -> 0x93;
+                case '\u201D' -> 0x94;
+                case '\u2022' -> 0x95;
+                case '\u2026' -> 0x85;
+                case '\u20AC' -> 0x80;
+                default -> (c >= 0x20 && c < 0x7F) || (c >= 0xA0 && c <= 0xFF) ? c : '?';
+            };
+            if (codigo == '(' || codigo == ')' || codigo == '\\') {
+                bytes.write('\\');
+            }
+            bytes.write(codigo);
+        }
+        bytes.write(')');
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Formatea un número con hasta dos decimales y punto decimal.
+     */
+    private static String numero(float valor) {
+        long centesimas = Math.round(valor * 100.0);
+        long entero = centesimas / 100;
+        long decimales = Math.abs(centesimas % 100);
+        String signo = centesimas < 0 && entero == 0 ? "-" : "";
+        if (decimales == 0) {
+            return signo + entero;
+        }
+        return signo + entero + (decimales < 10 ? ".0" : ".") + decimales;
+    }
+
+    private static byte[] ascii(String texto) {
+        return texto.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * ByteArrayOutputStream sin excepciones comprobadas.
+     */
+    private static final class Salida extends ByteArrayOutputStream {
+
+        Salida() {
+            super(16 * 1024);
+        }
+
+        void ascii(String texto) {
+            writeBytes(DocumentoPdf.ascii(texto));
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            writeBytes(bytes);
+        }
+    }
+}
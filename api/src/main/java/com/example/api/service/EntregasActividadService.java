@@ -4,14 +4,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,21 +32,18 @@ public class EntregasActividadService {
     private final ActividadRepository actividadRepository;
     private final EstudianteRepository estudianteRepository;
     private final EntregasActividadMapper mapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final NotaFinalService notaFinalService;
 
     public EntregasActividadService(EntregasActividadRepository repository,
             ActividadRepository actividadRepository,
             EstudianteRepository estudianteRepository,
             EntregasActividadMapper mapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            NotaFinalService notaFinalService) {
         this.repository = repository;
         this.actividadRepository = actividadRepository;
         this.estudianteRepository = estudianteRepository;
         this.mapper = mapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.notaFinalService = notaFinalService;
     }
 
     @Transactional(readOnly = true)
@@ -81,6 +73,10 @@ public class EntregasActividadService {
                 .collect(Collectors.toList());
     }
 
+    @Audited(accion = "CREATE", entidad = "entrega_actividad", detalle = {
+            "entregaId=#result.id()",
+            "actividadId=#result.actividadId()",
+            "estudianteId=#result.estudianteId()" })
     public EntregasActividadResponse create(CreateEntregasActividadRequest request, HttpServletRequest httpRequest) {
         Actividad actividad = actividadRepository.findById(request.actividadId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -102,13 +98,15 @@ public class EntregasActividadService {
         entity.setEstudiante(estudiante);
 
         EntregasActividad saved = repository.save(entity);
-
-        // Audit Log
-        logEntregasActividadAction("CREATE", saved, httpRequest);
+        notaFinalService.invalidarCurso(actividad.getCurso().getId());
 
         return mapper.toResponse(saved);
     }
 
+    @Audited(accion = "UPDATE", entidad = "entrega_actividad", detalle = {
+            "entregaId=#result.id()",
+            "actividadId=#result.actividadId()",
+            "estudianteId=#result.estudianteId()" })
     public EntregasActividadResponse update(String id, UpdateEntregasActividadRequest request,
             HttpServletRequest httpRequest) {
         EntregasActividad entity = repository.findById(id)
@@ -117,48 +115,17 @@ public class EntregasActividadService {
         mapper.updateEntityFromDto(request, entity);
 
         EntregasActividad updated = repository.save(entity);
-
-        // Audit Log
-        logEntregasActividadAction("UPDATE", updated, httpRequest);
+        notaFinalService.invalidarCurso(updated.getActividad().getCurso().getId());
 
         return mapper.toResponse(updated);
     }
 
+    @Audited(accion = "DELETE", entidad = "entrega_actividad", detalle = "entregaId=#id")
     public void delete(String id, HttpServletRequest httpRequest) {
         EntregasActividad entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Entrega no encontrada con ID: " + id));
         entity.setDeletedAt(LocalDateTime.now());
         repository.save(entity);
-
-        // Audit Log
-        logEntregasActividadAction("DELETE", entity, httpRequest);
-    }
-
-    private void logEntregasActividadAction(String action, EntregasActividad entity, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("entregaId", entity.getId());
-            if (entity.getActividad() != null) {
-                bodyMap.put("actividadId", entity.getActividad().getId());
-            }
-            if (entity.getEstudiante() != null) {
-                bodyMap.put("estudianteId", entity.getEstudiante().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
+        notaFinalService.invalidarCurso(entity.getActividad().getCurso().getId());
     }
 }
@@ -0,0 +1,79 @@
+package com.example.api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escribe una tabla en CSV (RFC 4180) con codificación UTF-8 y BOM, para que Excel
+ * reconozca los acentos. Los textos que empiezan con =, +, - o @ se prefijan con un
+ * apóstrofo para que las hojas de cálculo no los interpreten como fórmulas.
+ */
+class EscritorCsv implements EscritorTabla {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final Writer salida;
+
+    EscritorCsv(OutputStream salida) {
+        this.salida = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
+
+    @Override
+    public void encabezados(List<String> columnas) throws IOException {
+        salida.write('\uFEFF');
+        fila(columnas.toArray());
+    }
+
+    @Override
+    public void fila(Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            escribir(valores[i]);
+        }
+        salida.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.flush();
+    }
+
+    private void escribir(Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor instanceof BigDecimal numero) {
+            salida.write(numero.toPlainString());
+            return;
+        }
+        if (valor instanceof Number) {
+            salida.write(valor.toString());
+            return;
+        }
+
+        String texto = valor.toString();
+        if (!texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < texto.length() && !comillas; i++) {
+            char c = texto.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            salida.write(texto);
+            return;
+        }
+        salida.write('"');
+        salida.write(texto.replace("\"", "\"\""));
+        salida.write('"');
+    }
+}
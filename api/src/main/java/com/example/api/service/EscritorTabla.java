@@ -0,0 +1,17 @@
+package com.example.api.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Escritor secuencial de una tabla (encabezados y filas) hacia un flujo de salida.
+ * Las implementaciones no conservan filas ya escritas, por lo que la memoria usada no
+ * depende del número de filas. close() termina el formato pero no cierra el flujo.
+ */
+interface EscritorTabla extends Closeable {
+
+    void encabezados(List<String> columnas) throws IOException;
+
+    void fila(Object[] valores) throws IOException;
+}
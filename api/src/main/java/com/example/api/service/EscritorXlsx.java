@@ -0,0 +1,186 @@
+package com.example.api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Escribe una tabla en formato XLSX (SpreadsheetML) directamente sobre el flujo de salida.
+ *
+ * Un XLSX es un ZIP de documentos XML; la hoja se escribe fila por fila dentro de su
+ * entrada del ZIP con textos en línea (inlineStr), así no hace falta la tabla de
+ * textos compartidos ni conservar filas en memoria. Las partes que describen el libro
+ * se escriben al final, cuando se conoce el número de hojas: al llegar al máximo de
+ * filas de Excel se continúa en una hoja nueva con los mismos encabezados.
+ */
+class EscritorXlsx implements EscritorTabla {
+
+    /** Filas por hoja de Excel, incluido el encabezado. */
+    static final int MAXIMO_FILAS_HOJA = 1_048_576;
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_PKG_REL = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String ENCABEZADO_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private final ZipOutputStream zip;
+    private final Writer salida;
+    private final String nombreHoja;
+
+    private List<String> columnas;
+    private int hojas;
+    private int filasEnHoja;
+
+    EscritorXlsx(OutputStream salida, String nombreHoja) {
+        this.zip = new ZipOutputStream(salida, StandardCharsets.UTF_8);
+        this.salida = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        this.nombreHoja = nombreHoja;
+    }
+
+    @Override
+    public void encabezados(List<String> columnas) throws IOException {
+        this.columnas = columnas;
+        abrirHoja();
+    }
+
+    @Override
+    public void fila(Object[] valores) throws IOException {
+        if (filasEnHoja >= MAXIMO_FILAS_HOJA) {
+            cerrarHoja();
+            abrirHoja();
+        }
+        salida.write("<row>");
+        for (Object valor : valores) {
+            celda(valor);
+        }
+        salida.write("</row>");
+        filasEnHoja++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (hojas == 0) {
+            abrirHoja();
+        }
+        cerrarHoja();
+
+        StringBuilder tipos = new StringBuilder(ENCABEZADO_XML)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        StringBuilder libro = new StringBuilder(ENCABEZADO_XML)
+                .append("<workbook xmlns=\"").append(NS_MAIN).append("\" xmlns:r=\"").append(NS_REL).append("\"><sheets>");
+        StringBuilder relaciones = new StringBuilder(ENCABEZADO_XML)
+                .append("<Relationships xmlns=\"").append(NS_PKG_REL).append("\">");
+        for (int i = 1; i <= hojas; i++) {
+            tipos.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            libro.append("<sheet name=\"").append(escapar(hojas == 1 ? nombreHoja : nombreHoja + " " + i))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            relaciones.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"").append(NS_REL).append("/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        tipos.append("</Types>");
+        libro.append("</sheets></workbook>");
+        relaciones.append("<Relationship Id=\"rId").append(hojas + 1).append("\" Type=\"").append(NS_REL)
+                .append("/styles\" Target=\"styles.xml\"/></Relationships>");
+
+        parte("xl/workbook.xml", libro.toString());
+        parte("xl/_rels/workbook.xml.rels", relaciones.toString());
+        parte("xl/styles.xml", ENCABEZADO_XML + "<styleSheet xmlns=\"" + NS_MAIN + "\">"
+                + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+                + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+                + "</styleSheet>");
+        parte("_rels/.rels", ENCABEZADO_XML + "<Relationships xmlns=\"" + NS_PKG_REL + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + NS_REL + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        parte("[Content_Types].xml", tipos.toString());
+        // finish() escribe el directorio del ZIP sin cerrar el flujo de la respuesta
+        zip.finish();
+    }
+
+    private void abrirHoja() throws IOException {
+        hojas++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + hojas + ".xml"));
+        salida.write(ENCABEZADO_XML);
+        salida.write("<worksheet xmlns=\"" + NS_MAIN + "\"><sheetData>");
+        filasEnHoja = 0;
+        fila(columnas.toArray());
+    }
+
+    private void cerrarHoja() throws IOException {
+        salida.write("</sheetData></worksheet>");
+        salida.flush();
+        zip.closeEntry();
+    }
+
+    private void parte(String nombre, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(nombre));
+        salida.write(contenido);
+        salida.flush();
+        zip.closeEntry();
+    }
+
+    private void celda(Object valor) throws IOException {
+        if (valor == null) {
+            salida.write("<c/>");
+            return;
+        }
+        if (valor instanceof Number numero) {
+            salida.write("<c t=\"n\"><v>");
+            salida.write(numero instanceof BigDecimal decimal ? decimal.toPlainString() : numero.toString());
+            salida.write("</v></c>");
+            return;
+        }
+        String texto = valor.toString();
+        boolean espacios = !texto.isEmpty()
+                && (Character.isWhitespace(texto.charAt(0)) || Character.isWhitespace(texto.charAt(texto.length() - 1)));
+        salida.write(espacios ? "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">" : "<c t=\"inlineStr\"><is><t>");
+        salida.write(escapar(texto));
+        salida.write("</t></is></c>");
+    }
+
+    /**
+     * Escapa los caracteres especiales de XML y descarta los caracteres de control que
+     * XML 1.0 no admite.
+     */
+    private static String escapar(String texto) {
+        StringBuilder escapado = null;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            String reemplazo = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null;
+            };
+            if (reemplazo != null && escapado == null) {
+                escapado = new StringBuilder(texto.length() + 16).append(texto, 0, i);
+            }
+            if (escapado != null) {
+                if (reemplazo != null) {
+                    escapado.append(reemplazo);
+                } else {
+                    escapado.append(c);
+                }
+            }
+        }
+        return escapado == null ? texto : escapado.toString();
+    }
+}
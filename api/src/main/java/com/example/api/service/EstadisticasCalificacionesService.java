@@ -0,0 +1,164 @@
+package com.example.api.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.response.EstadisticasCalificacionesResponse;
+import com.example.api.repository.CalificacionRepository;
+import com.example.api.repository.CalificacionRepository.FrecuenciaNota;
+
+/**
+ * Servicio de estadísticas de distribución de calificaciones.
+ *
+ * MySQL agrupa las notas por valor (histograma exacto) en una sola consulta y
+ * aquí se recorre ese histograma una vez para obtener conteos por rango, promedio,
+ * desviación estándar, mínimo, máximo y percentiles, sin cargar entidades.
+ * Los resultados se guardan en Redis durante unos segundos porque los tableros
+ * consultan este endpoint de forma continua.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EstadisticasCalificacionesService {
+
+    private static final String PREFIJO_CACHE = "estadisticas:calificaciones:";
+    private static final String[] RANGOS = { "0-60", "61-70", "71-80", "81-90", "91-100" };
+    private static final BigDecimal[] LIMITES_RANGOS = { BigDecimal.valueOf(60), BigDecimal.valueOf(70),
+            BigDecimal.valueOf(80), BigDecimal.valueOf(90) };
+
+    private final CalificacionRepository calificacionRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${app.estadisticas.cache-ttl-seconds:10}")
+    private long ttlCacheSegundos;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public EstadisticasCalificacionesService(CalificacionRepository calificacionRepository,
+            RedisTemplate<String, Object> redisTemplate) {
+        this.calificacionRepository = calificacionRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Obtiene las estadísticas de las calificaciones activas que cumplen los filtros.
+     * Los filtros nulos se ignoran.
+     *
+     * @param periodoId    ID del periodo (opcional)
+     * @param cursoId      ID del curso (opcional)
+     * @param asignaturaId ID de la asignatura (opcional)
+     * @param evaluacionId ID de la evaluación (opcional)
+     * @return Estadísticas calculadas o leídas de la caché
+     */
+    public EstadisticasCalificacionesResponse getEstadisticas(String periodoId, String cursoId,
+            String asignaturaId, String evaluacionId) {
+        String clave = PREFIJO_CACHE + valorClave(periodoId) + ":" + valorClave(cursoId) + ":"
+                + valorClave(asignaturaId) + ":" + valorClave(evaluacionId);
+
+        EstadisticasCalificacionesResponse enCache = leerCache(clave);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        EstadisticasCalificacionesResponse estadisticas = calcular(
+                calificacionRepository.findHistogramaNotas(periodoId, cursoId, asignaturaId, evaluacionId));
+        guardarCache(clave, estadisticas);
+        return estadisticas;
+    }
+
+    /**
+     * Recorre el histograma (ordenado por nota ASC) una sola vez.
+     */
+    private EstadisticasCalificacionesResponse calcular(List<FrecuenciaNota> histograma) {
+        long[] conteoRangos = new long[RANGOS.length];
+        long total = 0;
+        BigDecimal suma = BigDecimal.ZERO;
+        double sumaCuadrados = 0;
+
+        for (FrecuenciaNota fila : histograma) {
+            long frecuencia = fila.getTotal();
+            BigDecimal nota = fila.getNota();
+            total += frecuencia;
+            suma = suma.add(nota.multiply(BigDecimal.valueOf(frecuencia)));
+            sumaCuadrados += nota.doubleValue() * nota.doubleValue() * frecuencia;
+            conteoRangos[indiceRango(nota)] += frecuencia;
+        }
+
+        Map<String, Long> distribucion = new LinkedHashMap<>();
+        for (int i = 0; i < RANGOS.length; i++) {
+            distribucion.put(RANGOS[i], conteoRangos[i]);
+        }
+
+        if (total == 0) {
+            return new EstadisticasCalificacionesResponse(0, BigDecimal.ZERO, BigDecimal.ZERO, null, null, null,
+                    null, distribucion);
+        }
+
+        BigDecimal promedio = suma.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP);
+        double media = suma.doubleValue() / total;
+        double varianza = Math.max(0, sumaCuadrados / total - media * media);
+        BigDecimal desviacion = BigDecimal.valueOf(Math.sqrt(varianza)).setScale(2, RoundingMode.HALF_UP);
+
+        return new EstadisticasCalificacionesResponse(total, promedio, desviacion,
+                histograma.get(0).getNota(), histograma.get(histograma.size() - 1).getNota(),
+                percentil(histograma, total, 0.5), percentil(histograma, total, 0.9), distribucion);
+    }
+
+    /**
+     * Percentil por rango más cercano: primera nota cuya frecuencia acumulada
+     * alcanza ceil(p * total).
+     */
+    private BigDecimal percentil(List<FrecuenciaNota> histograma, long total, double p) {
+        long rango = Math.max(1, (long) Math.ceil(p * total));
+        long acumulado = 0;
+        for (FrecuenciaNota fila : histograma) {
+            acumulado += fila.getTotal();
+            if (acumulado >= rango) {
+                return fila.getNota();
+            }
+        }
+        return histograma.get(histograma.size() - 1).getNota();
+    }
+
+    private int indiceRango(BigDecimal nota) {
+        for (int i = 0; i < LIMITES_RANGOS.length; i++) {
+            if (nota.compareTo(LIMITES_RANGOS[i]) <= 0) {
+                return i;
+            }
+        }
+        return RANGOS.length - 1;
+    }
+
+    private String valorClave(String filtro) {
+        return filtro == null ? "*" : filtro;
+    }
+
+    /**
+     * Si Redis no está disponible se calcula directamente desde la base de datos.
+     */
+    private EstadisticasCalificacionesResponse leerCache(String clave) {
+        try {
+            Object valor = redisTemplate.opsForValue().get(clave);
+            return valor instanceof EstadisticasCalificacionesResponse e ? e : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void guardarCache(String clave, EstadisticasCalificacionesResponse estadisticas) {
+        try {
+            redisTemplate.opsForValue().set(clave, estadisticas, Duration.ofSeconds(ttlCacheSegundos));
+        } catch (RuntimeException e) {
+            // La caché es opcional; la respuesta ya está calculada
+        }
+    }
+}
@@ -2,14 +2,9 @@ package com.example.api.service;
 
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,8 +32,8 @@ public class EstudianteService {
     private final EstudianteRepository estudianteRepository;
     private final UsuarioRepository usuarioRepository;
     private final EstudianteMapper estudianteMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final RankingEstudiantesService rankingEstudiantesService;
+    private final ListaEsperaService listaEsperaService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -46,17 +41,19 @@ public class EstudianteService {
      * @param estudianteRepository Repositorio de estudiantes
      * @param usuarioRepository    Repositorio de usuarios
      * @param estudianteMapper     Mapper de estudiantes
+     * @param rankingEstudiantesService Índice del ranking general
+     * @param listaEsperaService Listas de espera de los cursos
      */
     public EstudianteService(EstudianteRepository estudianteRepository,
             UsuarioRepository usuarioRepository,
             EstudianteMapper estudianteMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            RankingEstudiantesService rankingEstudiantesService,
+            ListaEsperaService listaEsperaService) {
         this.estudianteRepository = estudianteRepository;
         this.usuarioRepository = usuarioRepository;
         this.estudianteMapper = estudianteMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.rankingEstudiantesService = rankingEstudiantesService;
+        this.listaEsperaService = listaEsperaService;
     }
 
     /**
@@ -134,6 +131,10 @@ public class EstudianteService {
      * @throws ResourceNotFoundException  si el usuario no existe
      * @throws DuplicateResourceException si el código ya existe
      */
+    @Audited(accion = "CREATE", entidad = "estudiante", detalle = {
+            "estudianteId=#result.id()",
+            "codigoEstudiante=#result.codigoEstudiante()",
+            "usuarioId=#result.usuario()?.id()" })
     public EstudianteResponse createEstudiante(CreateEstudianteRequest request, HttpServletRequest httpRequest) {
         // Verificar que el usuario existe
         Usuario usuario = usuarioRepository.findById(request.usuarioId())
@@ -152,9 +153,6 @@ public class EstudianteService {
 
         Estudiante guardado = estudianteRepository.save(estudiante);
 
-        // Audit Log
-        logEstudianteAction("CREATE", guardado, httpRequest);
-
         return estudianteMapper.toResponse(guardado);
     }
 
@@ -167,6 +165,10 @@ public class EstudianteService {
      * @throws ResourceNotFoundException  si el estudiante no existe
      * @throws DuplicateResourceException si el nuevo código ya existe
      */
+    @Audited(accion = "UPDATE", entidad = "estudiante", detalle = {
+            "estudianteId=#result.id()",
+            "codigoEstudiante=#result.codigoEstudiante()",
+            "usuarioId=#result.usuario()?.id()" })
     public EstudianteResponse updateEstudiante(String id, UpdateEstudianteRequest request,
             HttpServletRequest httpRequest) {
         Estudiante estudiante = estudianteRepository.findById(id)
@@ -187,9 +189,6 @@ public class EstudianteService {
 
         Estudiante actualizado = estudianteRepository.save(estudiante);
 
-        // Audit Log
-        logEstudianteAction("UPDATE", actualizado, httpRequest);
-
         return estudianteMapper.toResponse(actualizado);
     }
 
@@ -199,15 +198,13 @@ public class EstudianteService {
      * @param id ID del estudiante a eliminar
      * @throws ResourceNotFoundException si el estudiante no existe
      */
+    @Audited(accion = "DELETE", entidad = "estudiante", detalle = "estudianteId=#id")
     public void deleteEstudiante(String id, HttpServletRequest httpRequest) {
         Estudiante estudiante = estudianteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con ID: " + id));
 
         estudiante.setActivo(false);
         estudianteRepository.save(estudiante);
-
-        // Audit Log
-        logEstudianteAction("DELETE", estudiante, httpRequest);
     }
 
     /**
@@ -221,32 +218,9 @@ public class EstudianteService {
             throw new ResourceNotFoundException("Estudiante no encontrado con ID: " + id);
         }
 
+        // El borrado en cascada no pasaría por las colas en memoria
+        listaEsperaService.retirarDeTodas(id);
         estudianteRepository.deleteById(id);
-    }
-
-    private void logEstudianteAction(String action, Estudiante estudiante, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("estudianteId", estudiante.getId());
-            bodyMap.put("codigoEstudiante", estudiante.getCodigoEstudiante());
-            if (estudiante.getUsuario() != null) {
-                bodyMap.put("usuarioId", estudiante.getUsuario().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
+        rankingEstudiantesService.actualizarEstudiante(id);
     }
 }
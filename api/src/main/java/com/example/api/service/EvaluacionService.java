@@ -5,14 +5,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -41,8 +36,7 @@ public class EvaluacionService {
     private final CursoRepository cursoRepository;
     private final TipoEvaluacionRepository tipoEvaluacionRepository;
     private final EvaluacionMapper evaluacionMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final NotaFinalService notaFinalService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -51,14 +45,12 @@ public class EvaluacionService {
             CursoRepository cursoRepository,
             TipoEvaluacionRepository tipoEvaluacionRepository,
             EvaluacionMapper evaluacionMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            NotaFinalService notaFinalService) {
         this.evaluacionRepository = evaluacionRepository;
         this.cursoRepository = cursoRepository;
         this.tipoEvaluacionRepository = tipoEvaluacionRepository;
         this.evaluacionMapper = evaluacionMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.notaFinalService = notaFinalService;
     }
 
     /**
@@ -180,6 +172,11 @@ public class EvaluacionService {
     /**
      * Crea una nueva evaluación.
      */
+    @Audited(accion = "CREATE", entidad = "evaluacion", detalle = {
+            "evaluacionId=#result.id()",
+            "nombre=#result.nombre()",
+            "cursoId=#result.curso()?.id()",
+            "tipoEvaluacionId=#result.tipoEvaluacion()?.id()" })
     public EvaluacionResponse createEvaluacion(CreateEvaluacionRequest request, HttpServletRequest httpRequest) {
         // Validar que el curso existe
         Curso curso = cursoRepository.findById(request.cursoId())
@@ -201,9 +198,7 @@ public class EvaluacionService {
         evaluacion.setDocumentoNombre(request.documentoNombre());
 
         Evaluacion saved = evaluacionRepository.save(evaluacion);
-
-        // Audit Log
-        logEvaluacionAction("CREATE", saved, httpRequest);
+        notaFinalService.invalidarCurso(curso.getId());
 
         return evaluacionMapper.toResponse(saved);
     }
@@ -211,10 +206,16 @@ public class EvaluacionService {
     /**
      * Actualiza una evaluación existente.
      */
+    @Audited(accion = "UPDATE", entidad = "evaluacion", detalle = {
+            "evaluacionId=#result.id()",
+            "nombre=#result.nombre()",
+            "cursoId=#result.curso()?.id()",
+            "tipoEvaluacionId=#result.tipoEvaluacion()?.id()" })
     public EvaluacionResponse updateEvaluacion(String id, UpdateEvaluacionRequest request,
             HttpServletRequest httpRequest) {
         Evaluacion evaluacion = evaluacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada con ID: " + id));
+        notaFinalService.invalidarCurso(evaluacion.getCurso().getId());
 
         if (request.cursoId() != null) {
             Curso curso = cursoRepository.findById(request.cursoId())
@@ -248,9 +249,7 @@ public class EvaluacionService {
         }
 
         Evaluacion updated = evaluacionRepository.save(evaluacion);
-
-        // Audit Log
-        logEvaluacionAction("UPDATE", updated, httpRequest);
+        notaFinalService.invalidarCurso(updated.getCurso().getId());
 
         return evaluacionMapper.toResponse(updated);
     }
@@ -258,14 +257,13 @@ public class EvaluacionService {
     /**
      * Elimina lógicamente una evaluación (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "evaluacion", detalle = "evaluacionId=#id")
     public void deleteEvaluacion(String id, HttpServletRequest httpRequest) {
         Evaluacion evaluacion = evaluacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada con ID: " + id));
         evaluacion.setDeletedAt(LocalDateTime.now());
         evaluacionRepository.save(evaluacion);
-
-        // Audit Log
-        logEvaluacionAction("DELETE", evaluacion, httpRequest);
+        notaFinalService.invalidarCurso(evaluacion.getCurso().getId());
     }
 
     /**
@@ -275,6 +273,7 @@ public class EvaluacionService {
         Evaluacion evaluacion = evaluacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada con ID: " + id));
         evaluacionRepository.delete(evaluacion);
+        notaFinalService.invalidarCurso(evaluacion.getCurso().getId());
     }
 
     /**
@@ -285,35 +284,7 @@ public class EvaluacionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada con ID: " + id));
         evaluacion.setDeletedAt(null);
         Evaluacion restored = evaluacionRepository.save(evaluacion);
+        notaFinalService.invalidarCurso(restored.getCurso().getId());
         return evaluacionMapper.toResponse(restored);
     }
-
-    private void logEvaluacionAction(String action, Evaluacion evaluacion, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("evaluacionId", evaluacion.getId());
-            bodyMap.put("nombre", evaluacion.getNombre());
-            if (evaluacion.getCurso() != null) {
-                bodyMap.put("cursoId", evaluacion.getCurso().getId());
-            }
-            if (evaluacion.getTipoEvaluacion() != null) {
-                bodyMap.put("tipoEvaluacionId", evaluacion.getTipoEvaluacion().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
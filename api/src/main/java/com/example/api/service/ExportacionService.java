@@ -0,0 +1,123 @@
+package com.example.api.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.api.repository.ExportacionRepository;
+import com.example.api.repository.ExportacionRepository.Filtro;
+
+/**
+ * Servicio para exportar calificaciones, asistencias e inscripciones en CSV o XLSX.
+ *
+ * El archivo se escribe mientras se leen las filas de la base de datos, por lo que la
+ * memoria usada no depende del tamaño de la exportación.
+ */
+@Service
+public class ExportacionService {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final ExportacionRepository exportacionRepository;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public ExportacionService(ExportacionRepository exportacionRepository) {
+        this.exportacionRepository = exportacionRepository;
+    }
+
+    /**
+     * Prepara una exportación. Los filtros se validan aquí, antes de empezar a escribir la
+     * respuesta; la consulta se ejecuta cuando se escribe el contenido.
+     *
+     * El XLSX ya es un ZIP, así que la compresión gzip solo se aplica al CSV.
+     */
+    public Archivo exportar(Conjunto conjunto, Formato formato, boolean gzip, Filtro filtro) {
+        if (filtro.desde() != null && filtro.hasta() != null && filtro.desde().isAfter(filtro.hasta())) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a la fecha 'hasta'");
+        }
+        boolean comprimir = gzip && formato == Formato.csv;
+
+        String nombre = conjunto.name() + "-" + LocalDate.now() + "." + formato.name() + (comprimir ? ".gz" : "");
+        String tipoContenido = comprimir ? "application/gzip" : formato.tipoContenido;
+
+        StreamingResponseBody contenido = salida -> {
+            OutputStream destino = comprimir ? new GZIPOutputStream(salida, TAMANO_BUFFER) : salida;
+            EscritorTabla escritor = formato == Formato.xlsx
+                    ? new EscritorXlsx(destino, conjunto.hoja)
+                    : new EscritorCsv(destino);
+            escritor.encabezados(conjunto.columnas);
+            try {
+                recorrer(conjunto, filtro, fila -> {
+                    try {
+                        escritor.fila(fila);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // El cliente cerró la conexión: la consulta ya se canceló en el repositorio
+                throw e.getCause();
+            }
+            // Solo se cierra el archivo si se completó, para no entregar uno truncado como válido
+            escritor.close();
+            if (destino instanceof GZIPOutputStream comprimido) {
+                comprimido.finish();
+            }
+        };
+        return new Archivo(nombre, tipoContenido, contenido);
+    }
+
+    private void recorrer(Conjunto conjunto, Filtro filtro, Consumer<Object[]> consumidor) {
+        switch (conjunto) {
+            case calificaciones -> exportacionRepository.recorrerCalificaciones(filtro, consumidor);
+            case asistencias -> exportacionRepository.recorrerAsistencias(filtro, consumidor);
+            case inscripciones -> exportacionRepository.recorrerInscripciones(filtro, consumidor);
+        }
+    }
+
+    /**
+     * Datos que se pueden exportar.
+     */
+    public enum Conjunto {
+        calificaciones("Calificaciones", ExportacionRepository.COLUMNAS_CALIFICACIONES),
+        asistencias("Asistencias", ExportacionRepository.COLUMNAS_ASISTENCIAS),
+        inscripciones("Inscripciones", ExportacionRepository.COLUMNAS_INSCRIPCIONES);
+
+        private final String hoja;
+        private final List<String> columnas;
+
+        Conjunto(String hoja, List<String> columnas) {
+            this.hoja = hoja;
+            this.columnas = columnas;
+        }
+    }
+
+    /**
+     * Formatos de exportación.
+     */
+    public enum Formato {
+        csv("text/csv;charset=UTF-8"),
+        xlsx("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String tipoContenido;
+
+        Formato(String tipoContenido) {
+            this.tipoContenido = tipoContenido;
+        }
+    }
+
+    /**
+     * Archivo listo para escribirse en la respuesta.
+     */
+    public record Archivo(String nombre, String tipoContenido, StreamingResponseBody contenido) {
+    }
+}
@@ -0,0 +1,475 @@
+package com.example.api.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.request.DisponibilidadProfesorRequest;
+import com.example.api.dto.request.GenerarHorarioRequest;
+import com.example.api.dto.response.GeneracionHorarioResponse;
+import com.example.api.dto.response.HorarioPropuestoResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.model.BloqueHorario;
+import com.example.api.model.Curso;
+import com.example.api.model.HorarioCurso;
+import com.example.api.model.HorarioCurso.DiaSemana;
+import com.example.api.model.HorarioCurso.TipoHorario;
+import com.example.api.repository.BloqueHorarioRepository;
+import com.example.api.repository.CursoRepository;
+import com.example.api.repository.HorarioCursoRepository;
+import com.example.api.repository.HorarioCursoRepository.FranjaHorario;
+import com.example.api.repository.PeriodoRepository;
+import com.example.api.service.TablaHorarios.Franja;
+
+/**
+ * Servicio que genera automáticamente el horario de un periodo.
+ *
+ * La generación se ejecuta en segundo plano (una a la vez) con MotorHorarios; mientras
+ * corre se puede consultar su progreso. El resultado se guarda solo cuando se aplica
+ * explícitamente, reemplazando los horarios actuales del periodo. Las generaciones se
+ * conservan en memoria durante una hora después de terminar.
+ */
+@Service
+@Transactional
+public class GeneradorHorarioService {
+
+    public static final String EN_COLA = "EN_COLA";
+    public static final String EN_PROCESO = "EN_PROCESO";
+    public static final String RESUELTO = "RESUELTO";
+    public static final String SIN_SOLUCION = "SIN_SOLUCION";
+    public static final String ERROR = "ERROR";
+    public static final String APLICANDO = "APLICANDO";
+    public static final String APLICADO = "APLICADO";
+
+    private static final List<DiaSemana> DIAS_POR_DEFECTO = List.of(DiaSemana.LUN, DiaSemana.MAR, DiaSemana.MIE,
+            DiaSemana.JUE, DiaSemana.VIE);
+    private static final int SESIONES_POR_DEFECTO = 2;
+    private static final int TIEMPO_POR_DEFECTO_SEGUNDOS = 30;
+    private static final int MAXIMO_EN_COLA = 5;
+    private static final Duration RETENCION = Duration.ofHours(1);
+
+    private final CursoRepository cursoRepository;
+    private final BloqueHorarioRepository bloqueHorarioRepository;
+    private final HorarioCursoRepository horarioCursoRepository;
+    private final PeriodoRepository periodoRepository;
+    private final IndiceHorarios indiceHorarios;
+    private final HorarioSemanalService horarioSemanalService;
+
+    @Value("${app.horarios.generador.hilos:0}")
+    private int hilosConfigurados;
+
+    private final Map<String, Generacion> generaciones = new ConcurrentHashMap<>();
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "generador-horarios");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public GeneradorHorarioService(CursoRepository cursoRepository,
+            BloqueHorarioRepository bloqueHorarioRepository,
+            HorarioCursoRepository horarioCursoRepository,
+            PeriodoRepository periodoRepository,
+            IndiceHorarios indiceHorarios,
+            HorarioSemanalService horarioSemanalService) {
+        this.cursoRepository = cursoRepository;
+        this.bloqueHorarioRepository = bloqueHorarioRepository;
+        this.horarioCursoRepository = horarioCursoRepository;
+        this.periodoRepository = periodoRepository;
+        this.indiceHorarios = indiceHorarios;
+        this.horarioSemanalService = horarioSemanalService;
+    }
+
+    /**
+     * Generación en curso o terminada. Las sesiones y franjas del motor se traducen de
+     * vuelta a cursos, bloques, días y aulas con los arreglos guardados aquí.
+     */
+    private static final class Generacion {
+        final String id = UUID.randomUUID().toString();
+        final String periodoId;
+        final Set<String> cursoIds;
+        final int totalCursos;
+        final MotorHorarios motor;
+        final String[] cursoDeSesion;
+        final String[] bloqueDeFranja;
+        final DiaSemana[] diaDeFranja;
+        final String[] aulas;
+
+        volatile String estado = EN_COLA;
+        volatile String mensaje;
+        volatile MotorHorarios.Solucion solucion;
+        volatile Instant terminadaEn;
+
+        Generacion(String periodoId, Set<String> cursoIds, MotorHorarios motor, String[] cursoDeSesion,
+                String[] bloqueDeFranja, DiaSemana[] diaDeFranja, String[] aulas) {
+            this.periodoId = periodoId;
+            this.cursoIds = cursoIds;
+            this.totalCursos = cursoIds.size();
+            this.motor = motor;
+            this.cursoDeSesion = cursoDeSesion;
+            this.bloqueDeFranja = bloqueDeFranja;
+            this.diaDeFranja = diaDeFranja;
+            this.aulas = aulas;
+        }
+
+        /**
+         * Cambia el estado solo si sigue siendo el esperado.
+         *
+         * @return true si el estado cambió
+         */
+        synchronized boolean cambiarEstado(String esperado, String nuevo) {
+            if (!esperado.equals(estado)) {
+                return false;
+            }
+            estado = nuevo;
+            return true;
+        }
+    }
+
+    /**
+     * Prepara el problema con los cursos, bloques y aulas del periodo y encola su búsqueda.
+     */
+    @Transactional(readOnly = true)
+    public GeneracionHorarioResponse iniciar(GenerarHorarioRequest request) {
+        limpiarTerminadas();
+        long enCola = generaciones.values().stream()
+                .filter(g -> EN_COLA.equals(g.estado) || EN_PROCESO.equals(g.estado))
+                .count();
+        if (enCola >= MAXIMO_EN_COLA) {
+            throw new IllegalArgumentException("Hay demasiadas generaciones de horario pendientes; intente más tarde");
+        }
+
+        String periodoId = request.periodoId();
+        periodoRepository.findById(periodoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Periodo no encontrado con ID: " + periodoId));
+
+        List<Curso> cursos = cursoRepository.findByPeriodoId(periodoId);
+        if (cursos.isEmpty()) {
+            throw new IllegalArgumentException("El periodo no tiene cursos activos");
+        }
+        List<BloqueHorario> bloques = cargarBloques(request.bloqueIds());
+        List<DiaSemana> dias = request.dias() == null || request.dias().isEmpty()
+                ? DIAS_POR_DEFECTO
+                : List.copyOf(new LinkedHashSet<>(request.dias()));
+        List<String> aulas = cargarAulas(request.aulas(), cursos, periodoId);
+        int sesionesPorCurso = request.sesionesPorCurso() != null ? request.sesionesPorCurso() : SESIONES_POR_DEFECTO;
+
+        // Franjas: cada combinación de día y bloque
+        int totalFranjas = dias.size() * bloques.size();
+        int[] diaDeFranja = new int[totalFranjas];
+        DiaSemana[] diaSemanaDeFranja = new DiaSemana[totalFranjas];
+        String[] bloqueDeFranja = new String[totalFranjas];
+        Map<String, Integer> franjaPorClave = new HashMap<>();
+        for (int d = 0; d < dias.size(); d++) {
+            for (int b = 0; b < bloques.size(); b++) {
+                int t = d * bloques.size() + b;
+                diaDeFranja[t] = d;
+                diaSemanaDeFranja[t] = dias.get(d);
+                bloqueDeFranja[t] = bloques.get(b).getId();
+                franjaPorClave.put(dias.get(d) + "|" + bloques.get(b).getId(), t);
+            }
+        }
+        int[][] franjasSolapadas = new int[totalFranjas][];
+        for (int t = 0; t < totalFranjas; t++) {
+            BloqueHorario bloque = bloques.get(t % bloques.size());
+            List<Integer> solapadas = new ArrayList<>();
+            for (int b = 0; b < bloques.size(); b++) {
+                BloqueHorario otro = bloques.get(b);
+                if (bloque.getInicio().isBefore(otro.getFin()) && otro.getInicio().isBefore(bloque.getFin())) {
+                    solapadas.add(diaDeFranja[t] * bloques.size() + b);
+                }
+            }
+            franjasSolapadas[t] = solapadas.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Disponibilidad de profesores: un profesor sin franjas listadas puede dictar en cualquiera
+        Map<String, Set<Integer>> disponibilidad = new HashMap<>();
+        if (request.disponibilidadProfesores() != null) {
+            for (DisponibilidadProfesorRequest franja : request.disponibilidadProfesores()) {
+                Set<Integer> permitidas = disponibilidad.computeIfAbsent(franja.profesorId(),
+                        k -> new LinkedHashSet<>());
+                Integer t = franjaPorClave.get(franja.dia() + "|" + franja.bloqueId());
+                if (t != null) {
+                    permitidas.add(t);
+                }
+            }
+        }
+        int[] todas = new int[totalFranjas];
+        for (int t = 0; t < totalFranjas; t++) {
+            todas[t] = t;
+        }
+
+        Map<String, Integer> indiceProfesor = new HashMap<>();
+        Map<String, Integer> indiceAula = new HashMap<>();
+        for (int a = 0; a < aulas.size(); a++) {
+            indiceAula.putIfAbsent(aulas.get(a).trim().toLowerCase(Locale.ROOT), a);
+        }
+
+        int totalSesiones = cursos.size() * sesionesPorCurso;
+        int[] cursoDeSesion = new int[totalSesiones];
+        int[] profesorDeSesion = new int[totalSesiones];
+        int[] aulaPreferida = new int[totalSesiones];
+        int[][] franjasPermitidas = new int[totalSesiones][];
+        String[] cursoIdDeSesion = new String[totalSesiones];
+
+        for (int c = 0; c < cursos.size(); c++) {
+            Curso curso = cursos.get(c);
+            String profesorId = curso.getProfesor() != null ? curso.getProfesor().getId() : null;
+            int profesor = profesorId != null ? indiceProfesor.computeIfAbsent(profesorId, k -> indiceProfesor.size()) : -1;
+
+            int[] permitidas = todas;
+            if (profesorId != null && disponibilidad.containsKey(profesorId)) {
+                permitidas = disponibilidad.get(profesorId).stream().mapToInt(Integer::intValue).toArray();
+                if (permitidas.length == 0) {
+                    throw new IllegalArgumentException("El profesor " + profesorId
+                            + " no tiene franjas disponibles entre los días y bloques indicados");
+                }
+            }
+            int preferida = curso.getAulaDefault() != null
+                    ? indiceAula.getOrDefault(curso.getAulaDefault().trim().toLowerCase(Locale.ROOT), -1)
+                    : -1;
+
+            for (int k = 0; k < sesionesPorCurso; k++) {
+                int s = c * sesionesPorCurso + k;
+                cursoDeSesion[s] = c;
+                profesorDeSesion[s] = profesor;
+                aulaPreferida[s] = preferida;
+                franjasPermitidas[s] = permitidas;
+                cursoIdDeSesion[s] = curso.getId();
+            }
+        }
+
+        MotorHorarios.Problema problema = new MotorHorarios.Problema(cursos.size(), indiceProfesor.size(),
+                aulas.size(), dias.size(), cursoDeSesion, profesorDeSesion, aulaPreferida, franjasPermitidas,
+                diaDeFranja, franjasSolapadas);
+        int hilos = hilosConfigurados > 0 ? hilosConfigurados : Runtime.getRuntime().availableProcessors();
+        int segundos = request.tiempoMaximoSegundos() != null ? request.tiempoMaximoSegundos()
+                : TIEMPO_POR_DEFECTO_SEGUNDOS;
+        MotorHorarios motor = new MotorHorarios(problema, hilos, Duration.ofSeconds(segundos).toMillis());
+
+        Set<String> cursoIds = new HashSet<>();
+        cursos.forEach(c -> cursoIds.add(c.getId()));
+        Generacion generacion = new Generacion(periodoId, cursoIds, motor, cursoIdDeSesion, bloqueDeFranja,
+                diaSemanaDeFranja, aulas.toArray(String[]::new));
+        if (totalSesiones > totalFranjas * aulas.size()) {
+            generacion.mensaje = "Hay más sesiones (" + totalSesiones + ") que combinaciones de franja y aula ("
+                    + totalFranjas * aulas.size() + "); no existe una asignación sin choques";
+        }
+        generaciones.put(generacion.id, generacion);
+        ejecutor.submit(() -> ejecutar(generacion));
+        return toResponse(generacion);
+    }
+
+    /**
+     * Obtiene el estado, el progreso y, al terminar, la asignación de una generación.
+     */
+    @Transactional(readOnly = true)
+    public GeneracionHorarioResponse getGeneracion(String id) {
+        return toResponse(buscar(id));
+    }
+
+    /**
+     * Detiene la búsqueda de una generación; se conserva la mejor asignación encontrada.
+     */
+    @Transactional(readOnly = true)
+    public GeneracionHorarioResponse cancelar(String id) {
+        Generacion generacion = buscar(id);
+        generacion.motor.cancelar();
+        return toResponse(generacion);
+    }
+
+    /**
+     * Reemplaza los horarios de los cursos de una generación resuelta por su asignación.
+     * Los cursos del periodo creados después de la generación conservan sus horarios.
+     *
+     * Solo una llamada puede pasar la generación de RESUELTO a APLICANDO; si la transacción
+     * se revierte vuelve a RESUELTO. El periodo se bloquea como en HorarioCursoService y,
+     * con READ COMMITTED, la asignación se valida de nuevo contra los cursos y bloques
+     * vigentes (pueden haberse eliminado o cambiado de profesor desde la generación) y
+     * contra los horarios que se conservan.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Audited(accion = "GENERATE_APPLY", entidad = "generacion_horario", detalle = {
+            "generacionId=#id",
+            "periodoId=#result.periodoId()",
+            "horariosCreados=#result.totalSesiones()" })
+    public GeneracionHorarioResponse aplicar(String id, HttpServletRequest httpRequest) {
+        Generacion generacion = buscar(id);
+        if (!generacion.cambiarEstado(RESUELTO, APLICANDO)) {
+            throw new IllegalArgumentException("Solo se puede aplicar una generación resuelta sin choques");
+        }
+        TransaccionUtils.siSeRevierte(() -> generacion.cambiarEstado(APLICANDO, RESUELTO));
+
+        periodoRepository.bloquearPorId(generacion.periodoId);
+        List<HorarioCurso> horarios = validarSolucion(generacion);
+
+        horarioCursoRepository.softDeleteByCursoIds(generacion.cursoIds, LocalDateTime.now());
+        horarioCursoRepository.saveAll(horarios);
+        indiceHorarios.invalidar();
+        horarioSemanalService.invalidarTodos();
+        TransaccionUtils.despuesDelCommit(() -> generacion.cambiarEstado(APLICANDO, APLICADO));
+
+        return toResponse(generacion);
+    }
+
+    /**
+     * Construye los horarios de la solución con los cursos y bloques vigentes y verifica
+     * que sigan sin chocar entre sí ni con los horarios de los cursos fuera de la generación.
+     */
+    private List<HorarioCurso> validarSolucion(Generacion generacion) {
+        MotorHorarios.Solucion solucion = generacion.solucion;
+        Map<String, Curso> cursos = new HashMap<>();
+        cursoRepository.findAllById(new HashSet<>(Arrays.asList(generacion.cursoDeSesion)))
+                .forEach(c -> cursos.put(c.getId(), c));
+        Map<String, BloqueHorario> bloques = new HashMap<>();
+        bloqueHorarioRepository.findAllById(new HashSet<>(Arrays.asList(generacion.bloqueDeFranja)))
+                .forEach(b -> bloques.put(b.getId(), b));
+
+        TablaHorarios tabla = new TablaHorarios();
+        for (FranjaHorario fila : horarioCursoRepository.findFranjasActivasDelPeriodo(generacion.periodoId)) {
+            if (!generacion.cursoIds.contains(fila.getCursoId())) {
+                tabla.agregar(IndiceHorarios.franja(fila));
+            }
+        }
+        List<HorarioCurso> horarios = new ArrayList<>(solucion.franja().length);
+        for (int s = 0; s < solucion.franja().length; s++) {
+            int t = solucion.franja()[s];
+            Curso curso = cursos.get(generacion.cursoDeSesion[s]);
+            if (curso == null || !generacion.periodoId.equals(curso.getPeriodo().getId())) {
+                throw new IllegalArgumentException("El curso " + generacion.cursoDeSesion[s]
+                        + " ya no está activo en el periodo; genere el horario de nuevo");
+            }
+            BloqueHorario bloque = bloques.get(generacion.bloqueDeFranja[t]);
+            if (bloque == null) {
+                throw new IllegalArgumentException("El bloque de horario " + generacion.bloqueDeFranja[t]
+                        + " ya no está activo; genere el horario de nuevo");
+            }
+            String aula = generacion.aulas[solucion.aula()[s]];
+            Franja franja = TablaHorarios.franja("sesion:" + s, curso, bloque, generacion.diaDeFranja[t], aula);
+            if (!tabla.conflictos(franja, Set.of()).isEmpty()) {
+                throw new IllegalArgumentException("La asignación del curso " + curso.getId()
+                        + " ya no es válida con los datos actuales; genere el horario de nuevo");
+            }
+            tabla.agregar(franja);
+
+            HorarioCurso horario = new HorarioCurso();
+            horario.setCurso(curso);
+            horario.setBloqueHorario(bloque);
+            horario.setDia(generacion.diaDeFranja[t]);
+            horario.setAula(aula);
+            horario.setTipo(TipoHorario.regular);
+            horarios.add(horario);
+        }
+        return horarios;
+    }
+
+    @PreDestroy
+    void detener() {
+        generaciones.values().forEach(g -> g.motor.cancelar());
+        ejecutor.shutdownNow();
+    }
+
+    private void ejecutar(Generacion generacion) {
+        generacion.estado = EN_PROCESO;
+        try {
+            MotorHorarios.Solucion solucion = generacion.motor.resolver();
+            generacion.solucion = solucion;
+            generacion.estado = solucion != null && solucion.conflictos() == 0 ? RESUELTO : SIN_SOLUCION;
+        } catch (RuntimeException e) {
+            generacion.estado = ERROR;
+            generacion.mensaje = e.getMessage();
+        } finally {
+            generacion.terminadaEn = Instant.now();
+        }
+    }
+
+    private Generacion buscar(String id) {
+        Generacion generacion = generaciones.get(id);
+        if (generacion == null) {
+            throw new ResourceNotFoundException("Generación de horario no encontrada con ID: " + id);
+        }
+        return generacion;
+    }
+
+    private void limpiarTerminadas() {
+        Instant limite = Instant.now().minus(RETENCION);
+        generaciones.values().removeIf(g -> g.terminadaEn != null && g.terminadaEn.isBefore(limite));
+    }
+
+    private List<BloqueHorario> cargarBloques(List<String> bloqueIds) {
+        if (bloqueIds == null || bloqueIds.isEmpty()) {
+            List<BloqueHorario> bloques = bloqueHorarioRepository.findAllActiveOrderedByInicio();
+            if (bloques.isEmpty()) {
+                throw new IllegalArgumentException("No hay bloques de horario activos");
+            }
+            return bloques;
+        }
+        Set<String> ids = new LinkedHashSet<>(bloqueIds);
+        List<BloqueHorario> bloques = bloqueHorarioRepository.findAllById(ids);
+        if (bloques.size() != ids.size()) {
+            throw new ResourceNotFoundException("Uno o más bloques de horario no existen");
+        }
+        return bloques;
+    }
+
+    private List<String> cargarAulas(List<String> solicitadas, List<Curso> cursos, String periodoId) {
+        Map<String, String> aulas = new LinkedHashMap<>();
+        if (solicitadas != null && !solicitadas.isEmpty()) {
+            solicitadas.forEach(aula -> agregarAula(aulas, aula));
+        } else {
+            cursos.forEach(curso -> agregarAula(aulas, curso.getAulaDefault()));
+            horarioCursoRepository.findAulasByPeriodoId(periodoId).forEach(aula -> agregarAula(aulas, aula));
+        }
+        if (aulas.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar las aulas disponibles");
+        }
+        return new ArrayList<>(aulas.values());
+    }
+
+    private void agregarAula(Map<String, String> aulas, String aula) {
+        if (aula != null && !aula.isBlank()) {
+            aulas.putIfAbsent(aula.trim().toLowerCase(Locale.ROOT), aula.trim());
+        }
+    }
+
+    private GeneracionHorarioResponse toResponse(Generacion generacion) {
+        MotorHorarios.Solucion solucion = generacion.solucion;
+        List<HorarioPropuestoResponse> horarios = null;
+        if (solucion != null) {
+            horarios = new ArrayList<>(solucion.franja().length);
+            for (int s = 0; s < solucion.franja().length; s++) {
+                int t = solucion.franja()[s];
+                horarios.add(new HorarioPropuestoResponse(generacion.cursoDeSesion[s], generacion.bloqueDeFranja[t],
+                        generacion.diaDeFranja[t], generacion.aulas[solucion.aula()[s]]));
+            }
+        }
+        MotorHorarios motor = generacion.motor;
+        return new GeneracionHorarioResponse(generacion.id, generacion.periodoId, generacion.estado,
+                generacion.totalCursos, generacion.cursoDeSesion.length, motor.mejoresConflictos(),
+                motor.iteraciones(), motor.hilos(), motor.milisegundos(), generacion.mensaje, horarios);
+    }
+}
@@ -1,24 +1,28 @@
 package com.example.api.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.HashMap;
 import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.api.dto.request.CreateHorarioCursoRequest;
+import com.example.api.dto.request.PropuestaHorarioRequest;
 import com.example.api.dto.request.UpdateHorarioCursoRequest;
+import com.example.api.dto.request.ValidarHorarioPeriodoRequest;
+import com.example.api.dto.response.ConflictoHorarioResponse;
 import com.example.api.dto.response.HorarioCursoResponse;
+import com.example.api.dto.response.ValidacionHorarioResponse;
 import com.example.api.exception.ResourceNotFoundException;
 import com.example.api.model.BloqueHorario;
 import com.example.api.model.Curso;
@@ -28,7 +32,11 @@ import com.example.api.model.HorarioCurso.TipoHorario;
 import com.example.api.repository.BloqueHorarioRepository;
 import com.example.api.repository.CursoRepository;
 import com.example.api.repository.HorarioCursoRepository;
+import com.example.api.repository.HorarioCursoRepository.FranjaHorario;
+import com.example.api.repository.PeriodoRepository;
 import com.example.api.mapper.HorarioCursoMapper;
+import com.example.api.service.TablaHorarios.Conflicto;
+import com.example.api.service.TablaHorarios.Franja;
 
 /**
  * Servicio que contiene la lógica de negocio para la gestión de horarios de
@@ -41,9 +49,10 @@ public class HorarioCursoService {
     private final HorarioCursoRepository horarioCursoRepository;
     private final CursoRepository cursoRepository;
     private final BloqueHorarioRepository bloqueHorarioRepository;
+    private final PeriodoRepository periodoRepository;
     private final HorarioCursoMapper horarioCursoMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final IndiceHorarios indiceHorarios;
+    private final HorarioSemanalService horarioSemanalService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -52,15 +61,17 @@ public class HorarioCursoService {
     public HorarioCursoService(HorarioCursoRepository horarioCursoRepository,
             CursoRepository cursoRepository,
             BloqueHorarioRepository bloqueHorarioRepository,
+            PeriodoRepository periodoRepository,
             HorarioCursoMapper horarioCursoMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            IndiceHorarios indiceHorarios,
+            HorarioSemanalService horarioSemanalService) {
         this.horarioCursoRepository = horarioCursoRepository;
         this.cursoRepository = cursoRepository;
         this.bloqueHorarioRepository = bloqueHorarioRepository;
+        this.periodoRepository = periodoRepository;
         this.horarioCursoMapper = horarioCursoMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.indiceHorarios = indiceHorarios;
+        this.horarioSemanalService = horarioSemanalService;
     }
 
     /**
@@ -106,16 +117,81 @@ public class HorarioCursoService {
 
     /**
      * Detecta conflictos de horarios.
-     * Encuentra horarios que se solapan en el mismo día, bloque y aula.
+     * Encuentra horarios del mismo periodo y día cuyas horas se solapan y comparten
+     * aula, profesor o curso, aunque usen bloques distintos.
      */
     @Transactional(readOnly = true)
     public List<HorarioCursoResponse> getConflictos() {
-        return horarioCursoRepository.findConflictos()
+        Set<String> enConflicto = indiceHorarios.horariosEnConflicto();
+        if (enConflicto.isEmpty()) {
+            return List.of();
+        }
+        return horarioCursoRepository.findAllById(enConflicto)
                 .stream()
                 .map(horarioCursoMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Valida de una sola vez un horario propuesto para un periodo: cada franja se compara
+     * con las demás franjas propuestas y, salvo que la propuesta reemplace el horario
+     * actual, con los horarios existentes del periodo.
+     */
+    @Transactional(readOnly = true)
+    public ValidacionHorarioResponse validarHorarioPeriodo(ValidarHorarioPeriodoRequest request) {
+        List<PropuestaHorarioRequest> propuestas = request.horarios();
+
+        Set<String> cursoIds = propuestas.stream().map(PropuestaHorarioRequest::cursoId).collect(Collectors.toSet());
+        Map<String, Curso> cursos = cursoRepository.findAllById(cursoIds).stream()
+                .collect(Collectors.toMap(Curso::getId, c -> c));
+        Set<String> bloqueIds = propuestas.stream().map(PropuestaHorarioRequest::bloqueId).collect(Collectors.toSet());
+        Map<String, BloqueHorario> bloques = bloqueHorarioRepository.findAllById(bloqueIds).stream()
+                .collect(Collectors.toMap(BloqueHorario::getId, b -> b));
+
+        // Horarios existentes que la propuesta mueve: no se comparan consigo mismos
+        Set<String> reemplazados = propuestas.stream()
+                .map(PropuestaHorarioRequest::horarioId)
+                .filter(id -> id != null && !id.isBlank())
+                .collect(Collectors.toSet());
+
+        TablaHorarios tablaPropuesta = new TablaHorarios();
+        Map<String, Integer> indices = new HashMap<>();
+        List<ConflictoHorarioResponse> conflictos = new ArrayList<>();
+
+        for (int i = 0; i < propuestas.size(); i++) {
+            PropuestaHorarioRequest propuesta = propuestas.get(i);
+            Curso curso = cursos.get(propuesta.cursoId());
+            if (curso == null) {
+                throw new ResourceNotFoundException("Curso no encontrado con ID: " + propuesta.cursoId());
+            }
+            if (!curso.getPeriodo().getId().equals(request.periodoId())) {
+                throw new IllegalArgumentException("El curso " + curso.getId() + " no pertenece al periodo indicado");
+            }
+            BloqueHorario bloque = bloques.get(propuesta.bloqueId());
+            if (bloque == null) {
+                throw new ResourceNotFoundException("Bloque de horario no encontrado con ID: " + propuesta.bloqueId());
+            }
+
+            String claveFranja = "propuesta:" + i;
+            Franja franja = TablaHorarios.franja(claveFranja, curso, bloque, propuesta.dia(), propuesta.aula());
+
+            for (Conflicto conflicto : tablaPropuesta.conflictos(franja, Set.of())) {
+                conflictos.add(toConflictoResponse(i, franja, conflicto, indices.get(conflicto.franja().horarioId())));
+            }
+            if (!request.reemplazar()) {
+                for (Conflicto conflicto : indiceHorarios.conflictos(franja, reemplazados)) {
+                    conflictos.add(toConflictoResponse(i, franja, conflicto, null));
+                }
+            }
+
+            tablaPropuesta.agregar(franja);
+            indices.put(claveFranja, i);
+        }
+
+        return new ValidacionHorarioResponse(request.periodoId(), propuestas.size(), conflictos.isEmpty(),
+                conflictos);
+    }
+
     /**
      * Obtiene todos los horarios eliminados.
      */
@@ -129,7 +205,15 @@ public class HorarioCursoService {
 
     /**
      * Crea un nuevo horario de curso.
+     * Usa READ COMMITTED para que, con el periodo bloqueado, la validación vea los
+     * horarios confirmados por otras transacciones.
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Audited(accion = "CREATE", entidad = "horario_curso", detalle = {
+            "horarioId=#result.id()",
+            "dia=#result.dia()",
+            "cursoId=#result.curso()?.id()",
+            "bloqueId=#result.bloqueHorario()?.id()" })
     public HorarioCursoResponse createHorario(CreateHorarioCursoRequest request, HttpServletRequest httpRequest) {
         // Validar que el curso existe
         Curso curso = cursoRepository.findById(request.cursoId())
@@ -140,6 +224,8 @@ public class HorarioCursoService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Bloque de horario no encontrado con ID: " + request.bloqueId()));
 
+        bloquearPeriodo(curso);
+
         // Validar que no existe un horario duplicado (mismo curso, bloque y día)
         if (horarioCursoRepository.existsByCursoAndBloqueAndDia(request.cursoId(), request.bloqueId(), request.dia())) {
             throw new IllegalArgumentException("Ya existe un horario para este curso en el mismo bloque y día");
@@ -153,9 +239,7 @@ public class HorarioCursoService {
         }
 
         HorarioCurso savedHorario = horarioCursoRepository.save(horario);
-
-        // Audit Log
-        logHorarioCursoAction("CREATE", savedHorario, httpRequest);
+        reservarFranja(savedHorario);
 
         return horarioCursoMapper.toResponse(savedHorario);
     }
@@ -163,6 +247,12 @@ public class HorarioCursoService {
     /**
      * Actualiza un horario de curso existente.
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Audited(accion = "UPDATE", entidad = "horario_curso", detalle = {
+            "horarioId=#result.id()",
+            "dia=#result.dia()",
+            "cursoId=#result.curso()?.id()",
+            "bloqueId=#result.bloqueHorario()?.id()" })
     public HorarioCursoResponse updateHorario(String id, UpdateHorarioCursoRequest request,
             HttpServletRequest httpRequest) {
         HorarioCurso horario = horarioCursoRepository.findById(id)
@@ -184,27 +274,9 @@ public class HorarioCursoService {
             horario.setBloqueHorario(bloque);
         }
 
-        // Validar que no se crea un duplicado al actualizar
-        String cursoIdFinal = horario.getCurso().getId();
-        String bloqueIdFinal = horario.getBloqueHorario().getId();
-        DiaSemana diaFinal = horario.getDia();
-
-        // Verificar duplicados excluyendo el horario actual
-        List<HorarioCurso> posiblesDuplicados = horarioCursoRepository.findByCursoId(cursoIdFinal)
-                .stream()
-                .filter(h -> !h.getId().equals(id))
-                .filter(h -> h.getBloqueHorario().getId().equals(bloqueIdFinal))
-                .filter(h -> h.getDia() == diaFinal)
-                .collect(Collectors.toList());
-
-        if (!posiblesDuplicados.isEmpty()) {
-            throw new IllegalArgumentException("Ya existe un horario para este curso en el mismo bloque y día");
-        }
-
+        bloquearPeriodo(horario.getCurso());
         HorarioCurso updatedHorario = horarioCursoRepository.save(horario);
-
-        // Audit Log
-        logHorarioCursoAction("UPDATE", updatedHorario, httpRequest);
+        reservarFranja(updatedHorario);
 
         return horarioCursoMapper.toResponse(updatedHorario);
     }
@@ -212,43 +284,62 @@ public class HorarioCursoService {
     /**
      * Elimina lógicamente un horario (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "horario_curso", detalle = "horarioId=#id")
     public void deleteHorario(String id, HttpServletRequest httpRequest) {
         HorarioCurso horario = horarioCursoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Horario de curso no encontrado con ID: " + id));
         horario.setDeletedAt(LocalDateTime.now());
         horarioCursoRepository.save(horario);
-
-        // Audit Log
-        logHorarioCursoAction("DELETE", horario, httpRequest);
+        indiceHorarios.liberar(id);
+        horarioSemanalService.invalidarTodos();
     }
 
-    private void logHorarioCursoAction(String action, HorarioCurso horario, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("horarioId", horario.getId());
-            bodyMap.put("dia", horario.getDia());
-            if (horario.getCurso() != null) {
-                bodyMap.put("cursoId", horario.getCurso().getId());
-            }
-            if (horario.getBloqueHorario() != null) {
-                bodyMap.put("bloqueId", horario.getBloqueHorario().getId());
-            }
+    /**
+     * Bloquea el periodo del curso antes de escribir un horario, de modo que dos cambios
+     * de horarios del mismo periodo se validen uno después del otro.
+     */
+    private void bloquearPeriodo(Curso curso) {
+        periodoRepository.bloquearPorId(curso.getPeriodo().getId());
+    }
 
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
+    /**
+     * Reserva la franja del horario en el índice de intervalos. Si choca con otro horario
+     * del mismo periodo y día que comparte aula, profesor o curso, la operación se revierte.
+     * El índice es local a la instancia y solo descarta rápido los choques conocidos; con
+     * el periodo ya bloqueado, la franja se compara además con los horarios de la tabla.
+     */
+    private void reservarFranja(HorarioCurso horario) {
+        Franja franja = TablaHorarios.franja(horario.getId(), horario.getCurso(), horario.getBloqueHorario(),
+                horario.getDia(), horario.getAula());
+        List<Conflicto> conflictos = indiceHorarios.reservar(franja);
+        if (conflictos.isEmpty()) {
+            conflictos = conflictosEnTabla(franja);
+        }
+        if (!conflictos.isEmpty()) {
+            Conflicto conflicto = conflictos.get(0);
+            throw new IllegalArgumentException(String.format(
+                    "El horario choca (%s) con el horario %s del curso %s el %s de %s a %s",
+                    conflicto.motivo(), conflicto.franja().horarioId(), conflicto.franja().cursoId(),
+                    franja.dia(), conflicto.franja().horaInicio(), conflicto.franja().horaFin()));
+        }
+        horarioSemanalService.invalidarTodos();
+    }
 
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
+    private List<Conflicto> conflictosEnTabla(Franja franja) {
+        TablaHorarios tabla = new TablaHorarios();
+        for (FranjaHorario fila : horarioCursoRepository.findFranjasActivasDelDia(franja.periodoId(), franja.dia())) {
+            tabla.agregar(IndiceHorarios.franja(fila));
         }
+        return tabla.conflictos(franja, Set.of(franja.horarioId()));
+    }
+
+    private ConflictoHorarioResponse toConflictoResponse(int indice, Franja franja, Conflicto conflicto,
+            Integer indiceConflicto) {
+        Franja otra = conflicto.franja();
+        return new ConflictoHorarioResponse(indice, franja.cursoId(), franja.dia(), franja.horaInicio(),
+                franja.horaFin(), conflicto.motivo(), indiceConflicto,
+                indiceConflicto == null ? otra.horarioId() : null, otra.cursoId(), otra.horaInicio(),
+                otra.horaFin());
     }
 
     /**
@@ -259,16 +350,21 @@ public class HorarioCursoService {
             throw new ResourceNotFoundException("Horario de curso no encontrado con ID: " + id);
         }
         horarioCursoRepository.deleteById(id);
+        indiceHorarios.liberar(id);
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
      * Restaura un horario eliminado lógicamente.
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public HorarioCursoResponse restoreHorario(String id) {
         HorarioCurso horario = horarioCursoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Horario de curso no encontrado con ID: " + id));
+        bloquearPeriodo(horario.getCurso());
         horario.setDeletedAt(null);
         HorarioCurso restoredHorario = horarioCursoRepository.save(horario);
+        reservarFranja(restoredHorario);
         return horarioCursoMapper.toResponse(restoredHorario);
     }
 }
@@ -0,0 +1,220 @@
+package com.example.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.response.ClaseSemanalResponse;
+import com.example.api.dto.response.HorarioSemanalResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.model.HorarioCurso.DiaSemana;
+import com.example.api.repository.EstudianteRepository;
+import com.example.api.repository.HorarioCursoRepository;
+import com.example.api.repository.ProfesorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Servicio del horario semanal de estudiantes y profesores.
+ *
+ * Cada horario se arma con una sola consulta (inscripciones, cursos, horarios y bloques)
+ * y se guarda en Redis en un hash por titular, con un campo por periodo consultado.
+ * Las claves llevan versiones en lugar de borrarse: los cambios de horarios, bloques,
+ * cursos o periodos incrementan una versión global y los cambios de inscripción una
+ * versión por estudiante. Las versiones se leen antes de consultar la base de datos,
+ * así un horario armado antes de una invalidación se guarda en una clave que ya no se
+ * lee; las claves de versiones anteriores expiran por TTL.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HorarioSemanalService {
+
+    private static final String PREFIJO_CACHE = "horarios:semana:";
+    private static final String CLAVE_VERSION = PREFIJO_CACHE + "version";
+    private static final String ESTUDIANTE = "estudiante";
+    private static final String PROFESOR = "profesor";
+
+    private static final Comparator<ClaseSemanalResponse> ORDEN_DIA = Comparator
+            .comparing(ClaseSemanalResponse::inicio)
+            .thenComparing(ClaseSemanalResponse::asignaturaNombre, Comparator.nullsLast(String::compareTo));
+
+    private final HorarioCursoRepository horarioCursoRepository;
+    private final EstudianteRepository estudianteRepository;
+    private final ProfesorRepository profesorRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.horarios.semana.cache-ttl-seconds:3600}")
+    private long ttlCacheSegundos;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public HorarioSemanalService(HorarioCursoRepository horarioCursoRepository,
+            EstudianteRepository estudianteRepository,
+            ProfesorRepository profesorRepository,
+            RedisTemplate<String, Object> redisTemplate,
+            ObjectMapper objectMapper) {
+        this.horarioCursoRepository = horarioCursoRepository;
+        this.estudianteRepository = estudianteRepository;
+        this.profesorRepository = profesorRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Obtiene el horario semanal de un estudiante con los cursos en que está inscrito.
+     *
+     * @param estudianteId ID del estudiante
+     * @param periodoId    ID del periodo (opcional; por defecto los periodos activos)
+     * @return Horario semanal
+     */
+    public HorarioSemanalResponse getHorarioEstudiante(String estudianteId, String periodoId) {
+        long[] versiones = leerVersiones(CLAVE_VERSION, claveVersionEstudiante(estudianteId));
+        String clave = clave(ESTUDIANTE, estudianteId, versiones[0]) + ":" + versiones[1];
+        HorarioSemanalResponse enCache = leerCache(clave, periodoId);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        if (!estudianteRepository.existsById(estudianteId)) {
+            throw new ResourceNotFoundException("Estudiante no encontrado con ID: " + estudianteId);
+        }
+        HorarioSemanalResponse horario = armar(estudianteId, periodoId,
+                horarioCursoRepository.findClasesSemanalesByEstudianteId(estudianteId, periodoId));
+        guardarCache(clave, periodoId, horario);
+        return horario;
+    }
+
+    /**
+     * Obtiene el horario semanal de un profesor con los cursos que imparte.
+     *
+     * @param profesorId ID del profesor
+     * @param periodoId  ID del periodo (opcional; por defecto los periodos activos)
+     * @return Horario semanal
+     */
+    public HorarioSemanalResponse getHorarioProfesor(String profesorId, String periodoId) {
+        String clave = clave(PROFESOR, profesorId, leerVersiones(CLAVE_VERSION)[0]);
+        HorarioSemanalResponse enCache = leerCache(clave, periodoId);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        if (!profesorRepository.existsById(profesorId)) {
+            throw new ResourceNotFoundException("Profesor no encontrado con ID: " + profesorId);
+        }
+        HorarioSemanalResponse horario = armar(profesorId, periodoId,
+                horarioCursoRepository.findClasesSemanalesByProfesorId(profesorId, periodoId));
+        guardarCache(clave, periodoId, horario);
+        return horario;
+    }
+
+    /**
+     * Descarta el horario en caché de un estudiante cuando la transacción actual confirma
+     * (alta, cambio o baja de una de sus inscripciones). La versión del estudiante vive el
+     * doble del TTL de la caché, de modo que cuando expira ya no queda ninguna clave que
+     * la use.
+     *
+     * @param estudianteId ID del estudiante
+     */
+    public void invalidarEstudiante(String estudianteId) {
+        TransaccionUtils.despuesDelCommit(() -> {
+            try {
+                String claveVersion = claveVersionEstudiante(estudianteId);
+                redisTemplate.opsForValue().increment(claveVersion);
+                redisTemplate.expire(claveVersion, Duration.ofSeconds(ttlCacheSegundos * 2));
+            } catch (RuntimeException e) {
+                System.err.println("Error invalidating weekly timetable cache: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Descarta todos los horarios en caché cuando la transacción actual confirma
+     * (cambios en horarios, bloques, cursos o periodos).
+     */
+    public void invalidarTodos() {
+        TransaccionUtils.despuesDelCommit(() -> {
+            try {
+                redisTemplate.opsForValue().increment(CLAVE_VERSION);
+            } catch (RuntimeException e) {
+                System.err.println("Error invalidating weekly timetable cache: " + e.getMessage());
+            }
+        });
+    }
+
+    private HorarioSemanalResponse armar(String titularId, String periodoId, List<ClaseSemanalResponse> clases) {
+        Map<DiaSemana, List<ClaseSemanalResponse>> porDia = new EnumMap<>(DiaSemana.class);
+        for (ClaseSemanalResponse clase : clases) {
+            porDia.computeIfAbsent(clase.dia(), d -> new ArrayList<>()).add(clase);
+        }
+
+        // EnumMap recorre los días en orden LUN..DOM; se copia a un LinkedHashMap para conservarlo al serializar
+        Map<DiaSemana, List<ClaseSemanalResponse>> dias = new LinkedHashMap<>();
+        porDia.forEach((dia, delDia) -> {
+            delDia.sort(ORDEN_DIA);
+            dias.put(dia, delDia);
+        });
+        return new HorarioSemanalResponse(titularId, periodoId, clases.size(), dias);
+    }
+
+    private String clave(String tipo, String titularId, long version) {
+        return PREFIJO_CACHE + version + ":" + tipo + ":" + titularId;
+    }
+
+    private String claveVersionEstudiante(String estudianteId) {
+        return PREFIJO_CACHE + ESTUDIANTE + ":" + estudianteId + ":version";
+    }
+
+    private String campo(String periodoId) {
+        return periodoId == null ? "*" : periodoId;
+    }
+
+    /**
+     * Lee varias versiones en una sola ida a Redis (MGET); las que no existen valen 0.
+     */
+    private long[] leerVersiones(String... claves) {
+        long[] versiones = new long[claves.length];
+        try {
+            List<Object> valores = redisTemplate.opsForValue().multiGet(Arrays.asList(claves));
+            for (int i = 0; valores != null && i < valores.size(); i++) {
+                versiones[i] = valores.get(i) instanceof Number numero ? numero.longValue() : 0;
+            }
+        } catch (RuntimeException e) {
+            // Sin Redis la caché no se usa
+        }
+        return versiones;
+    }
+
+    /**
+     * El horario se guarda como JSON generado con el ObjectMapper de la aplicación, que
+     * serializa las horas igual que las respuestas HTTP. Si Redis no está disponible se
+     * consulta directamente la base de datos.
+     */
+    private HorarioSemanalResponse leerCache(String clave, String periodoId) {
+        try {
+            Object valor = redisTemplate.opsForHash().get(clave, campo(periodoId));
+            return valor instanceof String json ? objectMapper.readValue(json, HorarioSemanalResponse.class) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void guardarCache(String clave, String periodoId, HorarioSemanalResponse horario) {
+        try {
+            redisTemplate.opsForHash().put(clave, campo(periodoId), objectMapper.writeValueAsString(horario));
+            redisTemplate.expire(clave, Duration.ofSeconds(ttlCacheSegundos));
+        } catch (Exception e) {
+            // La caché es opcional; la respuesta ya está calculada
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.api.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.api.repository.HorarioCursoRepository;
+import com.example.api.repository.HorarioCursoRepository.FranjaHorario;
+import com.example.api.service.TablaHorarios.Conflicto;
+import com.example.api.service.TablaHorarios.Franja;
+
+/**
+ * Índice en memoria de las franjas de todos los horarios activos.
+ *
+ * Se carga con una sola consulta la primera vez que se usa y se vuelve a cargar cuando
+ * se invalida (cambios en cursos o bloques) o cuando pasa el intervalo de recarga, lo que
+ * acota la diferencia con cambios hechos por otras instancias. Las reservas se aplican al
+ * índice dentro de la transacción y se deshacen si se revierte. Como el índice es local a
+ * cada instancia, solo sirve como verificación rápida: la validación definitiva se hace
+ * contra la tabla con el periodo bloqueado (ver HorarioCursoService).
+ */
+@Service
+public class IndiceHorarios {
+
+    private final HorarioCursoRepository horarioCursoRepository;
+
+    @Value("${app.horarios.indice.recarga-segundos:300}")
+    private long recargaSegundos;
+
+    private TablaHorarios tabla;
+    private long cargadoEn;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public IndiceHorarios(HorarioCursoRepository horarioCursoRepository) {
+        this.horarioCursoRepository = horarioCursoRepository;
+    }
+
+    /**
+     * Busca las franjas existentes que chocan con la indicada.
+     *
+     * @param franja    Franja a verificar
+     * @param excluidos IDs de horarios que no se deben considerar
+     * @return Conflictos encontrados
+     */
+    public synchronized List<Conflicto> conflictos(Franja franja, Set<String> excluidos) {
+        return tabla().conflictos(franja, excluidos);
+    }
+
+    /**
+     * Reserva la franja de un horario si no choca con ninguna otra. Si el horario ya
+     * estaba en el índice su franja se reemplaza.
+     *
+     * @param franja Franja a reservar
+     * @return Conflictos encontrados; si la lista está vacía la franja quedó reservada
+     */
+    public synchronized List<Conflicto> reservar(Franja franja) {
+        TablaHorarios actual = tabla();
+        List<Conflicto> conflictos = actual.conflictos(franja, Set.of());
+        if (!conflictos.isEmpty()) {
+            return conflictos;
+        }
+
+        Franja anterior = actual.agregar(franja);
+        // Si el índice se recarga antes del commit, la franja se vuelve a aplicar al confirmar
+        TransaccionUtils.despuesDelCommit(() -> aplicar(franja));
+        TransaccionUtils.siSeRevierte(() -> deshacer(franja, anterior));
+        return conflictos;
+    }
+
+    /**
+     * Retira la franja de un horario cuando la transacción actual confirma.
+     *
+     * @param horarioId ID del horario
+     */
+    public void liberar(String horarioId) {
+        TransaccionUtils.despuesDelCommit(() -> {
+            synchronized (this) {
+                if (tabla != null) {
+                    tabla.retirar(horarioId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Obtiene los IDs de todos los horarios activos que chocan con al menos otro.
+     */
+    public synchronized Set<String> horariosEnConflicto() {
+        TablaHorarios actual = tabla();
+        Set<String> enConflicto = new LinkedHashSet<>();
+        for (Franja franja : new ArrayList<>(actual.franjas())) {
+            List<Conflicto> conflictos = actual.conflictos(franja, Set.of());
+            if (!conflictos.isEmpty()) {
+                enConflicto.add(franja.horarioId());
+                conflictos.forEach(c -> enConflicto.add(c.franja().horarioId()));
+            }
+        }
+        return enConflicto;
+    }
+
+    /**
+     * Descarta el índice cuando la transacción actual confirma; la siguiente consulta lo
+     * vuelve a cargar.
+     */
+    public void invalidar() {
+        TransaccionUtils.despuesDelCommit(() -> {
+            synchronized (this) {
+                tabla = null;
+            }
+        });
+    }
+
+    private synchronized void aplicar(Franja franja) {
+        if (tabla != null) {
+            tabla.agregar(franja);
+        }
+    }
+
+    private synchronized void deshacer(Franja franja, Franja anterior) {
+        if (tabla == null) {
+            return;
+        }
+        Franja actual = tabla.get(franja.horarioId());
+        if (franja.equals(actual)) {
+            tabla.retirar(franja.horarioId());
+            if (anterior != null) {
+                tabla.agregar(anterior);
+            }
+        }
+    }
+
+    private TablaHorarios tabla() {
+        if (tabla == null || System.nanoTime() - cargadoEn > TimeUnit.SECONDS.toNanos(recargaSegundos)) {
+            TablaHorarios nueva = new TablaHorarios();
+            for (FranjaHorario fila : horarioCursoRepository.findFranjasActivas()) {
+                nueva.agregar(franja(fila));
+            }
+            tabla = nueva;
+            cargadoEn = System.nanoTime();
+        }
+        return tabla;
+    }
+
+    /**
+     * Convierte una fila de la consulta de franjas en una franja del índice.
+     */
+    static Franja franja(FranjaHorario fila) {
+        return new Franja(fila.getHorarioId(), fila.getCursoId(), fila.getPeriodoId(),
+                fila.getProfesorId(), fila.getDia(), fila.getAula(),
+                fila.getInicio().toSecondOfDay(), fila.getFin().toSecondOfDay());
+    }
+}
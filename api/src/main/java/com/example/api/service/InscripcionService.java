@@ -4,14 +4,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,6 +15,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.api.dto.request.CreateInscripcionRequest;
 import com.example.api.dto.request.UpdateInscripcionRequest;
 import com.example.api.dto.response.InscripcionResponse;
+import com.example.api.dto.response.ListaEsperaResponse;
+import com.example.api.dto.response.SolicitudInscripcionResponse;
 import com.example.api.exception.ResourceNotFoundException;
 import com.example.api.model.Curso;
 import com.example.api.model.Estudiante;
@@ -41,8 +38,10 @@ public class InscripcionService {
         private final CursoRepository cursoRepository;
         private final EstudianteRepository estudianteRepository;
         private final InscripcionMapper inscripcionMapper;
-        private final AuditProducer auditProducer;
-        private final ObjectMapper objectMapper;
+        private final NotaFinalService notaFinalService;
+        private final ListaEsperaService listaEsperaService;
+        private final DisponibilidadCursoService disponibilidadCursoService;
+        private final HorarioSemanalService horarioSemanalService;
 
         /**
          * Constructor con inyección de dependencias.
@@ -51,14 +50,18 @@ public class InscripcionService {
                         CursoRepository cursoRepository,
                         EstudianteRepository estudianteRepository,
                         InscripcionMapper inscripcionMapper,
-                        AuditProducer auditProducer,
-                        ObjectMapper objectMapper) {
+                        NotaFinalService notaFinalService,
+                        ListaEsperaService listaEsperaService,
+                        DisponibilidadCursoService disponibilidadCursoService,
+                        HorarioSemanalService horarioSemanalService) {
                 this.inscripcionRepository = inscripcionRepository;
                 this.cursoRepository = cursoRepository;
                 this.estudianteRepository = estudianteRepository;
                 this.inscripcionMapper = inscripcionMapper;
-                this.auditProducer = auditProducer;
-                this.objectMapper = objectMapper;
+                this.notaFinalService = notaFinalService;
+                this.listaEsperaService = listaEsperaService;
+                this.disponibilidadCursoService = disponibilidadCursoService;
+                this.horarioSemanalService = horarioSemanalService;
         }
 
         /**
@@ -139,10 +142,62 @@ public class InscripcionService {
 
         /**
          * Crea una nueva inscripción.
-         * Valida que el curso tenga cupos disponibles y que no exista una inscripción
-         * duplicada.
+         * Valida que no exista una inscripción duplicada y ocupa el cupo con un
+         * UPDATE condicional atómico sobre cursos.inscritos.
          */
+        @Audited(accion = "CREATE", entidad = "inscripcion", detalle = {
+                "inscripcionId=#result.id()",
+                "fechaInscripcion=#result.fechaInscripcion()",
+                "estado=#result.estado()",
+                "cursoId=#result.curso()?.id()",
+                "estudianteId=#result.estudiante()?.id()" })
         public InscripcionResponse createInscripcion(CreateInscripcionRequest request, HttpServletRequest httpRequest) {
+                Inscripcion inscripcion = nuevaInscripcion(request);
+
+                // Ocupar cupo de forma atómica (solo las inscripciones en estado 'inscrito' ocupan cupo)
+                if (inscripcion.getEstado() == EstadoInscripcion.inscrito) {
+                        ocuparCupo(inscripcion.getCurso().getId());
+                }
+
+                return inscripcionMapper.toResponse(guardarNueva(inscripcion));
+        }
+
+        /**
+         * Solicita una inscripción: si el curso tiene cupo se inscribe al estudiante y,
+         * si está lleno, se le agrega a la lista de espera del curso.
+         */
+        @Audited(accion = "CREATE", entidad = "inscripcion", condicion = "#result.inscripcion() != null", detalle = {
+                "inscripcionId=#result.inscripcion().id()",
+                "fechaInscripcion=#result.inscripcion().fechaInscripcion()",
+                "estado=#result.inscripcion().estado()",
+                "cursoId=#result.inscripcion().curso()?.id()",
+                "estudianteId=#result.inscripcion().estudiante()?.id()" })
+        public SolicitudInscripcionResponse solicitarInscripcion(CreateInscripcionRequest request,
+                        HttpServletRequest httpRequest) {
+                Inscripcion inscripcion = nuevaInscripcion(request);
+                Curso curso = inscripcion.getCurso();
+
+                // Las inscripciones que no están en estado 'inscrito' no ocupan cupo
+                boolean inscribir = inscripcion.getEstado() != EstadoInscripcion.inscrito;
+                if (!inscribir && cursoRepository.ocuparCupo(curso.getId()) == 1) {
+                        disponibilidadCursoService.registrarCambioInscritos(curso.getId(), 1);
+                        inscribir = true;
+                }
+
+                if (inscribir) {
+                        Inscripcion savedInscripcion = guardarNueva(inscripcion);
+                        return new SolicitudInscripcionResponse(SolicitudInscripcionResponse.INSCRITO,
+                                        inscripcionMapper.toResponse(savedInscripcion), null);
+                }
+
+                ListaEsperaResponse listaEspera = listaEsperaService.encolar(curso, inscripcion.getEstudiante());
+                return new SolicitudInscripcionResponse(SolicitudInscripcionResponse.EN_ESPERA, null, listaEspera);
+        }
+
+        /**
+         * Construye una inscripción nueva validando curso, estudiante y duplicados.
+         */
+        private Inscripcion nuevaInscripcion(CreateInscripcionRequest request) {
                 // Validar que el curso existe
                 Curso curso = cursoRepository.findById(request.cursoId())
                                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -158,39 +213,44 @@ public class InscripcionService {
                         throw new IllegalArgumentException("El estudiante ya está inscrito en este curso");
                 }
 
-                // Validar cupo disponible
-                Long inscritosCount = inscripcionRepository.findByCursoId(request.cursoId())
-                                .stream()
-                                .filter(i -> i.getEstado() == EstadoInscripcion.inscrito)
-                                .count();
-
-                if (inscritosCount >= curso.getCupo()) {
-                        throw new IllegalArgumentException("El curso no tiene cupos disponibles");
-                }
-
                 Inscripcion inscripcion = new Inscripcion();
                 inscripcion.setCurso(curso);
                 inscripcion.setEstudiante(estudiante);
                 inscripcion.setFechaInscripcion(
                                 request.fechaInscripcion() != null ? request.fechaInscripcion() : LocalDate.now());
                 inscripcion.setEstado(request.estado() != null ? request.estado() : EstadoInscripcion.inscrito);
+                return inscripcion;
+        }
 
+        /**
+         * Guarda una inscripción nueva cuyo cupo ya fue resuelto y la retira de la
+         * lista de espera del curso si el estudiante estaba en ella.
+         */
+        private Inscripcion guardarNueva(Inscripcion inscripcion) {
                 Inscripcion savedInscripcion = inscripcionRepository.save(inscripcion);
+                String cursoId = savedInscripcion.getCurso().getId();
+                listaEsperaService.retirar(cursoId, savedInscripcion.getEstudiante().getId());
+                notaFinalService.invalidarCurso(cursoId);
+                horarioSemanalService.invalidarEstudiante(savedInscripcion.getEstudiante().getId());
 
-                // Audit Log
-                logInscripcionAction("CREATE", savedInscripcion, httpRequest);
-
-                return inscripcionMapper.toResponse(savedInscripcion);
+                return savedInscripcion;
         }
 
         /**
          * Actualiza una inscripción existente.
          */
+        @Audited(accion = "UPDATE", entidad = "inscripcion", detalle = {
+                "inscripcionId=#result.id()",
+                "fechaInscripcion=#result.fechaInscripcion()",
+                "estado=#result.estado()",
+                "cursoId=#result.curso()?.id()",
+                "estudianteId=#result.estudiante()?.id()" })
         public InscripcionResponse updateInscripcion(String id, UpdateInscripcionRequest request,
                         HttpServletRequest httpRequest) {
-                Inscripcion inscripcion = inscripcionRepository.findById(id)
+                Inscripcion inscripcion = inscripcionRepository.findByIdParaActualizar(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Inscripción no encontrada con ID: " + id));
+                boolean ocupabaCupo = ocupaCupo(inscripcion);
 
                 if (request.fechaInscripcion() != null) {
                         inscripcion.setFechaInscripcion(request.fechaInscripcion());
@@ -200,10 +260,11 @@ public class InscripcionService {
                         inscripcion.setEstado(request.estado());
                 }
 
-                Inscripcion updatedInscripcion = inscripcionRepository.save(inscripcion);
+                ajustarCupo(inscripcion.getCurso().getId(), ocupabaCupo, ocupaCupo(inscripcion));
 
-                // Audit Log
-                logInscripcionAction("UPDATE", updatedInscripcion, httpRequest);
+                Inscripcion updatedInscripcion = inscripcionRepository.save(inscripcion);
+                notaFinalService.invalidarCurso(updatedInscripcion.getCurso().getId());
+                horarioSemanalService.invalidarEstudiante(updatedInscripcion.getEstudiante().getId());
 
                 return inscripcionMapper.toResponse(updatedInscripcion);
         }
@@ -211,66 +272,78 @@ public class InscripcionService {
         /**
          * Elimina lógicamente una inscripción (soft delete).
          */
+        @Audited(accion = "DELETE", entidad = "inscripcion", detalle = "inscripcionId=#id")
         public void deleteInscripcion(String id, HttpServletRequest httpRequest) {
-                Inscripcion inscripcion = inscripcionRepository.findById(id)
+                Inscripcion inscripcion = inscripcionRepository.findByIdParaActualizar(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Inscripción no encontrada con ID: " + id));
+                boolean ocupabaCupo = ocupaCupo(inscripcion);
                 inscripcion.setDeletedAt(LocalDateTime.now());
                 inscripcionRepository.save(inscripcion);
+                ajustarCupo(inscripcion.getCurso().getId(), ocupabaCupo, false);
+                notaFinalService.invalidarCurso(inscripcion.getCurso().getId());
+                horarioSemanalService.invalidarEstudiante(inscripcion.getEstudiante().getId());
+        }
 
-                // Audit Log
-                logInscripcionAction("DELETE", inscripcion, httpRequest);
+        /**
+         * Indica si la inscripción ocupa un cupo del curso (activa y en estado 'inscrito').
+         */
+        private boolean ocupaCupo(Inscripcion inscripcion) {
+                return !inscripcion.isDeleted() && inscripcion.getEstado() == EstadoInscripcion.inscrito;
         }
 
-        private void logInscripcionAction(String action, Inscripcion inscripcion, HttpServletRequest request) {
-                try {
-                        AuditLogDTO log = new AuditLogDTO();
-                        log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-                        log.setAction(action);
-                        log.setEndpoint(request.getRequestURI());
-                        log.setIpAddress(request.getRemoteAddr());
-                        log.setDevice(request.getHeader("User-Agent"));
-                        log.setTimestamp(java.time.Instant.now());
-
-                        Map<String, Object> bodyMap = new HashMap<>();
-                        bodyMap.put("inscripcionId", inscripcion.getId());
-                        bodyMap.put("fechaInscripcion", inscripcion.getFechaInscripcion());
-                        bodyMap.put("estado", inscripcion.getEstado());
-                        if (inscripcion.getCurso() != null) {
-                                bodyMap.put("cursoId", inscripcion.getCurso().getId());
-                        }
-                        if (inscripcion.getEstudiante() != null) {
-                                bodyMap.put("estudianteId", inscripcion.getEstudiante().getId());
+        /**
+         * Ocupa o libera un cupo según el cambio de estado de una inscripción.
+         * El cupo liberado se asigna al primer estudiante de la lista de espera.
+         */
+        private void ajustarCupo(String cursoId, boolean antes, boolean despues) {
+                if (!antes && despues) {
+                        ocuparCupo(cursoId);
+                } else if (antes && !despues && cursoRepository.liberarCupo(cursoId) == 1) {
+                        disponibilidadCursoService.registrarCambioInscritos(cursoId, -1);
+                        Inscripcion promovida = listaEsperaService.promoverSiguiente(cursoId);
+                        if (promovida != null) {
+                                notaFinalService.invalidarCurso(cursoId);
                         }
+                }
+        }
 
-                        log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-                        auditProducer.sendAuditLog(log);
-                } catch (Exception e) {
-                        System.err.println("Error sending audit log: " + e.getMessage());
-                        e.printStackTrace();
+        /**
+         * Ocupa un cupo con un UPDATE condicional; si el curso está lleno la transacción
+         * se revierte con el error.
+         */
+        private void ocuparCupo(String cursoId) {
+                if (cursoRepository.ocuparCupo(cursoId) == 0) {
+                        throw new IllegalArgumentException("El curso no tiene cupos disponibles");
                 }
+                disponibilidadCursoService.registrarCambioInscritos(cursoId, 1);
         }
 
         /**
          * Elimina permanentemente una inscripción.
          */
         public void permanentDeleteInscripcion(String id) {
-                if (!inscripcionRepository.existsById(id)) {
-                        throw new ResourceNotFoundException("Inscripción no encontrada con ID: " + id);
-                }
-                inscripcionRepository.deleteById(id);
+                Inscripcion inscripcion = inscripcionRepository.findByIdParaActualizar(id)
+                                .orElseThrow(() -> new ResourceNotFoundException("Inscripción no encontrada con ID: " + id));
+                inscripcionRepository.delete(inscripcion);
+                ajustarCupo(inscripcion.getCurso().getId(), ocupaCupo(inscripcion), false);
+                notaFinalService.invalidarCurso(inscripcion.getCurso().getId());
+                horarioSemanalService.invalidarEstudiante(inscripcion.getEstudiante().getId());
         }
 
         /**
          * Restaura una inscripción eliminada lógicamente.
          */
         public InscripcionResponse restoreInscripcion(String id) {
-                Inscripcion inscripcion = inscripcionRepository.findById(id)
+                Inscripcion inscripcion = inscripcionRepository.findByIdIncluyendoEliminadasParaActualizar(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Inscripción no encontrada con ID: " + id));
+                boolean ocupabaCupo = ocupaCupo(inscripcion);
                 inscripcion.setDeletedAt(null);
+                ajustarCupo(inscripcion.getCurso().getId(), ocupabaCupo, ocupaCupo(inscripcion));
                 Inscripcion restoredInscripcion = inscripcionRepository.save(inscripcion);
+                notaFinalService.invalidarCurso(restoredInscripcion.getCurso().getId());
+                horarioSemanalService.invalidarEstudiante(restoredInscripcion.getEstudiante().getId());
                 return inscripcionMapper.toResponse(restoredInscripcion);
         }
 }
@@ -0,0 +1,390 @@
+package com.example.api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.response.ListaEsperaResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.model.Curso;
+import com.example.api.model.Estudiante;
+import com.example.api.model.Inscripcion;
+import com.example.api.model.Inscripcion.EstadoInscripcion;
+import com.example.api.model.ListaEspera;
+import com.example.api.repository.CursoRepository;
+import com.example.api.repository.InscripcionRepository;
+import com.example.api.repository.ListaEsperaRepository;
+import com.example.api.repository.ListaEsperaRepository.SolicitudEnCola;
+
+/**
+ * Servicio de listas de espera de inscripción por curso.
+ *
+ * La tabla lista_espera es la fuente de verdad y define el orden (solicitadoAt, id).
+ * Para responder la posición de un estudiante en O(log n) se mantiene en memoria,
+ * por curso, un árbol de Fenwick sobre el orden de llegada. Cada cambio de la lista
+ * incrementa cursos.version_lista_espera en la misma transacción y se aplica en memoria
+ * después del commit solo si la cola estaba en la versión anterior; si no (cambios de
+ * otra instancia o commits en otro orden) la cola se descarta. Las consultas comparan
+ * la versión de la cola con la de la tabla y la vuelven a cargar si no coinciden.
+ */
+@Service
+@Transactional
+public class ListaEsperaService {
+
+    private final ListaEsperaRepository listaEsperaRepository;
+    private final InscripcionRepository inscripcionRepository;
+    private final CursoRepository cursoRepository;
+    private final DisponibilidadCursoService disponibilidadCursoService;
+    private final HorarioSemanalService horarioSemanalService;
+
+    private final Map<String, ColaEspera> colas = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public ListaEsperaService(ListaEsperaRepository listaEsperaRepository,
+            InscripcionRepository inscripcionRepository,
+            CursoRepository cursoRepository,
+            DisponibilidadCursoService disponibilidadCursoService,
+            HorarioSemanalService horarioSemanalService) {
+        this.listaEsperaRepository = listaEsperaRepository;
+        this.inscripcionRepository = inscripcionRepository;
+        this.cursoRepository = cursoRepository;
+        this.disponibilidadCursoService = disponibilidadCursoService;
+        this.horarioSemanalService = horarioSemanalService;
+    }
+
+    /**
+     * Agrega un estudiante al final de la lista de espera de un curso.
+     * Si ya estaba en espera devuelve su posición actual.
+     */
+    public ListaEsperaResponse encolar(Curso curso, Estudiante estudiante) {
+        ListaEspera existente = listaEsperaRepository
+                .findByCursoIdAndEstudianteId(curso.getId(), estudiante.getId())
+                .orElse(null);
+        if (existente != null) {
+            return toResponse(existente);
+        }
+        if (inscripcionRepository.countAnyByEstudianteAndCurso(estudiante.getId(), curso.getId()) > 0) {
+            throw new IllegalArgumentException("El estudiante ya tiene una inscripción en este curso");
+        }
+
+        String cursoId = curso.getId();
+        String estudianteId = estudiante.getId();
+        // Se incrementa antes de fijar solicitadoAt: con la fila del curso bloqueada las
+        // solicitudes del curso llegan en orden
+        long version = incrementarVersion(cursoId);
+
+        ListaEspera solicitud = new ListaEspera();
+        solicitud.setCurso(curso);
+        solicitud.setEstudiante(estudiante);
+        // DATETIME(6) guarda microsegundos: se trunca para que la clave en memoria coincida con la tabla
+        solicitud.setSolicitadoAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        ListaEspera saved = listaEsperaRepository.saveAndFlush(solicitud);
+
+        String solicitudId = saved.getId();
+        LocalDateTime solicitadoAt = saved.getSolicitadoAt();
+        TransaccionUtils.despuesDelCommit(() -> colas.computeIfPresent(cursoId,
+                (id, cola) -> cola.agregar(version, estudianteId, solicitadoAt, solicitudId) ? cola : null));
+
+        // Si la cola está en la versión anterior, la solicitud queda al final de ella
+        ColaEspera cola = colas.get(cursoId);
+        int posicion = cola == null ? 0 : cola.posicionAlFinal(version, solicitadoAt, solicitudId);
+        if (posicion > 0) {
+            return new ListaEsperaResponse(cursoId, estudianteId, posicion, posicion, solicitadoAt);
+        }
+        posicion = (int) listaEsperaRepository.countAnteriores(cursoId, solicitadoAt, solicitudId) + 1;
+        int total = (int) listaEsperaRepository.countByCursoId(cursoId);
+        return new ListaEsperaResponse(cursoId, estudianteId, posicion, total, solicitadoAt);
+    }
+
+    /**
+     * Obtiene la posición de un estudiante en la lista de espera de un curso.
+     */
+    @Transactional(readOnly = true)
+    public ListaEsperaResponse getPosicion(String cursoId, String estudianteId) {
+        ListaEspera solicitud = listaEsperaRepository.findByCursoIdAndEstudianteId(cursoId, estudianteId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "El estudiante no está en la lista de espera del curso"));
+        return toResponse(solicitud);
+    }
+
+    /**
+     * Obtiene las primeras solicitudes de la lista de espera de un curso.
+     */
+    @Transactional(readOnly = true)
+    public List<ListaEsperaResponse> getListaCurso(String cursoId, int limite) {
+        List<ListaEspera> solicitudes = listaEsperaRepository.findPrimerasByCursoId(cursoId,
+                PageRequest.of(0, Math.max(1, Math.min(limite, 500))));
+        int total = (int) listaEsperaRepository.countByCursoId(cursoId);
+        List<ListaEsperaResponse> respuesta = new ArrayList<>(solicitudes.size());
+        for (int i = 0; i < solicitudes.size(); i++) {
+            ListaEspera solicitud = solicitudes.get(i);
+            respuesta.add(new ListaEsperaResponse(cursoId, solicitud.getEstudiante().getId(), i + 1,
+                    Math.max(total, solicitudes.size()), solicitud.getSolicitadoAt()));
+        }
+        return respuesta;
+    }
+
+    /**
+     * Cancela la solicitud de un estudiante.
+     */
+    public void cancelar(String cursoId, String estudianteId) {
+        if (!retirar(cursoId, estudianteId)) {
+            throw new ResourceNotFoundException("El estudiante no está en la lista de espera del curso");
+        }
+    }
+
+    /**
+     * Retira a un estudiante de la lista de espera si estaba en ella
+     * (por ejemplo, porque se inscribió directamente).
+     *
+     * @return true si había una solicitud
+     */
+    public boolean retirar(String cursoId, String estudianteId) {
+        if (listaEsperaRepository.deleteByCursoIdAndEstudianteId(cursoId, estudianteId) == 0) {
+            return false;
+        }
+        retirarDeCola(cursoId, estudianteId);
+        return true;
+    }
+
+    /**
+     * Retira a un estudiante de todas las listas de espera (por ejemplo, antes de
+     * eliminarlo definitivamente).
+     */
+    public void retirarDeTodas(String estudianteId) {
+        for (String cursoId : listaEsperaRepository.findCursoIdsByEstudianteId(estudianteId)) {
+            retirar(cursoId, estudianteId);
+        }
+    }
+
+    /**
+     * Ocupa el cupo recién liberado de un curso con la primera solicitud válida de la
+     * lista de espera, dentro de la transacción actual.
+     *
+     * @return Inscripción creada, o null si la lista estaba vacía o no quedaba cupo
+     */
+    public Inscripcion promoverSiguiente(String cursoId) {
+        if (cursoRepository.ocuparCupo(cursoId) == 0) {
+            return null;
+        }
+
+        while (true) {
+            List<ListaEspera> siguiente = listaEsperaRepository.findSiguienteParaPromover(cursoId,
+                    PageRequest.of(0, 1));
+            if (siguiente.isEmpty()) {
+                cursoRepository.liberarCupo(cursoId);
+                return null;
+            }
+
+            ListaEspera solicitud = siguiente.get(0);
+            String estudianteId = solicitud.getEstudiante().getId();
+            listaEsperaRepository.delete(solicitud);
+            retirarDeCola(cursoId, estudianteId);
+
+            // Se descartan solicitudes de estudiantes que ya tienen una inscripción en el curso
+            if (inscripcionRepository.countAnyByEstudianteAndCurso(estudianteId, cursoId) > 0) {
+                continue;
+            }
+
+            Inscripcion inscripcion = new Inscripcion();
+            inscripcion.setCurso(solicitud.getCurso());
+            inscripcion.setEstudiante(solicitud.getEstudiante());
+            inscripcion.setFechaInscripcion(LocalDate.now());
+            inscripcion.setEstado(EstadoInscripcion.inscrito);
+            disponibilidadCursoService.registrarCambioInscritos(cursoId, 1);
+            horarioSemanalService.invalidarEstudiante(estudianteId);
+            return inscripcionRepository.save(inscripcion);
+        }
+    }
+
+    private ListaEsperaResponse toResponse(ListaEspera solicitud) {
+        String cursoId = solicitud.getCurso().getId();
+        String estudianteId = solicitud.getEstudiante().getId();
+        long version = cursoRepository.findVersionListaEspera(cursoId).orElse(-1L);
+        ColaEspera cola = colas.get(cursoId);
+        int posicion = cola == null ? 0 : cola.posicion(version, estudianteId);
+        if (posicion == 0) {
+            // La cola en memoria no está en la versión de la tabla: se vuelve a cargar.
+            // Versión y filas se leen en la misma instantánea de la transacción.
+            cola = new ColaEspera(version, listaEsperaRepository.findColaByCursoId(cursoId));
+            colas.merge(cursoId, cola, (actual, nueva) -> actual.version() >= nueva.version() ? actual : nueva);
+            posicion = cola.posicion(version, estudianteId);
+        }
+        return new ListaEsperaResponse(cursoId, estudianteId, posicion, cola.total(), solicitud.getSolicitadoAt());
+    }
+
+    private long incrementarVersion(String cursoId) {
+        cursoRepository.incrementarVersionListaEspera(cursoId);
+        return cursoRepository.findVersionListaEspera(cursoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId));
+    }
+
+    private void retirarDeCola(String cursoId, String estudianteId) {
+        long version = incrementarVersion(cursoId);
+        TransaccionUtils.despuesDelCommit(() -> colas.computeIfPresent(cursoId,
+                (id, cola) -> cola.retirar(version, estudianteId) ? cola : null));
+    }
+
+    /**
+     * Cola de espera de un curso. Cada estudiante ocupa una casilla en orden de llegada
+     * y un árbol de Fenwick cuenta las casillas ocupadas, de modo que la posición es la
+     * suma de prefijos hasta su casilla: O(log n) para agregar, retirar y consultar.
+     * Cuando se agotan las casillas se compacta conservando el orden. Solo se agrega al
+     * final: una solicitud anterior a la última (commits en distinto orden que
+     * solicitadoAt) no se puede ubicar y obliga a recargar la cola. La versión es la
+     * de cursos.version_lista_espera que refleja la cola.
+     */
+    private static final class ColaEspera {
+
+        private static final int CAPACIDAD_MINIMA = 16;
+
+        private final Map<String, Integer> casillas = new HashMap<>();
+        private String[] estudiantes;
+        private int[] arbol;
+        private int usadas;
+        private LocalDateTime ultimaSolicitadoAt;
+        private String ultimaSolicitudId;
+        private long version;
+
+        ColaEspera(long version, List<SolicitudEnCola> ordenadas) {
+            this.version = version;
+            inicializar(Math.max(CAPACIDAD_MINIMA, ordenadas.size() * 2));
+            for (SolicitudEnCola solicitud : ordenadas) {
+                agregarAlFinal(solicitud.getEstudianteId(), solicitud.getSolicitadoAt(), solicitud.getId());
+            }
+        }
+
+        /**
+         * Agrega la solicitud confirmada con la versión indicada.
+         *
+         * @return false si la cola no estaba en la versión anterior o la solicitud va
+         *         antes de la última agregada; en ambos casos la cola ya no sirve
+         */
+        synchronized boolean agregar(long nuevaVersion, String estudianteId, LocalDateTime solicitadoAt,
+                String solicitudId) {
+            if (version != nuevaVersion - 1 || !agregarAlFinal(estudianteId, solicitadoAt, solicitudId)) {
+                return false;
+            }
+            version = nuevaVersion;
+            return true;
+        }
+
+        /**
+         * Retira al estudiante por el cambio confirmado con la versión indicada.
+         *
+         * @return false si la cola no estaba en la versión anterior y ya no sirve
+         */
+        synchronized boolean retirar(long nuevaVersion, String estudianteId) {
+            if (version != nuevaVersion - 1) {
+                return false;
+            }
+            Integer casilla = casillas.remove(estudianteId);
+            if (casilla != null) {
+                estudiantes[casilla] = null;
+                sumar(casilla, -1);
+            }
+            version = nuevaVersion;
+            return true;
+        }
+
+        /**
+         * Posición (1 = primero) del estudiante, o 0 si no está en la cola o la cola no
+         * está en la versión indicada.
+         */
+        synchronized int posicion(long versionTabla, String estudianteId) {
+            Integer casilla = casillas.get(estudianteId);
+            return casilla == null || version != versionTabla ? 0 : prefijo(casilla);
+        }
+
+        /**
+         * Posición que tendría una solicitud agregada con la versión indicada, o 0 si la
+         * cola no estaba en la versión anterior o la solicitud no va al final.
+         */
+        synchronized int posicionAlFinal(long nuevaVersion, LocalDateTime solicitadoAt, String solicitudId) {
+            return version == nuevaVersion - 1 && vaAlFinal(solicitadoAt, solicitudId) ? casillas.size() + 1 : 0;
+        }
+
+        synchronized int total() {
+            return casillas.size();
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        private boolean vaAlFinal(LocalDateTime solicitadoAt, String solicitudId) {
+            if (ultimaSolicitadoAt == null) {
+                return true;
+            }
+            int orden = solicitadoAt.compareTo(ultimaSolicitadoAt);
+            return orden > 0 || (orden == 0 && solicitudId.compareTo(ultimaSolicitudId) > 0);
+        }
+
+        private boolean agregarAlFinal(String estudianteId, LocalDateTime solicitadoAt, String solicitudId) {
+            if (casillas.containsKey(estudianteId)) {
+                return true;
+            }
+            if (!vaAlFinal(solicitadoAt, solicitudId)) {
+                return false;
+            }
+            if (usadas == estudiantes.length - 1) {
+                compactar();
+            }
+            int casilla = ++usadas;
+            estudiantes[casilla] = estudianteId;
+            casillas.put(estudianteId, casilla);
+            sumar(casilla, 1);
+            ultimaSolicitadoAt = solicitadoAt;
+            ultimaSolicitudId = solicitudId;
+            return true;
+        }
+
+        private void inicializar(int capacidad) {
+            estudiantes = new String[capacidad + 1];
+            arbol = new int[capacidad + 1];
+            usadas = 0;
+            casillas.clear();
+        }
+
+        private void compactar() {
+            List<String> vigentes = new ArrayList<>(casillas.size());
+            for (int i = 1; i <= usadas; i++) {
+                if (estudiantes[i] != null) {
+                    vigentes.add(estudiantes[i]);
+                }
+            }
+            inicializar(Math.max(CAPACIDAD_MINIMA, vigentes.size() * 2));
+            for (String estudianteId : vigentes) {
+                int casilla = ++usadas;
+                estudiantes[casilla] = estudianteId;
+                casillas.put(estudianteId, casilla);
+                sumar(casilla, 1);
+            }
+        }
+
+        private void sumar(int casilla, int valor) {
+            for (int i = casilla; i < arbol.length; i += i & -i) {
+                arbol[i] += valor;
+            }
+        }
+
+        private int prefijo(int casilla) {
+            int suma = 0;
+            for (int i = casilla; i > 0; i -= i & -i) {
+                suma += arbol[i];
+            }
+            return suma;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Motor de búsqueda de horarios.
+ *
+ * Cada sesión de curso recibe una franja (día y bloque) y un aula sin que dos sesiones
+ * que se solapan en el tiempo compartan aula, profesor o curso, y solo en franjas en las
+ * que su profesor está disponible. Varios hilos de un ForkJoinPool buscan en paralelo con
+ * semillas distintas: cada uno construye una asignación voraz (sesiones más restringidas
+ * primero) y la repara con búsqueda local de mínimos conflictos con lista tabú. Termina
+ * cuando un hilo llega a cero choques, se agota el tiempo o se cancela.
+ *
+ * Los datos llegan ya convertidos a índices enteros; el motor no accede a la base de datos.
+ */
+public class MotorHorarios {
+
+    /** Peso de un choque frente a las preferencias (aula por defecto, días distintos). */
+    private static final int PESO_CHOQUE = 1000;
+    private static final double PROBABILIDAD_RUIDO = 0.05;
+    private static final int TENENCIA_TABU = 10;
+
+    /**
+     * Problema expresado con índices.
+     *
+     * @param cursoDeSesion        curso de cada sesión
+     * @param profesorDeSesion     profesor de cada sesión (-1 si el curso no tiene profesor)
+     * @param aulaPreferida        aula preferida de cada sesión (-1 si no tiene)
+     * @param franjasPermitidas    franjas permitidas de cada sesión
+     * @param diaDeFranja          día (índice) de cada franja
+     * @param franjasSolapadas     para cada franja, las franjas que se solapan con ella (incluida)
+     */
+    public record Problema(int cursos, int profesores, int aulas, int dias,
+            int[] cursoDeSesion, int[] profesorDeSesion, int[] aulaPreferida,
+            int[][] franjasPermitidas, int[] diaDeFranja, int[][] franjasSolapadas) {
+
+        public int sesiones() {
+            return cursoDeSesion.length;
+        }
+
+        public int franjas() {
+            return diaDeFranja.length;
+        }
+    }
+
+    /**
+     * Mejor asignación encontrada: franja y aula de cada sesión.
+     */
+    public record Solucion(int[] franja, int[] aula, int conflictos) {
+    }
+
+    private final Problema problema;
+    private final int hilos;
+    private final long presupuestoNanos;
+
+    private final LongAdder iteraciones = new LongAdder();
+    private final AtomicInteger mejoresConflictos = new AtomicInteger(Integer.MAX_VALUE);
+    private volatile boolean detener;
+    private volatile long inicio;
+    private Solucion mejor;
+
+    public MotorHorarios(Problema problema, int hilos, long presupuestoMillis) {
+        this.problema = problema;
+        this.hilos = Math.max(1, hilos);
+        this.presupuestoNanos = TimeUnit.MILLISECONDS.toNanos(presupuestoMillis);
+    }
+
+    /**
+     * Ejecuta la búsqueda y devuelve la mejor asignación encontrada.
+     */
+    public Solucion resolver() {
+        inicio = System.nanoTime();
+        long limite = inicio + presupuestoNanos;
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            List<ForkJoinTask<?>> tareas = new ArrayList<>(hilos);
+            for (int i = 0; i < hilos; i++) {
+                long semilla = 0x9E3779B97F4A7C15L * (i + 1);
+                tareas.add(pool.submit(() -> buscar(new SplittableRandom(semilla), limite)));
+            }
+            for (ForkJoinTask<?> tarea : tareas) {
+                tarea.join();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return mejor();
+    }
+
+    /** Solicita a los hilos que terminen en la siguiente iteración. */
+    public void cancelar() {
+        detener = true;
+    }
+
+    public long iteraciones() {
+        return iteraciones.sum();
+    }
+
+    /** Choques de la mejor asignación hasta ahora, o null si todavía no hay ninguna. */
+    public Integer mejoresConflictos() {
+        int valor = mejoresConflictos.get();
+        return valor == Integer.MAX_VALUE ? null : valor;
+    }
+
+    public long milisegundos() {
+        return inicio == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    public int hilos() {
+        return hilos;
+    }
+
+    private synchronized Solucion mejor() {
+        return mejor;
+    }
+
+    private synchronized void publicar(Estado estado, int conflictos) {
+        if (mejor == null || conflictos < mejor.conflictos()) {
+            mejor = new Solucion(estado.franja.clone(), estado.aula.clone(), conflictos);
+            mejoresConflictos.set(conflictos);
+        }
+    }
+
+    private void buscar(SplittableRandom random, long limite) {
+        Estado estado = new Estado();
+        estado.construir(random);
+        int conflictos = estado.conflictosTotales();
+        publicar(estado, conflictos);
+
+        int[] tabuHasta = new int[problema.sesiones() * problema.franjas()];
+        int[] enConflicto = new int[problema.sesiones()];
+        int iteracion = 0;
+        int mejorLocal = conflictos;
+
+        while (!detener && conflictos > 0 && System.nanoTime() < limite) {
+            int total = 0;
+            int suma = 0;
+            for (int s = 0; s < problema.sesiones(); s++) {
+                int choques = estado.conflictosActuales(s);
+                if (choques > 0) {
+                    enConflicto[total++] = s;
+                    suma += choques;
+                }
+            }
+            conflictos = suma / 2;
+            if (conflictos < mejorLocal) {
+                mejorLocal = conflictos;
+                publicar(estado, conflictos);
+            }
+            if (total == 0) {
+                break;
+            }
+
+            int sesion = enConflicto[random.nextInt(total)];
+            int franjaAnterior = estado.franja[sesion];
+            estado.mover(sesion, random, tabuHasta, iteracion);
+            tabuHasta[sesion * problema.franjas() + franjaAnterior] = iteracion + TENENCIA_TABU
+                    + random.nextInt(TENENCIA_TABU);
+            iteracion++;
+            iteraciones.increment();
+        }
+
+        conflictos = estado.conflictosTotales();
+        publicar(estado, conflictos);
+        if (conflictos == 0) {
+            detener = true;
+        }
+    }
+
+    /**
+     * Asignación de un hilo con los contadores de uso por aula, profesor y curso en cada franja.
+     */
+    private final class Estado {
+
+        final int[] franja = new int[problema.sesiones()];
+        final int[] aula = new int[problema.sesiones()];
+        final int[][] usoAula = new int[problema.aulas()][problema.franjas()];
+        final int[][] usoProfesor = new int[problema.profesores()][problema.franjas()];
+        final int[][] usoCurso = new int[problema.cursos()][problema.franjas()];
+        final int[][] sesionesPorDia = new int[problema.cursos()][problema.dias()];
+
+        Estado() {
+            Arrays.fill(franja, -1);
+            Arrays.fill(aula, -1);
+        }
+
+        /**
+         * Asignación inicial voraz: primero las sesiones con menos franjas permitidas y
+         * cuyo profesor tiene más carga; los empates se rompen al azar.
+         */
+        void construir(SplittableRandom random) {
+            int[] cargaProfesor = new int[problema.profesores()];
+            for (int p : problema.profesorDeSesion()) {
+                if (p >= 0) {
+                    cargaProfesor[p]++;
+                }
+            }
+            List<Integer> orden = new ArrayList<>(problema.sesiones());
+            for (int s = 0; s < problema.sesiones(); s++) {
+                orden.add(s);
+            }
+            for (int i = orden.size() - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer tmp = orden.get(i);
+                orden.set(i, orden.get(j));
+                orden.set(j, tmp);
+            }
+            orden.sort(Comparator
+                    .comparingInt((Integer s) -> problema.franjasPermitidas()[s].length)
+                    .thenComparingInt(s -> {
+                        int p = problema.profesorDeSesion()[s];
+                        return p >= 0 ? -cargaProfesor[p] : 0;
+                    }));
+            for (int s : orden) {
+                colocarMejor(s, random, null, 0);
+            }
+        }
+
+        /**
+         * Mueve la sesión a la franja y aula de menor costo que no sea tabú; con una
+         * probabilidad pequeña elige una posición al azar para salir de mínimos locales.
+         */
+        void mover(int sesion, SplittableRandom random, int[] tabuHasta, int iteracion) {
+            quitar(sesion);
+            if (random.nextDouble() < PROBABILIDAD_RUIDO) {
+                int[] permitidas = problema.franjasPermitidas()[sesion];
+                colocar(sesion, permitidas[random.nextInt(permitidas.length)], random.nextInt(problema.aulas()));
+            } else {
+                colocarMejor(sesion, random, tabuHasta, iteracion);
+            }
+        }
+
+        private void colocarMejor(int sesion, SplittableRandom random, int[] tabuHasta, int iteracion) {
+            int curso = problema.cursoDeSesion()[sesion];
+            int profesor = problema.profesorDeSesion()[sesion];
+            int preferida = problema.aulaPreferida()[sesion];
+
+            long mejorCosto = Long.MAX_VALUE;
+            int mejorFranja = -1;
+            int mejorAula = -1;
+            int empates = 0;
+
+            for (int t : problema.franjasPermitidas()[sesion]) {
+                // Choques de profesor y curso: no dependen del aula
+                int base = 0;
+                for (int v : problema.franjasSolapadas()[t]) {
+                    base += usoCurso[curso][v];
+                    if (profesor >= 0) {
+                        base += usoProfesor[profesor][v];
+                    }
+                }
+                boolean tabu = tabuHasta != null && tabuHasta[sesion * problema.franjas() + t] > iteracion;
+                int mismoDia = sesionesPorDia[curso][problema.diaDeFranja()[t]];
+
+                for (int a = 0; a < problema.aulas(); a++) {
+                    int choques = base;
+                    for (int v : problema.franjasSolapadas()[t]) {
+                        choques += usoAula[a][v];
+                    }
+                    // Un movimiento tabú solo se acepta si no deja choques para esta sesión
+                    if (tabu && choques > 0) {
+                        continue;
+                    }
+                    long costo = (long) choques * PESO_CHOQUE + mismoDia + (preferida >= 0 && a != preferida ? 1 : 0);
+                    if (costo < mejorCosto) {
+                        mejorCosto = costo;
+                        mejorFranja = t;
+                        mejorAula = a;
+                        empates = 1;
+                    } else if (costo == mejorCosto && random.nextInt(++empates) == 0) {
+                        mejorFranja = t;
+                        mejorAula = a;
+                    }
+                }
+            }
+
+            if (mejorFranja < 0) {
+                int[] permitidas = problema.franjasPermitidas()[sesion];
+                mejorFranja = permitidas[random.nextInt(permitidas.length)];
+                mejorAula = random.nextInt(problema.aulas());
+            }
+            colocar(sesion, mejorFranja, mejorAula);
+        }
+
+        void colocar(int sesion, int t, int a) {
+            franja[sesion] = t;
+            aula[sesion] = a;
+            actualizar(sesion, 1);
+        }
+
+        void quitar(int sesion) {
+            actualizar(sesion, -1);
+            franja[sesion] = -1;
+            aula[sesion] = -1;
+        }
+
+        private void actualizar(int sesion, int delta) {
+            int t = franja[sesion];
+            int curso = problema.cursoDeSesion()[sesion];
+            int profesor = problema.profesorDeSesion()[sesion];
+            usoAula[aula[sesion]][t] += delta;
+            usoCurso[curso][t] += delta;
+            if (profesor >= 0) {
+                usoProfesor[profesor][t] += delta;
+            }
+            sesionesPorDia[curso][problema.diaDeFranja()[t]] += delta;
+        }
+
+        /** Choques de una sesión ya colocada con las demás. */
+        int conflictosActuales(int sesion) {
+            int t = franja[sesion];
+            int curso = problema.cursoDeSesion()[sesion];
+            int profesor = problema.profesorDeSesion()[sesion];
+            int a = aula[sesion];
+            int choques = 0;
+            for (int v : problema.franjasSolapadas()[t]) {
+                choques += usoAula[a][v] + usoCurso[curso][v];
+                if (profesor >= 0) {
+                    choques += usoProfesor[profesor][v];
+                }
+            }
+            // La propia sesión cuenta una vez en cada contador de su franja
+            return choques - (profesor >= 0 ? 3 : 2);
+        }
+
+        /** Número de pares de sesiones que chocan (cada par cuenta una vez por recurso). */
+        int conflictosTotales() {
+            int total = 0;
+            for (int s = 0; s < problema.sesiones(); s++) {
+                total += conflictosActuales(s);
+            }
+            return total / 2;
+        }
+    }
+}
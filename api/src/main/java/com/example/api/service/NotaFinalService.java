@@ -0,0 +1,396 @@
+package com.example.api.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.response.NotaFinalResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.model.Inscripcion.EstadoInscripcion;
+import com.example.api.model.TiposPonderacionCurso;
+import com.example.api.repository.ActividadRepository;
+import com.example.api.repository.ActividadRepository.PesoActividad;
+import com.example.api.repository.CalificacionRepository;
+import com.example.api.repository.CalificacionRepository.NotaEvaluacion;
+import com.example.api.repository.CursoRepository;
+import com.example.api.repository.EntregasActividadRepository;
+import com.example.api.repository.EntregasActividadRepository.NotaEntrega;
+import com.example.api.repository.EvaluacionRepository;
+import com.example.api.repository.EvaluacionRepository.PesoEvaluacion;
+import com.example.api.repository.InscripcionRepository;
+import com.example.api.repository.TiposPonderacionCursoRepository;
+
+/**
+ * Servicio que calcula la nota final ponderada de los estudiantes de un curso.
+ *
+ * Reglas de cálculo:
+ * - Cada evaluación y actividad pertenece a un tipo de ponderación del curso
+ * (TiposPonderacionCurso) o a la categoría implícita "Sin ponderación".
+ * - Dentro de una ponderación, cada elemento pesa según su campo peso; si ningún
+ * elemento de la ponderación tiene peso, todos pesan lo mismo. Un elemento sin
+ * nota cuenta como 0.
+ * - La nota final es el promedio de las notas por ponderación ponderado por
+ * pesoPorcentaje. La categoría "Sin ponderación" recibe el porcentaje que no fue
+ * asignado (100 si el curso no define ponderaciones). Solo participan las
+ * ponderaciones que tienen al menos un elemento.
+ *
+ * El curso completo se calcula en una sola pasada sobre arreglos primitivos
+ * (estudiantes × ponderaciones) y el resultado se guarda en caché por curso hasta
+ * que cambie una nota, un peso, una ponderación o la lista de inscritos. Los cambios
+ * hechos en otra instancia no invalidan esta caché, por eso cada entrada expira tras
+ * 'cache-ttl-seconds' y el número de cursos en caché está acotado.
+ *
+ * Las lecturas se hacen fuera de cualquier transacción (cada consulta ve los últimos
+ * datos confirmados) y la versión del curso se lee antes de la primera consulta: una
+ * transacción con un snapshot anterior a la versión leída podría guardar en caché
+ * notas que ya estaban invalidadas.
+ */
+@Service
+public class NotaFinalService {
+
+    private static final String SIN_PONDERACION = "Sin ponderación";
+
+    private final CursoRepository cursoRepository;
+    private final TiposPonderacionCursoRepository tiposPonderacionCursoRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final ActividadRepository actividadRepository;
+    private final CalificacionRepository calificacionRepository;
+    private final EntregasActividadRepository entregasActividadRepository;
+    private final InscripcionRepository inscripcionRepository;
+
+    // Caché cursoId -> notas finales calculadas
+    private final Map<String, NotasFinalesCurso> cache = new ConcurrentHashMap<>();
+    // Versión por curso para descartar cálculos que se cruzaron con una invalidación
+    private final Map<String, AtomicLong> versiones = new ConcurrentHashMap<>();
+
+    @Value("${app.notas-finales.cache-ttl-seconds:600}")
+    private long ttlCacheSegundos;
+
+    @Value("${app.notas-finales.cache-max-cursos:2000}")
+    private int maxCursosCache;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public NotaFinalService(CursoRepository cursoRepository,
+            TiposPonderacionCursoRepository tiposPonderacionCursoRepository,
+            EvaluacionRepository evaluacionRepository,
+            ActividadRepository actividadRepository,
+            CalificacionRepository calificacionRepository,
+            EntregasActividadRepository entregasActividadRepository,
+            InscripcionRepository inscripcionRepository) {
+        this.cursoRepository = cursoRepository;
+        this.tiposPonderacionCursoRepository = tiposPonderacionCursoRepository;
+        this.evaluacionRepository = evaluacionRepository;
+        this.actividadRepository = actividadRepository;
+        this.calificacionRepository = calificacionRepository;
+        this.entregasActividadRepository = entregasActividadRepository;
+        this.inscripcionRepository = inscripcionRepository;
+    }
+
+    /**
+     * Obtiene la nota final ponderada de todos los estudiantes de un curso.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<NotaFinalResponse> getNotasFinalesCurso(String cursoId) {
+        NotasFinalesCurso notas = obtener(cursoId);
+
+        List<NotaFinalResponse> resultado = new ArrayList<>(notas.estudianteIds.length);
+        for (int s = 0; s < notas.estudianteIds.length; s++) {
+            resultado.add(notas.toResponse(s));
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la nota final ponderada de un estudiante en un curso.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public NotaFinalResponse getNotaFinalEstudiante(String cursoId, String estudianteId) {
+        NotasFinalesCurso notas = obtener(cursoId);
+
+        Integer indice = notas.indiceEstudiante.get(estudianteId);
+        if (indice == null) {
+            throw new ResourceNotFoundException(
+                    "El estudiante " + estudianteId + " no tiene notas ni inscripción en el curso " + cursoId);
+        }
+        return notas.toResponse(indice);
+    }
+
+    /**
+     * Calcula (y deja en caché) las notas finales de todos los cursos de un periodo.
+     * Pensado para el cierre de notas de fin de periodo.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> cerrarNotasPeriodo(String periodoId) {
+        long inicio = System.nanoTime();
+
+        List<String> cursoIds = cursoRepository.findIdsByPeriodoId(periodoId);
+        long estudiantes = 0;
+        for (String cursoId : cursoIds) {
+            estudiantes += obtener(cursoId).estudianteIds.length;
+        }
+
+        Map<String, Object> resumen = new HashMap<>();
+        resumen.put("periodoId", periodoId);
+        resumen.put("cursosProcesados", cursoIds.size());
+        resumen.put("notasCalculadas", estudiantes);
+        resumen.put("duracionMs", (System.nanoTime() - inicio) / 1_000_000);
+        return resumen;
+    }
+
+    /**
+     * Descarta las notas finales en caché de un curso. Se invalida de inmediato y
+     * de nuevo al confirmar la transacción, para que una lectura concurrente no
+     * vuelva a guardar datos anteriores al cambio.
+     *
+     * @param cursoId ID del curso afectado (se ignora si es null)
+     */
+    public void invalidarCurso(String cursoId) {
+        if (cursoId == null) {
+            return;
+        }
+        descartar(cursoId);
+        TransaccionUtils.despuesDelCommit(() -> descartar(cursoId));
+    }
+
+    private void descartar(String cursoId) {
+        versiones.computeIfAbsent(cursoId, k -> new AtomicLong()).incrementAndGet();
+        cache.remove(cursoId);
+    }
+
+    private NotasFinalesCurso obtener(String cursoId) {
+        NotasFinalesCurso enCache = cache.get(cursoId);
+        if (enCache != null) {
+            if (!enCache.expirado(ttlCacheSegundos)) {
+                return enCache;
+            }
+            cache.remove(cursoId, enCache);
+        }
+
+        // Antes de cualquier consulta: todo commit posterior a esta lectura cambia la versión
+        AtomicLong version = versiones.computeIfAbsent(cursoId, k -> new AtomicLong());
+        long versionInicial = version.get();
+
+        if (!cursoRepository.existsById(cursoId)) {
+            throw new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId);
+        }
+
+        NotasFinalesCurso calculado = calcular(cursoId);
+
+        if (version.get() == versionInicial) {
+            liberarEspacio();
+            cache.put(cursoId, calculado);
+            // Si se invalidó mientras se guardaba, no conservar el resultado
+            if (version.get() != versionInicial) {
+                cache.remove(cursoId, calculado);
+            }
+        }
+        return calculado;
+    }
+
+    /**
+     * Si la caché está llena descarta las entradas expiradas y, si no alcanza, la
+     * calculada hace más tiempo.
+     */
+    private void liberarEspacio() {
+        if (cache.size() < Math.max(1, maxCursosCache)) {
+            return;
+        }
+        cache.values().removeIf(notas -> notas.expirado(ttlCacheSegundos));
+        while (cache.size() >= Math.max(1, maxCursosCache)) {
+            NotasFinalesCurso masAntigua = null;
+            for (NotasFinalesCurso notas : cache.values()) {
+                if (masAntigua == null || notas.calculadoEn - masAntigua.calculadoEn < 0) {
+                    masAntigua = notas;
+                }
+            }
+            if (masAntigua == null) {
+                return;
+            }
+            cache.remove(masAntigua.cursoId, masAntigua);
+        }
+    }
+
+    /**
+     * Calcula las notas finales del curso en una sola pasada.
+     */
+    private NotasFinalesCurso calcular(String cursoId) {
+        // 1. Ponderaciones del curso: índice 0..k-1 y la categoría implícita en k
+        List<TiposPonderacionCurso> ponderaciones = tiposPonderacionCursoRepository.findByCursoId(cursoId);
+        int k = ponderaciones.size();
+        int categorias = k + 1;
+
+        String[] nombres = new String[categorias];
+        double[] pesoCategoria = new double[categorias];
+        Map<String, Integer> indiceCategoria = new HashMap<>();
+        double asignado = 0;
+        for (int c = 0; c < k; c++) {
+            TiposPonderacionCurso ponderacion = ponderaciones.get(c);
+            nombres[c] = ponderacion.getNombre();
+            pesoCategoria[c] = ponderacion.getPesoPorcentaje().doubleValue();
+            indiceCategoria.put(ponderacion.getId(), c);
+            asignado += pesoCategoria[c];
+        }
+        nombres[k] = SIN_PONDERACION;
+        pesoCategoria[k] = k == 0 ? 100 : Math.max(0, 100 - asignado);
+
+        // 2. Elementos calificables (evaluaciones y actividades) con su peso bruto
+        List<PesoEvaluacion> evaluaciones = evaluacionRepository.findPesosByCursoId(cursoId);
+        List<PesoActividad> actividades = actividadRepository.findPesosByCursoId(cursoId);
+        int elementos = evaluaciones.size() + actividades.size();
+
+        int[] categoriaElemento = new int[elementos];
+        double[] pesoElemento = new double[elementos];
+        Map<String, Integer> indiceElemento = new HashMap<>(elementos * 2);
+        int e = 0;
+        for (PesoEvaluacion evaluacion : evaluaciones) {
+            registrarElemento(e++, evaluacion.getId(), evaluacion.getPonderacionId(), evaluacion.getPeso(), k,
+                    indiceCategoria, indiceElemento, categoriaElemento, pesoElemento);
+        }
+        for (PesoActividad actividad : actividades) {
+            registrarElemento(e++, actividad.getId(), actividad.getPonderacionId(), actividad.getPeso(), k,
+                    indiceCategoria, indiceElemento, categoriaElemento, pesoElemento);
+        }
+
+        // Si ningún elemento de una ponderación tiene peso, todos pesan lo mismo
+        double[] pesoBrutoCategoria = new double[categorias];
+        for (int i = 0; i < elementos; i++) {
+            pesoBrutoCategoria[categoriaElemento[i]] += pesoElemento[i];
+        }
+        double[] sumaPesosCategoria = new double[categorias];
+        for (int i = 0; i < elementos; i++) {
+            if (pesoBrutoCategoria[categoriaElemento[i]] <= 0) {
+                pesoElemento[i] = 1;
+            }
+            sumaPesosCategoria[categoriaElemento[i]] += pesoElemento[i];
+        }
+
+        // 3. Estudiantes: inscritos primero, luego cualquiera que tenga notas
+        Map<String, Integer> indiceEstudiante = new LinkedHashMap<>();
+        for (String estudianteId : inscripcionRepository.findEstudianteIdsByCursoId(cursoId,
+                EstadoInscripcion.retirado)) {
+            indiceEstudiante.putIfAbsent(estudianteId, indiceEstudiante.size());
+        }
+        List<NotaEvaluacion> notasEvaluaciones = calificacionRepository.findNotasByCursoId(cursoId);
+        List<NotaEntrega> notasEntregas = entregasActividadRepository.findNotasByCursoId(cursoId);
+        for (NotaEvaluacion nota : notasEvaluaciones) {
+            indiceEstudiante.putIfAbsent(nota.getEstudianteId(), indiceEstudiante.size());
+        }
+        for (NotaEntrega nota : notasEntregas) {
+            indiceEstudiante.putIfAbsent(nota.getEstudianteId(), indiceEstudiante.size());
+        }
+        int estudiantes = indiceEstudiante.size();
+
+        // 4. Una pasada sobre todas las notas acumulando peso * nota por estudiante y ponderación
+        double[] acumulado = new double[estudiantes * categorias];
+        for (NotaEvaluacion nota : notasEvaluaciones) {
+            acumular(acumulado, categorias, indiceElemento.get(nota.getItemId()),
+                    indiceEstudiante.get(nota.getEstudianteId()), nota.getNota(), categoriaElemento, pesoElemento);
+        }
+        for (NotaEntrega nota : notasEntregas) {
+            acumular(acumulado, categorias, indiceElemento.get(nota.getItemId()),
+                    indiceEstudiante.get(nota.getEstudianteId()), nota.getNota(), categoriaElemento, pesoElemento);
+        }
+
+        // 5. Nota por ponderación y nota final
+        boolean[] activa = new boolean[categorias];
+        double pesoActivo = 0;
+        for (int c = 0; c < categorias; c++) {
+            activa[c] = sumaPesosCategoria[c] > 0;
+            if (activa[c]) {
+                pesoActivo += pesoCategoria[c];
+            }
+        }
+
+        double[] notaCategoria = new double[estudiantes * categorias];
+        double[] notaFinal = new double[estudiantes];
+        for (int s = 0; s < estudiantes; s++) {
+            double total = 0;
+            for (int c = 0; c < categorias; c++) {
+                if (!activa[c]) {
+                    continue;
+                }
+                int celda = s * categorias + c;
+                notaCategoria[celda] = acumulado[celda] / sumaPesosCategoria[c];
+                total += pesoCategoria[c] * notaCategoria[celda];
+            }
+            notaFinal[s] = pesoActivo > 0 ? total / pesoActivo : 0;
+        }
+
+        return new NotasFinalesCurso(cursoId, indiceEstudiante.keySet().toArray(new String[0]), indiceEstudiante,
+                nombres, activa, notaCategoria, notaFinal);
+    }
+
+    private static void registrarElemento(int indice, String id, String ponderacionId, BigDecimal peso,
+            int categoriaImplicita, Map<String, Integer> indiceCategoria, Map<String, Integer> indiceElemento,
+            int[] categoriaElemento, double[] pesoElemento) {
+        Integer categoria = ponderacionId != null ? indiceCategoria.get(ponderacionId) : null;
+        categoriaElemento[indice] = categoria != null ? categoria : categoriaImplicita;
+        pesoElemento[indice] = peso != null && peso.signum() > 0 ? peso.doubleValue() : 0;
+        indiceElemento.put(id, indice);
+    }
+
+    private static void acumular(double[] acumulado, int categorias, Integer elemento, Integer estudiante,
+            BigDecimal nota, int[] categoriaElemento, double[] pesoElemento) {
+        if (elemento == null || estudiante == null || nota == null) {
+            return;
+        }
+        acumulado[estudiante * categorias + categoriaElemento[elemento]] += pesoElemento[elemento] * nota.doubleValue();
+    }
+
+    private static BigDecimal redondear(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Resultado calculado de un curso, guardado en arreglos primitivos.
+     */
+    private static final class NotasFinalesCurso {
+        final String cursoId;
+        final String[] estudianteIds;
+        final Map<String, Integer> indiceEstudiante;
+        final String[] nombresCategoria;
+        final boolean[] categoriaActiva;
+        final double[] notaCategoria;
+        final double[] notaFinal;
+        final long calculadoEn = System.nanoTime();
+
+        NotasFinalesCurso(String cursoId, String[] estudianteIds, Map<String, Integer> indiceEstudiante,
+                String[] nombresCategoria, boolean[] categoriaActiva, double[] notaCategoria, double[] notaFinal) {
+            this.cursoId = cursoId;
+            this.estudianteIds = estudianteIds;
+            this.indiceEstudiante = indiceEstudiante;
+            this.nombresCategoria = nombresCategoria;
+            this.categoriaActiva = categoriaActiva;
+            this.notaCategoria = notaCategoria;
+            this.notaFinal = notaFinal;
+        }
+
+        boolean expirado(long ttlSegundos) {
+            return System.nanoTime() - calculadoEn > ttlSegundos * 1_000_000_000L;
+        }
+
+        NotaFinalResponse toResponse(int s) {
+            int categorias = nombresCategoria.length;
+            Map<String, BigDecimal> porPonderacion = new LinkedHashMap<>();
+            for (int c = 0; c < categorias; c++) {
+                if (categoriaActiva[c]) {
+                    porPonderacion.put(nombresCategoria[c], redondear(notaCategoria[s * categorias + c]));
+                }
+            }
+            return new NotaFinalResponse(cursoId, estudianteIds[s], redondear(notaFinal[s]), porPonderacion);
+        }
+    }
+}
@@ -4,14 +4,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -35,8 +30,8 @@ public class PeriodoService {
 
     private final PeriodoRepository periodoRepository;
     private final PeriodoMapper periodoMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final HorarioSemanalService horarioSemanalService;
+    private final DisponibilidadCursoService disponibilidadCursoService;
 
     /**
      * Constructor con inyección de dependencias.
@@ -46,12 +41,12 @@ public class PeriodoService {
      */
     public PeriodoService(PeriodoRepository periodoRepository,
             PeriodoMapper periodoMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            HorarioSemanalService horarioSemanalService,
+            DisponibilidadCursoService disponibilidadCursoService) {
         this.periodoRepository = periodoRepository;
         this.periodoMapper = periodoMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.horarioSemanalService = horarioSemanalService;
+        this.disponibilidadCursoService = disponibilidadCursoService;
     }
 
     /**
@@ -140,6 +135,11 @@ public class PeriodoService {
      * @param request Datos del periodo a crear
      * @return El periodo creado
      */
+    @Audited(accion = "CREATE", entidad = "periodo", detalle = {
+            "periodoId=#result.id()",
+            "nombre=#result.nombre()",
+            "fechaInicio=#result.fechaInicio()?.toString()",
+            "fechaFin=#result.fechaFin()?.toString()" })
     public PeriodoResponse createPeriodo(CreatePeriodoRequest request, HttpServletRequest httpRequest) {
         // Validar que fechaFin sea posterior a fechaInicio
         if (request.fechaFin().isBefore(request.fechaInicio())) {
@@ -152,9 +152,6 @@ public class PeriodoService {
         // Guardar
         Periodo periodoGuardado = periodoRepository.save(periodo);
 
-        // Audit Log
-        logPeriodoAction("CREATE", periodoGuardado, httpRequest);
-
         return periodoMapper.toResponse(periodoGuardado);
     }
 
@@ -166,6 +163,11 @@ public class PeriodoService {
      * @return El periodo actualizado
      * @throws ResourceNotFoundException si el periodo no existe
      */
+    @Audited(accion = "UPDATE", entidad = "periodo", detalle = {
+            "periodoId=#result.id()",
+            "nombre=#result.nombre()",
+            "fechaInicio=#result.fechaInicio()?.toString()",
+            "fechaFin=#result.fechaFin()?.toString()" })
     public PeriodoResponse updatePeriodo(String id, UpdatePeriodoRequest request, HttpServletRequest httpRequest) {
         Periodo periodo = periodoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Periodo no encontrado con ID: " + id));
@@ -188,9 +190,8 @@ public class PeriodoService {
         }
 
         Periodo periodoActualizado = periodoRepository.save(periodo);
-
-        // Audit Log
-        logPeriodoAction("UPDATE", periodoActualizado, httpRequest);
+        horarioSemanalService.invalidarTodos();
+        disponibilidadCursoService.invalidar();
 
         return periodoMapper.toResponse(periodoActualizado);
     }
@@ -201,6 +202,7 @@ public class PeriodoService {
      * @param id El ID del periodo a eliminar
      * @throws ResourceNotFoundException si el periodo no existe
      */
+    @Audited(accion = "DELETE", entidad = "periodo", detalle = "periodoId=#id")
     public void deletePeriodo(String id, HttpServletRequest httpRequest) {
         Periodo periodo = periodoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Periodo no encontrado con ID: " + id));
@@ -208,9 +210,7 @@ public class PeriodoService {
         periodo.setDeletedAt(LocalDateTime.now());
         periodo.setActivo(false);
         periodoRepository.save(periodo);
-
-        // Audit Log
-        logPeriodoAction("DELETE", periodo, httpRequest);
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
@@ -224,6 +224,7 @@ public class PeriodoService {
             throw new ResourceNotFoundException("Periodo no encontrado con ID: " + id);
         }
         periodoRepository.deleteById(id);
+        horarioSemanalService.invalidarTodos();
     }
 
     /**
@@ -240,31 +241,7 @@ public class PeriodoService {
         periodo.setDeletedAt(null);
         periodo.setActivo(true);
         Periodo periodoRestaurado = periodoRepository.save(periodo);
+        horarioSemanalService.invalidarTodos();
         return periodoMapper.toResponse(periodoRestaurado);
     }
-
-    private void logPeriodoAction(String action, Periodo periodo, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("periodoId", periodo.getId());
-            bodyMap.put("nombre", periodo.getNombre());
-            bodyMap.put("fechaInicio", periodo.getFechaInicio().toString());
-            bodyMap.put("fechaFin", periodo.getFechaFin().toString());
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
@@ -0,0 +1,207 @@
+package com.example.api.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.api.repository.BoletinBatchRepository.CursoBoletin;
+import com.example.api.repository.BoletinBatchRepository.EstudianteBoletin;
+import com.example.api.repository.BoletinBatchRepository.ReporteBoletin;
+import com.example.api.service.DocumentoPdf.Fuente;
+import com.example.api.service.DocumentoPdf.Lienzo;
+
+/**
+ * Plantilla del boletín de un estudiante en un periodo (A4 vertical).
+ *
+ * La parte fija (encabezado de la institución, títulos y cabecera de la tabla) se compila
+ * una sola vez a operaciones de PDF al crear la plantilla; cada boletín solo escribe sus
+ * datos. La plantilla no guarda estado entre documentos y se puede usar desde varios
+ * hilos a la vez.
+ *
+ * El porcentaje de asistencia de un curso es (presentes + tardanzas) / registros.
+ */
+final class PlantillaBoletin {
+
+    private static final float MARGEN = 50f;
+    private static final float DERECHA = DocumentoPdf.ANCHO - MARGEN;
+    private static final float FILA = 16f;
+    private static final float LIMITE_INFERIOR = 70f;
+    private static final float INICIO_TABLA = 690f;
+    private static final float INICIO_CONTINUACION = 770f;
+    private static final DateTimeFormatter FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ROOT);
+
+    // Columnas de la tabla de cursos: posición x y ancho máximo de los textos; los números se alinean a la derecha
+    private static final float COL_ASIGNATURA = 54f;
+    private static final float COL_GRUPO = 200f;
+    private static final float COL_PROFESOR = 256f;
+    private static final float COL_NOTA = 420f;
+    private static final float COL_ASISTENCIA = 470f;
+    private static final float COL_AUSENCIAS = 508f;
+    private static final float COL_TARDANZAS = DERECHA - 4f;
+
+    private final byte[] encabezado;
+    private final byte[] cabeceraTabla;
+    private final String institucion;
+
+    PlantillaBoletin(String institucion) {
+        this.institucion = institucion;
+        this.encabezado = new Lienzo()
+                .texto(Fuente.NEGRITA, 16, MARGEN, 800, institucion)
+                .texto(Fuente.REGULAR, 12, MARGEN, 782, "Boletín de calificaciones")
+                .linea(MARGEN, 772, DERECHA, 772, 1f)
+                .toByteArray();
+        this.cabeceraTabla = compilarCabeceraTabla();
+    }
+
+    private static byte[] compilarCabeceraTabla() {
+        // Se compila con la línea base en y = 0 y se desplaza a su posición al usarse
+        return new Lienzo()
+                .rectangulo(MARGEN, -5, DERECHA - MARGEN, FILA + 2, 0.88f)
+                .texto(Fuente.NEGRITA, 9, COL_ASIGNATURA, 0, "Asignatura")
+                .texto(Fuente.NEGRITA, 9, COL_GRUPO, 0, "Grupo")
+                .texto(Fuente.NEGRITA, 9, COL_PROFESOR, 0, "Profesor")
+                .textoDerecha(Fuente.NEGRITA, 9, COL_NOTA, 0, "Nota")
+                .textoDerecha(Fuente.NEGRITA, 9, COL_ASISTENCIA, 0, "Asist.")
+                .textoDerecha(Fuente.NEGRITA, 9, COL_AUSENCIAS, 0, "Faltas")
+                .textoDerecha(Fuente.NEGRITA, 9, COL_TARDANZAS, 0, "Tardes")
+                .toByteArray();
+    }
+
+    /**
+     * Genera el PDF del boletín.
+     */
+    byte[] renderizar(DatosBoletin datos) {
+        DocumentoPdf documento = new DocumentoPdf("Boletín " + datos.periodo() + " - " + nombre(datos.estudiante()));
+        Lienzo pagina = documento.nuevaPagina().fragmento(encabezado);
+
+        String fechas = datos.inicio() != null && datos.fin() != null
+                ? " (" + FECHA.format(datos.inicio()) + " – " + FECHA.format(datos.fin()) + ")"
+                : "";
+        pagina.texto(Fuente.NEGRITA, 10, MARGEN, 752, "Periodo: ")
+                .texto(Fuente.REGULAR, 10, MARGEN + Fuente.NEGRITA.ancho("Periodo: ", 10), 752,
+                        datos.periodo() + fechas)
+                .textoDerecha(Fuente.REGULAR, 9, DERECHA, 752, "Emitido: " + FECHA.format(datos.emitido()))
+                .texto(Fuente.NEGRITA, 10, MARGEN, 736, "Estudiante: ")
+                .texto(Fuente.REGULAR, 10, MARGEN + Fuente.NEGRITA.ancho("Estudiante: ", 10), 736,
+                        nombre(datos.estudiante()))
+                .texto(Fuente.NEGRITA, 10, MARGEN, 720, "Código: ")
+                .texto(Fuente.REGULAR, 10, MARGEN + Fuente.NEGRITA.ancho("Código: ", 10), 720,
+                        valor(datos.estudiante().codigo()));
+
+        float y = INICIO_TABLA;
+        pagina.fragmento(cabeceraTabla, 0, y);
+        y -= FILA + 2;
+
+        int presentes = 0;
+        int ausencias = 0;
+        int tardanzas = 0;
+        int justificadas = 0;
+        for (FilaCurso fila : datos.cursos()) {
+            if (y < LIMITE_INFERIOR) {
+                pagina = documento.nuevaPagina();
+                y = INICIO_CONTINUACION;
+                pagina.fragmento(cabeceraTabla, 0, y);
+                y -= FILA + 2;
+            }
+            CursoBoletin curso = fila.curso();
+            boolean retirado = "retirado".equals(curso.estadoInscripcion());
+            pagina.texto(Fuente.REGULAR, 9, COL_ASIGNATURA, y,
+                    Fuente.REGULAR.recortar(valor(curso.asignatura()) + (retirado ? " (retirado)" : ""), 9,
+                            COL_GRUPO - COL_ASIGNATURA - 6))
+                    .texto(Fuente.REGULAR, 9, COL_GRUPO, y,
+                            Fuente.REGULAR.recortar(valor(curso.grupo()), 9, COL_PROFESOR - COL_GRUPO - 6))
+                    .texto(Fuente.REGULAR, 9, COL_PROFESOR, y,
+                            Fuente.REGULAR.recortar(valor(curso.profesor()), 9, COL_NOTA - 40 - COL_PROFESOR))
+                    .textoDerecha(Fuente.NEGRITA, 9, COL_NOTA, y, fila.nota() != null ? fila.nota().toPlainString() : "—")
+                    .textoDerecha(Fuente.REGULAR, 9, COL_ASISTENCIA, y, porcentajeAsistencia(curso))
+                    .textoDerecha(Fuente.REGULAR, 9, COL_AUSENCIAS, y, Integer.toString(curso.ausente()))
+                    .textoDerecha(Fuente.REGULAR, 9, COL_TARDANZAS, y, Integer.toString(curso.tarde()))
+                    .linea(MARGEN, y - 5, DERECHA, y - 5, 0.25f);
+            presentes += curso.presente();
+            ausencias += curso.ausente();
+            tardanzas += curso.tarde();
+            justificadas += curso.justificado();
+            y -= FILA;
+        }
+        if (datos.cursos().isEmpty()) {
+            pagina.texto(Fuente.REGULAR, 9, COL_ASIGNATURA, y, "Sin cursos en el periodo.");
+            y -= FILA;
+        }
+
+        y -= 10;
+        if (y < LIMITE_INFERIOR + 30) {
+            pagina = documento.nuevaPagina();
+            y = INICIO_CONTINUACION;
+        }
+        pagina.texto(Fuente.NEGRITA, 10, MARGEN, y, "Promedio general: "
+                + (datos.promedio() != null ? datos.promedio().toPlainString() : "—"));
+        y -= 14;
+        pagina.texto(Fuente.REGULAR, 9, MARGEN, y, "Asistencia: " + presentes + " presentes, " + ausencias
+                + " ausencias, " + tardanzas + " tardanzas, " + justificadas + " justificadas");
+        y -= 26;
+
+        pagina.texto(Fuente.NEGRITA, 11, MARGEN, y, "Observaciones");
+        pagina.linea(MARGEN, y - 4, DERECHA, y - 4, 0.5f);
+        y -= FILA + 2;
+        if (datos.reportes().isEmpty()) {
+            pagina.texto(Fuente.REGULAR, 9, MARGEN, y, "Sin observaciones registradas en el periodo.");
+        }
+        for (ReporteBoletin reporte : datos.reportes()) {
+            if (y < LIMITE_INFERIOR) {
+                pagina = documento.nuevaPagina();
+                y = INICIO_CONTINUACION;
+            }
+            String etiqueta = "[" + valor(reporte.tipo()).toUpperCase(Locale.ROOT)
+                    + (reporte.peso() != null ? " · " + reporte.peso().toUpperCase(Locale.ROOT) : "") + "]";
+            float xEtiqueta = MARGEN + 60;
+            float xTitulo = xEtiqueta + Fuente.NEGRITA.ancho(etiqueta, 8) + 6;
+            String titulo = valor(reporte.titulo()) + (reporte.asignatura() != null ? " (" + reporte.asignatura() + ")" : "");
+            pagina.texto(Fuente.REGULAR, 9, MARGEN, y, FECHA.format(reporte.fecha()))
+                    .texto(Fuente.NEGRITA, 8, xEtiqueta, y, etiqueta)
+                    .texto(Fuente.REGULAR, 9, xTitulo, y, Fuente.REGULAR.recortar(titulo, 9, DERECHA - xTitulo));
+            y -= FILA - 2;
+        }
+
+        List<Lienzo> paginas = documento.getPaginas();
+        for (int i = 0; i < paginas.size(); i++) {
+            paginas.get(i)
+                    .linea(MARGEN, 42, DERECHA, 42, 0.5f)
+                    .texto(Fuente.REGULAR, 8, MARGEN, 30, institucion + " · " + nombre(datos.estudiante()))
+                    .textoDerecha(Fuente.REGULAR, 8, DERECHA, 30, "Página " + (i + 1) + " de " + paginas.size());
+        }
+        return documento.toByteArray();
+    }
+
+    private static String porcentajeAsistencia(CursoBoletin curso) {
+        int registros = curso.presente() + curso.ausente() + curso.tarde() + curso.justificado();
+        if (registros == 0) {
+            return "—";
+        }
+        return BigDecimal.valueOf((curso.presente() + curso.tarde()) * 100L)
+                .divide(BigDecimal.valueOf(registros), 0, RoundingMode.HALF_UP) + "%";
+    }
+
+    private static String nombre(EstudianteBoletin estudiante) {
+        return estudiante.nombre() != null ? estudiante.nombre() : valor(estudiante.codigo());
+    }
+
+    private static String valor(String texto) {
+        return texto != null ? texto : "—";
+    }
+
+    /**
+     * Curso del boletín con la nota final del estudiante (null si no tiene).
+     */
+    record FilaCurso(CursoBoletin curso, BigDecimal nota) {
+    }
+
+    /**
+     * Datos de un boletín.
+     */
+    record DatosBoletin(EstudianteBoletin estudiante, String periodo, LocalDate inicio, LocalDate fin,
+            LocalDate emitido, List<FilaCurso> cursos, BigDecimal promedio, List<ReporteBoletin> reportes) {
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.api.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.api.dto.request.CreateReporteRequest;
+import com.example.api.exception.DuplicateResourceException;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.exception.TrabajoPerdidoException;
+import com.example.api.model.TrabajoReporte.EstadoTrabajo;
+import com.example.api.model.TrabajoReporte.TipoTrabajo;
+import com.example.api.service.TrabajoReporteService.TrabajoTomado;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Ejecuta los trabajos de generación de reportes guardados en trabajos_reporte.
+ *
+ * Un hilo revisa la tabla cada intervalo y toma tantos trabajos como workers libres haya;
+ * los workers (un pool acotado) los procesan fuera de cualquier petición HTTP. Cada
+ * instancia se identifica con un ID propio y renueva el bloqueo de sus trabajos al
+ * confirmar cada elemento; si se cae, otra instancia los retoma cuando el bloqueo vence.
+ * Los trabajos 'generar_boletines' los ejecuta BoletinService por lotes.
+ *
+ * Métricas: reportes.trabajos.cola (trabajos por estado), reportes.trabajos.antiguedad
+ * (segundos del trabajo en cola más antiguo), reportes.trabajos.espera (de encolado a
+ * iniciado), reportes.trabajos.duracion (por intento) y reportes.trabajos.finalizados
+ * (por resultado).
+ */
+@Service
+public class ProcesadorTrabajosReporte {
+
+    private static final long INTERVALO_METRICAS_MS = 15_000;
+
+    private final TrabajoReporteService trabajoReporteService;
+    private final BoletinService boletinService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.reportes.trabajos.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${app.reportes.trabajos.hilos:2}")
+    private int hilos;
+
+    @Value("${app.reportes.trabajos.intervalo-ms:1000}")
+    private long intervaloMs;
+
+    @Value("${app.reportes.trabajos.bloqueo-segundos:120}")
+    private long bloqueoSegundos;
+
+    private final String instancia = "api-" + UUID.randomUUID();
+    private final Map<EstadoTrabajo, AtomicLong> porEstado = new ConcurrentHashMap<>();
+    private final AtomicLong antiguedadSegundos = new AtomicLong();
+    private final AtomicInteger enEjecucion = new AtomicInteger();
+    private volatile long ultimaMedicion;
+
+    private Semaphore libres;
+    private ScheduledExecutorService planificador;
+    private ExecutorService workers;
+    private Timer espera;
+    private Timer duracion;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public ProcesadorTrabajosReporte(TrabajoReporteService trabajoReporteService, BoletinService boletinService,
+            MeterRegistry meterRegistry) {
+        this.trabajoReporteService = trabajoReporteService;
+        this.boletinService = boletinService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        for (EstadoTrabajo estado : EstadoTrabajo.values()) {
+            AtomicLong valor = porEstado.computeIfAbsent(estado, e -> new AtomicLong());
+            Gauge.builder("reportes.trabajos.cola", valor, AtomicLong::get)
+                    .description("Trabajos de reportes por estado")
+                    .tag("estado", estado.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("reportes.trabajos.antiguedad", antiguedadSegundos, AtomicLong::get)
+                .description("Segundos que lleva en cola el trabajo más antiguo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("reportes.trabajos.en_ejecucion", enEjecucion, AtomicInteger::get)
+                .description("Trabajos en ejecución en esta instancia")
+                .register(meterRegistry);
+        espera = Timer.builder("reportes.trabajos.espera")
+                .description("Tiempo desde que se encola un trabajo hasta que empieza")
+                .register(meterRegistry);
+        duracion = Timer.builder("reportes.trabajos.duracion")
+                .description("Duración de cada intento de un trabajo")
+                .register(meterRegistry);
+
+        if (!habilitado) {
+            return;
+        }
+        int totalHilos = Math.max(1, hilos);
+        libres = new Semaphore(totalHilos);
+        AtomicInteger numero = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(totalHilos, tarea -> {
+            Thread hilo = new Thread(tarea, "trabajos-reporte-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "trabajos-reporte-planificador");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(this::revisar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+        }
+        if (workers != null) {
+            // Los trabajos interrumpidos se retoman cuando vence su bloqueo
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Toma trabajos para los workers libres y actualiza las métricas de la cola.
+     */
+    private void revisar() {
+        try {
+            actualizarMetricas();
+
+            int disponibles = libres.drainPermits();
+            if (disponibles == 0) {
+                return;
+            }
+            List<TrabajoTomado> tomados = List.of();
+            try {
+                tomados = trabajoReporteService.tomar(instancia, disponibles, bloqueoSegundos);
+            } finally {
+                libres.release(disponibles - tomados.size());
+            }
+            for (TrabajoTomado trabajo : tomados) {
+                try {
+                    workers.execute(() -> ejecutarYLiberar(trabajo));
+                } catch (RejectedExecutionException e) {
+                    libres.release();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Base de datos no disponible u otro error: se vuelve a intentar en la siguiente revisión
+            System.err.println("Error polling report jobs: " + e.getMessage());
+        }
+    }
+
+    private void ejecutarYLiberar(TrabajoTomado trabajo) {
+        enEjecucion.incrementAndGet();
+        try {
+            ejecutar(trabajo);
+        } finally {
+            enEjecucion.decrementAndGet();
+            libres.release();
+        }
+    }
+
+    private void ejecutar(TrabajoTomado trabajo) {
+        if (trabajo.intentos() == 1 && trabajo.creadoAt() != null) {
+            espera.record(Duration.between(trabajo.creadoAt(), LocalDateTime.now()));
+        }
+
+        BooleanSupplier tarea;
+        try {
+            if (trabajo.tipo() == TipoTrabajo.generar_boletines) {
+                tarea = boletinService.preparar(trabajo, instancia, bloqueoSegundos);
+            } else {
+                List<CreateReporteRequest> solicitudes = trabajoReporteService.leerSolicitudes(trabajo.payload());
+                tarea = () -> crearReportes(trabajo, solicitudes);
+            }
+        } catch (IllegalStateException e) {
+            // Un payload que no se puede leer no se arregla reintentando
+            contarFinalizado(registrarFallo(trabajo, e, true));
+            return;
+        } catch (RuntimeException e) {
+            contarFinalizado(registrarFallo(trabajo, e, false));
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        String resultado;
+        try {
+            if (!tarea.getAsBoolean()) {
+                // Interrumpido: se retoma cuando vence el bloqueo
+                return;
+            }
+            trabajoReporteService.completar(trabajo.id(), instancia);
+            resultado = EstadoTrabajo.completado.name();
+        } catch (TrabajoPerdidoException e) {
+            resultado = "perdido";
+        } catch (RuntimeException e) {
+            resultado = registrarFallo(trabajo, e, false);
+        } finally {
+            duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        contarFinalizado(resultado);
+    }
+
+    /**
+     * Crea los reportes pendientes de un trabajo 'crear_reportes'.
+     *
+     * @return false si se interrumpió
+     */
+    private boolean crearReportes(TrabajoTomado trabajo, List<CreateReporteRequest> solicitudes) {
+        for (int i = trabajo.procesados(); i < solicitudes.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            try {
+                trabajoReporteService.crearReporte(trabajo.id(), instancia, i, solicitudes.get(i), bloqueoSegundos);
+            } catch (ResourceNotFoundException | DuplicateResourceException | IllegalArgumentException e) {
+                // Datos inválidos: reintentar no cambia el resultado, se omite el elemento
+                trabajoReporteService.omitirElemento(trabajo.id(), instancia, i, e.getMessage(), bloqueoSegundos);
+            }
+        }
+        return true;
+    }
+
+    private void contarFinalizado(String resultado) {
+        Counter.builder("reportes.trabajos.finalizados")
+                .description("Intentos de trabajos terminados por resultado")
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private String registrarFallo(TrabajoTomado trabajo, RuntimeException error, boolean definitivo) {
+        System.err.println("Error processing report job " + trabajo.id() + ": " + error.getMessage());
+        try {
+            EstadoTrabajo estado = trabajoReporteService.registrarFallo(trabajo.id(), instancia,
+                    error.getClass().getSimpleName() + ": " + error.getMessage(), definitivo);
+            return estado == EstadoTrabajo.fallido ? EstadoTrabajo.fallido.name() : "reintento";
+        } catch (RuntimeException e) {
+            // Si tampoco se puede registrar el fallo, el trabajo se retoma cuando vence el bloqueo
+            return "reintento";
+        }
+    }
+
+    private void actualizarMetricas() {
+        long ahora = System.currentTimeMillis();
+        if (ahora - ultimaMedicion < INTERVALO_METRICAS_MS) {
+            return;
+        }
+        ultimaMedicion = ahora;
+        trabajoReporteService.contarPorEstado().forEach((estado, total) -> porEstado.get(estado).set(total));
+        LocalDateTime masAntiguo = trabajoReporteService.getCreacionMasAntiguaEnCola();
+        antiguedadSegundos.set(masAntiguo == null ? 0
+                : Math.max(0, Duration.between(masAntiguo, LocalDateTime.now()).toSeconds()));
+    }
+}
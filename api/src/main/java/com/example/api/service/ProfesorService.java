@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,8 +32,6 @@ public class ProfesorService {
     private final ProfesorRepository profesorRepository;
     private final UsuarioRepository usuarioRepository;
     private final ProfesorMapper profesorMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     /**
      * Constructor con inyección de dependencias.
@@ -49,14 +42,10 @@ public class ProfesorService {
      */
     public ProfesorService(ProfesorRepository profesorRepository,
             UsuarioRepository usuarioRepository,
-            ProfesorMapper profesorMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            ProfesorMapper profesorMapper) {
         this.profesorRepository = profesorRepository;
         this.usuarioRepository = usuarioRepository;
         this.profesorMapper = profesorMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -132,6 +121,10 @@ public class ProfesorService {
      * @return El profesor creado
      * @throws ResourceNotFoundException si el usuario no existe
      */
+    @Audited(accion = "CREATE", entidad = "profesor", detalle = {
+            "profesorId=#result.id()",
+            "especialidad=#result.especialidad()",
+            "usuarioId=#result.usuario()?.id()" })
     public ProfesorResponse createProfesor(CreateProfesorRequest request, HttpServletRequest httpRequest) {
         // Verificar que el usuario existe
         Usuario usuario = usuarioRepository.findById(request.usuarioId())
@@ -145,9 +138,6 @@ public class ProfesorService {
         // Guardar
         Profesor profesorGuardado = profesorRepository.save(profesor);
 
-        // Audit Log
-        logProfesorAction("CREATE", profesorGuardado, httpRequest);
-
         return profesorMapper.toResponse(profesorGuardado);
     }
 
@@ -159,6 +149,10 @@ public class ProfesorService {
      * @return El profesor actualizado
      * @throws ResourceNotFoundException si el profesor no existe
      */
+    @Audited(accion = "UPDATE", entidad = "profesor", detalle = {
+            "profesorId=#result.id()",
+            "especialidad=#result.especialidad()",
+            "usuarioId=#result.usuario()?.id()" })
     public ProfesorResponse updateProfesor(String id, UpdateProfesorRequest request, HttpServletRequest httpRequest) {
         Profesor profesor = profesorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Profesor no encontrado con ID: " + id));
@@ -168,9 +162,6 @@ public class ProfesorService {
 
         Profesor profesorActualizado = profesorRepository.save(profesor);
 
-        // Audit Log
-        logProfesorAction("UPDATE", profesorActualizado, httpRequest);
-
         return profesorMapper.toResponse(profesorActualizado);
     }
 
@@ -180,6 +171,7 @@ public class ProfesorService {
      * @param id El ID del profesor a eliminar
      * @throws ResourceNotFoundException si el profesor no existe
      */
+    @Audited(accion = "DELETE", entidad = "profesor", detalle = "profesorId=#id")
     public void deleteProfesor(String id, HttpServletRequest httpRequest) {
         Profesor profesor = profesorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Profesor no encontrado con ID: " + id));
@@ -187,9 +179,6 @@ public class ProfesorService {
         profesor.setDeletedAt(LocalDateTime.now());
         profesor.setActivo(false);
         profesorRepository.save(profesor);
-
-        // Audit Log
-        logProfesorAction("DELETE", profesor, httpRequest);
     }
 
     /**
@@ -221,30 +210,4 @@ public class ProfesorService {
         Profesor profesorRestaurado = profesorRepository.save(profesor);
         return profesorMapper.toResponse(profesorRestaurado);
     }
-
-    private void logProfesorAction(String action, Profesor profesor, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("profesorId", profesor.getId());
-            bodyMap.put("especialidad", profesor.getEspecialidad());
-            if (profesor.getUsuario() != null) {
-                bodyMap.put("usuarioId", profesor.getUsuario().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
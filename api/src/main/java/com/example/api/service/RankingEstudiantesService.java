@@ -0,0 +1,457 @@
+package com.example.api.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.repository.CalificacionRepository;
+import com.example.api.repository.CalificacionRepository.AcumuladoEstudiante;
+
+/**
+ * Índice en memoria del ranking general de estudiantes por promedio.
+ * Mantiene por estudiante la suma y el número de notas activas y los ordena en un
+ * Árbol AVL aumentado con el tamaño de cada subárbol (árbol de estadísticos de orden).
+ *
+ * Complejidad: O(log n) para actualizar un promedio, O(log n) para obtener la
+ * posición de un estudiante y O(log n + k) para obtener los k primeros.
+ * Uso: Servir el ranking sin recorrer la tabla de calificaciones en cada consulta.
+ *
+ * El índice se reconstruye desde la base de datos al iniciar la aplicación. Tras cada
+ * transacción que cambia notas se relee el acumulado de los estudiantes afectados
+ * (misma consulta y mismos filtros que la reconstrucción) y se reemplaza su entrada.
+ */
+@Service
+public class RankingEstudiantesService {
+
+    private final CalificacionRepository calificacionRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Tabla Hash estudianteId -> acumulado para localizar el nodo en O(1)
+    private Map<String, EntradaRanking> entradas = new HashMap<>();
+    private ArbolRanking arbol = new ArbolRanking();
+    private volatile boolean inicializado = false;
+
+    // Serializa las relecturas de acumulados desde la base de datos
+    private final ReentrantLock recalculo = new ReentrantLock();
+    // Estudiantes recalculados durante una reconstrucción en curso (null si no hay ninguna)
+    private volatile Set<String> modificadosDuranteReconstruccion;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public RankingEstudiantesService(CalificacionRepository calificacionRepository) {
+        this.calificacionRepository = calificacionRepository;
+    }
+
+    /**
+     * Reconstruye el índice completo con una única consulta agregada. Los estudiantes
+     * recalculados mientras se construye la copia se vuelven a leer tras el reemplazo,
+     * para no perder cambios confirmados durante la reconstrucción.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        Set<String> pendientes = ConcurrentHashMap.newKeySet();
+        modificadosDuranteReconstruccion = pendientes;
+
+        Map<String, EntradaRanking> nuevasEntradas = new HashMap<>();
+        ArbolRanking nuevoArbol = new ArbolRanking();
+        try {
+            for (AcumuladoEstudiante acumulado : calificacionRepository.acumularNotasPorEstudiante()) {
+                EntradaRanking entrada = nuevaEntrada(acumulado);
+                nuevasEntradas.put(entrada.estudianteId, entrada);
+                nuevoArbol.insertar(entrada);
+            }
+        } catch (RuntimeException e) {
+            modificadosDuranteReconstruccion = null;
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            entradas = nuevasEntradas;
+            arbol = nuevoArbol;
+            modificadosDuranteReconstruccion = null;
+            inicializado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!pendientes.isEmpty()) {
+            recalcular(pendientes);
+        }
+    }
+
+    /**
+     * Recalcula la entrada de un estudiante cuyas notas cambiaron, una vez confirmada
+     * la transacción actual.
+     */
+    public void actualizarEstudiante(String estudianteId) {
+        actualizarEstudiantes(List.of(estudianteId));
+    }
+
+    /**
+     * Recalcula las entradas de varios estudiantes con una sola consulta, una vez
+     * confirmada la transacción actual.
+     */
+    public void actualizarEstudiantes(Collection<String> estudianteIds) {
+        Set<String> ids = new HashSet<>(estudianteIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        TransaccionUtils.despuesDelCommit(() -> recalcular(ids));
+    }
+
+    /**
+     * Relee de la base de datos el acumulado de los estudiantes y lo aplica al índice.
+     * Se usan valores absolutos en vez de deltas: dos actualizaciones concurrentes del
+     * mismo estudiante no pueden partir de la misma base desactualizada. Las relecturas
+     * se serializan, así que la última en aplicarse es también la última en leerse y ve
+     * todos los commits anteriores.
+     */
+    private void recalcular(Set<String> estudianteIds) {
+        recalculo.lock();
+        try {
+            Map<String, AcumuladoEstudiante> acumulados = new HashMap<>();
+            for (AcumuladoEstudiante acumulado : calificacionRepository.acumularNotasDeEstudiantes(estudianteIds)) {
+                acumulados.put(acumulado.getEstudianteId(), acumulado);
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (String estudianteId : estudianteIds) {
+                    aplicar(estudianteId, acumulados.get(estudianteId));
+                }
+                Set<String> pendientes = modificadosDuranteReconstruccion;
+                if (pendientes != null) {
+                    pendientes.addAll(estudianteIds);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            // El índice ya no es confiable: la siguiente consulta lo reconstruye
+            inicializado = false;
+            System.err.println("Error actualizando el ranking de estudiantes: " + e.getMessage());
+        } finally {
+            recalculo.unlock();
+        }
+    }
+
+    /**
+     * Obtiene los primeros estudiantes del ranking.
+     *
+     * @param limite Número máximo de estudiantes a devolver
+     * @return Lista ordenada de mayor a menor promedio
+     */
+    public List<Map<String, Object>> getTop(int limite) {
+        asegurarInicializado();
+
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> ranking = new ArrayList<>(Math.min(limite, arbol.tamano()));
+            for (EntradaRanking entrada : arbol.primeros(limite)) {
+                ranking.add(entrada.toMap());
+            }
+            return ranking;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la posición de un estudiante dentro del ranking general.
+     *
+     * @param estudianteId ID del estudiante
+     * @return Datos del estudiante con su posición (1 = primer lugar)
+     */
+    public Map<String, Object> getPosicion(String estudianteId) {
+        asegurarInicializado();
+
+        lock.readLock().lock();
+        try {
+            EntradaRanking entrada = entradas.get(estudianteId);
+            if (entrada == null) {
+                throw new ResourceNotFoundException(
+                        "El estudiante no tiene calificaciones en el ranking: " + estudianteId);
+            }
+
+            Map<String, Object> info = entrada.toMap();
+            info.put("posicion", arbol.rango(entrada.promedioCentesimas, entrada.estudianteId) + 1);
+            info.put("totalEstudiantes", arbol.tamano());
+            return info;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye la entrada de un estudiante; sin acumulado (sin notas activas o
+     * estudiante eliminado) lo retira del índice. Requiere el candado de escritura.
+     */
+    private void aplicar(String estudianteId, AcumuladoEstudiante acumulado) {
+        EntradaRanking anterior = entradas.remove(estudianteId);
+        if (anterior != null) {
+            arbol.eliminar(anterior.promedioCentesimas, anterior.estudianteId);
+        }
+        if (acumulado == null || acumulado.getTotal() == null || acumulado.getTotal() <= 0) {
+            return;
+        }
+
+        EntradaRanking entrada = nuevaEntrada(acumulado);
+        entradas.put(estudianteId, entrada);
+        arbol.insertar(entrada);
+    }
+
+    private static EntradaRanking nuevaEntrada(AcumuladoEstudiante acumulado) {
+        EntradaRanking entrada = new EntradaRanking(acumulado.getEstudianteId(),
+                acumulado.getCodigoEstudiante(), acumulado.getNombre());
+        entrada.sumaCentesimas = aCentesimas(acumulado.getSuma());
+        entrada.total = acumulado.getTotal();
+        return entrada;
+    }
+
+    private void asegurarInicializado() {
+        if (!inicializado) {
+            synchronized (this) {
+                if (!inicializado) {
+                    reconstruir();
+                }
+            }
+        }
+    }
+
+    private static long aCentesimas(BigDecimal valor) {
+        return valor == null ? 0 : valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Acumulado de notas de un estudiante.
+     */
+    private static final class EntradaRanking {
+        final String estudianteId;
+        final String codigoEstudiante;
+        final String nombre;
+        long sumaCentesimas;
+        long total;
+        // Clave con la que la entrada está guardada en el árbol
+        long promedioCentesimas;
+
+        EntradaRanking(String estudianteId, String codigoEstudiante, String nombre) {
+            this.estudianteId = estudianteId;
+            this.codigoEstudiante = codigoEstudiante;
+            this.nombre = nombre;
+        }
+
+        long calcularPromedio() {
+            // Redondeo HALF_UP de suma / total (las notas nunca son negativas)
+            return (2 * sumaCentesimas + total) / (2 * total);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> info = new HashMap<>();
+            info.put("estudianteId", estudianteId);
+            info.put("codigoEstudiante", codigoEstudiante);
+            info.put("nombre", nombre);
+            info.put("promedio", BigDecimal.valueOf(promedioCentesimas, 2));
+            info.put("totalCalificaciones", total);
+            return info;
+        }
+    }
+
+    /**
+     * Árbol AVL ordenado por promedio descendente y estudianteId ascendente.
+     * Cada nodo guarda el tamaño de su subárbol para calcular posiciones en O(log n).
+     */
+    private static final class ArbolRanking {
+
+        private static final class Nodo {
+            final long promedio;
+            final String estudianteId;
+            final EntradaRanking entrada;
+            Nodo izquierdo;
+            Nodo derecho;
+            int altura = 1;
+            int tamano = 1;
+
+            Nodo(EntradaRanking entrada) {
+                this.promedio = entrada.promedioCentesimas;
+                this.estudianteId = entrada.estudianteId;
+                this.entrada = entrada;
+            }
+        }
+
+        private Nodo raiz;
+
+        int tamano() {
+            return tamano(raiz);
+        }
+
+        void insertar(EntradaRanking entrada) {
+            entrada.promedioCentesimas = entrada.calcularPromedio();
+            raiz = insertar(raiz, new Nodo(entrada));
+        }
+
+        void eliminar(long promedio, String estudianteId) {
+            raiz = eliminar(raiz, promedio, estudianteId);
+        }
+
+        /**
+         * Número de nodos que preceden a la clave indicada.
+         */
+        int rango(long promedio, String estudianteId) {
+            int rango = 0;
+            Nodo actual = raiz;
+            while (actual != null) {
+                int cmp = comparar(promedio, estudianteId, actual.promedio, actual.estudianteId);
+                if (cmp < 0) {
+                    actual = actual.izquierdo;
+                } else if (cmp > 0) {
+                    rango += tamano(actual.izquierdo) + 1;
+                    actual = actual.derecho;
+                } else {
+                    return rango + tamano(actual.izquierdo);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Recorrido en orden (iterativo) que se detiene al alcanzar el límite.
+         */
+        List<EntradaRanking> primeros(int limite) {
+            List<EntradaRanking> resultado = new ArrayList<>();
+            Deque<Nodo> pila = new ArrayDeque<>();
+            Nodo actual = raiz;
+            while ((actual != null || !pila.isEmpty()) && resultado.size() < limite) {
+                while (actual != null) {
+                    pila.push(actual);
+                    actual = actual.izquierdo;
+                }
+                actual = pila.pop();
+                resultado.add(actual.entrada);
+                actual = actual.derecho;
+            }
+            return resultado;
+        }
+
+        private static int comparar(long promedioA, String idA, long promedioB, String idB) {
+            int cmp = Long.compare(promedioB, promedioA);
+            return cmp != 0 ? cmp : idA.compareTo(idB);
+        }
+
+        private Nodo insertar(Nodo nodo, Nodo nuevo) {
+            if (nodo == null) {
+                return nuevo;
+            }
+            if (comparar(nuevo.promedio, nuevo.estudianteId, nodo.promedio, nodo.estudianteId) < 0) {
+                nodo.izquierdo = insertar(nodo.izquierdo, nuevo);
+            } else {
+                nodo.derecho = insertar(nodo.derecho, nuevo);
+            }
+            return balancear(nodo);
+        }
+
+        private Nodo eliminar(Nodo nodo, long promedio, String estudianteId) {
+            if (nodo == null) {
+                return null;
+            }
+            int cmp = comparar(promedio, estudianteId, nodo.promedio, nodo.estudianteId);
+            if (cmp < 0) {
+                nodo.izquierdo = eliminar(nodo.izquierdo, promedio, estudianteId);
+            } else if (cmp > 0) {
+                nodo.derecho = eliminar(nodo.derecho, promedio, estudianteId);
+            } else {
+                if (nodo.izquierdo == null) {
+                    return nodo.derecho;
+                }
+                if (nodo.derecho == null) {
+                    return nodo.izquierdo;
+                }
+                // Reemplazar por el sucesor en orden
+                Nodo sucesor = nodo.derecho;
+                while (sucesor.izquierdo != null) {
+                    sucesor = sucesor.izquierdo;
+                }
+                sucesor.derecho = eliminarMinimo(nodo.derecho);
+                sucesor.izquierdo = nodo.izquierdo;
+                nodo = sucesor;
+            }
+            return balancear(nodo);
+        }
+
+        private Nodo eliminarMinimo(Nodo nodo) {
+            if (nodo.izquierdo == null) {
+                return nodo.derecho;
+            }
+            nodo.izquierdo = eliminarMinimo(nodo.izquierdo);
+            return balancear(nodo);
+        }
+
+        private Nodo balancear(Nodo nodo) {
+            actualizar(nodo);
+            int factor = altura(nodo.izquierdo) - altura(nodo.derecho);
+            if (factor > 1) {
+                if (altura(nodo.izquierdo.izquierdo) < altura(nodo.izquierdo.derecho)) {
+                    nodo.izquierdo = rotarIzquierda(nodo.izquierdo);
+                }
+                return rotarDerecha(nodo);
+            }
+            if (factor < -1) {
+                if (altura(nodo.derecho.derecho) < altura(nodo.derecho.izquierdo)) {
+                    nodo.derecho = rotarDerecha(nodo.derecho);
+                }
+                return rotarIzquierda(nodo);
+            }
+            return nodo;
+        }
+
+        private Nodo rotarDerecha(Nodo y) {
+            Nodo x = y.izquierdo;
+            y.izquierdo = x.derecho;
+            x.derecho = y;
+            actualizar(y);
+            actualizar(x);
+            return x;
+        }
+
+        private Nodo rotarIzquierda(Nodo x) {
+            Nodo y = x.derecho;
+            x.derecho = y.izquierdo;
+            y.izquierdo = x;
+            actualizar(x);
+            actualizar(y);
+            return y;
+        }
+
+        private static void actualizar(Nodo nodo) {
+            nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.derecho));
+            nodo.tamano = 1 + tamano(nodo.izquierdo) + tamano(nodo.derecho);
+        }
+
+        private static int altura(Nodo nodo) {
+            return nodo == null ? 0 : nodo.altura;
+        }
+
+        private static int tamano(Nodo nodo) {
+            return nodo == null ? 0 : nodo.tamano;
+        }
+    }
+}
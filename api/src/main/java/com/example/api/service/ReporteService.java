@@ -1,18 +1,11 @@
 package com.example.api.service;
 
 import java.time.LocalDateTime;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.stream.Collectors;
-import java.util.HashMap;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -36,7 +29,7 @@ import com.example.api.mapper.ReporteMapper;
 
 /**
  * Servicio que contiene la lógica de negocio para la gestión de reportes.
- * Implementa Queue (FIFO) para el procesamiento de reportes en orden.
+ * La generación asíncrona de reportes está en TrabajoReporteService.
  */
 @Service
 @Transactional
@@ -47,11 +40,6 @@ public class ReporteService {
     private final CursoRepository cursoRepository;
     private final UsuarioRepository usuarioRepository;
     private final ReporteMapper reporteMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
-
-    // Cola FIFO para procesamiento de reportes
-    private final Queue<Map<String, Object>> colaGeneracionReportes = new LinkedList<>();
 
     /**
      * Constructor con inyección de dependencias.
@@ -60,16 +48,12 @@ public class ReporteService {
             EstudianteRepository estudianteRepository,
             CursoRepository cursoRepository,
             UsuarioRepository usuarioRepository,
-            ReporteMapper reporteMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            ReporteMapper reporteMapper) {
         this.reporteRepository = reporteRepository;
         this.estudianteRepository = estudianteRepository;
         this.cursoRepository = cursoRepository;
         this.usuarioRepository = usuarioRepository;
         this.reporteMapper = reporteMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -132,78 +116,6 @@ public class ReporteService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Agrega una solicitud de reporte a la cola FIFO para procesamiento.
-     * Implementa Queue (FIFO) para procesar reportes en orden de llegada.
-     * 
-     * Complejidad: O(1) para agregar a la cola
-     * Uso: Procesar reportes pesados sin bloquear el sistema
-     */
-    public Map<String, Object> agregarAColaGeneracion(CreateReporteRequest request) {
-        Map<String, Object> solicitud = Map.of(
-                "request", request,
-                "timestamp", LocalDateTime.now(),
-                "estado", "EN_COLA");
-
-        // Agregar a la cola FIFO (LinkedList implementa Queue)
-        colaGeneracionReportes.offer(solicitud); // O(1)
-
-        return Map.of(
-                "mensaje", "Solicitud agregada a la cola de generación",
-                "posicionEnCola", colaGeneracionReportes.size(),
-                "timestamp", LocalDateTime.now());
-    }
-
-    /**
-     * Procesa los reportes de la cola FIFO en orden.
-     * Los reportes se procesan en el orden en que fueron solicitados (FIFO).
-     * 
-     * Complejidad: O(n) donde n es el número de reportes en la cola
-     * Uso: Garantizar procesamiento ordenado de reportes
-     */
-    public Map<String, Object> procesarColaReportes() {
-        int procesados = 0;
-        List<String> idsCreados = new java.util.ArrayList<>();
-
-        // Procesar todos los reportes en la cola
-        while (!colaGeneracionReportes.isEmpty()) {
-            Map<String, Object> solicitud = colaGeneracionReportes.poll(); // O(1) - FIFO
-
-            if (solicitud != null) {
-                CreateReporteRequest request = (CreateReporteRequest) solicitud.get("request");
-
-                try {
-                    // Crear el reporte
-                    ReporteResponse reporte = createReporte(request, null);
-                    idsCreados.add(reporte.id());
-                    procesados++;
-                } catch (Exception e) {
-                    // Si falla, continuar con el siguiente
-                    // En producción, aquí se manejaría el error apropiadamente
-                    continue;
-                }
-            }
-        }
-
-        return Map.of(
-                "mensaje", "Procesamiento de cola completado",
-                "reportesProcesados", procesados,
-                "reportesCreados", idsCreados,
-                "reportesRestantes", colaGeneracionReportes.size(),
-                "timestamp", LocalDateTime.now());
-    }
-
-    /**
-     * Obtiene el estado actual de la cola de reportes.
-     */
-    @Transactional(readOnly = true)
-    public Map<String, Object> getEstadoCola() {
-        return Map.of(
-                "reportesEnCola", colaGeneracionReportes.size(),
-                "colaVacia", colaGeneracionReportes.isEmpty(),
-                "timestamp", LocalDateTime.now());
-    }
-
     /**
      * Obtiene todos los reportes eliminados.
      */
@@ -217,6 +129,12 @@ public class ReporteService {
     /**
      * Crea un nuevo reporte.
      */
+    @Audited(accion = "CREATE", entidad = "reporte", detalle = {
+            "reporteId=#result.id()",
+            "titulo=#result.titulo()",
+            "tipo=#result.tipo()",
+            "estudianteId=#result.estudiante()?.id()",
+            "cursoId=#result.curso()?.id()" })
     public ReporteResponse createReporte(CreateReporteRequest request, HttpServletRequest httpRequest) {
         // Validar que el estudiante existe
         Estudiante estudiante = estudianteRepository.findById(request.estudianteId())
@@ -248,15 +166,18 @@ public class ReporteService {
 
         Reporte saved = reporteRepository.save(reporte);
 
-        // Audit Log
-        logReporteAction("CREATE", saved, httpRequest);
-
         return reporteMapper.toResponse(saved);
     }
 
     /**
      * Actualiza un reporte existente.
      */
+    @Audited(accion = "UPDATE", entidad = "reporte", detalle = {
+            "reporteId=#result.id()",
+            "titulo=#result.titulo()",
+            "tipo=#result.tipo()",
+            "estudianteId=#result.estudiante()?.id()",
+            "cursoId=#result.curso()?.id()" })
     public ReporteResponse updateReporte(String id, UpdateReporteRequest request, HttpServletRequest httpRequest) {
         Reporte reporte = reporteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reporte no encontrado con ID: " + id));
@@ -287,53 +208,18 @@ public class ReporteService {
 
         Reporte updated = reporteRepository.save(reporte);
 
-        // Audit Log
-        logReporteAction("UPDATE", updated, httpRequest);
-
         return reporteMapper.toResponse(updated);
     }
 
     /**
      * Elimina lógicamente un reporte (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "reporte", detalle = "reporteId=#id")
     public void deleteReporte(String id, HttpServletRequest httpRequest) {
         Reporte reporte = reporteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reporte no encontrado con ID: " + id));
         reporte.setDeletedAt(LocalDateTime.now());
         reporteRepository.save(reporte);
-
-        // Audit Log
-        logReporteAction("DELETE", reporte, httpRequest);
-    }
-
-    private void logReporteAction(String action, Reporte reporte, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request != null ? request.getRequestURI() : "UNKNOWN");
-            log.setIpAddress(request != null ? request.getRemoteAddr() : "UNKNOWN");
-            log.setDevice(request != null ? request.getHeader("User-Agent") : "UNKNOWN");
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("reporteId", reporte.getId());
-            bodyMap.put("titulo", reporte.getTitulo());
-            bodyMap.put("tipo", reporte.getTipo());
-            if (reporte.getEstudiante() != null) {
-                bodyMap.put("estudianteId", reporte.getEstudiante().getId());
-            }
-            if (reporte.getCurso() != null) {
-                bodyMap.put("cursoId", reporte.getCurso().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
     }
 
     /**
@@ -3,14 +3,8 @@ package com.example.api.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,8 +26,6 @@ public class RolService {
 
     private final RolRepository rolRepository;
     private final RolMapper rolMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     /**
      * Constructor con inyección de dependencias.
@@ -41,13 +33,9 @@ public class RolService {
      * @param rolRepository Repositorio de roles
      * @param rolMapper     Mapper de roles
      */
-    public RolService(RolRepository rolRepository, RolMapper rolMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+    public RolService(RolRepository rolRepository, RolMapper rolMapper) {
         this.rolRepository = rolRepository;
         this.rolMapper = rolMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -116,6 +104,10 @@ public class RolService {
      * @return El rol creado
      * @throws DuplicateResourceException si ya existe un rol con ese nombre
      */
+    @Audited(accion = "CREATE", entidad = "rol", detalle = {
+            "rolId=#result.id()",
+            "nombre=#result.nombre()",
+            "descripcion=#result.descripcion()" })
     public RolResponse createRol(CreateRolRequest request, HttpServletRequest httpRequest) {
         // Validar que no exista un rol con el mismo nombre
         if (rolRepository.existsByNombreAndIdNot(request.nombre(), null)) {
@@ -126,9 +118,6 @@ public class RolService {
 
         Rol savedRol = rolRepository.save(rol);
 
-        // Audit Log
-        logRolAction("CREATE", savedRol, httpRequest);
-
         return rolMapper.toResponse(savedRol);
     }
 
@@ -141,6 +130,10 @@ public class RolService {
      * @throws ResourceNotFoundException  si el rol no existe
      * @throws DuplicateResourceException si el nuevo nombre ya existe
      */
+    @Audited(accion = "UPDATE", entidad = "rol", detalle = {
+            "rolId=#result.id()",
+            "nombre=#result.nombre()",
+            "descripcion=#result.descripcion()" })
     public RolResponse updateRol(String id, UpdateRolRequest request, HttpServletRequest httpRequest) {
         Rol rol = rolRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rol", "id", id));
@@ -163,9 +156,6 @@ public class RolService {
 
         Rol updatedRol = rolRepository.save(rol);
 
-        // Audit Log
-        logRolAction("UPDATE", updatedRol, httpRequest);
-
         return rolMapper.toResponse(updatedRol);
     }
 
@@ -175,6 +165,7 @@ public class RolService {
      * @param id El ID del rol a eliminar
      * @throws ResourceNotFoundException si el rol no existe
      */
+    @Audited(accion = "DELETE", entidad = "rol", detalle = "rolId=#id")
     public void softDeleteRol(String id, HttpServletRequest httpRequest) {
         Rol rol = rolRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rol", "id", id));
@@ -185,9 +176,6 @@ public class RolService {
 
         rol.softDelete();
         rolRepository.save(rol);
-
-        // Audit Log
-        logRolAction("DELETE", rol, httpRequest);
     }
 
     /**
@@ -209,30 +197,6 @@ public class RolService {
         return rolMapper.toResponse(restoredRol);
     }
 
-    private void logRolAction(String action, Rol rol, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("rolId", rol.getId());
-            bodyMap.put("nombre", rol.getNombre());
-            bodyMap.put("descripcion", rol.getDescripcion());
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     /**
      * Elimina permanentemente un rol de la base de datos.
      * ADVERTENCIA: Esta operación no se puede deshacer.
@@ -4,14 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.UUID;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -31,16 +25,12 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 public class StorageService {
 
     private final S3Client s3Client;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
 
-    public StorageService(S3Client s3Client, AuditProducer auditProducer, ObjectMapper objectMapper) {
+    public StorageService(S3Client s3Client) {
         this.s3Client = s3Client;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -58,6 +48,7 @@ public class StorageService {
         PROFESORES("profesores"),
         USUARIOS("usuarios"),
         MATERIALES("materiales"),
+        BOLETINES("boletines"),
         OTROS("otros");
 
         private final String folderName;
@@ -78,6 +69,9 @@ public class StorageService {
      * @param category La categoría donde se guardará (define el prefijo)
      * @return El path relativo del archivo guardado (ej: "actividades/uuid.jpg")
      */
+    @Audited(accion = "UPLOAD", entidad = "archivo", detalle = {
+            "fileKey=#result",
+            "category=#category.name()" })
     public String storeFile(MultipartFile file, FileCategory category, HttpServletRequest httpRequest) {
         // Validar archivo
         if (file.isEmpty()) {
@@ -111,9 +105,6 @@ public class StorageService {
 
             s3Client.putObject(putOb, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
 
-            // Audit Log
-            logStorageAction("UPLOAD", objectKey, category.name(), httpRequest);
-
             return objectKey;
 
         } catch (IOException ex) {
@@ -123,6 +114,42 @@ public class StorageService {
         }
     }
 
+    /**
+     * Almacena contenido generado por el sistema (por ejemplo, un boletín en PDF) con un
+     * nombre fijo dentro de la categoría. Si ya existe un archivo con ese nombre se
+     * reemplaza. No registra auditoría por archivo: quien genera documentos en lote
+     * registra la operación completa.
+     *
+     * @param contenido   Bytes del archivo
+     * @param category    La categoría donde se guardará (define el prefijo)
+     * @param nombre      Nombre relativo a la categoría (ej: "periodo/estudiante.pdf")
+     * @param contentType Tipo de contenido
+     * @return El path relativo del archivo guardado (ej: "boletines/periodo/estudiante.pdf")
+     */
+    public String storeBytes(byte[] contenido, FileCategory category, String nombre, String contentType) {
+        if (contenido == null || contenido.length == 0) {
+            throw new RuntimeException("El archivo está vacío");
+        }
+        if (nombre == null || nombre.isEmpty() || nombre.contains("..")) {
+            throw new RuntimeException("El nombre del archivo es inválido");
+        }
+
+        String objectKey = category.getFolderName() + "/" + nombre;
+
+        try {
+            PutObjectRequest putOb = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .contentType(contentType)
+                    .build();
+
+            s3Client.putObject(putOb, RequestBody.fromBytes(contenido));
+            return objectKey;
+        } catch (Exception ex) {
+            throw new RuntimeException("Error al subir el archivo a MinIO: " + objectKey, ex);
+        }
+    }
+
     /**
      * Elimina un archivo de MinIO.
      * 
@@ -132,6 +159,9 @@ public class StorageService {
      *         pero intentaremos verificar antes si queremos ser estrictos, aunque
      *         usualmente delete siempre retorna éxito si no hay error de red)
      */
+    @Audited(accion = "DELETE", entidad = "archivo", condicion = "#result", detalle = {
+            "fileKey=#relativePath",
+            "category='UNKNOWN'" })
     public boolean deleteFile(String relativePath, HttpServletRequest httpRequest) {
         if (relativePath == null || relativePath.isEmpty()) {
             return false;
@@ -151,9 +181,6 @@ public class StorageService {
 
             s3Client.deleteObject(deleteOb);
 
-            // Audit Log
-            logStorageAction("DELETE", relativePath, "UNKNOWN", httpRequest);
-
             return true;
 
         } catch (Exception ex) {
@@ -207,27 +234,4 @@ public class StorageService {
             return false;
         }
     }
-
-    private void logStorageAction(String action, String fileKey, String category, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request != null ? request.getRequestURI() : "UNKNOWN");
-            log.setIpAddress(request != null ? request.getRemoteAddr() : "UNKNOWN");
-            log.setDevice(request != null ? request.getHeader("User-Agent") : "UNKNOWN");
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("fileKey", fileKey);
-            bodyMap.put("category", category);
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
@@ -0,0 +1,195 @@
+package com.example.api.service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.example.api.model.BloqueHorario;
+import com.example.api.model.Curso;
+import com.example.api.model.HorarioCurso.DiaSemana;
+
+/**
+ * Índice de intervalos de horarios de curso.
+ *
+ * Cada franja [inicio, fin) se indexa por periodo y día en tres dimensiones: aula,
+ * profesor y curso. Dos franjas de la misma dimensión que se solapan en el tiempo
+ * son un conflicto, aunque usen bloques distintos. No es seguro para uso concurrente.
+ */
+public class TablaHorarios {
+
+    public static final String MOTIVO_AULA = "AULA";
+    public static final String MOTIVO_PROFESOR = "PROFESOR";
+    public static final String MOTIVO_CURSO = "CURSO";
+
+    /**
+     * Franja horaria de un curso. inicio y fin están en segundos desde las 00:00.
+     */
+    public record Franja(String horarioId, String cursoId, String periodoId, String profesorId,
+            DiaSemana dia, String aula, int inicio, int fin) {
+
+        public LocalTime horaInicio() {
+            return LocalTime.ofSecondOfDay(inicio);
+        }
+
+        public LocalTime horaFin() {
+            return LocalTime.ofSecondOfDay(fin);
+        }
+    }
+
+    /**
+     * Franja existente que choca con otra y la dimensión en la que chocan.
+     */
+    public record Conflicto(Franja franja, String motivo) {
+    }
+
+    private record Clave(String motivo, String valor) {
+    }
+
+    private final Map<String, Intervalos> intervalos = new HashMap<>();
+    private final Map<String, Franja> franjas = new HashMap<>();
+
+    /**
+     * Construye la franja de un horario. Si el horario no tiene aula se usa el aula
+     * por defecto del curso.
+     */
+    public static Franja franja(String horarioId, Curso curso, BloqueHorario bloque, DiaSemana dia, String aula) {
+        return new Franja(horarioId, curso.getId(), curso.getPeriodo().getId(),
+                curso.getProfesor() != null ? curso.getProfesor().getId() : null, dia,
+                aula != null && !aula.isBlank() ? aula : curso.getAulaDefault(),
+                bloque.getInicio().toSecondOfDay(), bloque.getFin().toSecondOfDay());
+    }
+
+    public Collection<Franja> franjas() {
+        return Collections.unmodifiableCollection(franjas.values());
+    }
+
+    public Franja get(String horarioId) {
+        return franjas.get(horarioId);
+    }
+
+    /**
+     * Agrega o reemplaza la franja de un horario.
+     *
+     * @return Franja anterior del mismo horario, o null
+     */
+    public Franja agregar(Franja franja) {
+        Franja anterior = retirar(franja.horarioId());
+        franjas.put(franja.horarioId(), franja);
+        for (Clave clave : claves(franja)) {
+            intervalos.computeIfAbsent(clave.valor(), k -> new Intervalos()).agregar(franja);
+        }
+        return anterior;
+    }
+
+    /**
+     * Retira la franja de un horario.
+     *
+     * @return Franja retirada, o null si no estaba
+     */
+    public Franja retirar(String horarioId) {
+        Franja franja = franjas.remove(horarioId);
+        if (franja != null) {
+            for (Clave clave : claves(franja)) {
+                Intervalos porClave = intervalos.get(clave.valor());
+                if (porClave != null && porClave.retirar(franja)) {
+                    intervalos.remove(clave.valor());
+                }
+            }
+        }
+        return franja;
+    }
+
+    /**
+     * Busca las franjas que chocan con la indicada. Cada horario aparece una sola vez,
+     * con la primera dimensión en que choca (curso, profesor, aula).
+     *
+     * @param franja    Franja a verificar (se ignora a sí misma por horarioId)
+     * @param excluidos IDs de horarios que no se deben considerar
+     * @return Conflictos encontrados
+     */
+    public List<Conflicto> conflictos(Franja franja, Set<String> excluidos) {
+        Map<String, Conflicto> encontrados = new LinkedHashMap<>();
+        for (Clave clave : claves(franja)) {
+            Intervalos porClave = intervalos.get(clave.valor());
+            if (porClave == null) {
+                continue;
+            }
+            for (Franja otra : porClave.solapadas(franja.inicio(), franja.fin())) {
+                if (!otra.horarioId().equals(franja.horarioId()) && !excluidos.contains(otra.horarioId())) {
+                    encontrados.putIfAbsent(otra.horarioId(), new Conflicto(otra, clave.motivo()));
+                }
+            }
+        }
+        return new ArrayList<>(encontrados.values());
+    }
+
+    private static List<Clave> claves(Franja franja) {
+        String base = franja.periodoId() + "|" + franja.dia() + "|";
+        List<Clave> claves = new ArrayList<>(3);
+        claves.add(new Clave(MOTIVO_CURSO, base + "C|" + franja.cursoId()));
+        if (franja.profesorId() != null) {
+            claves.add(new Clave(MOTIVO_PROFESOR, base + "P|" + franja.profesorId()));
+        }
+        if (franja.aula() != null && !franja.aula().isBlank()) {
+            claves.add(new Clave(MOTIVO_AULA, base + "A|" + franja.aula().trim().toLowerCase(Locale.ROOT)));
+        }
+        return claves;
+    }
+
+    /**
+     * Franjas de una misma clave ordenadas por inicio. Como ninguna dura más que
+     * duracionMaxima, las que se solapan con [inicio, fin) empiezan dentro de
+     * [inicio - duracionMaxima, fin) y basta recorrer ese rango: O(log n + k).
+     */
+    private static final class Intervalos {
+
+        private static final Comparator<Franja> ORDEN = Comparator.comparingInt(Franja::inicio)
+                .thenComparing(Franja::horarioId);
+
+        private final TreeSet<Franja> porInicio = new TreeSet<>(ORDEN);
+        private int duracionMaxima;
+
+        void agregar(Franja franja) {
+            porInicio.add(franja);
+            duracionMaxima = Math.max(duracionMaxima, franja.fin() - franja.inicio());
+        }
+
+        /**
+         * @return true si la clave quedó vacía
+         */
+        boolean retirar(Franja franja) {
+            porInicio.remove(franja);
+            return porInicio.isEmpty();
+        }
+
+        List<Franja> solapadas(int inicio, int fin) {
+            List<Franja> solapadas = new ArrayList<>();
+            if (fin <= inicio) {
+                return solapadas;
+            }
+            for (Franja otra : porInicio.subSet(sonda(inicio - duracionMaxima), true, sonda(fin), false)) {
+                if (otra.fin() > inicio) {
+                    solapadas.add(otra);
+                }
+            }
+            return solapadas;
+        }
+
+        /**
+         * Franja de búsqueda: con horarioId vacío queda antes que cualquier franja real
+         * que empiece en el mismo segundo.
+         */
+        private static Franja sonda(int inicio) {
+            return new Franja("", null, null, null, null, null, inicio, inicio);
+        }
+    }
+}
@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -36,22 +31,16 @@ public class TemaService {
     private final TemaRepository temaRepository;
     private final UnidadRepository unidadRepository;
     private final TemaMapper temaMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     /**
      * Constructor con inyección de dependencias.
      */
     public TemaService(TemaRepository temaRepository,
             UnidadRepository unidadRepository,
-            TemaMapper temaMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            TemaMapper temaMapper) {
         this.temaRepository = temaRepository;
         this.unidadRepository = unidadRepository;
         this.temaMapper = temaMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -106,6 +95,11 @@ public class TemaService {
     /**
      * Crea un nuevo tema.
      */
+    @Audited(accion = "CREATE", entidad = "tema", detalle = {
+            "temaId=#result.id()",
+            "titulo=#result.titulo()",
+            "numero=#result.numero()",
+            "unidadId=#result.unidad()?.id()" })
     public TemaResponse createTema(CreateTemaRequest request, HttpServletRequest httpRequest) {
         // Validar que la unidad existe
         Unidad unidad = unidadRepository.findById(request.unidadId())
@@ -116,15 +110,17 @@ public class TemaService {
 
         Tema savedTema = temaRepository.save(tema);
 
-        // Audit Log
-        logTemaAction("CREATE", savedTema, httpRequest);
-
         return temaMapper.toResponse(savedTema);
     }
 
     /**
      * Actualiza un tema existente.
      */
+    @Audited(accion = "UPDATE", entidad = "tema", detalle = {
+            "temaId=#result.id()",
+            "titulo=#result.titulo()",
+            "numero=#result.numero()",
+            "unidadId=#result.unidad()?.id()" })
     public TemaResponse updateTema(String id, UpdateTemaRequest request, HttpServletRequest httpRequest) {
         Tema tema = temaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tema no encontrado con ID: " + id));
@@ -133,23 +129,18 @@ public class TemaService {
 
         Tema updatedTema = temaRepository.save(tema);
 
-        // Audit Log
-        logTemaAction("UPDATE", updatedTema, httpRequest);
-
         return temaMapper.toResponse(updatedTema);
     }
 
     /**
      * Elimina lógicamente un tema (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "tema", detalle = "temaId=#id")
     public void deleteTema(String id, HttpServletRequest httpRequest) {
         Tema tema = temaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tema no encontrado con ID: " + id));
         tema.setDeletedAt(LocalDateTime.now());
         temaRepository.save(tema);
-
-        // Audit Log
-        logTemaAction("DELETE", tema, httpRequest);
     }
 
     /**
@@ -171,31 +162,4 @@ public class TemaService {
         Tema restoredTema = temaRepository.save(tema);
         return temaMapper.toResponse(restoredTema);
     }
-
-    private void logTemaAction(String action, Tema tema, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("temaId", tema.getId());
-            bodyMap.put("titulo", tema.getTitulo());
-            bodyMap.put("numero", tema.getNumero());
-            if (tema.getUnidad() != null) {
-                bodyMap.put("unidadId", tema.getUnidad().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
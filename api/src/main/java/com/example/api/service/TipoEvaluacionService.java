@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,20 +29,14 @@ public class TipoEvaluacionService {
 
     private final TipoEvaluacionRepository tipoEvaluacionRepository;
     private final TipoEvaluacionMapper tipoEvaluacionMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     /**
      * Constructor con inyección de dependencias.
      */
     public TipoEvaluacionService(TipoEvaluacionRepository tipoEvaluacionRepository,
-            TipoEvaluacionMapper tipoEvaluacionMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            TipoEvaluacionMapper tipoEvaluacionMapper) {
         this.tipoEvaluacionRepository = tipoEvaluacionRepository;
         this.tipoEvaluacionMapper = tipoEvaluacionMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -103,6 +92,9 @@ public class TipoEvaluacionService {
     /**
      * Crea un nuevo tipo de evaluación.
      */
+    @Audited(accion = "CREATE", entidad = "tipo_evaluacion", detalle = {
+            "tipoEvaluacionId=#result.id()",
+            "nombre=#result.nombre()" })
     public TipoEvaluacionResponse createTipoEvaluacion(CreateTipoEvaluacionRequest request,
             HttpServletRequest httpRequest) {
         TipoEvaluacion tipoEvaluacion = tipoEvaluacionMapper.toEntity(request);
@@ -110,15 +102,15 @@ public class TipoEvaluacionService {
 
         TipoEvaluacion saved = tipoEvaluacionRepository.save(tipoEvaluacion);
 
-        // Audit Log
-        logTipoEvaluacionAction("CREATE", saved, httpRequest);
-
         return tipoEvaluacionMapper.toResponse(saved);
     }
 
     /**
      * Actualiza un tipo de evaluación existente.
      */
+    @Audited(accion = "UPDATE", entidad = "tipo_evaluacion", detalle = {
+            "tipoEvaluacionId=#result.id()",
+            "nombre=#result.nombre()" })
     public TipoEvaluacionResponse updateTipoEvaluacion(String id, UpdateTipoEvaluacionRequest request,
             HttpServletRequest httpRequest) {
         TipoEvaluacion tipoEvaluacion = tipoEvaluacionRepository.findById(id)
@@ -128,23 +120,18 @@ public class TipoEvaluacionService {
 
         TipoEvaluacion updated = tipoEvaluacionRepository.save(tipoEvaluacion);
 
-        // Audit Log
-        logTipoEvaluacionAction("UPDATE", updated, httpRequest);
-
         return tipoEvaluacionMapper.toResponse(updated);
     }
 
     /**
      * Elimina lógicamente un tipo de evaluación (soft delete).
      */
+    @Audited(accion = "DELETE", entidad = "tipo_evaluacion", detalle = "tipoEvaluacionId=#id")
     public void deleteTipoEvaluacion(String id, HttpServletRequest httpRequest) {
         TipoEvaluacion tipoEvaluacion = tipoEvaluacionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de evaluación no encontrado con ID: " + id));
         tipoEvaluacion.setDeletedAt(LocalDateTime.now());
         tipoEvaluacionRepository.save(tipoEvaluacion);
-
-        // Audit Log
-        logTipoEvaluacionAction("DELETE", tipoEvaluacion, httpRequest);
     }
 
     /**
@@ -166,27 +153,4 @@ public class TipoEvaluacionService {
         TipoEvaluacion restored = tipoEvaluacionRepository.save(tipoEvaluacion);
         return tipoEvaluacionMapper.toResponse(restored);
     }
-
-    private void logTipoEvaluacionAction(String action, TipoEvaluacion tipoEvaluacion, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("tipoEvaluacionId", tipoEvaluacion.getId());
-            bodyMap.put("nombre", tipoEvaluacion.getNombre());
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
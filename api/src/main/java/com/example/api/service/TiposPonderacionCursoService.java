@@ -3,14 +3,9 @@ package com.example.api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -33,19 +28,16 @@ public class TiposPonderacionCursoService {
     private final TiposPonderacionCursoRepository repository;
     private final CursoRepository cursoRepository;
     private final TiposPonderacionCursoMapper mapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
+    private final NotaFinalService notaFinalService;
 
     public TiposPonderacionCursoService(TiposPonderacionCursoRepository repository,
             CursoRepository cursoRepository,
             TiposPonderacionCursoMapper mapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            NotaFinalService notaFinalService) {
         this.repository = repository;
         this.cursoRepository = cursoRepository;
         this.mapper = mapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
+        this.notaFinalService = notaFinalService;
     }
 
     @Transactional(readOnly = true)
@@ -68,6 +60,10 @@ public class TiposPonderacionCursoService {
                 .collect(Collectors.toList());
     }
 
+    @Audited(accion = "CREATE", entidad = "tipo_ponderacion_curso", detalle = {
+            "tiposPonderacionCursoId=#result.id()",
+            "nombre=#result.nombre()",
+            "cursoId=#result.cursoId()" })
     public TiposPonderacionCursoResponse create(CreateTiposPonderacionCursoRequest request,
             HttpServletRequest httpRequest) {
         Curso curso = cursoRepository.findById(request.cursoId())
@@ -77,13 +73,15 @@ public class TiposPonderacionCursoService {
         entity.setCurso(curso);
 
         TiposPonderacionCurso saved = repository.save(entity);
-
-        // Audit Log
-        logTiposPonderacionCursoAction("CREATE", saved, httpRequest);
+        notaFinalService.invalidarCurso(curso.getId());
 
         return mapper.toResponse(saved);
     }
 
+    @Audited(accion = "UPDATE", entidad = "tipo_ponderacion_curso", detalle = {
+            "tiposPonderacionCursoId=#result.id()",
+            "nombre=#result.nombre()",
+            "cursoId=#result.cursoId()" })
     public TiposPonderacionCursoResponse update(String id, UpdateTiposPonderacionCursoRequest request,
             HttpServletRequest httpRequest) {
         TiposPonderacionCurso entity = repository.findById(id)
@@ -92,47 +90,17 @@ public class TiposPonderacionCursoService {
         mapper.updateEntityFromDto(request, entity);
 
         TiposPonderacionCurso updated = repository.save(entity);
-
-        // Audit Log
-        logTiposPonderacionCursoAction("UPDATE", updated, httpRequest);
+        notaFinalService.invalidarCurso(updated.getCurso().getId());
 
         return mapper.toResponse(updated);
     }
 
+    @Audited(accion = "DELETE", entidad = "tipo_ponderacion_curso", detalle = "tiposPonderacionCursoId=#id")
     public void delete(String id, HttpServletRequest httpRequest) {
         TiposPonderacionCurso entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de ponderación no encontrado con ID: " + id));
         entity.setDeletedAt(LocalDateTime.now());
         repository.save(entity);
-
-        // Audit Log
-        logTiposPonderacionCursoAction("DELETE", entity, httpRequest);
-    }
-
-    private void logTiposPonderacionCursoAction(String action, TiposPonderacionCurso entity,
-            HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("tiposPonderacionCursoId", entity.getId());
-            bodyMap.put("nombre", entity.getNombre());
-            if (entity.getCurso() != null) {
-                bodyMap.put("cursoId", entity.getCurso().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
+        notaFinalService.invalidarCurso(entity.getCurso().getId());
     }
 }
@@ -0,0 +1,407 @@
+package com.example.api.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api.dto.request.CreateReporteRequest;
+import com.example.api.dto.request.CreateTrabajoReporteRequest;
+import com.example.api.dto.response.TrabajoReporteResponse;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.exception.TrabajoPerdidoException;
+import com.example.api.model.TrabajoReporte;
+import com.example.api.model.TrabajoReporte.EstadoTrabajo;
+import com.example.api.model.TrabajoReporte.TipoTrabajo;
+import com.example.api.model.Usuario;
+import com.example.api.repository.BoletinBatchRepository;
+import com.example.api.repository.BoletinBatchRepository.BoletinGenerado;
+import com.example.api.repository.TrabajoReporteRepository;
+import com.example.api.repository.TrabajoReporteRepository.ConteoEstado;
+import com.example.api.repository.UsuarioRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Servicio de trabajos persistentes de generación de reportes.
+ *
+ * Los trabajos se guardan en trabajos_reporte y los ejecuta ProcesadorTrabajosReporte
+ * en cualquier instancia. Cada elemento del lote se confirma en su propia transacción
+ * junto con el avance del trabajo, así un reintento continúa donde quedó sin duplicar
+ * reportes. Los errores transitorios se reintentan con espera exponencial; al agotar
+ * los intentos el trabajo queda 'fallido' hasta que se reintente a mano.
+ *
+ * Los trabajos 'generar_boletines' avanzan por lotes: cada lote de boletines se registra
+ * junto con el avance en una sola transacción.
+ */
+@Service
+@Transactional
+public class TrabajoReporteService {
+
+    private static final TypeReference<List<CreateReporteRequest>> TIPO_PAYLOAD = new TypeReference<>() {
+    };
+    private static final int MAXIMO_ERRORES_ELEMENTOS = 50;
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 3600;
+
+    private final TrabajoReporteRepository trabajoReporteRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ReporteService reporteService;
+    private final BoletinBatchRepository boletinBatchRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.reportes.trabajos.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${app.reportes.trabajos.espera-reintento-segundos:30}")
+    private long esperaReintentoSegundos;
+
+    /**
+     * Trabajo tomado por un worker, con lo necesario para ejecutarlo fuera de la transacción.
+     */
+    public record TrabajoTomado(String id, TipoTrabajo tipo, String payload, int procesados, int intentos,
+            LocalDateTime creadoAt) {
+    }
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public TrabajoReporteService(TrabajoReporteRepository trabajoReporteRepository,
+            UsuarioRepository usuarioRepository,
+            ReporteService reporteService,
+            BoletinBatchRepository boletinBatchRepository,
+            ObjectMapper objectMapper) {
+        this.trabajoReporteRepository = trabajoReporteRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.reporteService = reporteService;
+        this.boletinBatchRepository = boletinBatchRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Encola un trabajo que crea un lote de reportes.
+     */
+    public TrabajoReporteResponse encolar(CreateTrabajoReporteRequest request) {
+        return encolar(TipoTrabajo.crear_reportes, request.reportes(), request.reportes().size(),
+                request.solicitadoPorId());
+    }
+
+    /**
+     * Encola un trabajo de cualquier tipo.
+     *
+     * @param payload Datos del trabajo; se guardan en JSON
+     * @param total Elementos que procesará el trabajo
+     * @param solicitadoPorId ID del usuario que lo solicita (puede ser null)
+     */
+    public TrabajoReporteResponse encolar(TipoTrabajo tipo, Object payload, int total, String solicitadoPorId) {
+        TrabajoReporte trabajo = new TrabajoReporte();
+        trabajo.setTipo(tipo);
+        trabajo.setEstado(EstadoTrabajo.en_cola);
+        trabajo.setTotal(total);
+        trabajo.setMaxIntentos(maxIntentos);
+        trabajo.setDisponibleAt(LocalDateTime.now());
+
+        try {
+            trabajo.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar la solicitud del trabajo", e);
+        }
+
+        if (solicitadoPorId != null && !solicitadoPorId.isBlank()) {
+            Usuario solicitante = usuarioRepository.findById(solicitadoPorId)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Usuario no encontrado con ID: " + solicitadoPorId));
+            trabajo.setSolicitadoPor(solicitante);
+        }
+
+        return toResponse(trabajoReporteRepository.save(trabajo));
+    }
+
+    /**
+     * Encola un trabajo con un solo reporte (endpoint de cola de generación).
+     */
+    public Map<String, Object> agregarAColaGeneracion(CreateReporteRequest request) {
+        TrabajoReporteResponse trabajo = encolar(new CreateTrabajoReporteRequest(request.creadoPorId(),
+                List.of(request)));
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("mensaje", "Solicitud agregada a la cola de generación");
+        resultado.put("trabajoId", trabajo.id());
+        resultado.put("posicionEnCola", contarPorEstado().get(EstadoTrabajo.en_cola));
+        resultado.put("timestamp", LocalDateTime.now());
+        return resultado;
+    }
+
+    /**
+     * Obtiene un trabajo por su ID.
+     */
+    @Transactional(readOnly = true)
+    public TrabajoReporteResponse getTrabajo(String id) {
+        return toResponse(buscar(id));
+    }
+
+    /**
+     * Obtiene los trabajos de un estado, del más reciente al más antiguo.
+     */
+    @Transactional(readOnly = true)
+    public Page<TrabajoReporteResponse> getTrabajosByEstado(EstadoTrabajo estado, Pageable pageable) {
+        return trabajoReporteRepository.findByEstado(estado, pageable).map(this::toResponse);
+    }
+
+    /**
+     * Obtiene el número de trabajos por estado y la antigüedad del trabajo en cola más antiguo.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getEstadoCola() {
+        Map<EstadoTrabajo, Long> porEstado = contarPorEstado();
+        LocalDateTime masAntiguo = trabajoReporteRepository.findCreacionMasAntiguaEnCola();
+
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("reportesEnCola", porEstado.get(EstadoTrabajo.en_cola));
+        estado.put("colaVacia", porEstado.get(EstadoTrabajo.en_cola) == 0);
+        estado.put("trabajosPorEstado", porEstado);
+        estado.put("encoladoMasAntiguo", masAntiguo);
+        estado.put("timestamp", LocalDateTime.now());
+        return estado;
+    }
+
+    /**
+     * Cuenta los trabajos activos de cada estado (los estados sin trabajos cuentan 0).
+     */
+    @Transactional(readOnly = true)
+    public Map<EstadoTrabajo, Long> contarPorEstado() {
+        Map<EstadoTrabajo, Long> porEstado = new EnumMap<>(EstadoTrabajo.class);
+        for (EstadoTrabajo estado : EstadoTrabajo.values()) {
+            porEstado.put(estado, 0L);
+        }
+        for (ConteoEstado conteo : trabajoReporteRepository.countByEstado()) {
+            porEstado.put(conteo.getEstado(), conteo.getTotal());
+        }
+        return porEstado;
+    }
+
+    /**
+     * Obtiene la fecha de creación del trabajo en cola más antiguo, o null si no hay.
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getCreacionMasAntiguaEnCola() {
+        return trabajoReporteRepository.findCreacionMasAntiguaEnCola();
+    }
+
+    /**
+     * Cancela un trabajo que todavía no empezó.
+     */
+    public TrabajoReporteResponse cancelar(String id) {
+        TrabajoReporte trabajo = buscar(id);
+        if (trabajo.getEstado() != EstadoTrabajo.en_cola) {
+            throw new IllegalArgumentException("Solo se pueden cancelar trabajos en cola; estado actual: "
+                    + trabajo.getEstado());
+        }
+        trabajo.setEstado(EstadoTrabajo.cancelado);
+        trabajo.setFinalizadoAt(LocalDateTime.now());
+        return toResponse(trabajoReporteRepository.save(trabajo));
+    }
+
+    /**
+     * Vuelve a encolar un trabajo fallido o cancelado con sus intentos reiniciados. Continúa
+     * desde el último elemento confirmado.
+     */
+    public TrabajoReporteResponse reintentar(String id) {
+        TrabajoReporte trabajo = buscar(id);
+        if (trabajo.getEstado() != EstadoTrabajo.fallido && trabajo.getEstado() != EstadoTrabajo.cancelado) {
+            throw new IllegalArgumentException("Solo se pueden reintentar trabajos fallidos o cancelados; estado actual: "
+                    + trabajo.getEstado());
+        }
+        trabajo.setEstado(EstadoTrabajo.en_cola);
+        trabajo.setIntentos(0);
+        trabajo.setDisponibleAt(LocalDateTime.now());
+        trabajo.setFinalizadoAt(null);
+        trabajo.setBloqueadoPor(null);
+        trabajo.setBloqueadoHasta(null);
+        return toResponse(trabajoReporteRepository.save(trabajo));
+    }
+
+    /**
+     * Toma hasta 'limite' trabajos listos para ejecutarse y los marca en proceso a nombre
+     * de la instancia. Los que ya agotaron sus intentos (por ejemplo, tomados por una
+     * instancia que se cayó varias veces) se descartan.
+     */
+    public List<TrabajoTomado> tomar(String instancia, int limite, long bloqueoSegundos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<TrabajoTomado> tomados = new ArrayList<>();
+        for (TrabajoReporte trabajo : trabajoReporteRepository.findAllById(
+                trabajoReporteRepository.lockSiguientes(ahora, limite))) {
+            if (trabajo.getIntentos() >= trabajo.getMaxIntentos()) {
+                descartar(trabajo, "Se agotaron los intentos (el trabajo quedó sin terminar " +
+                        trabajo.getIntentos() + " veces)");
+                continue;
+            }
+            trabajo.setEstado(EstadoTrabajo.en_proceso);
+            trabajo.setIntentos(trabajo.getIntentos() + 1);
+            trabajo.setBloqueadoPor(instancia);
+            trabajo.setBloqueadoHasta(ahora.plusSeconds(bloqueoSegundos));
+            if (trabajo.getIniciadoAt() == null) {
+                trabajo.setIniciadoAt(ahora);
+            }
+            trabajoReporteRepository.save(trabajo);
+            tomados.add(new TrabajoTomado(trabajo.getId(), trabajo.getTipo(), trabajo.getPayload(),
+                    trabajo.getProcesados(), trabajo.getIntentos(), trabajo.getCreatedAt()));
+        }
+        return tomados;
+    }
+
+    /**
+     * Deserializa las solicitudes de un trabajo de creación de reportes.
+     */
+    public List<CreateReporteRequest> leerSolicitudes(String payload) {
+        try {
+            return objectMapper.readValue(payload, TIPO_PAYLOAD);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload de trabajo inválido: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Crea el reporte del elemento 'indice' y registra el avance en la misma transacción.
+     * Si la instancia ya no es dueña del trabajo, el reporte se revierte.
+     */
+    public void crearReporte(String trabajoId, String instancia, int indice, CreateReporteRequest request,
+            long bloqueoSegundos) {
+        reporteService.createReporte(request, null);
+        avanzar(trabajoId, instancia, indice, 0, bloqueoSegundos);
+    }
+
+    /**
+     * Registra como omitido un elemento con datos inválidos y continúa con el siguiente.
+     */
+    public void omitirElemento(String trabajoId, String instancia, int indice, String error, long bloqueoSegundos) {
+        avanzar(trabajoId, instancia, indice, 1, bloqueoSegundos);
+        anotarErrores(trabajoId, List.of("#" + indice + ": " + error));
+    }
+
+    /**
+     * Registra los boletines de un lote que empieza en el elemento 'desde' y avanza el
+     * trabajo en 'cantidad' elementos en la misma transacción. Los elementos con error
+     * cuentan como omitidos. Si la instancia ya no es dueña del trabajo, nada se guarda.
+     *
+     * @param errores Errores de los elementos omitidos, uno por elemento
+     */
+    public void guardarBoletines(String trabajoId, String instancia, int desde, int cantidad, String periodoId,
+            List<BoletinGenerado> boletines, List<String> errores, long bloqueoSegundos) {
+        int actualizados = trabajoReporteRepository.avanzarLote(trabajoId, instancia, desde, cantidad,
+                errores.size(), LocalDateTime.now().plusSeconds(bloqueoSegundos), EstadoTrabajo.en_proceso);
+        if (actualizados == 0) {
+            throw new TrabajoPerdidoException(trabajoId);
+        }
+        boletinBatchRepository.upsert(periodoId, boletines, trabajoId);
+        if (!errores.isEmpty()) {
+            anotarErrores(trabajoId, errores);
+        }
+    }
+
+    /**
+     * Marca como completado un trabajo de la instancia.
+     */
+    public void completar(String trabajoId, String instancia) {
+        TrabajoReporte trabajo = buscar(trabajoId);
+        if (!esPropio(trabajo, instancia)) {
+            return;
+        }
+        trabajo.setEstado(EstadoTrabajo.completado);
+        trabajo.setFinalizadoAt(LocalDateTime.now());
+        trabajo.setBloqueadoPor(null);
+        trabajo.setBloqueadoHasta(null);
+        trabajoReporteRepository.save(trabajo);
+    }
+
+    /**
+     * Registra el fallo de un intento. Si quedan intentos el trabajo vuelve a la cola con
+     * espera exponencial (base * 2^(intentos - 1), hasta una hora); si no, o si el error es
+     * definitivo, se descarta.
+     *
+     * @return Estado en que quedó el trabajo
+     */
+    public EstadoTrabajo registrarFallo(String trabajoId, String instancia, String error, boolean definitivo) {
+        TrabajoReporte trabajo = buscar(trabajoId);
+        if (!esPropio(trabajo, instancia)) {
+            return trabajo.getEstado();
+        }
+        if (definitivo || trabajo.getIntentos() >= trabajo.getMaxIntentos()) {
+            descartar(trabajo, error);
+            return EstadoTrabajo.fallido;
+        }
+
+        long espera = Math.min(ESPERA_MAXIMA_SEGUNDOS,
+                esperaReintentoSegundos << Math.min(20, Math.max(0, trabajo.getIntentos() - 1)));
+        trabajo.setEstado(EstadoTrabajo.en_cola);
+        trabajo.setDisponibleAt(LocalDateTime.now().plusSeconds(espera));
+        trabajo.setUltimoError(error);
+        trabajo.setBloqueadoPor(null);
+        trabajo.setBloqueadoHasta(null);
+        trabajoReporteRepository.save(trabajo);
+        return EstadoTrabajo.en_cola;
+    }
+
+    private void avanzar(String trabajoId, String instancia, int indice, int omitido, long bloqueoSegundos) {
+        int actualizados = trabajoReporteRepository.avanzar(trabajoId, instancia, indice, omitido,
+                LocalDateTime.now().plusSeconds(bloqueoSegundos), EstadoTrabajo.en_proceso);
+        if (actualizados == 0) {
+            // Otra instancia tomó el trabajo (bloqueo vencido) o fue reencolado: se revierte el elemento
+            throw new TrabajoPerdidoException(trabajoId);
+        }
+    }
+
+    private void anotarErrores(String trabajoId, List<String> nuevos) {
+        TrabajoReporte trabajo = buscar(trabajoId);
+        String errores = trabajo.getErroresElementos();
+        int lineas = errores == null ? 0 : (int) errores.lines().count();
+        StringBuilder texto = new StringBuilder(errores == null ? "" : errores);
+        for (String linea : nuevos) {
+            if (lineas++ >= MAXIMO_ERRORES_ELEMENTOS) {
+                break;
+            }
+            if (texto.length() > 0) {
+                texto.append('\n');
+            }
+            texto.append(linea);
+        }
+        trabajo.setErroresElementos(texto.length() == 0 ? null : texto.toString());
+        trabajoReporteRepository.save(trabajo);
+    }
+
+    private void descartar(TrabajoReporte trabajo, String error) {
+        trabajo.setEstado(EstadoTrabajo.fallido);
+        trabajo.setUltimoError(error);
+        trabajo.setFinalizadoAt(LocalDateTime.now());
+        trabajo.setBloqueadoPor(null);
+        trabajo.setBloqueadoHasta(null);
+        trabajoReporteRepository.save(trabajo);
+    }
+
+    private boolean esPropio(TrabajoReporte trabajo, String instancia) {
+        return trabajo.getEstado() == EstadoTrabajo.en_proceso && instancia.equals(trabajo.getBloqueadoPor());
+    }
+
+    private TrabajoReporte buscar(String id) {
+        return trabajoReporteRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Trabajo de reportes no encontrado con ID: " + id));
+    }
+
+    private TrabajoReporteResponse toResponse(TrabajoReporte trabajo) {
+        double progreso = trabajo.getTotal() == 0 ? 100.0
+                : Math.round(trabajo.getProcesados() * 1000.0 / trabajo.getTotal()) / 10.0;
+        return new TrabajoReporteResponse(trabajo.getId(), trabajo.getTipo(), trabajo.getEstado(), trabajo.getTotal(),
+                trabajo.getProcesados(), trabajo.getOmitidos(), progreso, trabajo.getIntentos(),
+                trabajo.getMaxIntentos(), trabajo.getDisponibleAt(), trabajo.getIniciadoAt(),
+                trabajo.getFinalizadoAt(), trabajo.getUltimoError(), trabajo.getErroresElementos(),
+                trabajo.getCreatedAt());
+    }
+}
@@ -2,14 +2,9 @@ package com.example.api.service;
 
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.HashMap;
-import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import com.example.api.dto.AuditLogDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -38,8 +33,6 @@ public class UsuarioService {
     private final RolRepository rolRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final UsuarioMapper usuarioMapper;
-    private final AuditProducer auditProducer;
-    private final ObjectMapper objectMapper;
 
     /**
      * Constructor con inyección de dependencias.
@@ -49,15 +42,11 @@ public class UsuarioService {
      * @param usuarioMapper     Mapper de usuarios
      */
     public UsuarioService(UsuarioRepository usuarioRepository, RolRepository rolRepository,
-            UsuarioMapper usuarioMapper,
-            AuditProducer auditProducer,
-            ObjectMapper objectMapper) {
+            UsuarioMapper usuarioMapper) {
         this.usuarioRepository = usuarioRepository;
         this.rolRepository = rolRepository;
         this.passwordEncoder = new BCryptPasswordEncoder();
         this.usuarioMapper = usuarioMapper;
-        this.auditProducer = auditProducer;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -213,6 +202,11 @@ public class UsuarioService {
      *                                    email
      * @throws ResourceNotFoundException  si el rol no existe
      */
+    @Audited(accion = "CREATE", entidad = "usuario", detalle = {
+            "usuarioId=#result.id()",
+            "username=#result.username()",
+            "email=#result.email()",
+            "rolId=#result.rol()?.id()" })
     public UsuarioResponse createUsuario(CreateUsuarioRequest request, HttpServletRequest httpRequest) {
         // Validar que no exista un usuario con el mismo username
         if (usuarioRepository.existsByUsernameAndIdNot(request.username(), null)) {
@@ -239,9 +233,6 @@ public class UsuarioService {
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
 
-        // Audit Log
-        logUsuarioAction("CREATE", savedUsuario, httpRequest);
-
         return usuarioMapper.toResponse(savedUsuario);
     }
 
@@ -254,6 +245,11 @@ public class UsuarioService {
      * @throws ResourceNotFoundException  si el usuario o rol no existe
      * @throws DuplicateResourceException si el nuevo username o email ya existe
      */
+    @Audited(accion = "UPDATE", entidad = "usuario", detalle = {
+            "usuarioId=#result.id()",
+            "username=#result.username()",
+            "email=#result.email()",
+            "rolId=#result.rol()?.id()" })
     public UsuarioResponse updateUsuario(String id, UpdateUsuarioRequest request, HttpServletRequest httpRequest) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", id));
@@ -298,9 +294,6 @@ public class UsuarioService {
 
         Usuario updatedUsuario = usuarioRepository.save(usuario);
 
-        // Audit Log
-        logUsuarioAction("UPDATE", updatedUsuario, httpRequest);
-
         return usuarioMapper.toResponse(updatedUsuario);
     }
 
@@ -310,6 +303,7 @@ public class UsuarioService {
      * @param id El ID del usuario a eliminar
      * @throws ResourceNotFoundException si el usuario no existe
      */
+    @Audited(accion = "DELETE", entidad = "usuario", detalle = "usuarioId=#id")
     public void softDeleteUsuario(String id, HttpServletRequest httpRequest) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", id));
@@ -320,9 +314,6 @@ public class UsuarioService {
 
         usuario.softDelete();
         usuarioRepository.save(usuario);
-
-        // Audit Log
-        logUsuarioAction("DELETE", usuario, httpRequest);
     }
 
     /**
@@ -345,33 +336,6 @@ public class UsuarioService {
         return usuarioMapper.toResponse(restoredUsuario);
     }
 
-    private void logUsuarioAction(String action, Usuario usuario, HttpServletRequest request) {
-        try {
-            AuditLogDTO log = new AuditLogDTO();
-            log.setUserId("SYSTEM_ADMIN"); // Hardcoded as requested
-            log.setAction(action);
-            log.setEndpoint(request.getRequestURI());
-            log.setIpAddress(request.getRemoteAddr());
-            log.setDevice(request.getHeader("User-Agent"));
-            log.setTimestamp(java.time.Instant.now());
-
-            Map<String, Object> bodyMap = new HashMap<>();
-            bodyMap.put("usuarioId", usuario.getId());
-            bodyMap.put("username", usuario.getUsername());
-            bodyMap.put("email", usuario.getEmail());
-            if (usuario.getRol() != null) {
-                bodyMap.put("rolId", usuario.getRol().getId());
-            }
-
-            log.setRequestBody(objectMapper.writeValueAsString(bodyMap));
-
-            auditProducer.sendAuditLog(log);
-        } catch (Exception e) {
-            System.err.println("Error sending audit log: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     /**
      * Elimina permanentemente un usuario de la base de datos.
      * ADVERTENCIA: Esta operación no se puede deshacer.
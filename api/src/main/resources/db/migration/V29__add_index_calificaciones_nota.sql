@@ -0,0 +1,3 @@
+-- Índice compuesto para listar calificaciones activas ordenadas por nota.
+-- InnoDB agrega la clave primaria (id) al final, lo que cubre el desempate del cursor.
+CREATE INDEX idx_calificaciones_deleted_at_nota ON calificaciones(deleted_at, nota);
@@ -0,0 +1,30 @@
+-- Contadores de asistencia por estudiante y curso, mantenidos por la aplicación
+-- en la misma transacción que cada cambio en la tabla asistencia.
+CREATE TABLE resumen_asistencia (
+  estudiante_id CHAR(36) NOT NULL,
+  curso_id CHAR(36) NOT NULL,
+  periodo_id CHAR(36) NOT NULL,
+  presente INT NOT NULL DEFAULT 0,
+  ausente INT NOT NULL DEFAULT 0,
+  tarde INT NOT NULL DEFAULT 0,
+  justificado INT NOT NULL DEFAULT 0,
+  updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (estudiante_id, curso_id),
+  FOREIGN KEY (estudiante_id) REFERENCES estudiantes(id) ON DELETE CASCADE,
+  FOREIGN KEY (curso_id) REFERENCES cursos(id) ON DELETE CASCADE,
+  FOREIGN KEY (periodo_id) REFERENCES periodos(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_resumen_asistencia_curso ON resumen_asistencia(curso_id);
+CREATE INDEX idx_resumen_asistencia_periodo ON resumen_asistencia(periodo_id);
+
+-- Carga inicial a partir de los registros existentes
+INSERT INTO resumen_asistencia (estudiante_id, curso_id, periodo_id, presente, ausente, tarde, justificado)
+SELECT a.estudiante_id, cl.curso_id, cu.periodo_id,
+       SUM(a.estado = 'presente'), SUM(a.estado = 'ausente'),
+       SUM(a.estado = 'tarde'), SUM(a.estado = 'justificado')
+FROM asistencia a
+JOIN clases cl ON cl.id = a.clase_id
+JOIN cursos cu ON cu.id = cl.curso_id
+WHERE a.deleted_at IS NULL
+GROUP BY a.estudiante_id, cl.curso_id, cu.periodo_id;
@@ -0,0 +1,9 @@
+-- Contador de cupos ocupados por curso (inscripciones activas en estado 'inscrito').
+-- Se actualiza con UPDATE condicional para que la admisión sea atómica.
+ALTER TABLE cursos ADD COLUMN inscritos INT UNSIGNED NOT NULL DEFAULT 0 AFTER cupo;
+
+UPDATE cursos c
+SET c.inscritos = (
+  SELECT COUNT(*) FROM inscripciones i
+  WHERE i.curso_id = c.id AND i.estado = 'inscrito' AND i.deleted_at IS NULL
+);
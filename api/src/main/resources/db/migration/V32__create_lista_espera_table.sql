@@ -0,0 +1,16 @@
+-- Lista de espera de inscripciones por curso (solo solicitudes pendientes).
+-- Al promover o cancelar una solicitud la fila se elimina.
+CREATE TABLE lista_espera (
+  id CHAR(36) NOT NULL PRIMARY KEY,
+  curso_id CHAR(36) NOT NULL,
+  estudiante_id CHAR(36) NOT NULL,
+  solicitado_at DATETIME(6) NOT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
+  deleted_at DATETIME NULL DEFAULT NULL,
+  UNIQUE KEY uni_espera_curso_est (curso_id, estudiante_id),
+  FOREIGN KEY (curso_id) REFERENCES cursos(id) ON DELETE CASCADE,
+  FOREIGN KEY (estudiante_id) REFERENCES estudiantes(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_lista_espera_orden ON lista_espera(curso_id, solicitado_at, id);
@@ -0,0 +1,30 @@
+-- Trabajos asíncronos de generación de reportes.
+-- Los workers de todas las instancias toman trabajos con SELECT ... FOR UPDATE SKIP LOCKED;
+-- un trabajo en proceso cuyo bloqueo venció (instancia caída) se vuelve a tomar.
+-- 'fallido' es la cola de descartados: agotó sus intentos y solo se reintenta a mano.
+CREATE TABLE trabajos_reporte (
+  id CHAR(36) NOT NULL PRIMARY KEY,
+  tipo ENUM('crear_reportes') NOT NULL,
+  estado ENUM('en_cola','en_proceso','completado','fallido','cancelado') NOT NULL DEFAULT 'en_cola',
+  payload LONGTEXT NOT NULL,
+  total INT NOT NULL DEFAULT 0,
+  procesados INT NOT NULL DEFAULT 0,
+  omitidos INT NOT NULL DEFAULT 0,
+  intentos INT NOT NULL DEFAULT 0,
+  max_intentos INT NOT NULL DEFAULT 5,
+  disponible_at DATETIME(6) NOT NULL,
+  bloqueado_por VARCHAR(100) NULL,
+  bloqueado_hasta DATETIME(6) NULL,
+  iniciado_at DATETIME(6) NULL,
+  finalizado_at DATETIME(6) NULL,
+  ultimo_error TEXT NULL,
+  errores_elementos TEXT NULL,
+  solicitado_por CHAR(36) NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
+  deleted_at DATETIME NULL DEFAULT NULL,
+  FOREIGN KEY (solicitado_por) REFERENCES usuarios(id) ON DELETE SET NULL
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_trabajos_reporte_cola ON trabajos_reporte(estado, disponible_at);
+CREATE INDEX idx_trabajos_reporte_bloqueo ON trabajos_reporte(estado, bloqueado_hasta);
@@ -0,0 +1,23 @@
+-- Boletines (PDF por estudiante y periodo) generados por los trabajos 'generar_boletines'.
+-- Regenerar un boletín reemplaza el archivo y actualiza la misma fila.
+ALTER TABLE trabajos_reporte MODIFY tipo ENUM('crear_reportes','generar_boletines') NOT NULL;
+
+CREATE TABLE boletines (
+  id CHAR(36) NOT NULL PRIMARY KEY,
+  estudiante_id CHAR(36) NOT NULL,
+  periodo_id CHAR(36) NOT NULL,
+  archivo VARCHAR(255) NOT NULL,
+  tamano_bytes INT NOT NULL DEFAULT 0,
+  promedio DECIMAL(6,2) NULL,
+  generado_at DATETIME(6) NOT NULL,
+  trabajo_id CHAR(36) NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
+  deleted_at DATETIME NULL DEFAULT NULL,
+  UNIQUE KEY uk_boletines_estudiante_periodo (estudiante_id, periodo_id),
+  FOREIGN KEY (estudiante_id) REFERENCES estudiantes(id) ON DELETE CASCADE,
+  FOREIGN KEY (periodo_id) REFERENCES periodos(id) ON DELETE CASCADE,
+  FOREIGN KEY (trabajo_id) REFERENCES trabajos_reporte(id) ON DELETE SET NULL
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_boletines_periodo ON boletines(periodo_id);
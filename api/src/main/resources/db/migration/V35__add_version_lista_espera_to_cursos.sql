@@ -0,0 +1,3 @@
+-- Versión de la lista de espera de cada curso. Se incrementa en la misma transacción
+-- que agrega o retira solicitudes, para detectar si la cola en memoria está al día.
+ALTER TABLE cursos ADD COLUMN version_lista_espera BIGINT NOT NULL DEFAULT 0 AFTER inscritos;
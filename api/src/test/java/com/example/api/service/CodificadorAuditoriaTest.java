@@ -0,0 +1,74 @@
+package com.example.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.api.dto.AuditLogDTO;
+
+/**
+ * Pruebas del formato binario de auditoría. El vector fijo protege la compatibilidad
+ * con AuditLogCodec de AuditService.
+ */
+class CodificadorAuditoriaTest {
+
+    @Test
+    void codificaElVectorDeReferencia() {
+        AuditLogDTO log = new AuditLogDTO();
+        log.setUserId("u1");
+        log.setAction("A");
+        log.setTimestamp(Instant.ofEpochMilli(1));
+
+        byte[] esperado = {(byte) 0xA7, 1, 3, 'u', '1', 2, 'A', 0, 0, 0, 0, 3};
+        assertArrayEquals(esperado, CodificadorAuditoria.codificar(log));
+    }
+
+    @Test
+    void idaYVueltaConservaTodosLosCampos() {
+        AuditLogDTO log = new AuditLogDTO();
+        log.setUserId("42");
+        log.setAction("UPDATE_CALIFICACION");
+        log.setEndpoint("/api/calificaciones/7");
+        log.setIpAddress("10.0.0.1");
+        log.setDevice("Mozilla/5.0 (X11; Linux x86_64)");
+        log.setRequestBody("{\"nota\":4.5,\"observación\":\"año ñandú 😀\"}");
+        log.setTimestamp(Instant.parse("2026-10-16T12:34:56.789Z"));
+
+        byte[] datos = CodificadorAuditoria.codificar(log);
+        assertTrue(CodificadorAuditoria.esBinario(datos));
+        assertEquals(log, CodificadorAuditoria.decodificar(datos));
+
+        AuditLogDTO vacio = new AuditLogDTO();
+        vacio.setTimestamp(Instant.ofEpochMilli(-1));
+        assertEquals(vacio, CodificadorAuditoria.decodificar(CodificadorAuditoria.codificar(vacio)));
+        assertEquals(new AuditLogDTO(), CodificadorAuditoria.decodificar(CodificadorAuditoria.codificar(new AuditLogDTO())));
+    }
+
+    @Test
+    void validaFormatoYVersion() {
+        assertFalse(CodificadorAuditoria.esBinario("{\"userId\":\"1\"}".getBytes(StandardCharsets.UTF_8)));
+
+        AuditLogDTO log = new AuditLogDTO();
+        log.setUserId("usuario");
+        log.setTimestamp(Instant.parse("2026-01-01T00:00:00Z"));
+        byte[] datos = CodificadorAuditoria.codificar(log);
+        assertThrows(IllegalArgumentException.class,
+                () -> CodificadorAuditoria.decodificar(Arrays.copyOf(datos, 5)));
+
+        // Una versión posterior con campos extra al final se sigue leyendo
+        byte[] extendido = Arrays.copyOf(datos, datos.length + 3);
+        extendido[1] = 2;
+        assertEquals(log, CodificadorAuditoria.decodificar(extendido));
+
+        datos[1] = 0;
+        assertThrows(IllegalArgumentException.class, () -> CodificadorAuditoria.decodificar(datos));
+    }
+}
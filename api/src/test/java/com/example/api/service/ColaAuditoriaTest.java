@@ -0,0 +1,96 @@
+package com.example.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la cola circular de auditoría: orden, límite de capacidad y que ningún
+ * elemento se pierda ni se duplique con varios productores a la vez.
+ */
+class ColaAuditoriaTest {
+
+    @Test
+    void respetaOrdenYCapacidad() {
+        ColaAuditoria<Integer> cola = new ColaAuditoria<>(5);
+        assertEquals(8, cola.capacidad());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(cola.offer(i));
+        }
+        assertFalse(cola.offer(8));
+        assertEquals(8, cola.size());
+
+        List<Integer> destino = new ArrayList<>();
+        assertEquals(3, cola.drainTo(destino, 3));
+        assertEquals(List.of(0, 1, 2), destino);
+
+        // Las posiciones liberadas se reutilizan en la siguiente vuelta
+        assertTrue(cola.offer(8));
+        for (int i = 3; i <= 8; i++) {
+            assertEquals(i, cola.poll());
+        }
+        assertNull(cola.poll());
+        assertEquals(0, cola.size());
+    }
+
+    @Test
+    void variosProductoresNoPierdenElementos() throws InterruptedException {
+        int productores = 8;
+        int porProductor = 50_000;
+        ColaAuditoria<Integer> cola = new ColaAuditoria<>(1024);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(productores);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger terminados = new AtomicInteger();
+
+        for (int p = 0; p < productores; p++) {
+            int base = p * porProductor;
+            ejecutor.execute(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < porProductor; i++) {
+                    while (!cola.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                terminados.incrementAndGet();
+            });
+        }
+
+        BitSet vistos = new BitSet(productores * porProductor);
+        int recibidos = 0;
+        inicio.countDown();
+        while (recibidos < productores * porProductor) {
+            Integer valor = cola.poll();
+            if (valor == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertFalse(vistos.get(valor), "Elemento duplicado: " + valor);
+            vistos.set(valor);
+            recibidos++;
+        }
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(productores, terminados.get());
+        assertEquals(productores * porProductor, vistos.cardinality());
+        assertNull(cola.poll());
+    }
+}
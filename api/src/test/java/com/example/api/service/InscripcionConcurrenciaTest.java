@@ -0,0 +1,150 @@
+package com.example.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.api.dto.request.CreateInscripcionRequest;
+import com.example.api.model.Asignatura;
+import com.example.api.model.Curso;
+import com.example.api.model.Estudiante;
+import com.example.api.model.Periodo;
+import com.example.api.repository.AsignaturaRepository;
+import com.example.api.repository.CursoRepository;
+import com.example.api.repository.EstudianteRepository;
+import com.example.api.repository.PeriodoRepository;
+
+/**
+ * Prueba de carga de la admisión de inscripciones: 500 solicitudes simultáneas
+ * para un mismo curso no deben superar el cupo.
+ * Requiere la base de datos de desarrollo; se ejecuta con {@code mvn test -DloadTests=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class InscripcionConcurrenciaTest {
+
+    private static final int SOLICITUDES = 500;
+    private static final int CUPO = 30;
+
+    @Autowired
+    private InscripcionService inscripcionService;
+
+    @Autowired
+    private PeriodoRepository periodoRepository;
+
+    @Autowired
+    private AsignaturaRepository asignaturaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private AuditProducer auditProducer;
+
+    private final String prefijo = "LOAD-" + UUID.randomUUID().toString().substring(0, 8);
+    private Periodo periodo;
+    private Asignatura asignatura;
+    private Curso curso;
+    private List<String> estudianteIds;
+
+    @BeforeEach
+    void preparar() {
+        periodo = new Periodo();
+        periodo.setNombre(prefijo);
+        periodo = periodoRepository.save(periodo);
+
+        asignatura = new Asignatura();
+        asignatura.setCodigo(prefijo);
+        asignatura.setNombre(prefijo);
+        asignatura = asignaturaRepository.save(asignatura);
+
+        curso = new Curso();
+        curso.setAsignatura(asignatura);
+        curso.setPeriodo(periodo);
+        curso.setNombreGrupo(prefijo);
+        curso.setCupo(CUPO);
+        curso = cursoRepository.save(curso);
+
+        List<Estudiante> estudiantes = new ArrayList<>(SOLICITUDES);
+        for (int i = 0; i < SOLICITUDES; i++) {
+            Estudiante estudiante = new Estudiante();
+            estudiante.setCodigoEstudiante(prefijo + "-" + i);
+            estudiantes.add(estudiante);
+        }
+        estudianteIds = estudianteRepository.saveAll(estudiantes).stream().map(Estudiante::getId).toList();
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM inscripciones WHERE curso_id = ?", curso.getId());
+        jdbcTemplate.update("DELETE FROM cursos WHERE id = ?", curso.getId());
+        jdbcTemplate.update("DELETE FROM estudiantes WHERE codigo_estudiante LIKE ?", prefijo + "-%");
+        jdbcTemplate.update("DELETE FROM asignaturas WHERE id = ?", asignatura.getId());
+        jdbcTemplate.update("DELETE FROM periodos WHERE id = ?", periodo.getId());
+    }
+
+    @Test
+    void noSuperaElCupoConSolicitudesSimultaneas() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(SOLICITUDES);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger aceptadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+
+        List<Future<?>> resultados = new ArrayList<>(SOLICITUDES);
+        for (String estudianteId : estudianteIds) {
+            resultados.add(hilos.submit(() -> {
+                salida.await();
+                try {
+                    inscripcionService.createInscripcion(
+                            new CreateInscripcionRequest(curso.getId(), estudianteId, null, null),
+                            new MockHttpServletRequest("POST", "/api/inscripciones"));
+                    aceptadas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> resultado : resultados) {
+            resultado.get(2, TimeUnit.MINUTES);
+        }
+        hilos.shutdown();
+
+        Integer inscritosEnTabla = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inscripciones WHERE curso_id = ? AND estado = 'inscrito' AND deleted_at IS NULL",
+                Integer.class, curso.getId());
+        Integer contador = jdbcTemplate.queryForObject(
+                "SELECT inscritos FROM cursos WHERE id = ?", Integer.class, curso.getId());
+
+        assertEquals(CUPO, aceptadas.get());
+        assertEquals(SOLICITUDES - CUPO, rechazadas.get());
+        assertEquals(CUPO, inscritosEnTabla);
+        assertEquals(CUPO, contador);
+    }
+}